@@ -0,0 +1,13 @@
+package com.sgdis.backend.auditory.application.dto;
+
+import com.sgdis.backend.auditory.domain.AuditActionType;
+import com.sgdis.backend.auditory.domain.AuditEntityType;
+
+/**
+ * Cantidad de acciones auditadas por tipo de acción y tipo de entidad.
+ */
+public record AuditActionCountResponse(
+        AuditActionType actionType,
+        AuditEntityType entityType,
+        long count
+) {}
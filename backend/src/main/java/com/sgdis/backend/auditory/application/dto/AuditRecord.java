@@ -0,0 +1,24 @@
+package com.sgdis.backend.auditory.application.dto;
+
+import com.sgdis.backend.auditory.domain.AuditActionType;
+import com.sgdis.backend.auditory.domain.AuditEntityType;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Acción auditada pendiente de escribir. La institución y la regional son las del usuario
+ * en el momento de la acción, aunque cambien antes de que se escriba el lote.
+ */
+public record AuditRecord(
+        String action,
+        Long performerId,
+        Long institutionId,
+        Long regionalId,
+        LocalDateTime date,
+        AuditActionType actionType,
+        AuditEntityType entityType,
+        Long entityId,
+        Long inventoryId,
+        Set<String> changedFields
+) {}
@@ -0,0 +1,12 @@
+package com.sgdis.backend.auditory.application.dto;
+
+import java.time.LocalDateTime;
+
+public record AuditoryArchiveResponse(
+        LocalDateTime periodStart,
+        LocalDateTime periodEnd,
+        String fileName,
+        long rowCount,
+        LocalDateTime archivedAt
+) {
+}
@@ -1,5 +1,7 @@
 package com.sgdis.backend.auditory.application.dto;
 
+import com.sgdis.backend.auditory.domain.AuditActionType;
+import com.sgdis.backend.auditory.domain.AuditEntityType;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,6 +9,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 @Data
 @Builder
@@ -24,6 +27,21 @@ public class AuditoryResponse {
     @Schema(description = "Date and time of the action")
     private LocalDateTime date;
 
+    @Schema(description = "Action type")
+    private AuditActionType actionType;
+
+    @Schema(description = "Affected entity type")
+    private AuditEntityType entityType;
+
+    @Schema(description = "Affected entity ID")
+    private Long entityId;
+
+    @Schema(description = "Affected inventory ID")
+    private Long inventoryId;
+
+    @Schema(description = "Fields changed by an update")
+    private Set<String> changedFields;
+
     @Schema(description = "Performer user ID")
     private Long performerId;
 
@@ -0,0 +1,37 @@
+package com.sgdis.backend.auditory.application.dto;
+
+import com.sgdis.backend.auditory.domain.AuditActionType;
+import com.sgdis.backend.auditory.domain.AuditEntityType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros de la búsqueda de auditoría. Los valores nulos no filtran.
+ *
+ * @param entityId ID de la entidad afectada (historial por entidad, junto con entityType)
+ * @param from fecha inicial (inclusive)
+ * @param to fecha final (exclusiva)
+ * @param query texto a buscar dentro de la acción, sin distinguir mayúsculas
+ */
+public record AuditorySearchCriteria(
+        Long regionalId,
+        Long institutionId,
+        Long performerId,
+        AuditActionType actionType,
+        AuditEntityType entityType,
+        Long entityId,
+        Long inventoryId,
+        LocalDateTime from,
+        LocalDateTime to,
+        String query
+) {
+    public AuditorySearchCriteria withRegionalId(Long regionalId) {
+        return new AuditorySearchCriteria(regionalId, institutionId, performerId, actionType, entityType,
+                entityId, inventoryId, from, to, query);
+    }
+
+    public AuditorySearchCriteria withInstitutionId(Long institutionId) {
+        return new AuditorySearchCriteria(regionalId, institutionId, performerId, actionType, entityType,
+                entityId, inventoryId, from, to, query);
+    }
+}
@@ -0,0 +1,33 @@
+package com.sgdis.backend.auditory.application.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Keyset-paginated auditory search response")
+public class AuditorySearchResponse {
+
+    @Schema(description = "Auditory records, newest first")
+    private List<AuditoryResponse> auditories;
+
+    @Schema(description = "Whether there are more records after this page")
+    private boolean hasMore;
+
+    @Schema(description = "Cursor for the next page: pass as afterDate (null when there are no more records)")
+    private LocalDateTime nextDate;
+
+    @Schema(description = "Cursor for the next page: pass as afterId (null when there are no more records)")
+    private Long nextId;
+
+    @Schema(description = "Start of the live range: older records were moved to the archive files (null if nothing was archived)")
+    private LocalDateTime archivedBefore;
+}
@@ -1,5 +1,25 @@
 package com.sgdis.backend.auditory.application.dto;
 
+import com.sgdis.backend.auditory.domain.AuditActionType;
+import com.sgdis.backend.auditory.domain.AuditEntityType;
+import lombok.Builder;
+
+import java.util.Set;
+
+/**
+ * Acción a auditar: el mensaje legible junto con los campos tipados que permiten filtrar y agregar
+ * por columnas indexadas.
+ *
+ * @param action mensaje legible de la acción
+ * @param inventoryId inventario afectado, si aplica
+ * @param changedFields campos modificados (solo en actualizaciones)
+ */
+@Builder
 public record RecordActionRequest(
-        String action
+        String action,
+        AuditActionType actionType,
+        AuditEntityType entityType,
+        Long entityId,
+        Long inventoryId,
+        Set<String> changedFields
 ) {}
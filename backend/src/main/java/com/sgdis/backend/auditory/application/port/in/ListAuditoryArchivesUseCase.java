@@ -0,0 +1,9 @@
+package com.sgdis.backend.auditory.application.port.in;
+
+import com.sgdis.backend.auditory.application.dto.AuditoryArchiveResponse;
+
+import java.util.List;
+
+public interface ListAuditoryArchivesUseCase {
+    List<AuditoryArchiveResponse> listArchives();
+}
@@ -0,0 +1,14 @@
+package com.sgdis.backend.auditory.application.port.in;
+
+import com.sgdis.backend.auditory.application.dto.AuditActionCountResponse;
+import com.sgdis.backend.auditory.application.dto.AuditorySearchCriteria;
+import com.sgdis.backend.auditory.application.dto.AuditorySearchResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SearchAuditoryUseCase {
+    AuditorySearchResponse searchAuditories(AuditorySearchCriteria criteria, LocalDateTime afterDate, Long afterId, int size);
+
+    List<AuditActionCountResponse> countActions(AuditorySearchCriteria criteria);
+}
@@ -0,0 +1,214 @@
+package com.sgdis.backend.auditory.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgdis.backend.auditory.application.dto.AuditRecord;
+import com.sgdis.backend.auditory.infrastructure.repository.JdbcAuditoryRepository;
+import com.sgdis.backend.auditory.infrastructure.repository.JdbcAuditoryRepository.PerformerScope;
+import com.sgdis.backend.utils.ExecutorUtils;
+import com.sgdis.backend.utils.TransactionUtils;
+import com.sgdis.backend.web.dto.CounterDelta;
+import com.sgdis.backend.web.service.DashboardCounterService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escritor asíncrono de la auditoría.
+ * Las acciones se encolan en un buffer acotado tras el commit de la transacción que las origina
+ * y un hilo propio las escribe por lotes con JDBC batch, junto con el contador de acciones de los dashboards.
+ * Si el buffer está lleno, la acción se escribe en el hilo que la registra.
+ * Si la escritura falla (o al apagar la aplicación con la base de datos caída), el lote se guarda en un
+ * archivo local que se vuelve a procesar al iniciar: la auditoría se escribe al menos una vez.
+ * El archivo se ubica en el directorio de datos de la aplicación ({@code app.data-directory}) salvo que
+ * se configure {@code auditory.writer.spool-file}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuditLogWriter {
+
+    private final JdbcAuditoryRepository jdbcAuditoryRepository;
+    private final DashboardCounterService dashboardCounterService;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${auditory.writer.buffer-capacity:10000}")
+    private int bufferCapacity;
+
+    @Value("${auditory.writer.batch-size:500}")
+    private int batchSize;
+
+    @Value("${auditory.writer.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${auditory.writer.spool-file:${app.data-directory:${user.home}/sgdis-data}/audit-spool.jsonl}")
+    private Path spoolFile;
+
+    private TransactionTemplate transactionTemplate;
+    private BlockingQueue<AuditRecord> buffer;
+    private ThreadPoolTaskExecutor writerThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() throws IOException {
+        // Ruta absoluta: el archivo no debe depender del directorio desde el que se inicia la aplicación
+        spoolFile = spoolFile.toAbsolutePath().normalize();
+        Files.createDirectories(spoolFile.getParent());
+        // Transacción propia: offer() se ejecuta en afterCommit, con los recursos de la transacción
+        // de negocio todavía asociados al hilo; con REQUIRED la escritura se uniría a ella y nunca se confirmaría
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        running = true;
+        writerThread = ExecutorUtils.fixedPool("audit-writer-", 1);
+        writerThread.setWaitForTasksToCompleteOnShutdown(true);
+        writerThread.setAwaitTerminationSeconds(30);
+        writerThread.execute(this::runLoop);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        writerThread.shutdown();
+        // Lo que quedó en el buffer se escribe ahora (o se guarda en el archivo local)
+        List<AuditRecord> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        for (int start = 0; start < remaining.size(); start += batchSize) {
+            flush(remaining.subList(start, Math.min(start + batchSize, remaining.size())));
+        }
+    }
+
+    /**
+     * Encola una acción. Si hay una transacción activa se encola tras su commit,
+     * de modo que las acciones de una transacción revertida no se auditan.
+     */
+    public void enqueue(AuditRecord record) {
+        TransactionUtils.afterCommit(() -> offer(record));
+    }
+
+    private void offer(AuditRecord record) {
+        if (!running || !buffer.offer(record)) {
+            log.warn("Buffer de auditoría lleno o detenido: la acción se escribe de forma síncrona");
+            flush(List.of(record));
+        }
+    }
+
+    private void runLoop() {
+        replaySpool();
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                AuditRecord first = buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Escribe un lote; si falla, lo guarda en el archivo local.
+     */
+    private void flush(List<AuditRecord> batch) {
+        try {
+            write(batch);
+        } catch (Exception e) {
+            log.error("Error al escribir {} registro(s) de auditoría, se guardan en {}: {}",
+                    batch.size(), spoolFile, e.getMessage(), e);
+            spool(batch);
+        }
+    }
+
+    private void write(List<AuditRecord> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<Long> existingPerformerIds = jdbcAuditoryRepository.findExistingUserIds(batch.stream()
+                    .map(AuditRecord::performerId)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .toList());
+            jdbcAuditoryRepository.insertAll(batch, existingPerformerIds);
+
+            // Un delta por institución/regional en lugar de uno por acción
+            Map<PerformerScope, Integer> actionsByScope = new HashMap<>();
+            for (AuditRecord record : batch) {
+                actionsByScope.merge(new PerformerScope(record.institutionId(), record.regionalId()), 1, Integer::sum);
+            }
+            actionsByScope.forEach((scope, actions) -> dashboardCounterService.applyToInstitution(
+                    scope.institutionId(), scope.regionalId(),
+                    CounterDelta.builder().totalAuditActions(actions).build()));
+        });
+    }
+
+    private synchronized void spool(List<AuditRecord> batch) {
+        try (BufferedWriter writer = Files.newBufferedWriter(spoolFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (AuditRecord record : batch) {
+                writer.write(objectMapper.writeValueAsString(record));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            log.error("No se pudieron guardar {} registro(s) de auditoría en {}: {}", batch.size(), spoolFile, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Procesa los registros guardados en el archivo local por fallos anteriores.
+     * El archivo se renombra antes de procesarlo para que los nuevos fallos no se mezclen con él.
+     */
+    private void replaySpool() {
+        Path replayFile = spoolFile.resolveSibling(spoolFile.getFileName() + ".replay");
+        try {
+            if (!Files.exists(replayFile)) {
+                if (!Files.exists(spoolFile)) {
+                    return;
+                }
+                Files.move(spoolFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+            }
+            List<AuditRecord> records = new ArrayList<>();
+            for (String line : Files.readAllLines(replayFile, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    records.add(objectMapper.readValue(line, AuditRecord.class));
+                }
+            }
+            for (int start = 0; start < records.size(); start += batchSize) {
+                flush(records.subList(start, Math.min(start + batchSize, records.size())));
+            }
+            Files.delete(replayFile);
+            log.info("Auditoría: {} registro(s) pendiente(s) recuperado(s) de {}", records.size(), replayFile);
+        } catch (IOException e) {
+            log.error("Error al procesar los registros de auditoría pendientes de {}: {}", replayFile, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.sgdis.backend.auditory.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgdis.backend.auditory.application.dto.AuditoryArchiveResponse;
+import com.sgdis.backend.auditory.application.port.in.ListAuditoryArchivesUseCase;
+import com.sgdis.backend.auditory.infrastructure.entity.AuditoryArchiveEntity;
+import com.sgdis.backend.auditory.infrastructure.repository.JdbcAuditoryRepository;
+import com.sgdis.backend.auditory.infrastructure.repository.JdbcAuditoryRepository.PerformerScope;
+import com.sgdis.backend.auditory.infrastructure.repository.SpringDataAuditoryArchiveRepository;
+import com.sgdis.backend.web.dto.CounterDelta;
+import com.sgdis.backend.web.service.DashboardCounterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Archivado mensual de la auditoría.
+ * {@code auditories} solo conserva los últimos meses configurados (el rango vivo, sobre el que consulta
+ * {@link AuditoryService}); cada mes cerrado anterior se exporta a un archivo JSON Lines comprimido
+ * en el directorio configurado, se registra en {@code auditory_archives} y se elimina de la tabla por lotes,
+ * descontando los registros de los contadores de los dashboards.
+ * Solo se eliminan los IDs efectivamente exportados: un registro del mes que se confirme después de la
+ * exportación (por ejemplo, al reprocesar el spool de auditoría) queda en la tabla para el próximo archivo.
+ * Si la eliminación se interrumpe, la próxima ejecución exporta lo que quedó a un archivo nuevo:
+ * un registro puede aparecer en dos archivos, pero nunca se elimina sin haberse exportado.
+ * Deshabilitado por defecto ({@code auditory.archive.keep-months=0}).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuditoryArchiveService implements ListAuditoryArchivesUseCase {
+
+    private static final DateTimeFormatter FILE_MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final JdbcAuditoryRepository jdbcAuditoryRepository;
+    private final SpringDataAuditoryArchiveRepository archiveRepository;
+    private final DashboardCounterService dashboardCounterService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${auditory.archive.keep-months:0}")
+    private int keepMonths;
+
+    @Value("${auditory.archive.directory:audit-archive}")
+    private Path directory;
+
+    @Value("${auditory.archive.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Archiva, del más antiguo al más reciente, los meses cerrados que quedaron fuera del rango vivo.
+     */
+    @Scheduled(cron = "${auditory.archive.cron:0 30 3 * * *}")
+    public void archiveClosedMonths() {
+        if (keepMonths <= 0) {
+            return;
+        }
+        LocalDateTime liveFrom = LocalDate.now().withDayOfMonth(1).minusMonths(keepMonths).atStartOfDay();
+        LocalDateTime oldest;
+        while ((oldest = jdbcAuditoryRepository.findOldestDate()) != null && oldest.isBefore(liveFrom)) {
+            LocalDateTime periodStart = oldest.toLocalDate().withDayOfMonth(1).atStartOfDay();
+            try {
+                archiveMonth(periodStart, periodStart.plusMonths(1));
+            } catch (Exception e) {
+                // El mes se vuelve a intentar en la próxima ejecución
+                log.error("Error al archivar la auditoría de {}: {}", periodStart.format(FILE_MONTH), e.getMessage(), e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Archivos generados, del mes más reciente al más antiguo.
+     */
+    @Override
+    public List<AuditoryArchiveResponse> listArchives() {
+        return archiveRepository.findAllByOrderByPeriodStartDesc().stream()
+                .map(archive -> new AuditoryArchiveResponse(
+                        archive.getPeriodStart(),
+                        archive.getPeriodEnd(),
+                        archive.getFileName(),
+                        archive.getRowCount(),
+                        archive.getArchivedAt()))
+                .toList();
+    }
+
+    /**
+     * Inicio del rango vivo: los registros anteriores solo están en los archivos (null si no se archivó nada).
+     */
+    public LocalDateTime getArchivedBefore() {
+        return archiveRepository.findArchivedBefore();
+    }
+
+    private void archiveMonth(LocalDateTime periodStart, LocalDateTime periodEnd) throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        Files.createDirectories(directory);
+        String fileName = String.format("auditories-%s-%s.jsonl.gz", periodStart.format(FILE_MONTH), now.format(FILE_TIMESTAMP));
+        Path target = directory.resolve(fileName);
+        Path tempFile = directory.resolve(fileName + ".tmp");
+
+        ExportResult export;
+        try {
+            export = exportRange(periodStart, periodEnd, tempFile);
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+
+        archiveRepository.save(AuditoryArchiveEntity.builder()
+                .periodStart(periodStart)
+                .periodEnd(periodEnd)
+                .fileName(fileName)
+                .rowCount(export.rowCount())
+                .archivedAt(now)
+                .build());
+
+        long[] exportedIds = export.ids();
+        Arrays.sort(exportedIds);
+        long deleted = 0;
+        for (int from = 0; from < exportedIds.length; from += batchSize) {
+            List<Long> batch = Arrays.stream(exportedIds, from, Math.min(from + batchSize, exportedIds.length)).boxed().toList();
+            Integer result = transactionTemplate.execute(status -> deleteBatch(batch));
+            deleted += result != null ? result : 0;
+        }
+
+        log.info("Auditoría de {} archivada en {}: {} registro(s) exportado(s), {} eliminado(s)",
+                periodStart.format(FILE_MONTH), target, export.rowCount(), deleted);
+    }
+
+    private ExportResult exportRange(LocalDateTime from, LocalDateTime to, Path file) throws IOException {
+        LongStream.Builder ids = LongStream.builder();
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8))) {
+            // La lectura por cursor requiere una transacción en PostgreSQL
+            transactionTemplate.executeWithoutResult(status -> jdbcAuditoryRepository.streamRange(from, to, rs -> {
+                Timestamp date = rs.getTimestamp("date");
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("id", rs.getLong("id"));
+                row.put("action", rs.getString("action"));
+                row.put("date", date != null ? date.toLocalDateTime().toString() : null);
+                row.put("performerId", rs.getObject("performer_id", Long.class));
+                row.put("institutionId", rs.getObject("institution_id", Long.class));
+                row.put("regionalId", rs.getObject("regional_id", Long.class));
+                row.put("actionType", rs.getString("action_type"));
+                row.put("entityType", rs.getString("entity_type"));
+                row.put("entityId", rs.getObject("entity_id", Long.class));
+                row.put("inventoryId", rs.getObject("inventory_id", Long.class));
+                row.put("changedFields", rs.getString("changed_fields"));
+                try {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                ids.add(rs.getLong("id"));
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new ExportResult(ids.build().toArray());
+    }
+
+    private int deleteBatch(List<Long> ids) {
+        Map<PerformerScope, Integer> deletedByScope = jdbcAuditoryRepository.deleteArchivedBatch(ids);
+        deletedByScope.forEach((scope, deleted) -> dashboardCounterService.applyToInstitution(
+                scope.institutionId(), scope.regionalId(),
+                CounterDelta.builder().totalAuditActions(-deleted).build()));
+        return deletedByScope.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private record ExportResult(long[] ids) {
+
+        long rowCount() {
+            return ids.length;
+        }
+    }
+}
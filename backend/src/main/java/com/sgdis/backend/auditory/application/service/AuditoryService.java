@@ -1,14 +1,23 @@
 package com.sgdis.backend.auditory.application.service;
 
+import com.sgdis.backend.auditory.application.dto.AuditActionCountResponse;
+import com.sgdis.backend.auditory.application.dto.AuditRecord;
 import com.sgdis.backend.auditory.application.dto.AuditoryResponse;
+import com.sgdis.backend.auditory.application.dto.AuditorySearchCriteria;
+import com.sgdis.backend.auditory.application.dto.AuditorySearchResponse;
 import com.sgdis.backend.auditory.application.dto.PagedAuditoryResponse;
 import com.sgdis.backend.auditory.application.dto.RecordActionRequest;
 import com.sgdis.backend.auditory.application.port.in.ListAuditoryUseCase;
 import com.sgdis.backend.auditory.application.port.in.RecordActionUseCase;
+import com.sgdis.backend.auditory.application.port.in.SearchAuditoryUseCase;
 import com.sgdis.backend.auditory.infrastructure.entity.AuditoryEntity;
+import com.sgdis.backend.auditory.infrastructure.repository.JdbcAuditoryRepository;
+import com.sgdis.backend.auditory.infrastructure.repository.SpringDataAuditoryArchiveRepository;
 import com.sgdis.backend.auditory.infrastructure.repository.SpringDataAuditoryRepository;
+import com.sgdis.backend.auth.application.dto.CurrentUser;
 import com.sgdis.backend.auth.application.service.AuthService;
-import com.sgdis.backend.user.infrastructure.entity.UserEntity;
+import com.sgdis.backend.exception.BadRequestException;
+import com.sgdis.backend.exception.DomainValidationException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -21,23 +30,35 @@ import com.sgdis.backend.utils.DateTimeUtils;
 
 @Service
 @RequiredArgsConstructor
-public class AuditoryService implements RecordActionUseCase, ListAuditoryUseCase {
+public class AuditoryService implements RecordActionUseCase, ListAuditoryUseCase, SearchAuditoryUseCase {
+
+    private static final int MAX_SEARCH_PAGE_SIZE = 200;
 
     private final SpringDataAuditoryRepository springDataAuditoryRepository;
     private final AuthService authService;
+    private final AuditLogWriter auditLogWriter;
+    private final JdbcAuditoryRepository jdbcAuditoryRepository;
+    private final SpringDataAuditoryArchiveRepository archiveRepository;
 
+    /**
+     * Registra la acción del usuario actual con su institución y regional en ese momento.
+     * La escritura (y el contador de los dashboards) la hace {@link AuditLogWriter} en segundo plano.
+     */
     @Override
     public void recordAction(RecordActionRequest recordActionRequest) {
-        UserEntity user = authService.getCurrentUser();
-        springDataAuditoryRepository.save(
-                AuditoryEntity.builder()
-                        .action(recordActionRequest.action())
-                        .performer(user)
-                        .institution(user.getInstitution())
-                        .date(DateTimeUtils.now())
-                        .regional(user.getInstitution() != null ? user.getInstitution().getRegional() : null)
-                        .build()
-        );
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
+        auditLogWriter.enqueue(new AuditRecord(
+                recordActionRequest.action(),
+                currentUser.id(),
+                currentUser.institutionId(),
+                currentUser.regionalId(),
+                DateTimeUtils.now(),
+                recordActionRequest.actionType(),
+                recordActionRequest.entityType(),
+                recordActionRequest.entityId(),
+                recordActionRequest.inventoryId(),
+                recordActionRequest.changedFields()
+        ));
     }
 
     @Override
@@ -126,19 +147,79 @@ public class AuditoryService implements RecordActionUseCase, ListAuditoryUseCase
     }
 
     public PagedAuditoryResponse listAuditoriesByInstitution(Pageable pageable) {
-        UserEntity currentUser = authService.getCurrentUser();
-        if (currentUser.getInstitution() == null) {
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
+        if (currentUser.institutionId() == null) {
             throw new RuntimeException("User institution not found");
         }
-        Long institutionId = currentUser.getInstitution().getId();
+        Long institutionId = currentUser.institutionId();
         return listAuditoriesByInstitution(institutionId, pageable);
     }
 
+    /**
+     * Búsqueda de auditoría paginada por keyset. El alcance depende del rol del usuario actual:
+     * el superadmin consulta todo, el admin regional su regional y el admin de institución
+     * y el almacenista su institución (los filtros indicados se combinan con ese alcance).
+     * Solo consulta el rango vivo; la respuesta indica desde cuándo los registros están archivados.
+     */
+    @Override
+    public AuditorySearchResponse searchAuditories(AuditorySearchCriteria criteria, LocalDateTime afterDate, Long afterId, int size) {
+        if ((afterDate == null) != (afterId == null)) {
+            throw new BadRequestException("afterDate y afterId deben indicarse juntos");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+
+        List<AuditoryResponse> rows = jdbcAuditoryRepository.search(scoped(criteria), afterDate, afterId, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<AuditoryResponse> page = hasMore ? rows.subList(0, pageSize) : rows;
+        AuditoryResponse last = hasMore ? page.get(page.size() - 1) : null;
+
+        return AuditorySearchResponse.builder()
+                .auditories(page)
+                .hasMore(hasMore)
+                .nextDate(last != null ? last.getDate() : null)
+                .nextId(last != null ? last.getId() : null)
+                .archivedBefore(archiveRepository.findArchivedBefore())
+                .build();
+    }
+
+    /**
+     * Cantidad de acciones por tipo de acción y de entidad, con el mismo alcance por rol que la búsqueda.
+     */
+    @Override
+    public List<AuditActionCountResponse> countActions(AuditorySearchCriteria criteria) {
+        return jdbcAuditoryRepository.countByType(scoped(criteria));
+    }
+
+    private AuditorySearchCriteria scoped(AuditorySearchCriteria criteria) {
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
+        return switch (currentUser.role()) {
+            case SUPERADMIN -> criteria;
+            case ADMIN_REGIONAL -> {
+                if (currentUser.regionalId() == null) {
+                    throw new DomainValidationException("No cuentas con una regional asignada para consultar la auditoría");
+                }
+                yield criteria.withRegionalId(currentUser.regionalId());
+            }
+            case ADMIN_INSTITUTION, WAREHOUSE -> {
+                if (currentUser.institutionId() == null) {
+                    throw new DomainValidationException("No cuentas con una institución asignada para consultar la auditoría");
+                }
+                yield criteria.withInstitutionId(currentUser.institutionId());
+            }
+            default -> throw new DomainValidationException("No cuentas con permisos para consultar la auditoría");
+        };
+    }
+
     private AuditoryResponse toResponse(AuditoryEntity entity) {
         return AuditoryResponse.builder()
                 .id(entity.getId())
                 .action(entity.getAction())
                 .date(entity.getDate())
+                .actionType(entity.getActionType())
+                .entityType(entity.getEntityType())
+                .entityId(entity.getEntityId())
+                .inventoryId(entity.getInventoryId())
+                .changedFields(JdbcAuditoryRepository.splitChangedFields(entity.getChangedFields()))
                 .performerId(entity.getPerformer() != null ? entity.getPerformer().getId() : null)
                 .performerName(entity.getPerformer() != null ? entity.getPerformer().getFullName() : null)
                 .performerEmail(entity.getPerformer() != null ? entity.getPerformer().getEmail() : null)
@@ -0,0 +1,48 @@
+package com.sgdis.backend.auditory.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Crea en PostgreSQL el índice trigram para la búsqueda de texto en las acciones de auditoría
+ * ({@code LOWER(action) LIKE '%texto%'}). Hibernate no puede declararlo con {@code @Index}.
+ * Si la extensión pg_trgm no está disponible, la búsqueda sigue funcionando sin el índice.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditorySearchIndexInitializer implements ApplicationRunner {
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!isPostgres()) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_auditories_action_trgm " +
+                    "ON auditories USING gin (LOWER(action) gin_trgm_ops)");
+        } catch (Exception e) {
+            log.warn("No se pudo crear el índice de búsqueda de auditoría (pg_trgm): {}", e.getMessage());
+        }
+    }
+
+    private boolean isPostgres() {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.sgdis.backend.auditory.domain;
+
+public enum AuditActionType {
+    CREATE,
+    UPDATE,
+    DELETE,
+    ASSIGN,
+    UNASSIGN,
+    RESIGN,
+    REQUEST,
+    APPROVE,
+    REJECT,
+    LOAN,
+    RETURN,
+    BULK_IMPORT,
+    PASSWORD_RESET,
+    UPLOAD_FORMAT,
+}
@@ -0,0 +1,11 @@
+package com.sgdis.backend.auditory.domain;
+
+public enum AuditEntityType {
+    USER,
+    INSTITUTION,
+    INVENTORY,
+    ITEM,
+    LOAN,
+    TRANSFER,
+    CANCELLATION,
+}
@@ -0,0 +1,43 @@
+package com.sgdis.backend.auditory.infrastructure.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Archivo comprimido con los registros de un mes de auditoría retirados de {@code auditories}.
+ * La fila se guarda cuando el archivo ya está completo, antes de eliminar los registros exportados.
+ * Un mismo mes puede tener más de un archivo si la eliminación se interrumpió o llegaron registros tardíos.
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "auditory_archives")
+public class AuditoryArchiveEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Inicio (incluido) y fin (excluido) del mes archivado
+    @Column(nullable = false)
+    private LocalDateTime periodStart;
+
+    @Column(nullable = false)
+    private LocalDateTime periodEnd;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    @Column(nullable = false)
+    private long rowCount;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -1,5 +1,7 @@
 package com.sgdis.backend.auditory.infrastructure.entity;
 
+import com.sgdis.backend.auditory.domain.AuditActionType;
+import com.sgdis.backend.auditory.domain.AuditEntityType;
 import com.sgdis.backend.data.regional.entity.RegionalEntity;
 import com.sgdis.backend.institution.infrastructure.entity.InstitutionEntity;
 import com.sgdis.backend.user.infrastructure.entity.UserEntity;
@@ -17,7 +19,16 @@ import java.util.List;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "auditories")
+@Table(name = "auditories", indexes = {
+        @Index(name = "idx_auditories_date_id", columnList = "date, id"),
+        @Index(name = "idx_auditories_regional_date_id", columnList = "regional_id, date, id"),
+        @Index(name = "idx_auditories_institution_date_id", columnList = "institution_id, date, id"),
+        @Index(name = "idx_auditories_performer_date_id", columnList = "performer_id, date, id"),
+        @Index(name = "idx_auditories_entity_date_id", columnList = "entity_type, entity_id, date, id"),
+        @Index(name = "idx_auditories_inventory_date_id", columnList = "inventory_id, date, id"),
+        @Index(name = "idx_auditories_action_type_date", columnList = "action_type, date"),
+        @Index(name = "idx_auditories_institution_action_type_date", columnList = "institution_id, action_type, date")
+})
 public class AuditoryEntity {
 
     @Id
@@ -27,15 +38,31 @@ public class AuditoryEntity {
     private String action;
     private LocalDateTime date;
 
-    @ManyToOne
+    @Enumerated(EnumType.STRING)
+    @Column(length = 30)
+    private AuditActionType actionType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 30)
+    private AuditEntityType entityType;
+
+    private Long entityId;
+
+    private Long inventoryId;
+
+    // Campos modificados separados por coma (solo en actualizaciones)
+    @Column(length = 500)
+    private String changedFields;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "performer_id")
     private UserEntity performer;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "regional_id")
     private RegionalEntity regional;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "institution_id")
     private InstitutionEntity institution;
 }
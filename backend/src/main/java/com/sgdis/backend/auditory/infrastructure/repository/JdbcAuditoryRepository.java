@@ -0,0 +1,273 @@
+package com.sgdis.backend.auditory.infrastructure.repository;
+
+import com.sgdis.backend.auditory.application.dto.AuditActionCountResponse;
+import com.sgdis.backend.auditory.application.dto.AuditRecord;
+import com.sgdis.backend.auditory.application.dto.AuditorySearchCriteria;
+import com.sgdis.backend.auditory.application.dto.AuditoryResponse;
+import com.sgdis.backend.auditory.domain.AuditActionType;
+import com.sgdis.backend.auditory.domain.AuditEntityType;
+import com.sgdis.backend.auditory.infrastructure.entity.AuditoryEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Escritura por lotes de la auditoría con JDBC batch.
+ * Los usuarios que ya no existen se detectan con una sola consulta por lote, sin cargar entidades.
+ * También resuelve la búsqueda paginada por keyset, que devuelve directamente los DTO de respuesta,
+ * y la lectura y eliminación por rangos de fechas del archivado mensual.
+ * La tabla y columnas corresponden al mapeo de {@link AuditoryEntity}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JdbcAuditoryRepository {
+
+    private static final String SELECT_EXISTING_USER_IDS = "SELECT id FROM users WHERE id IN (%s)";
+
+    private static final String INSERT_AUDITORY =
+            "INSERT INTO auditories (action, date, performer_id, institution_id, regional_id, " +
+            "action_type, entity_type, entity_id, inventory_id, changed_fields) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int[] INSERT_TYPES = {Types.VARCHAR, Types.TIMESTAMP, Types.BIGINT, Types.BIGINT, Types.BIGINT,
+            Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.BIGINT, Types.VARCHAR};
+
+    private static final int MAX_CHANGED_FIELDS_LENGTH = 500;
+
+    private static final String SEARCH_SELECT =
+            "SELECT a.id, a.action, a.date, a.action_type, a.entity_type, a.entity_id, a.inventory_id, a.changed_fields, " +
+            "a.performer_id, u.full_name, u.email, u.img_url, " +
+            "a.institution_id, i.name AS institution_name, a.regional_id, r.name AS regional_name " +
+            "FROM auditories a " +
+            "LEFT JOIN users u ON u.id = a.performer_id " +
+            "LEFT JOIN institutions i ON i.id = a.institution_id " +
+            "LEFT JOIN regionals r ON r.id = a.regional_id";
+
+    private static final String SELECT_ARCHIVE_ROWS =
+            "SELECT id, action, date, performer_id, institution_id, regional_id, " +
+            "action_type, entity_type, entity_id, inventory_id, changed_fields " +
+            "FROM auditories WHERE date >= ? AND date < ? ORDER BY date, id";
+
+    private static final String SELECT_ARCHIVED_BATCH = "SELECT id, institution_id, regional_id FROM auditories WHERE id IN (%s)";
+
+    private static final String DELETE_BY_IDS = "DELETE FROM auditories WHERE id IN (%s)";
+
+    private static final int ARCHIVE_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * IDs de los usuarios indicados que todavía existen.
+     */
+    public Set<Long> findExistingUserIds(Collection<Long> userIds) {
+        Set<Long> existing = new HashSet<>();
+        if (userIds.isEmpty()) {
+            return existing;
+        }
+        String sql = String.format(SELECT_EXISTING_USER_IDS, String.join(", ", Collections.nCopies(userIds.size(), "?")));
+        jdbcTemplate.query(sql, rs -> {
+            existing.add(rs.getLong(1));
+        }, userIds.toArray());
+        return existing;
+    }
+
+    /**
+     * Inserta los registros en un solo batch con la institución y la regional guardadas en cada uno.
+     * Si el usuario ya no existe, el registro se guarda sin él.
+     */
+    public void insertAll(List<AuditRecord> records, Set<Long> existingPerformerIds) {
+        if (records.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(records.size());
+        for (AuditRecord record : records) {
+            rows.add(new Object[]{
+                    record.action(),
+                    Timestamp.valueOf(record.date()),
+                    existingPerformerIds.contains(record.performerId()) ? record.performerId() : null,
+                    record.institutionId(),
+                    record.regionalId(),
+                    record.actionType() != null ? record.actionType().name() : null,
+                    record.entityType() != null ? record.entityType().name() : null,
+                    record.entityId(),
+                    record.inventoryId(),
+                    joinChangedFields(record.changedFields())
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_AUDITORY, rows, INSERT_TYPES);
+    }
+
+    /**
+     * Búsqueda por keyset sobre (date, id), del más reciente al más antiguo.
+     * Solo se agregan los filtros presentes, para que cada combinación use su índice.
+     *
+     * @param afterDate fecha del último registro de la página anterior (null para la primera página)
+     * @param afterId ID del último registro de la página anterior
+     */
+    public List<AuditoryResponse> search(AuditorySearchCriteria criteria, LocalDateTime afterDate, Long afterId, int limit) {
+        StringBuilder sql = new StringBuilder(SEARCH_SELECT);
+        List<Object> args = new ArrayList<>();
+        appendFilters(criteria, sql, args);
+        if (afterDate != null) {
+            sql.append(" AND (a.date < ? OR (a.date = ? AND a.id < ?))");
+            Timestamp after = Timestamp.valueOf(afterDate);
+            args.add(after);
+            args.add(after);
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY a.date DESC, a.id DESC LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> AuditoryResponse.builder()
+                .id(rs.getLong("id"))
+                .action(rs.getString("action"))
+                .date(rs.getTimestamp("date") != null ? rs.getTimestamp("date").toLocalDateTime() : null)
+                .actionType(enumOf(AuditActionType.class, rs.getString("action_type")))
+                .entityType(enumOf(AuditEntityType.class, rs.getString("entity_type")))
+                .entityId(rs.getObject("entity_id", Long.class))
+                .inventoryId(rs.getObject("inventory_id", Long.class))
+                .changedFields(splitChangedFields(rs.getString("changed_fields")))
+                .performerId(rs.getObject("performer_id", Long.class))
+                .performerName(rs.getString("full_name"))
+                .performerEmail(rs.getString("email"))
+                .performerImgUrl(rs.getString("img_url"))
+                .institutionId(rs.getObject("institution_id", Long.class))
+                .institutionName(rs.getString("institution_name"))
+                .regionalId(rs.getObject("regional_id", Long.class))
+                .regionalName(rs.getString("regional_name"))
+                .build(), args.toArray());
+    }
+
+    /**
+     * Cantidad de acciones por tipo de acción y tipo de entidad con los mismos filtros de la búsqueda.
+     * Las acciones registradas antes de tener campos tipados no se incluyen.
+     */
+    public List<AuditActionCountResponse> countByType(AuditorySearchCriteria criteria) {
+        StringBuilder sql = new StringBuilder("SELECT a.action_type, a.entity_type, COUNT(*) AS total FROM auditories a");
+        List<Object> args = new ArrayList<>();
+        appendFilters(criteria, sql, args);
+        sql.append(" AND a.action_type IS NOT NULL GROUP BY a.action_type, a.entity_type ORDER BY total DESC");
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new AuditActionCountResponse(
+                enumOf(AuditActionType.class, rs.getString("action_type")),
+                enumOf(AuditEntityType.class, rs.getString("entity_type")),
+                rs.getLong("total")), args.toArray());
+    }
+
+    /**
+     * Fecha del registro más antiguo, o null si la tabla está vacía.
+     */
+    public LocalDateTime findOldestDate() {
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(date) FROM auditories", Timestamp.class);
+        return oldest != null ? oldest.toLocalDateTime() : null;
+    }
+
+    /**
+     * Recorre en orden los registros del rango indicado sin cargarlos todos en memoria.
+     * Debe ejecutarse dentro de una transacción para que PostgreSQL respete el fetch size.
+     */
+    public void streamRange(LocalDateTime from, LocalDateTime to, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_ARCHIVE_ROWS);
+            ps.setFetchSize(ARCHIVE_FETCH_SIZE);
+            ps.setTimestamp(1, Timestamp.valueOf(from));
+            ps.setTimestamp(2, Timestamp.valueOf(to));
+            return ps;
+        }, handler);
+    }
+
+    /**
+     * Elimina los registros indicados (los exportados); los que ya no existen se ignoran.
+     *
+     * @return cantidad de registros eliminados por institución y regional, para descontarlos de los dashboards
+     */
+    public Map<PerformerScope, Integer> deleteArchivedBatch(List<Long> archivedIds) {
+        if (archivedIds.isEmpty()) {
+            return Map.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(archivedIds.size(), "?"));
+        List<Long> ids = new ArrayList<>();
+        Map<PerformerScope, Integer> deletedByScope = new HashMap<>();
+        jdbcTemplate.query(String.format(SELECT_ARCHIVED_BATCH, placeholders), rs -> {
+            ids.add(rs.getLong(1));
+            deletedByScope.merge(new PerformerScope(
+                    rs.getObject(2, Long.class),
+                    rs.getObject(3, Long.class)), 1, Integer::sum);
+        }, archivedIds.toArray());
+        if (!ids.isEmpty()) {
+            jdbcTemplate.update(String.format(DELETE_BY_IDS, String.join(", ", Collections.nCopies(ids.size(), "?"))), ids.toArray());
+        }
+        return deletedByScope;
+    }
+
+    private static void appendFilters(AuditorySearchCriteria criteria, StringBuilder sql, List<Object> args) {
+        sql.append(" WHERE 1 = 1");
+        appendEquals(sql, args, "a.regional_id", criteria.regionalId());
+        appendEquals(sql, args, "a.institution_id", criteria.institutionId());
+        appendEquals(sql, args, "a.performer_id", criteria.performerId());
+        appendEquals(sql, args, "a.action_type", criteria.actionType() != null ? criteria.actionType().name() : null);
+        appendEquals(sql, args, "a.entity_type", criteria.entityType() != null ? criteria.entityType().name() : null);
+        appendEquals(sql, args, "a.entity_id", criteria.entityId());
+        appendEquals(sql, args, "a.inventory_id", criteria.inventoryId());
+        if (criteria.from() != null) {
+            sql.append(" AND a.date >= ?");
+            args.add(Timestamp.valueOf(criteria.from()));
+        }
+        if (criteria.to() != null) {
+            sql.append(" AND a.date < ?");
+            args.add(Timestamp.valueOf(criteria.to()));
+        }
+        if (criteria.query() != null && !criteria.query().isBlank()) {
+            sql.append(" AND LOWER(a.action) LIKE ? ESCAPE '\\'");
+            args.add("%" + escapeLike(criteria.query().trim().toLowerCase()) + "%");
+        }
+    }
+
+    private static void appendEquals(StringBuilder sql, List<Object> args, String column, Object value) {
+        if (value != null) {
+            sql.append(" AND ").append(column).append(" = ?");
+            args.add(value);
+        }
+    }
+
+    private static <E extends Enum<E>> E enumOf(Class<E> type, String value) {
+        return value != null ? Enum.valueOf(type, value) : null;
+    }
+
+    private static String joinChangedFields(Set<String> changedFields) {
+        if (changedFields == null || changedFields.isEmpty()) {
+            return null;
+        }
+        String joined = String.join(",", changedFields);
+        return joined.length() > MAX_CHANGED_FIELDS_LENGTH ? joined.substring(0, MAX_CHANGED_FIELDS_LENGTH) : joined;
+    }
+
+    public static Set<String> splitChangedFields(String changedFields) {
+        if (changedFields == null || changedFields.isEmpty()) {
+            return Set.of();
+        }
+        return new LinkedHashSet<>(Arrays.asList(changedFields.split(",")));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    public record PerformerScope(Long institutionId, Long regionalId) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.sgdis.backend.auditory.infrastructure.repository;
+
+import com.sgdis.backend.auditory.infrastructure.entity.AuditoryArchiveEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SpringDataAuditoryArchiveRepository extends JpaRepository<AuditoryArchiveEntity, Long> {
+
+    List<AuditoryArchiveEntity> findAllByOrderByPeriodStartDesc();
+
+    // Inicio del rango vivo: todo lo anterior está en los archivos
+    @Query("SELECT MAX(a.periodEnd) FROM AuditoryArchiveEntity a")
+    LocalDateTime findArchivedBefore();
+}
@@ -3,21 +3,27 @@ package com.sgdis.backend.auditory.infrastructure.repository;
 import com.sgdis.backend.auditory.infrastructure.entity.AuditoryEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+// Las relaciones son LAZY: los listados las cargan con un entity graph en la misma consulta
 @Repository
 public interface SpringDataAuditoryRepository extends JpaRepository<AuditoryEntity,Long> {
+    @EntityGraph(attributePaths = {"performer", "institution", "regional"})
     Page<AuditoryEntity> findAllByOrderByDateDesc(Pageable pageable);
     
+    @EntityGraph(attributePaths = {"performer", "institution", "regional"})
     @Query("SELECT a FROM AuditoryEntity a WHERE a.regional.id = :regionalId ORDER BY a.date DESC")
     Page<AuditoryEntity> findAllByRegionalIdOrderByDateDesc(@Param("regionalId") Long regionalId, Pageable pageable);
     
+    @EntityGraph(attributePaths = {"performer", "institution", "regional"})
     @Query("SELECT a FROM AuditoryEntity a WHERE a.institution.id = :institutionId ORDER BY a.date DESC")
     Page<AuditoryEntity> findAllByInstitutionIdOrderByDateDesc(@Param("institutionId") Long institutionId, Pageable pageable);
     
+    @EntityGraph(attributePaths = {"performer", "institution", "regional"})
     @Query("SELECT a FROM AuditoryEntity a WHERE " +
            "(:regionalId IS NULL OR a.regional.id = :regionalId) AND " +
            "(:institutionId IS NULL OR a.institution.id = :institutionId) AND " +
@@ -1,7 +1,15 @@
 package com.sgdis.backend.auditory.web;
 
+import com.sgdis.backend.auditory.application.dto.AuditActionCountResponse;
+import com.sgdis.backend.auditory.application.dto.AuditoryArchiveResponse;
+import com.sgdis.backend.auditory.application.dto.AuditorySearchCriteria;
+import com.sgdis.backend.auditory.application.dto.AuditorySearchResponse;
 import com.sgdis.backend.auditory.application.dto.PagedAuditoryResponse;
+import com.sgdis.backend.auditory.application.port.in.ListAuditoryArchivesUseCase;
 import com.sgdis.backend.auditory.application.port.in.ListAuditoryUseCase;
+import com.sgdis.backend.auditory.application.port.in.SearchAuditoryUseCase;
+import com.sgdis.backend.auditory.domain.AuditActionType;
+import com.sgdis.backend.auditory.domain.AuditEntityType;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,12 +20,16 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/auditories")
 @RequiredArgsConstructor
@@ -26,6 +38,82 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuditoryController {
 
     private final ListAuditoryUseCase listAuditoryUseCase;
+    private final SearchAuditoryUseCase searchAuditoryUseCase;
+    private final ListAuditoryArchivesUseCase listAuditoryArchivesUseCase;
+
+    @Operation(
+            summary = "Search auditory records",
+            description = "Keyset-paginated search over auditory records, newest first. Superadmin sees every record; " +
+                    "admin regional is limited to their regional and admin institution / warehouse to their institution"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Auditory records retrieved successfully",
+            content = @Content(schema = @Schema(implementation = AuditorySearchResponse.class))
+    )
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    @ApiResponse(responseCode = "403", description = "Access denied")
+    @PreAuthorize("hasAnyRole('SUPERADMIN', 'ADMIN_REGIONAL', 'ADMIN_INSTITUTION', 'WAREHOUSE')")
+    @GetMapping("/search")
+    public AuditorySearchResponse searchAuditories(
+            @Parameter(description = "Filter by regional ID") @RequestParam(required = false) Long regionalId,
+            @Parameter(description = "Filter by institution ID") @RequestParam(required = false) Long institutionId,
+            @Parameter(description = "Filter by performer (user) ID") @RequestParam(required = false) Long performerId,
+            @Parameter(description = "Filter by action type") @RequestParam(required = false) AuditActionType actionType,
+            @Parameter(description = "Filter by affected entity type") @RequestParam(required = false) AuditEntityType entityType,
+            @Parameter(description = "Filter by affected entity ID (entity history, together with entityType)")
+            @RequestParam(required = false) Long entityId,
+            @Parameter(description = "Filter by affected inventory ID") @RequestParam(required = false) Long inventoryId,
+            @Parameter(description = "Records on or after this date-time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Records before this date-time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Text contained in the action (case-insensitive)") @RequestParam(required = false) String q,
+            @Parameter(description = "Keyset cursor: nextDate of the previous page")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterDate,
+            @Parameter(description = "Keyset cursor: nextId of the previous page") @RequestParam(required = false) Long afterId,
+            @Parameter(description = "Page size (max 200)") @RequestParam(defaultValue = "20") int size) {
+        return searchAuditoryUseCase.searchAuditories(
+                new AuditorySearchCriteria(regionalId, institutionId, performerId, actionType, entityType,
+                        entityId, inventoryId, from, to, q),
+                afterDate, afterId, size);
+    }
+
+    @Operation(
+            summary = "Count auditory records by type",
+            description = "Number of audited actions grouped by action type and entity type, with the same filters " +
+                    "and role scope as the search. Records written before typed audit fields existed are not counted"
+    )
+    @ApiResponse(responseCode = "200", description = "Counts retrieved successfully")
+    @ApiResponse(responseCode = "403", description = "Access denied")
+    @PreAuthorize("hasAnyRole('SUPERADMIN', 'ADMIN_REGIONAL', 'ADMIN_INSTITUTION', 'WAREHOUSE')")
+    @GetMapping("/stats")
+    public List<AuditActionCountResponse> countAuditories(
+            @Parameter(description = "Filter by regional ID") @RequestParam(required = false) Long regionalId,
+            @Parameter(description = "Filter by institution ID") @RequestParam(required = false) Long institutionId,
+            @Parameter(description = "Filter by performer (user) ID") @RequestParam(required = false) Long performerId,
+            @Parameter(description = "Filter by action type") @RequestParam(required = false) AuditActionType actionType,
+            @Parameter(description = "Filter by affected entity type") @RequestParam(required = false) AuditEntityType entityType,
+            @Parameter(description = "Filter by affected inventory ID") @RequestParam(required = false) Long inventoryId,
+            @Parameter(description = "Records on or after this date-time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Records before this date-time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return searchAuditoryUseCase.countActions(new AuditorySearchCriteria(regionalId, institutionId, performerId,
+                actionType, entityType, null, inventoryId, from, to, null));
+    }
+
+    @Operation(
+            summary = "List auditory archive files",
+            description = "Compressed files with the closed months moved out of the live auditory table, newest first (Superadmin only)"
+    )
+    @ApiResponse(responseCode = "200", description = "Archive files retrieved successfully")
+    @ApiResponse(responseCode = "403", description = "Access denied")
+    @PreAuthorize("hasRole('SUPERADMIN')")
+    @GetMapping("/archives")
+    public List<AuditoryArchiveResponse> listArchives() {
+        return listAuditoryArchivesUseCase.listArchives();
+    }
 
     @Operation(
             summary = "List all auditory records",
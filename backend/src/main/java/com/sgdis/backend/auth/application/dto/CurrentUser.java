@@ -0,0 +1,15 @@
+package com.sgdis.backend.auth.application.dto;
+
+import com.sgdis.backend.user.domain.Role;
+
+/**
+ * Datos del usuario autenticado que definen su alcance: rol, institución y regional.
+ * Se carga una sola vez por petición (ver {@code AuthService#getCurrentUserSnapshot}).
+ */
+public record CurrentUser(
+        Long id,
+        Role role,
+        Long institutionId,
+        Long regionalId
+) {
+}
@@ -1,18 +1,54 @@
 package com.sgdis.backend.auth.application.service;
 
+import com.sgdis.backend.auth.application.dto.CurrentUser;
 import com.sgdis.backend.exception.ResourceNotFoundException;
 import com.sgdis.backend.user.infrastructure.entity.UserEntity;
 import com.sgdis.backend.user.infrastructure.repository.SpringDataUserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 @Service
 @RequiredArgsConstructor
 public class AuthService {
+    private static final String CURRENT_USER_ATTRIBUTE = AuthService.class.getName() + ".currentUser";
+
     private final SpringDataUserRepository userRepository;
 
     public UserEntity getCurrentUser() {
+        Long userId = getCurrentUserId();
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+    }
+
+    /**
+     * Rol, institución y regional del usuario autenticado, cargados con una sola consulta.
+     * Dentro de una petición HTTP el resultado se guarda en los atributos de la petición y las siguientes
+     * llamadas no consultan la base de datos; fuera de una petición (tareas programadas, hilos propios) se consulta cada vez.
+     * Para leer o modificar el usuario completo se sigue usando {@link #getCurrentUser()}.
+     */
+    public CurrentUser getCurrentUserSnapshot() {
+        Long userId = getCurrentUserId();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && attributes.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof CurrentUser cached
+                && cached.id().equals(userId)) {
+            return cached;
+        }
+        CurrentUser currentUser = userRepository.findCurrentUser(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+        if (attributes != null) {
+            attributes.setAttribute(CURRENT_USER_ATTRIBUTE, currentUser, RequestAttributes.SCOPE_REQUEST);
+        }
+        return currentUser;
+    }
+
+    /**
+     * ID del usuario autenticado, tomado del contexto de seguridad sin consultar la base de datos.
+     */
+    public Long getCurrentUserId() {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         
         // Check if user is anonymous (not authenticated)
@@ -41,7 +77,6 @@ public class AuthService {
             throw new RuntimeException("Tipo de principal no válido: " + (principal != null ? principal.getClass().getName() : "null"));
         }
         
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+        return userId;
     }
 }
@@ -0,0 +1,107 @@
+package com.sgdis.backend.auth.security;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.sgdis.backend.auth.utils.JwtUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resuelve el usuario y el rol de un JWT.
+ * Los tokens verificados se guardan en una caché acotada, indexada por el propio token, hasta que expiran:
+ * las peticiones siguientes con el mismo token no vuelven a verificar la firma ni a decodificar los claims.
+ * Los tokens inválidos no se guardan.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JwtPrincipalResolver {
+
+    private final JwtUtils jwtUtils;
+
+    @Value("${jwt.principal-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<String, CachedPrincipal> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Usuario y rol del token, o null si el token es inválido, expiró o no tiene los claims esperados.
+     */
+    public JwtPrincipal resolve(String token) {
+        long now = System.currentTimeMillis();
+        CachedPrincipal cached = cache.get(token);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.principal();
+        }
+
+        DecodedJWT decodedJWT;
+        try {
+            decodedJWT = jwtUtils.verifyToken(token);
+        } catch (JWTVerificationException e) {
+            log.debug("Token JWT rechazado: {}", e.getMessage());
+            return null;
+        }
+
+        Long userId = userIdOf(decodedJWT.getClaim("userId"));
+        String role = decodedJWT.getClaim("role").asString();
+        if (userId == null || role == null) {
+            log.debug("Token JWT sin userId o rol válidos");
+            return null;
+        }
+
+        // Spring Security espera el prefijo "ROLE_" para hasRole()
+        JwtPrincipal principal = new JwtPrincipal(userId,
+                new SimpleGrantedAuthority(role.startsWith("ROLE_") ? role : "ROLE_" + role));
+        if (decodedJWT.getExpiresAt() != null) {
+            if (cache.size() >= maxEntries) {
+                purgeExpired();
+            }
+            // Si sigue llena, el token no se guarda: la caché nunca supera el máximo
+            if (cache.size() < maxEntries) {
+                cache.put(token, new CachedPrincipal(principal, decodedJWT.getExpiresAt().getTime()));
+            }
+        }
+        return principal;
+    }
+
+    /**
+     * Descarta las entradas de tokens expirados.
+     */
+    @Scheduled(fixedDelayString = "${jwt.principal-cache.cleanup-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        cache.values().removeIf(cached -> cached.expiresAt() <= now);
+    }
+
+    private static Long userIdOf(Claim claim) {
+        if (claim.isNull() || claim.isMissing()) {
+            return null;
+        }
+        Long userId = claim.asLong();
+        if (userId != null) {
+            return userId;
+        }
+        // Tokens que guardan el ID como texto
+        try {
+            String value = claim.asString();
+            return value != null ? Long.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public record JwtPrincipal(Long userId, GrantedAuthority role) {
+    }
+
+    private record CachedPrincipal(JwtPrincipal principal, long expiresAt) {
+    }
+}
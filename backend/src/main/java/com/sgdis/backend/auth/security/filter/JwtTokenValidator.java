@@ -1,8 +1,7 @@
 package com.sgdis.backend.auth.security.filter;
 
-import com.sgdis.backend.auth.utils.JwtUtils;
-import com.auth0.jwt.interfaces.Claim;
-import com.auth0.jwt.interfaces.DecodedJWT;
+import com.sgdis.backend.auth.security.JwtPrincipalResolver;
+import com.sgdis.backend.auth.security.JwtPrincipalResolver.JwtPrincipal;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,8 +9,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -20,10 +17,10 @@ import java.util.Set;
 
 public class JwtTokenValidator extends OncePerRequestFilter {
 
-    private final JwtUtils jwtUtils;
+    private final JwtPrincipalResolver jwtPrincipalResolver;
 
-    public JwtTokenValidator(JwtUtils jwtUtils) {
-        this.jwtUtils = jwtUtils;
+    public JwtTokenValidator(JwtPrincipalResolver jwtPrincipalResolver) {
+        this.jwtPrincipalResolver = jwtPrincipalResolver;
     }
 
     @Override
@@ -69,59 +66,11 @@ public class JwtTokenValidator extends OncePerRequestFilter {
         }
 
         if (token != null) {
-            try {
-                DecodedJWT decodedJWT = jwtUtils.verifyToken(token);
-                Claim userIdClaim = decodedJWT.getClaim("userId");
-                Claim roleClaim = decodedJWT.getClaim("role");
-
-                if (userIdClaim != null && roleClaim != null) {
-                    Long userId = null;
-                    // Try to get userId as Long first
-                    if (!userIdClaim.isNull()) {
-                        try {
-                            userId = userIdClaim.asLong();
-                        } catch (Exception e) {
-                            // If asLong() fails, try as String and parse
-                            try {
-                                String userIdStr = userIdClaim.asString();
-                                if (userIdStr != null) {
-                                    userId = Long.parseLong(userIdStr);
-                                }
-                            } catch (Exception e2) {
-                                // If both fail, try as Number
-                                try {
-                                    Number userIdNum = userIdClaim.as(Number.class);
-                                    if (userIdNum != null) {
-                                        userId = userIdNum.longValue();
-                                    }
-                                } catch (Exception e3) {
-                                    System.err.println("JwtTokenValidator: Error parsing userId from token: " + e3.getMessage());
-                                }
-                            }
-                        }
-                    }
-                    
-                    if (userId != null) {
-                        String roleString = roleClaim.asString();
-                        // Spring Security requires roles to have "ROLE_" prefix when using hasRole()
-                        // But when setting in SecurityContext, we use the full "ROLE_" prefix
-                        String roleWithPrefix = roleString.startsWith("ROLE_") ? roleString : "ROLE_" + roleString;
-                        GrantedAuthority role = new SimpleGrantedAuthority(roleWithPrefix);
-                        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(userId, null, Set.of(role)));
-                        System.out.println("JwtTokenValidator: Authentication set for userId=" + userId + ", role=" + roleWithPrefix);
-                    } else {
-                        System.err.println("JwtTokenValidator: userId is null after parsing token");
-                    }
-                } else {
-                    System.err.println("JwtTokenValidator: userIdClaim or roleClaim is null");
-                }
-            } catch (Exception e) {
-                // Invalid token - log for debugging
-                System.err.println("JwtTokenValidator: Error validating token: " + e.getMessage());
-                e.printStackTrace();
+            JwtPrincipal principal = jwtPrincipalResolver.resolve(token);
+            if (principal != null) {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(principal.userId(), null, Set.of(principal.role())));
             }
-        } else {
-            System.err.println("JwtTokenValidator: No token found in request");
         }
 
         filterChain.doFilter(request, response);
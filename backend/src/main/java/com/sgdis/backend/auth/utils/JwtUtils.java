@@ -5,6 +5,7 @@ import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -23,8 +24,20 @@ public class JwtUtils {
     @Value("${jwt.issuer.generator}")
     private String userGenerator;
 
+    // El algoritmo y el verificador son inmutables y thread-safe: se crean una sola vez
+    private Algorithm algorithm;
+    private JWTVerifier verifier;
+
+    @PostConstruct
+    void init() {
+        algorithm = Algorithm.HMAC256(secretPassword);
+        verifier = JWT.require(algorithm)
+                .withIssuer(userGenerator)
+                .build();
+    }
+
     private Algorithm getAlgorithm() {
-        return Algorithm.HMAC256(secretPassword);
+        return algorithm;
     }
 
     public String createToken(Authentication authentication) {
@@ -65,10 +78,6 @@ public class JwtUtils {
     }
 
     public DecodedJWT verifyToken(String token) {
-        JWTVerifier verifier = JWT.require(getAlgorithm())
-                .withIssuer(userGenerator)
-                .build();
-
         return verifier.verify(token);
     }
 
@@ -15,12 +15,16 @@ import com.sgdis.backend.user.domain.Role;
 import com.sgdis.backend.user.infrastructure.entity.UserEntity;
 import com.sgdis.backend.user.infrastructure.repository.SpringDataUserRepository;
 // Notificaciones
-import com.sgdis.backend.notification.service.NotificationService;
-import com.sgdis.backend.notification.service.NotificationPersistenceService;
+import com.sgdis.backend.notification.service.NotificationDispatcher;
 import com.sgdis.backend.notification.dto.NotificationMessage;
 // Auditoría
 import com.sgdis.backend.auditory.application.port.in.RecordActionUseCase;
 import com.sgdis.backend.auditory.application.dto.RecordActionRequest;
+import com.sgdis.backend.auditory.domain.AuditActionType;
+import com.sgdis.backend.auditory.domain.AuditEntityType;
+// Contadores de dashboards
+import com.sgdis.backend.web.dto.CounterDelta;
+import com.sgdis.backend.web.service.DashboardCounterService;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.FileSystemResource;
@@ -60,9 +64,9 @@ public class CancellationService implements
     private final FileUploadService fileUploadService;
     private final AuthService authService;
     private final RecordActionUseCase recordActionUseCase;
-    private final NotificationService notificationService;
-    private final NotificationPersistenceService notificationPersistenceService;
+    private final NotificationDispatcher notificationDispatcher;
     private final SpringDataUserRepository userRepository;
+    private final DashboardCounterService dashboardCounterService;
 
     @Override
     @Transactional
@@ -124,6 +128,12 @@ public class CancellationService implements
 
             CancellationEntity savedEntity = cancellationRepository.save(entity);
 
+            // Actualizar contadores de dashboards
+            dashboardCounterService.applyToInventories(getInventoryIds(items), CounterDelta.builder()
+                    .totalCancellations(1)
+                    .approvedCancellations(Boolean.TRUE.equals(savedEntity.getApproved()) ? 1 : 0)
+                    .build());
+
             try {
                 int itemsCount = items != null ? items.size() : 0;
                 String itemsInfo;
@@ -177,7 +187,12 @@ public class CancellationService implements
                     auditMessage = auditMessage.substring(0, 247) + "...";
                 }
                 
-                recordActionUseCase.recordAction(new RecordActionRequest(auditMessage));
+                recordActionUseCase.recordAction(RecordActionRequest.builder()
+                        .action(auditMessage)
+                        .actionType(isAutoApproved ? AuditActionType.APPROVE : AuditActionType.REQUEST)
+                        .entityType(AuditEntityType.CANCELLATION)
+                        .entityId(savedEntity.getId())
+                        .build());
             } catch (Exception auditException) {
                 // Log audit error but don't fail the operation
                 System.err.println("Error al registrar auditoría: " + auditException.getMessage());
@@ -207,6 +222,8 @@ public class CancellationService implements
         CancellationEntity cancellation = cancellationRepository.getReferenceById(request.cancellationId());
         UserEntity checker = authService.getCurrentUser();
         String requesterName = cancellation.getRequester() != null ? cancellation.getRequester().getFullName() : "N/A";
+        boolean wasRefused = cancellation.getRefusedAt() != null;
+        boolean wasApproved = Boolean.TRUE.equals(cancellation.getApproved());
 
         cancellation.setRefusedAt(LocalDateTime.now());
         cancellation.setComment(request.comment());
@@ -214,6 +231,14 @@ public class CancellationService implements
 
         cancellationRepository.save(cancellation);
 
+        // Actualizar contadores de dashboards
+        if (!wasRefused) {
+            dashboardCounterService.applyToInventories(getInventoryIds(cancellation.getItems()), CounterDelta.builder()
+                    .rejectedCancellations(1)
+                    .approvedCancellations(wasApproved ? -1 : 0)
+                    .build());
+        }
+
         // Registrar auditoría
         String checkerName = checker.getFullName() != null ? checker.getFullName() : "Usuario";
         String checkerEmail = checker.getEmail() != null ? checker.getEmail() : "N/A";
@@ -232,7 +257,12 @@ public class CancellationService implements
             auditMessage = auditMessage.substring(0, 247) + "...";
         }
         
-        recordActionUseCase.recordAction(new RecordActionRequest(auditMessage));
+        recordActionUseCase.recordAction(RecordActionRequest.builder()
+                .action(auditMessage)
+                .actionType(AuditActionType.REJECT)
+                .entityType(AuditEntityType.CANCELLATION)
+                .entityId(cancellation.getId())
+                .build());
 
         // Enviar notificaciones
         sendCancellationRefusedNotifications(cancellation);
@@ -246,6 +276,7 @@ public class CancellationService implements
         CancellationEntity cancellation = cancellationRepository.getReferenceById(request.cancellationId());
         UserEntity checker = authService.getCurrentUser();
         String requesterName = cancellation.getRequester() != null ? cancellation.getRequester().getFullName() : "N/A";
+        boolean countsAsNewApproval = cancellation.getRefusedAt() == null && !Boolean.TRUE.equals(cancellation.getApproved());
         
         cancellation.setApprovedAt(LocalDateTime.now());
         cancellation.setApproved(true);
@@ -260,6 +291,12 @@ public class CancellationService implements
 
         cancellationRepository.save(cancellation);
 
+        // Actualizar contadores de dashboards
+        if (countsAsNewApproval) {
+            dashboardCounterService.applyToInventories(getInventoryIds(items),
+                    CounterDelta.builder().approvedCancellations(1).build());
+        }
+
         // Registrar auditoría
         int itemsCount = items != null ? items.size() : 0;
         String checkerName = checker.getFullName() != null ? checker.getFullName() : "Usuario";
@@ -280,7 +317,12 @@ public class CancellationService implements
             auditMessage = auditMessage.substring(0, 247) + "...";
         }
         
-        recordActionUseCase.recordAction(new RecordActionRequest(auditMessage));
+        recordActionUseCase.recordAction(RecordActionRequest.builder()
+                .action(auditMessage)
+                .actionType(AuditActionType.APPROVE)
+                .entityType(AuditEntityType.CANCELLATION)
+                .entityId(cancellation.getId())
+                .build());
 
         // Enviar notificaciones
         sendCancellationApprovedNotifications(cancellation);
@@ -315,7 +357,12 @@ public class CancellationService implements
             auditMessage = auditMessage.substring(0, 247) + "...";
         }
         
-        recordActionUseCase.recordAction(new RecordActionRequest(auditMessage));
+        recordActionUseCase.recordAction(RecordActionRequest.builder()
+                .action(auditMessage)
+                .actionType(AuditActionType.UPLOAD_FORMAT)
+                .entityType(AuditEntityType.CANCELLATION)
+                .entityId(cancellationId)
+                .build());
 
         return "Formato subido correctamente";
     }
@@ -391,7 +438,12 @@ public class CancellationService implements
             auditMessage = auditMessage.substring(0, 247) + "...";
         }
         
-        recordActionUseCase.recordAction(new RecordActionRequest(auditMessage));
+        recordActionUseCase.recordAction(RecordActionRequest.builder()
+                .action(auditMessage)
+                .actionType(AuditActionType.UPLOAD_FORMAT)
+                .entityType(AuditEntityType.CANCELLATION)
+                .entityId(cancellationId)
+                .build());
 
         return "Formato subido correctamente";
     }
@@ -616,6 +668,20 @@ public class CancellationService implements
         }
     }
 
+    /**
+     * Inventarios a los que pertenecen los items de una baja.
+     */
+    private List<Long> getInventoryIds(List<ItemEntity> items) {
+        if (items == null) {
+            return List.of();
+        }
+        return items.stream()
+                .filter(item -> item.getInventory() != null)
+                .map(item -> item.getInventory().getId())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
     /**
      * Resta los valores de los items del inventario cuando se aprueba una cancelación.
      * Agrupa los items por inventario y resta el total de cada inventario.
@@ -651,6 +717,8 @@ public class CancellationService implements
             if (totalValue != null && totalValue > 0) {
                 try {
                     inventoryRepository.subtractFromTotalPrice(inventoryId, totalValue);
+                    dashboardCounterService.applyToInventory(inventoryId,
+                            CounterDelta.builder().inventoriesValue(-totalValue).build());
                 } catch (Exception e) {
                     // Log error but don't fail the cancellation
                     System.err.println("Error al restar valor del inventario " + inventoryId + ": " + e.getMessage());
@@ -783,27 +851,9 @@ public class CancellationService implements
             log.debug("Mensaje de notificación preparado: {}", message);
             
             // Enviar notificaciones a todos los usuarios
-            int notificationsSent = 0;
-            int notificationsFailed = 0;
-            for (Long userId : userIdsToNotify) {
-                try {
-                    notificationPersistenceService.saveNotification(
-                            userId,
-                            "CANCELLATION_REQUESTED",
-                            "Baja Solicitada",
-                            message,
-                            new CancellationNotificationData(cancellation.getId(), itemsCount, requesterName, "REQUESTED")
-                    );
-                    notificationService.sendNotificationToUser(userId, notification);
-                    notificationsSent++;
-                } catch (Exception e) {
-                    notificationsFailed++;
-                    log.error("Error al enviar notificación de solicitud de baja al usuario {}: {}", userId, e.getMessage(), e);
-                }
-            }
+            notificationDispatcher.dispatch(userIdsToNotify, notification);
             
-            log.info("Notificación de solicitud de baja completada - Enviadas: {}, Fallidas: {}, Total usuarios: {}", 
-                    notificationsSent, notificationsFailed, userIdsToNotify.size());
+            log.info("Notificación de solicitud de baja completada - Total usuarios: {}", userIdsToNotify.size());
         } catch (Exception e) {
             log.error("Error al enviar notificación de solicitud de baja para cancelación ID {}: {}", 
                     cancellation.getId(), e.getMessage(), e);
@@ -816,8 +866,7 @@ public class CancellationService implements
      */
     private void sendCancellationApprovedNotifications(CancellationEntity cancellation) {
         try {
-            UserEntity currentUser = authService.getCurrentUser();
-            Long currentUserId = currentUser.getId();
+            Long currentUserId = authService.getCurrentUserId();
             
             List<ItemEntity> items = cancellation.getItems();
             if (items == null || items.isEmpty()) {
@@ -915,14 +964,7 @@ public class CancellationService implements
                 );
                 
                 try {
-                    notificationPersistenceService.saveNotification(
-                            cancellation.getRequester().getId(),
-                            "CANCELLATION_APPROVED_PERSONAL",
-                            "Tu Baja fue Aprobada",
-                            personalMessage,
-                            new CancellationNotificationData(cancellation.getId(), itemsCount, requesterName, "APPROVED")
-                    );
-                    notificationService.sendNotificationToUser(cancellation.getRequester().getId(), personalNotification);
+                    notificationDispatcher.dispatch(List.of(cancellation.getRequester().getId()), personalNotification);
                 } catch (Exception e) {
                     // Log error pero continuar
                 }
@@ -943,20 +985,7 @@ public class CancellationService implements
             if (cancellation.getRequester() != null) {
                 userIdsToNotify.remove(cancellation.getRequester().getId());
             }
-            for (Long userId : userIdsToNotify) {
-                try {
-                    notificationPersistenceService.saveNotification(
-                            userId,
-                            "CANCELLATION_APPROVED",
-                            "Baja Aprobada",
-                            message,
-                            new CancellationNotificationData(cancellation.getId(), itemsCount, requesterName, "APPROVED")
-                    );
-                    notificationService.sendNotificationToUser(userId, notification);
-                } catch (Exception e) {
-                    // Log error pero continuar con otros usuarios
-                }
-            }
+            notificationDispatcher.dispatch(userIdsToNotify, notification);
         } catch (Exception e) {
             // Log error pero no fallar la operación
         }
@@ -967,8 +996,7 @@ public class CancellationService implements
      */
     private void sendCancellationRefusedNotifications(CancellationEntity cancellation) {
         try {
-            UserEntity currentUser = authService.getCurrentUser();
-            Long currentUserId = currentUser.getId();
+            Long currentUserId = authService.getCurrentUserId();
             
             List<ItemEntity> items = cancellation.getItems();
             if (items == null || items.isEmpty()) {
@@ -1073,14 +1101,7 @@ public class CancellationService implements
                 );
                 
                 try {
-                    notificationPersistenceService.saveNotification(
-                            cancellation.getRequester().getId(),
-                            "CANCELLATION_REFUSED_PERSONAL",
-                            "Tu Baja fue Rechazada",
-                            personalMessage,
-                            new CancellationNotificationData(cancellation.getId(), itemsCount, requesterName, "REFUSED")
-                    );
-                    notificationService.sendNotificationToUser(cancellation.getRequester().getId(), personalNotification);
+                    notificationDispatcher.dispatch(List.of(cancellation.getRequester().getId()), personalNotification);
                 } catch (Exception e) {
                     // Log error pero continuar
                 }
@@ -1101,20 +1122,7 @@ public class CancellationService implements
             if (cancellation.getRequester() != null) {
                 userIdsToNotify.remove(cancellation.getRequester().getId());
             }
-            for (Long userId : userIdsToNotify) {
-                try {
-                    notificationPersistenceService.saveNotification(
-                            userId,
-                            "CANCELLATION_REFUSED",
-                            "Baja Rechazada",
-                            message,
-                            new CancellationNotificationData(cancellation.getId(), itemsCount, requesterName, "REFUSED")
-                    );
-                    notificationService.sendNotificationToUser(userId, notification);
-                } catch (Exception e) {
-                    // Log error pero continuar con otros usuarios
-                }
-            }
+            notificationDispatcher.dispatch(userIdsToNotify, notification);
         } catch (Exception e) {
             // Log error pero no fallar la operación
         }
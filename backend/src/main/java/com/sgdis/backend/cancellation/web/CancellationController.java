@@ -19,13 +19,11 @@ import com.sgdis.backend.cancellation.application.port.DownloadCancellationForma
 import com.sgdis.backend.cancellation.application.port.RefuseCancellationUseCase;
 import com.sgdis.backend.cancellation.application.port.UploadFormatCancellationUseCase;
 import com.sgdis.backend.cancellation.application.port.UploadFormatExampleCancellationUseCase;
+import com.sgdis.backend.auth.application.dto.CurrentUser;
 import com.sgdis.backend.auth.application.service.AuthService;
-import com.sgdis.backend.user.infrastructure.entity.UserEntity;
-import com.sgdis.backend.user.infrastructure.repository.SpringDataUserRepository;
-import com.sgdis.backend.inventory.infrastructure.entity.InventoryEntity;
+import com.sgdis.backend.inventory.application.service.InventoryAccessService;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.Set;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -79,7 +77,7 @@ public class CancellationController {
     private final UploadFormatExampleCancellationUseCase uploadFormatExampleCancellationUseCase;
     private final SpringDataCancellationRepository cancellationRepository;
     private final AuthService authService;
-    private final SpringDataUserRepository userRepository;
+    private final InventoryAccessService inventoryAccessService;
 
     @Operation(
             summary = "Get all cancellations",
@@ -223,22 +221,16 @@ public class CancellationController {
     ) {
         try {
             // Get current warehouse user
-            UserEntity currentUser = authService.getCurrentUser();
-            Long userId = currentUser.getId();
-            
-            // Load user with institution to avoid LazyInitializationException
-            UserEntity userWithInstitution = userRepository.findByIdWithInstitution(userId)
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+            CurrentUser currentUser = authService.getCurrentUserSnapshot();
             
             // Get user's institution
-            var userInstitution = userWithInstitution.getInstitution();
-            if (userInstitution == null || userInstitution.getId() == null) {
+            if (currentUser.institutionId() == null) {
                 Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id"));
                 Page<CancellationResponse> emptyPage = new PageImpl<>(List.of(), pageable, 0);
                 return ResponseEntity.ok(emptyPage);
             }
             
-            Long institutionId = userInstitution.getId();
+            Long institutionId = currentUser.institutionId();
             Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id"));
             
             // Use the repository method to get cancellations filtered by institution ID
@@ -302,20 +294,14 @@ public class CancellationController {
     public ResponseEntity<CancellationStatisticsResponse> getCancellationStatisticsByMyInstitution() {
         try {
             // Get current warehouse user
-            UserEntity currentUser = authService.getCurrentUser();
-            Long userId = currentUser.getId();
-            
-            // Load user with institution to avoid LazyInitializationException
-            UserEntity userWithInstitution = userRepository.findByIdWithInstitution(userId)
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+            CurrentUser currentUser = authService.getCurrentUserSnapshot();
             
             // Get user's institution
-            var userInstitution = userWithInstitution.getInstitution();
-            if (userInstitution == null || userInstitution.getId() == null) {
+            if (currentUser.institutionId() == null) {
                 return ResponseEntity.ok(new CancellationStatisticsResponse(0L, 0L, 0L, 0L));
             }
             
-            Long institutionId = userInstitution.getId();
+            Long institutionId = currentUser.institutionId();
             
             // Get all cancellations for this institution
             List<CancellationEntity> allCancellations = cancellationRepository.findAllByInstitutionIdWithJoins(institutionId);
@@ -362,12 +348,12 @@ public class CancellationController {
     @GetMapping("/warehouse/by-inventory")
     public ResponseEntity<CancellationsByInventoryResponse> getCancellationsByInventoryForWarehouse() {
         try {
-            UserEntity currentUser = authService.getCurrentUser();
-            if (currentUser.getInstitution() == null || currentUser.getInstitution().getId() == null) {
+            CurrentUser currentUser = authService.getCurrentUserSnapshot();
+            if (currentUser.institutionId() == null) {
                 return ResponseEntity.ok(new CancellationsByInventoryResponse(java.util.Map.of()));
             }
             
-            Long institutionId = currentUser.getInstitution().getId();
+            Long institutionId = currentUser.institutionId();
             List<Object[]> results = cancellationRepository.countCancellationsByInventoryForInstitution(institutionId);
             
             Map<String, Long> cancellationsByInventory = new HashMap<>();
@@ -400,12 +386,12 @@ public class CancellationController {
     @GetMapping("/institution/statistics/by-inventory")
     public ResponseEntity<CancellationsByInventoryResponse> getCancellationsByInventoryForAdminInstitution() {
         try {
-            UserEntity currentUser = authService.getCurrentUser();
-            if (currentUser.getInstitution() == null || currentUser.getInstitution().getId() == null) {
+            CurrentUser currentUser = authService.getCurrentUserSnapshot();
+            if (currentUser.institutionId() == null) {
                 return ResponseEntity.ok(new CancellationsByInventoryResponse(java.util.Map.of()));
             }
             
-            Long institutionId = currentUser.getInstitution().getId();
+            Long institutionId = currentUser.institutionId();
             List<Object[]> results = cancellationRepository.countCancellationsByInventoryForInstitution(institutionId);
             
             Map<String, Long> cancellationsByInventory = new HashMap<>();
@@ -444,41 +430,10 @@ public class CancellationController {
             @RequestParam(defaultValue = "10") int size
     ) {
         try {
-            var currentUser = authService.getCurrentUser();
-            Long userId = currentUser.getId();
-            
-            // Get all inventories where user is owner, manager, or signatory
-            List<InventoryEntity> ownedInventories = userRepository.findInventoriesByOwnerId(userId);
-            List<InventoryEntity> managedInventories = userRepository.findManagedInventoriesByUserId(userId);
-            
-            // Get signatory inventories
-            UserEntity user = userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            List<InventoryEntity> signatoryInventories = user.getMySignatories();
-            if (signatoryInventories == null) {
-                signatoryInventories = List.of();
-            } else {
-                // Initialize the collection to avoid LazyInitializationException
-                signatoryInventories.size();
-            }
+            Long userId = authService.getCurrentUserId();
             
-            // Combine all inventories and get unique IDs
-            Set<Long> inventoryIds = new HashSet<>();
-            ownedInventories.forEach(inv -> {
-                if (inv != null && inv.getId() != null) {
-                    inventoryIds.add(inv.getId());
-                }
-            });
-            managedInventories.forEach(inv -> {
-                if (inv != null && inv.getId() != null) {
-                    inventoryIds.add(inv.getId());
-                }
-            });
-            signatoryInventories.forEach(inv -> {
-                if (inv != null && inv.getId() != null) {
-                    inventoryIds.add(inv.getId());
-                }
-            });
+            // Inventarios donde el usuario es propietario, gestor o firmante (una consulta, cacheada por usuario)
+            Set<Long> inventoryIds = inventoryAccessService.getAccessibleInventoryIds(userId);
             
             // If no inventories, return empty page
             if (inventoryIds.isEmpty()) {
@@ -0,0 +1,115 @@
+package com.sgdis.backend.data.cache;
+
+import com.sgdis.backend.utils.ETagUtils;
+import com.sgdis.backend.utils.TransactionUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria de los datos de referencia (regionales, instituciones, departamentos y ciudades)
+ * que se leen en cada carga de mapas y listas desplegables.
+ * Guarda la respuesta ya mapeada junto con un ETag calculado sobre su JSON, de modo que los clientes
+ * pueden reutilizar su copia ({@code If-None-Match} responde 304 sin cuerpo).
+ * Las instituciones y las regionales se invalidan tras el commit de cada alta o edición de institución;
+ * los departamentos y ciudades solo cambian con la carga inicial. Cada entrada expira tras un TTL como
+ * red de seguridad frente a cambios hechos fuera de la aplicación.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReferenceDataCache {
+
+    public static final String REGIONALS = "regionals";
+    public static final String REGIONALS_MAP = "regionals:map";
+    public static final String INSTITUTIONS = "institutions";
+    public static final String INSTITUTIONS_MAP = "institutions:map";
+    public static final String INSTITUTIONS_BY_REGIONAL = "institutions:regional:";
+    public static final String DEPARTMENTS = "departments";
+    public static final String CITIES_BY_DEPARTMENT = "cities:department:";
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${reference-data.cache.ttl-ms:3600000}")
+    private long cacheTtlMs;
+
+    @Value("${reference-data.http.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    private final Map<String, CachedEntry> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Generación actual de la caché; una carga que empezó antes de una invalidación no se guarda.
+     */
+    private long generation;
+
+    /**
+     * Respuesta 200 con el valor de la clave (cargándolo si no está en caché), su ETag y Cache-Control.
+     * Spring responde 304 sin cuerpo si el ETag coincide con el {@code If-None-Match} de la petición.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> respond(String key, Supplier<T> loader) {
+        CachedEntry entry = get(key, loader);
+        return ResponseEntity.ok()
+                .eTag(entry.etag())
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePrivate().mustRevalidate())
+                .body((T) entry.value());
+    }
+
+    private CachedEntry get(String key, Supplier<?> loader) {
+        long now = System.currentTimeMillis();
+        CachedEntry cached = cache.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached;
+        }
+
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+        Object value = loader.get();
+        CachedEntry loaded = new CachedEntry(value, ETagUtils.strongETag(objectMapper, value), now + cacheTtlMs);
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                cache.put(key, loaded);
+            }
+        }
+        log.debug("Datos de referencia {} cargados en caché", key);
+        return loaded;
+    }
+
+    /**
+     * Invalida las instituciones y las regionales (que incluyen la cantidad de instituciones) tras el commit.
+     */
+    public void evictInstitutions() {
+        TransactionUtils.afterCommit(() -> {
+            synchronized (this) {
+                generation++;
+                cache.keySet().removeIf(key -> key.startsWith(INSTITUTIONS) || key.startsWith(REGIONALS));
+            }
+            log.debug("Caché de instituciones y regionales invalidada");
+        });
+    }
+
+    /**
+     * Descarta las entradas vencidas (las ciudades por departamento pueden acumularse).
+     */
+    @Scheduled(fixedDelayString = "${reference-data.cache.cleanup-interval-ms:600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        cache.values().removeIf(cached -> cached.expiresAt() <= now);
+    }
+
+    private record CachedEntry(Object value, String etag, long expiresAt) {
+    }
+}
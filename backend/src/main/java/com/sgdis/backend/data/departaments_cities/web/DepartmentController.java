@@ -1,5 +1,6 @@
 package com.sgdis.backend.data.departaments_cities.web;
 
+import com.sgdis.backend.data.cache.ReferenceDataCache;
 import com.sgdis.backend.data.departaments_cities.dto.CityResponse;
 import com.sgdis.backend.data.departaments_cities.dto.DepartmentResponse;
 import com.sgdis.backend.data.departaments_cities.mapper.CityMapper;
@@ -28,6 +29,7 @@ public class DepartmentController {
 
     private final SpringDataCitiesRepository citiesRepository;
     private final SpringDataDepartamentsRepository departamentsRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     @Operation(
             summary = "Get all departments",
@@ -39,10 +41,8 @@ public class DepartmentController {
     )
     @GetMapping
     public ResponseEntity<List<DepartmentResponse>> getAllDepartments() {
-        List<DepartmentResponse> departments = DepartmentMapper.toResponse(
-                departamentsRepository.findAll()
-        );
-        return ResponseEntity.ok(departments);
+        return referenceDataCache.respond(ReferenceDataCache.DEPARTMENTS,
+                () -> DepartmentMapper.toResponse(departamentsRepository.findAll()));
     }
 
     @Operation(
@@ -59,10 +59,8 @@ public class DepartmentController {
             @Parameter(description = "Department ID", required = true)
             @NotNull @PathVariable Long departmentId
     ) {
-        List<CityResponse> cities = CityMapper.toResponse(
-                citiesRepository.findByDepartamentId(departmentId)
-        );
-        return ResponseEntity.ok(cities);
+        return referenceDataCache.respond(ReferenceDataCache.CITIES_BY_DEPARTMENT + departmentId,
+                () -> CityMapper.toResponse(citiesRepository.findByDepartamentId(departmentId)));
     }
 }
 
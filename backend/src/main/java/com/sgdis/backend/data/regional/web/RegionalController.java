@@ -1,5 +1,6 @@
 package com.sgdis.backend.data.regional.web;
 
+import com.sgdis.backend.data.cache.ReferenceDataCache;
 import com.sgdis.backend.data.regional.dto.RegionalMapResponse;
 import com.sgdis.backend.data.regional.dto.RegionalResponse;
 import com.sgdis.backend.data.regional.entity.RegionalEntity;
@@ -28,6 +29,7 @@ import java.util.List;
 public class RegionalController {
 
     private final SpringDataRegionalRepository repository;
+    private final ReferenceDataCache referenceDataCache;
 
     @Operation(
             summary = "Get all regionals",
@@ -38,8 +40,9 @@ public class RegionalController {
             description = "Regionals retrieved successfully"
     )
     @GetMapping
-    public List<RegionalResponse> getAllRegionals() {
-        return RegionalMapper.toResponse(repository.findAll());
+    public ResponseEntity<List<RegionalResponse>> getAllRegionals() {
+        return referenceDataCache.respond(ReferenceDataCache.REGIONALS,
+                () -> RegionalMapper.toResponse(repository.findAll()));
     }
 
     @Operation(
@@ -75,8 +78,7 @@ public class RegionalController {
     )
     @GetMapping("/map")
     public ResponseEntity<List<RegionalMapResponse>> getRegionalsForMap() {
-        var regionals = repository.findAll();
-        var mapResponses = regionals.stream()
+        return referenceDataCache.respond(ReferenceDataCache.REGIONALS_MAP, () -> repository.findAll().stream()
                 .map(regional -> RegionalMapResponse.builder()
                         .id(regional.getId())
                         .name(regional.getName())
@@ -88,7 +90,6 @@ public class RegionalController {
                         .institutionsCount(regional.getInstitutions() != null ? 
                                 regional.getInstitutions().size() : 0)
                         .build())
-                .toList();
-        return ResponseEntity.ok(mapResponses);
+                .toList());
     }
 }
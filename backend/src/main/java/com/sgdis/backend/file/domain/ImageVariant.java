@@ -0,0 +1,40 @@
+package com.sgdis.backend.file.domain;
+
+import java.util.Arrays;
+
+/**
+ * Versiones reducidas de las imágenes subidas. {@code maxSize} es el lado mayor en píxeles.
+ */
+public enum ImageVariant {
+    THUMBNAIL("thumb", 240),
+    MEDIUM("medium", 960);
+
+    private final String param;
+    private final int maxSize;
+
+    ImageVariant(String param, int maxSize) {
+        this.param = param;
+        this.maxSize = maxSize;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Variante correspondiente al parámetro {@code variant} de la URL, o null si no hay ninguna.
+     */
+    public static ImageVariant fromParam(String param) {
+        if (param == null) {
+            return null;
+        }
+        return Arrays.stream(values())
+                .filter(variant -> variant.param.equalsIgnoreCase(param))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,38 @@
+package com.sgdis.backend.file.infrastructure.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Referencia de una URL de {@code /uploads/} al contenido que guarda.
+ * El contenido se almacena una sola vez por hash SHA-256; la cantidad de filas con el mismo hash
+ * es la cantidad de referencias al contenido.
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "stored_files", indexes = {
+        @Index(name = "idx_stored_files_sha256", columnList = "sha256")
+})
+public class StoredFileEntity {
+
+    @Id
+    @Column(length = 512)
+    private String url;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private Long size;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,9 @@
+package com.sgdis.backend.file.infrastructure.repository;
+
+import com.sgdis.backend.file.infrastructure.entity.StoredFileEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SpringDataStoredFileRepository extends JpaRepository<StoredFileEntity, String> {
+
+    long countBySha256(String sha256);
+}
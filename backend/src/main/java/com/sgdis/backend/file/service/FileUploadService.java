@@ -1,28 +1,74 @@
 package com.sgdis.backend.file.service;
 
+import com.sgdis.backend.file.infrastructure.entity.StoredFileEntity;
+import com.sgdis.backend.file.infrastructure.repository.SpringDataStoredFileRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import com.sgdis.backend.utils.TransactionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystemException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.UUID;
 
+/**
+ * Almacenamiento de archivos subidos con deduplicación por contenido.
+ * Cada contenido se guarda una sola vez en {@code uploads/blobs/ab/cd/<sha256>}; la ruta de cada URL
+ * ({@code uploads/users/...}, {@code uploads/items/...}, etc.) es un enlace duro a ese archivo, de modo que
+ * las URLs existentes y las lecturas directas desde disco siguen funcionando sin ocupar espacio adicional.
+ * Las escrituras van a un archivo temporal y se publican con un movimiento atómico, así una lectura
+ * concurrente nunca ve un archivo a medio escribir. Las referencias de cada contenido se cuentan en
+ * {@code stored_files}; el contenido se elimina cuando deja de tener URLs.
+ * Dentro de la transacción solo se escribe la fila de {@code stored_files}: la URL se publica, y los archivos
+ * sin referencias se eliminan, después del commit. Si la transacción se revierte se descarta lo subido.
+ * Si el sistema de archivos no admite enlaces duros, la ruta de la URL se escribe como copia.
+ * Las fotos de perfil, de ítems y de verificaciones generan además sus variantes reducidas ({@link ImageVariantService}).
+ */
+@Slf4j
 @Service
+@RequiredArgsConstructor
 public class FileUploadService {
 
+    private static final String URL_PREFIX = "/uploads/";
+    private static final int LOCK_STRIPES = 64;
+
+    private final SpringDataStoredFileRepository storedFileRepository;
+    private final ImageVariantService imageVariantService;
+
     private final Path rootLocation = Paths.get("uploads");
+    private final Path blobLocation = rootLocation.resolve("blobs");
+    private final Path tempLocation = rootLocation.resolve(".tmp");
 
-    public FileUploadService() {
+    // Bloqueos por hash: las altas y bajas de un mismo contenido no se cruzan
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    @PostConstruct
+    void init() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
         try {
-            Files.createDirectories(rootLocation);
+            Files.createDirectories(blobLocation);
+            Files.createDirectories(tempLocation);
         } catch (IOException e) {
             throw new RuntimeException("Could not create uploads directory", e);
         }
     }
 
+    @Transactional
     public String saveFile(MultipartFile file, String email) throws IOException {
         String originalFilename = file.getOriginalFilename();
         if (originalFilename == null || originalFilename.isEmpty()) {
@@ -30,29 +76,35 @@ public class FileUploadService {
         }
         String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
         String filename = "profile" + extension;
-        Path userDir = rootLocation.resolve("users").resolve(email);
-        Files.createDirectories(userDir);
-        Path targetFile = userDir.resolve(filename);
-        Files.copy(file.getInputStream(), targetFile, StandardCopyOption.REPLACE_EXISTING);
-        return "/uploads/users/" + email + "/" + filename;
+        return store(file, "users/" + email + "/" + filename, true);
     }
 
+    /**
+     * Elimina la URL. El archivo se borra tras el commit, y el contenido solo si ninguna otra URL lo usa.
+     * Los directorios no se eliminan: otra subida concurrente puede estar usándolos.
+     */
+    @Transactional
     public void deleteFile(String imgUrl) throws IOException {
-        if (imgUrl != null && imgUrl.startsWith("/uploads/")) {
-            String relativePath = imgUrl.substring(8);
-            Path filePath = rootLocation.resolve(relativePath);
-            Files.deleteIfExists(filePath);
-
-            Path parentDir = filePath.getParent();
-            if (parentDir != null && Files.exists(parentDir)) {
-                try {
-                    Files.deleteIfExists(parentDir);
-                } catch (Exception e) {
-                }
+        if (imgUrl != null && imgUrl.startsWith(URL_PREFIX)) {
+            Path filePath = resolveUrl(imgUrl);
+            StoredFileEntity stored = storedFileRepository.findById(imgUrl).orElse(null);
+            if (stored == null) {
+                // Archivo anterior al almacenamiento por contenido
+                TransactionUtils.afterCommit(() -> deleteQuietly(filePath));
+                return;
             }
+            storedFileRepository.delete(stored);
+            TransactionUtils.afterCommit(() -> {
+                synchronized (lockFor(stored.getSha256())) {
+                    deleteQuietly(filePath);
+                    imageVariantService.forgetUrl(imgUrl);
+                    releaseBlobQuietly(stored.getSha256());
+                }
+            });
         }
     }
 
+    @Transactional
     public String saveInventoryFile(MultipartFile file, String inventoryUuid) throws IOException {
         String originalFilename = file.getOriginalFilename();
         if (originalFilename == null || originalFilename.isEmpty()) {
@@ -60,13 +112,10 @@ public class FileUploadService {
         }
         String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
         String filename = "inventory" + extension;
-        Path inventoryDir = rootLocation.resolve("inventories").resolve(inventoryUuid);
-        Files.createDirectories(inventoryDir);
-        Path targetFile = inventoryDir.resolve(filename);
-        Files.copy(file.getInputStream(), targetFile, StandardCopyOption.REPLACE_EXISTING);
-        return "/uploads/inventories/" + inventoryUuid + "/" + filename;
+        return store(file, "inventories/" + inventoryUuid + "/" + filename, false);
     }
 
+    @Transactional
     public String saveLoanDocument(MultipartFile file, Long loanId) throws IOException {
         String originalFilename = file.getOriginalFilename();
         if (originalFilename == null || originalFilename.isEmpty()) {
@@ -74,13 +123,10 @@ public class FileUploadService {
         }
         String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
         String filename = "document" + extension;
-        Path loanDir = rootLocation.resolve("loans").resolve(loanId.toString());
-        Files.createDirectories(loanDir);
-        Path targetFile = loanDir.resolve(filename);
-        Files.copy(file.getInputStream(), targetFile, StandardCopyOption.REPLACE_EXISTING);
-        return "/uploads/loans/" + loanId + "/" + filename;
+        return store(file, "loans/" + loanId + "/" + filename, false);
     }
 
+    @Transactional
     public String saveItemImage(MultipartFile file, Long itemId, int imageIndex) throws IOException {
         String originalFilename = file.getOriginalFilename();
         if (originalFilename == null || originalFilename.isEmpty()) {
@@ -88,13 +134,10 @@ public class FileUploadService {
         }
         String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
         String filename = "image_" + imageIndex + extension;
-        Path itemDir = rootLocation.resolve("items").resolve(itemId.toString());
-        Files.createDirectories(itemDir);
-        Path targetFile = itemDir.resolve(filename);
-        Files.copy(file.getInputStream(), targetFile, StandardCopyOption.REPLACE_EXISTING);
-        return "/uploads/items/" + itemId + "/" + filename;
+        return store(file, "items/" + itemId + "/" + filename, true);
     }
 
+    @Transactional
     public String saveVerificationFile(MultipartFile file, String licencePlateNumber, Long verificationId, int fileIndex) throws IOException {
         String originalFilename = file.getOriginalFilename();
         if (originalFilename == null || originalFilename.isEmpty()) {
@@ -102,15 +145,10 @@ public class FileUploadService {
         }
         String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
         String filename = "verification_" + verificationId + "_" + fileIndex + extension;
-
-        Path verificationDir = rootLocation.resolve("verifications").resolve(licencePlateNumber);
-        Files.createDirectories(verificationDir);
-        
-        Path targetFile = verificationDir.resolve(filename);
-        Files.copy(file.getInputStream(), targetFile, StandardCopyOption.REPLACE_EXISTING);
-        return "/uploads/verifications/" + licencePlateNumber + "/" + filename;
+        return store(file, "verifications/" + licencePlateNumber + "/" + filename, true);
     }
 
+    @Transactional
     public String saveCancellationFormatFile(MultipartFile file, UUID uuid) throws IOException {
         String originalFilename = file.getOriginalFilename();
         if (originalFilename == null || originalFilename.isEmpty()) {
@@ -118,13 +156,10 @@ public class FileUploadService {
         }
         String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
         String filename = "cancellation_" + uuid.toString() + extension;
-        Path cancellationDir = rootLocation.resolve("cancellation");
-        Files.createDirectories(cancellationDir);
-        Path targetFile = cancellationDir.resolve(filename);
-        Files.copy(file.getInputStream(), targetFile, StandardCopyOption.REPLACE_EXISTING);
-        return "/uploads/cancellation/" + filename;
+        return store(file, "cancellation/" + filename, false);
     }
 
+    @Transactional
     public String saveCancellationFormatExampleFile(MultipartFile file, UUID uuid) throws IOException {
         String originalFilename = file.getOriginalFilename();
         if (originalFilename == null || originalFilename.isEmpty()) {
@@ -132,10 +167,154 @@ public class FileUploadService {
         }
         String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
         String filename = "cancellation_example_" + uuid.toString() + extension;
-        Path cancellationDir = rootLocation.resolve("cancellation");
-        Files.createDirectories(cancellationDir);
-        Path targetFile = cancellationDir.resolve(filename);
-        Files.copy(file.getInputStream(), targetFile, StandardCopyOption.REPLACE_EXISTING);
-        return "/uploads/cancellation/" + filename;
+        return store(file, "cancellation/" + filename, false);
+    }
+
+    /**
+     * Registra la URL con el hash de la subida; tras el commit guarda el contenido (si aún no existe)
+     * y publica la URL como enlace a él. El hash se calcula mientras se copia la subida al archivo temporal,
+     * sin leerla dos veces. Hasta el commit el contenido solo está en el temporal, así una liberación concurrente
+     * del mismo hash, que todavía no ve esta fila, no puede borrar un contenido que esta URL necesita.
+     *
+     * @param relativePath ruta de la URL dentro de {@code uploads/}
+     * @param imageVariants si es true se encola la generación de las variantes reducidas de la imagen
+     * @return URL pública del archivo
+     */
+    private String store(MultipartFile file, String relativePath, boolean imageVariants) throws IOException {
+        String url = URL_PREFIX + relativePath;
+        Path target = resolveUrl(url);
+
+        Path temp = Files.createTempFile(tempLocation, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                size = Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+
+            // El hash anterior se lee antes de guardar: save fusiona la fila nueva sobre la entidad ya cargada
+            String previousHash = storedFileRepository.findById(url)
+                    .map(StoredFileEntity::getSha256)
+                    .filter(previous -> !previous.equals(hash))
+                    .orElse(null);
+            storedFileRepository.save(StoredFileEntity.builder()
+                    .url(url)
+                    .sha256(hash)
+                    .size(size)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            TransactionUtils.afterCompletion(
+                    () -> publishCommitted(url, target, hash, temp, previousHash, imageVariants),
+                    () -> deleteQuietly(temp));
+            return url;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * Tras el commit: publica la URL, libera el contenido que la URL tenía antes y encola las variantes.
+     * La fila ya está confirmada, por lo que un error de disco solo se registra.
+     */
+    private void publishCommitted(String url, Path target, String hash, Path temp, String previousHash, boolean imageVariants) {
+        Path blob = blobPath(hash);
+        try {
+            synchronized (lockFor(hash)) {
+                if (!Files.exists(blob)) {
+                    Files.createDirectories(blob.getParent());
+                    Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE);
+                }
+                Files.createDirectories(target.getParent());
+                publish(blob, target);
+            }
+            imageVariantService.forgetUrl(url);
+        } catch (IOException e) {
+            log.error("No se pudo publicar el archivo {}: {}", url, e.getMessage(), e);
+            return;
+        } finally {
+            deleteQuietly(temp);
+        }
+        if (previousHash != null) {
+            // La URL tenía otro contenido (reemplazo): se libera el anterior
+            synchronized (lockFor(previousHash)) {
+                releaseBlobQuietly(previousHash);
+            }
+        }
+        if (imageVariants) {
+            imageVariantService.generateAsync(hash, blob);
+        }
+    }
+
+    /**
+     * Publica el contenido en la ruta de la URL: crea el enlace (o la copia) con un nombre temporal
+     * en el mismo directorio y lo mueve de forma atómica sobre la ruta final.
+     */
+    private void publish(Path blob, Path target) throws IOException {
+        Path temp = target.resolveSibling("." + target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            try {
+                Files.createLink(temp, blob);
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                log.debug("No se pudo crear el enlace a {}, se copia el archivo: {}", blob, e.getMessage());
+                Files.copy(blob, temp);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Elimina el contenido si ya no tiene referencias confirmadas. Las URLs enlazadas a él conservan sus datos
+     * (son enlaces duros), y una subida aún sin confirmar lo vuelve a crear desde su temporal al publicarse.
+     */
+    private void releaseBlob(String hash) throws IOException {
+        if (storedFileRepository.countBySha256(hash) == 0) {
+            Files.deleteIfExists(blobPath(hash));
+            imageVariantService.deleteVariants(hash);
+        }
+    }
+
+    private void releaseBlobQuietly(String hash) {
+        try {
+            releaseBlob(hash);
+        } catch (IOException | RuntimeException e) {
+            log.warn("No se pudo liberar el contenido {}: {}", hash, e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar {}: {}", path, e.getMessage());
+        }
+    }
+
+    private Path resolveUrl(String url) {
+        Path path = rootLocation.resolve(url.substring(URL_PREFIX.length())).normalize();
+        if (!path.startsWith(rootLocation) || path.startsWith(blobLocation) || path.startsWith(tempLocation)
+                || imageVariantService.isVariantPath(path)) {
+            throw new IllegalArgumentException("Invalid file path: " + url);
+        }
+        return path;
+    }
+
+    private Path blobPath(String hash) {
+        return blobLocation.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private Object lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
     }
-}
\ No newline at end of file
+}
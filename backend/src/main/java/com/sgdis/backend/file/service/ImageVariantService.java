@@ -0,0 +1,318 @@
+package com.sgdis.backend.file.service;
+
+import com.sgdis.backend.file.domain.ImageVariant;
+import com.sgdis.backend.file.infrastructure.entity.StoredFileEntity;
+import com.sgdis.backend.file.infrastructure.repository.SpringDataStoredFileRepository;
+import com.sgdis.backend.utils.ExecutorUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.w3c.dom.Node;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versiones reducidas (miniatura y mediana) de las imágenes subidas, generadas con ImageIO en un pool propio
+ * al guardar la imagen. Se guardan por hash de contenido en {@code uploads/variants/<variante>/ab/cd/<sha256>.jpg},
+ * así una misma imagen usada en varias URLs tiene una sola copia de cada variante.
+ * Si la variante aún no existe (o la imagen original ya es más pequeña), se sirve la original.
+ * El hash de cada URL se guarda en una caché acotada para no consultar {@code stored_files} en cada imagen;
+ * {@link FileUploadService} la invalida cuando publica o elimina la URL.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageVariantService {
+
+    // Imágenes más grandes se sirven sin variantes para no agotar la memoria al decodificarlas
+    private static final long MAX_SOURCE_PIXELS = 60_000_000L;
+    private static final String JPEG_METADATA_FORMAT = "javax_imageio_jpeg_image_1.0";
+    private static final int EXIF_MARKER = 0xE1;
+    private static final int EXIF_ORIENTATION_TAG = 0x0112;
+    // Valor en caché de las URLs sin fila en stored_files (archivos anteriores al almacenamiento por contenido)
+    private static final String NOT_STORED = "";
+
+    private final SpringDataStoredFileRepository storedFileRepository;
+
+    @Value("${uploads.image-variants.threads:2}")
+    private int threads;
+
+    @Value("${uploads.image-variants.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${uploads.image-variants.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    @Value("${uploads.image-variants.url-cache.max-entries:10000}")
+    private int maxCachedUrls;
+
+    private final Map<String, String> hashByUrl = new ConcurrentHashMap<>();
+
+    private final Path variantLocation = Paths.get("uploads", "variants");
+    private ThreadPoolTaskExecutor threadPool;
+
+    @PostConstruct
+    void initExecutor() {
+        threadPool = ExecutorUtils.fixedPool("image-variants-", threads, queueCapacity);
+    }
+
+    @PreDestroy
+    void shutdownExecutor() {
+        threadPool.shutdown();
+    }
+
+    /**
+     * Encola la generación de las variantes que falten para el contenido indicado.
+     * Si la cola está llena la imagen queda sin variantes y se sirve la original.
+     */
+    public void generateAsync(String hash, Path source) {
+        try {
+            threadPool.execute(() -> generate(hash, source));
+        } catch (TaskRejectedException e) {
+            log.warn("Cola de variantes de imagen llena: {} se servirá sin variantes", hash);
+        }
+    }
+
+    /**
+     * Ruta de la variante de la URL, si ya fue generada.
+     */
+    public Optional<Path> resolve(String url, ImageVariant variant) {
+        if (hashByUrl.size() >= maxCachedUrls) {
+            // Al llenarse se vacía y se vuelve a llenar con las URLs en uso
+            hashByUrl.clear();
+        }
+        // computeIfAbsent bloquea la entrada mientras consulta: una invalidación concurrente no puede
+        // quedar sobrescrita por un hash leído antes del commit que la originó
+        String hash = hashByUrl.computeIfAbsent(url, key -> storedFileRepository.findById(key)
+                .map(StoredFileEntity::getSha256)
+                .orElse(NOT_STORED));
+        return Optional.of(hash)
+                .filter(value -> !value.equals(NOT_STORED))
+                .map(value -> variantPath(value, variant))
+                .filter(Files::exists);
+    }
+
+    /**
+     * Descarta el hash en caché de la URL; se llama después de confirmar un cambio de su contenido.
+     */
+    public void forgetUrl(String url) {
+        hashByUrl.remove(url);
+    }
+
+    /**
+     * Elimina las variantes de un contenido que dejó de tener referencias.
+     */
+    public void deleteVariants(String hash) throws IOException {
+        for (ImageVariant variant : ImageVariant.values()) {
+            Files.deleteIfExists(variantPath(hash, variant));
+        }
+    }
+
+    public boolean isVariantPath(Path path) {
+        return path.startsWith(variantLocation);
+    }
+
+    void generate(String hash, Path source) {
+        List<ImageVariant> missing = Arrays.stream(ImageVariant.values())
+                .filter(variant -> !Files.exists(variantPath(hash, variant)))
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                // No es una imagen que ImageIO pueda leer (PDF, documentos, etc.)
+                return;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int longest = Math.max(width, height);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    log.warn("Imagen {} demasiado grande para generar variantes ({}x{})", hash, width, height);
+                    return;
+                }
+
+                // Se decodifica submuestreada cuando es mucho más grande que la variante mayor
+                int largestVariant = Arrays.stream(ImageVariant.values()).mapToInt(ImageVariant::getMaxSize).max().orElse(longest);
+                int subsampling = Math.max(1, longest / (largestVariant * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage image = reader.read(0, param);
+                int orientation = orientationOf(reader.getImageMetadata(0));
+
+                for (ImageVariant variant : missing) {
+                    if (longest <= variant.getMaxSize()) {
+                        // La original ya es pequeña: se sirve la original
+                        continue;
+                    }
+                    writeJpeg(orient(resize(image, variant.getMaxSize()), orientation), variantPath(hash, variant));
+                }
+            } finally {
+                reader.dispose();
+            }
+
+            // El contenido pudo eliminarse mientras se generaban las variantes
+            if (!Files.exists(source)) {
+                deleteVariants(hash);
+            }
+            log.debug("Variantes de imagen generadas para {}", hash);
+        } catch (IOException | RuntimeException e) {
+            log.warn("No se pudieron generar las variantes de la imagen {}: {}", hash, e.getMessage());
+        }
+    }
+
+    /**
+     * Reduce la imagen a la mitad por pasos hasta llegar al tamaño final, lo que evita el aliasing
+     * del escalado bilineal en un solo paso. La transparencia se reemplaza por fondo blanco (JPEG).
+     */
+    private static BufferedImage resize(BufferedImage source, int maxSize) {
+        double scale = (double) maxSize / Math.max(source.getWidth(), source.getHeight());
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(width / 2, targetWidth);
+            height = Math.max(height / 2, targetHeight);
+            BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = step.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(current, 0, 0, width, height, Color.WHITE, null);
+            graphics.dispose();
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    /**
+     * Aplica la orientación EXIF (ImageIO la ignora, los navegadores la respetan al mostrar la original).
+     */
+    private static BufferedImage orient(BufferedImage image, int orientation) {
+        if (orientation <= 1 || orientation > 8) {
+            return image;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        AffineTransform transform = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { transform.translate(width, 0); transform.scale(-1, 1); }
+            case 3 -> { transform.translate(width, height); transform.rotate(Math.PI); }
+            case 4 -> { transform.translate(0, height); transform.scale(1, -1); }
+            case 5 -> { transform.rotate(Math.PI / 2); transform.scale(1, -1); }
+            case 6 -> { transform.translate(height, 0); transform.rotate(Math.PI / 2); }
+            case 7 -> { transform.translate(height, width); transform.rotate(Math.PI / 2); transform.scale(-1, 1); }
+            default -> { transform.translate(0, width); transform.rotate(-Math.PI / 2); }
+        }
+        boolean swap = orientation >= 5;
+        BufferedImage oriented = new BufferedImage(swap ? height : width, swap ? width : height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = oriented.createGraphics();
+        graphics.drawImage(image, transform, null);
+        graphics.dispose();
+        return oriented;
+    }
+
+    /**
+     * Lee la etiqueta Orientation del bloque EXIF (APP1) de un JPEG; 1 si no la tiene.
+     */
+    private static int orientationOf(IIOMetadata metadata) {
+        if (metadata == null || !JPEG_METADATA_FORMAT.equals(metadata.getNativeMetadataFormatName())) {
+            return 1;
+        }
+        Node markers = ((IIOMetadataNode) metadata.getAsTree(JPEG_METADATA_FORMAT)).getElementsByTagName("markerSequence").item(0);
+        for (Node marker = markers != null ? markers.getFirstChild() : null; marker != null; marker = marker.getNextSibling()) {
+            if ("unknown".equals(marker.getNodeName())
+                    && String.valueOf(EXIF_MARKER).equals(((IIOMetadataNode) marker).getAttribute("MarkerTag"))
+                    && ((IIOMetadataNode) marker).getUserObject() instanceof byte[] data) {
+                return exifOrientation(data);
+            }
+        }
+        return 1;
+    }
+
+    private static int exifOrientation(byte[] data) {
+        // "Exif\0\0" + cabecera TIFF (orden de bytes, 42, desplazamiento del IFD0) + entradas de 12 bytes
+        if (data.length < 14 || data[0] != 'E' || data[1] != 'x' || data[2] != 'i' || data[3] != 'f') {
+            return 1;
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(data, 6, data.length - 6).slice();
+        tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        try {
+            int ifd = tiff.getInt(4);
+            int entries = tiff.getShort(ifd) & 0xFFFF;
+            for (int i = 0; i < entries; i++) {
+                int entry = ifd + 2 + i * 12;
+                if ((tiff.getShort(entry) & 0xFFFF) == EXIF_ORIENTATION_TAG) {
+                    return tiff.getShort(entry + 8) & 0xFFFF;
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            // EXIF truncado: se usa la orientación por defecto
+        }
+        return 1;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".variant-", ".tmp");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            writer.dispose();
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path variantPath(String hash, ImageVariant variant) {
+        return variantLocation.resolve(variant.getParam())
+                .resolve(hash.substring(0, 2))
+                .resolve(hash.substring(2, 4))
+                .resolve(hash + ".jpg");
+    }
+}
@@ -0,0 +1,48 @@
+package com.sgdis.backend.file.web;
+
+import com.sgdis.backend.file.domain.ImageVariant;
+import com.sgdis.backend.file.service.ImageVariantService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.resource.ResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.util.List;
+
+/**
+ * Sirve la variante reducida de una imagen de {@code /uploads/} cuando la petición lleva
+ * {@code ?variant=thumb} o {@code ?variant=medium}. Si la variante no existe (aún no se generó,
+ * la imagen ya es pequeña o no es una imagen) se sirve el archivo original.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImageVariantResourceResolver implements ResourceResolver {
+
+    public static final String VARIANT_PARAM = "variant";
+
+    private final ImageVariantService imageVariantService;
+
+    @Override
+    @Nullable
+    public Resource resolveResource(@Nullable HttpServletRequest request, String requestPath,
+                                    List<? extends Resource> locations, ResourceResolverChain chain) {
+        ImageVariant variant = request != null ? ImageVariant.fromParam(request.getParameter(VARIANT_PARAM)) : null;
+        if (variant != null) {
+            var variantPath = imageVariantService.resolve("/uploads/" + requestPath, variant);
+            if (variantPath.isPresent()) {
+                return new FileSystemResource(variantPath.get());
+            }
+        }
+        return chain.resolveResource(request, requestPath, locations);
+    }
+
+    @Override
+    @Nullable
+    public String resolveUrlPath(String resourcePath, List<? extends Resource> locations, ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourcePath, locations);
+    }
+}
@@ -1,5 +1,6 @@
 package com.sgdis.backend.institution.application.service;
 
+import com.sgdis.backend.data.cache.ReferenceDataCache;
 import com.sgdis.backend.data.regional.entity.RegionalEntity;
 import com.sgdis.backend.data.regional.repositories.SpringDataRegionalRepository;
 import com.sgdis.backend.exception.ResourceNotFoundException;
@@ -11,10 +12,17 @@ import com.sgdis.backend.institution.mapper.InstitutionMapper;
 // Auditoría
 import com.sgdis.backend.auditory.application.port.in.RecordActionUseCase;
 import com.sgdis.backend.auditory.application.dto.RecordActionRequest;
+import com.sgdis.backend.auditory.domain.AuditActionType;
+import com.sgdis.backend.auditory.domain.AuditEntityType;
+import com.sgdis.backend.web.service.CentersMapService;
+import com.sgdis.backend.web.service.DashboardCounterService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Set;
+import java.util.LinkedHashSet;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +38,9 @@ public class InstitutionService implements
     private final SpringDataInstitutionRepository institutionRepository;
     private final SpringDataRegionalRepository institutionRegionalRepository;
     private final RecordActionUseCase recordActionUseCase;
+    private final DashboardCounterService dashboardCounterService;
+    private final ReferenceDataCache referenceDataCache;
+    private final CentersMapService centersMapService;
 
 
     @Override
@@ -61,20 +72,34 @@ public class InstitutionService implements
         
         InstitutionEntity institution = InstitutionMapper.fromUpdateRequest(request, id);
         InstitutionEntity updatedInstitution = institutionRepository.save(institution);
+        referenceDataCache.evictInstitutions();
+        centersMapService.markChanged(List.of(id));
+
+        // Si cambió la regional, todo el contenido de la institución cambia de regional
+        Long newRegionalId = updatedInstitution.getRegional() != null ? updatedInstitution.getRegional().getId() : null;
+        if (!Objects.equals(originalRegionalId, newRegionalId)) {
+            dashboardCounterService.refreshRegional(originalRegionalId);
+            dashboardCounterService.refreshInstitution(id);
+        }
         
         // Registrar auditoría - construir descripción de cambios
         StringBuilder changes = new StringBuilder();
+        Set<String> changedFields = new LinkedHashSet<>();
         if (request.name() != null && !request.name().equals(originalName)) {
             changes.append("Nombre actualizado | ");
+            changedFields.add("name");
         }
         if (request.codeInstitution() != null && !request.codeInstitution().equals(originalCodeInstitution)) {
             changes.append("Código actualizado | ");
+            changedFields.add("codeInstitution");
         }
         if (request.regionalId() != null && !request.regionalId().equals(originalRegionalId)) {
             changes.append("Regional actualizada | ");
+            changedFields.add("regional");
         }
         if (request.cityId() != null && !request.cityId().equals(originalCityId)) {
             changes.append("Ciudad actualizada | ");
+            changedFields.add("city");
         }
         
         String changesDescription = changes.length() > 0 
@@ -82,12 +107,16 @@ public class InstitutionService implements
                 : "Sin cambios";
         
         String institutionName = updatedInstitution.getName() != null ? updatedInstitution.getName() : "sin nombre";
-        recordActionUseCase.recordAction(new RecordActionRequest(
-                String.format("Institución actualizada: %s (ID: %d) - %s", 
+        recordActionUseCase.recordAction(RecordActionRequest.builder()
+                .action(String.format("Institución actualizada: %s (ID: %d) - %s", 
                         institutionName,
                         id,
-                        changesDescription)
-        ));
+                        changesDescription))
+                .actionType(AuditActionType.UPDATE)
+                .entityType(AuditEntityType.INSTITUTION)
+                .entityId(id)
+                .changedFields(changedFields)
+                .build());
         
         return InstitutionMapper.toUpdateResponse(updatedInstitution);
     }
@@ -96,17 +125,23 @@ public class InstitutionService implements
     public InstitutionResponse createInstitution(CreateInstitutionRequest createInstitutionRequest) {
         InstitutionEntity institution = InstitutionMapper.fromCreateRequest(createInstitutionRequest);
         InstitutionEntity saved = institutionRepository.save(institution);
+        referenceDataCache.evictInstitutions();
+        centersMapService.markChanged(List.of(saved.getId()));
+        dashboardCounterService.refreshInstitution(saved.getId());
         
         // Registrar auditoría
         String regionalName = saved.getRegional() != null && saved.getRegional().getName() != null 
                 ? saved.getRegional().getName() : "N/A";
-        recordActionUseCase.recordAction(new RecordActionRequest(
-                String.format("Institución creada: %s (ID: %d) - Código: %s - Regional: %s", 
+        recordActionUseCase.recordAction(RecordActionRequest.builder()
+                .action(String.format("Institución creada: %s (ID: %d) - Código: %s - Regional: %s", 
                         saved.getName() != null ? saved.getName() : "sin nombre",
                         saved.getId(),
                         saved.getCodeInstitution() != null ? saved.getCodeInstitution() : "N/A",
-                        regionalName)
-        ));
+                        regionalName))
+                .actionType(AuditActionType.CREATE)
+                .entityType(AuditEntityType.INSTITUTION)
+                .entityId(saved.getId())
+                .build());
         
         return InstitutionMapper.toResponse(saved);
     }
@@ -1,5 +1,6 @@
 package com.sgdis.backend.institution.web;
 
+import com.sgdis.backend.data.cache.ReferenceDataCache;
 import com.sgdis.backend.institution.application.dto.*;
 import com.sgdis.backend.institution.application.port.in.CreateInstitutionUseCase;
 import com.sgdis.backend.institution.application.port.in.GetAllInstitutionUseCase;
@@ -35,6 +36,7 @@ public class InstitutionController {
     private final GetByIdInstitutionUseCase getByIdInstitutionUseCase;
     private final UpdateInstitutionUseCase updateInstitutionUseCase;
     private final SpringDataInstitutionRepository institutionRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     // Crear institución
     @Operation(
@@ -84,8 +86,8 @@ public class InstitutionController {
     )
     @GetMapping
     public ResponseEntity<List<GetAllInstitutionResponse>> getAllInstitutions() {
-        var list = getAllInstitutionUseCase.getAllInstitution();
-        return ResponseEntity.ok(list);
+        return referenceDataCache.respond(ReferenceDataCache.INSTITUTIONS,
+                getAllInstitutionUseCase::getAllInstitution);
     }
 
     // Obtener institución por ID
@@ -145,8 +147,8 @@ public class InstitutionController {
 
     @GetMapping("/institutionsByRegionalId/{id}")
     public ResponseEntity<List<InstitutionResponseWithoutRegionalResponse>> getAllInstitutionsByRegionalId(@PathVariable Long id){
-        List<InstitutionResponseWithoutRegionalResponse> list = getAllInstitutionsByRegionalIdUseCase.getAllInstitutionsByRegionalId(id);
-        return ResponseEntity.ok(list);
+        return referenceDataCache.respond(ReferenceDataCache.INSTITUTIONS_BY_REGIONAL + id,
+                () -> getAllInstitutionsByRegionalIdUseCase.getAllInstitutionsByRegionalId(id));
     }
 
     @Operation(
@@ -160,8 +162,7 @@ public class InstitutionController {
     )
     @GetMapping("/map")
     public ResponseEntity<List<InstitutionMapResponse>> getInstitutionsForMap() {
-        var institutions = institutionRepository.findAll();
-        var mapResponses = institutions.stream()
+        return referenceDataCache.respond(ReferenceDataCache.INSTITUTIONS_MAP, () -> institutionRepository.findAll().stream()
                 .map(institution -> InstitutionMapResponse.builder()
                         .id(institution.getId())
                         .name(institution.getName())
@@ -175,7 +176,6 @@ public class InstitutionController {
                                 institution.getRegional().getDepartament() != null ? 
                                 institution.getRegional().getDepartament().getDepartament() : null)
                         .build())
-                .toList();
-        return ResponseEntity.ok(mapResponses);
+                .toList());
     }
 }
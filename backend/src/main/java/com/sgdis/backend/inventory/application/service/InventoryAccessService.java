@@ -0,0 +1,123 @@
+package com.sgdis.backend.inventory.application.service;
+
+import com.sgdis.backend.user.infrastructure.repository.SpringDataUserRepository;
+import com.sgdis.backend.utils.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resuelve los inventarios a los que un usuario tiene acceso (propietario, gestor o firmante)
+ * con una sola consulta UNION y cachea el resultado por usuario.
+ * La caché se invalida tras el commit de cualquier cambio de propietario, gestores o firmantes,
+ * y además cada entrada expira tras un TTL como red de seguridad. Tiene un máximo de entradas:
+ * si sigue llena tras descartar las vencidas, el resultado se devuelve sin guardarlo.
+ */
+@Service
+@RequiredArgsConstructor
+public class InventoryAccessService {
+
+    private final SpringDataUserRepository userRepository;
+
+    @Value("${inventory.access.cache.ttl-ms:300000}")
+    private long cacheTtlMs;
+
+    @Value("${inventory.access.cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<Long, CachedAccess> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Generación actual de la caché; una carga que empezó antes de una invalidación no se guarda.
+     */
+    private long generation;
+
+    /**
+     * IDs de los inventarios donde el usuario es propietario, gestor o firmante.
+     * El conjunto devuelto es inmutable.
+     */
+    public Set<Long> getAccessibleInventoryIds(Long userId) {
+        if (userId == null) {
+            return Set.of();
+        }
+        long now = System.currentTimeMillis();
+        CachedAccess cached = cache.get(userId);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.inventoryIds();
+        }
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+        Set<Long> inventoryIds = Set.copyOf(userRepository.findAccessibleInventoryIds(userId));
+        if (cache.size() >= maxEntries) {
+            purgeExpired();
+        }
+        synchronized (this) {
+            if (loadGeneration == generation && cache.size() < maxEntries) {
+                cache.put(userId, new CachedAccess(inventoryIds, now + cacheTtlMs));
+            }
+        }
+        return inventoryIds;
+    }
+
+    /**
+     * Invalida la caché de los usuarios indicados. Si hay una transacción activa,
+     * la invalidación se hace tras el commit para que una lectura concurrente no vuelva a cachear datos viejos.
+     */
+    public void evictUsers(Long... userIds) {
+        evictUsers(Arrays.asList(userIds));
+    }
+
+    public void evictUsers(Collection<Long> userIds) {
+        List<Long> ids = userIds.stream().filter(Objects::nonNull).toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> ids.forEach(cache::remove));
+    }
+
+    /**
+     * Invalida la caché de todos los usuarios. Se usa cuando un cambio afecta a un número
+     * indeterminado de usuarios (por ejemplo, eliminar un inventario).
+     */
+    public void evictAll() {
+        afterCommit(cache::clear);
+    }
+
+    /**
+     * Descarta las entradas vencidas.
+     */
+    @Scheduled(fixedDelayString = "${inventory.access.cache.cleanup-interval-ms:600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        cache.values().removeIf(cached -> cached.expiresAt() <= now);
+    }
+
+    private void afterCommit(Runnable eviction) {
+        Runnable evictAndAdvance = () -> {
+            synchronized (this) {
+                generation++;
+                eviction.run();
+            }
+        };
+        // Se invalida también de inmediato para que la propia transacción no lea datos cacheados
+        evictAndAdvance.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionUtils.afterCommit(evictAndAdvance);
+        }
+    }
+
+    private record CachedAccess(Set<Long> inventoryIds, long expiresAt) {
+    }
+}
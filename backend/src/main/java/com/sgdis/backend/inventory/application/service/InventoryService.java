@@ -20,11 +20,13 @@ import com.sgdis.backend.exception.userExceptions.UserNotFoundException;
 import com.sgdis.backend.user.mapper.UserMapper;
 import com.sgdis.backend.user.domain.Role;
 import com.sgdis.backend.notification.service.NotificationService;
-import com.sgdis.backend.notification.service.NotificationPersistenceService;
+import com.sgdis.backend.notification.service.NotificationDispatcher;
 import com.sgdis.backend.notification.dto.NotificationMessage;
 // Auditoría
 import com.sgdis.backend.auditory.application.port.in.RecordActionUseCase;
 import com.sgdis.backend.auditory.application.dto.RecordActionRequest;
+import com.sgdis.backend.auditory.domain.AuditActionType;
+import com.sgdis.backend.auditory.domain.AuditEntityType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -36,10 +38,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.stream.Collectors;
 import com.sgdis.backend.item.infrastructure.repository.SpringDataItemRepository;
 import com.sgdis.backend.loan.infrastructure.repository.SpringDataLoanRepository;
 import com.sgdis.backend.transfers.infrastructure.repository.SpringDataTransferRepository;
+import com.sgdis.backend.web.service.DashboardCounterService;
 
 @Service
 @RequiredArgsConstructor
@@ -71,11 +75,13 @@ public class InventoryService
         private final SpringDataInstitutionRepository institutionRepository;
         private final AuthService authService;
         private final NotificationService notificationService;
-        private final NotificationPersistenceService notificationPersistenceService;
+        private final NotificationDispatcher notificationDispatcher;
         private final RecordActionUseCase recordActionUseCase;
         private final SpringDataItemRepository itemRepository;
         private final SpringDataLoanRepository loanRepository;
         private final SpringDataTransferRepository transferRepository;
+        private final DashboardCounterService dashboardCounterService;
+        private final InventoryAccessService inventoryAccessService;
 
         /**
          * Valida que el inventario esté activo para realizar acciones.
@@ -149,6 +155,10 @@ public class InventoryService
                 inventory.setInstitution(institution);
 
                 InventoryEntity savedInventory = inventoryRepository.save(inventory);
+                dashboardCounterService.refreshInstitution(institution.getId());
+                if (owner != null) {
+                        inventoryAccessService.evictUsers(owner.getId());
+                }
                 
                 // Enviar notificación al dueño del inventario solo si existe
                 if (owner != null) {
@@ -166,12 +176,16 @@ public class InventoryService
                 String ownerInfo = owner != null 
                         ? String.format("Propietario: %s (%s)", owner.getFullName(), owner.getEmail())
                         : "Sin propietario asignado";
-                recordActionUseCase.recordAction(new RecordActionRequest(
-                        String.format("Inventario creado: %s (ID: %d) - %s", 
+                recordActionUseCase.recordAction(RecordActionRequest.builder()
+                        .action(String.format("Inventario creado: %s (ID: %d) - %s", 
                                 savedInventory.getName() != null ? savedInventory.getName() : "sin nombre",
                                 savedInventory.getId(),
-                                ownerInfo)
-                ));
+                                ownerInfo))
+                        .actionType(AuditActionType.CREATE)
+                        .entityType(AuditEntityType.INVENTORY)
+                        .entityId(savedInventory.getId())
+                        .inventoryId(savedInventory.getId())
+                        .build());
                 
                 return InventoryMapper.toCreateResponse(savedInventory);
         }
@@ -198,6 +212,7 @@ public class InventoryService
                 String inventoryName = inventory.getName() != null ? inventory.getName() : "sin nombre";
                 String ownerName = inventory.getOwner() != null ? inventory.getOwner().getFullName() : "N/A";
                 String ownerEmail = inventory.getOwner() != null ? inventory.getOwner().getEmail() : "N/A";
+                Long institutionId = inventory.getInstitution() != null ? inventory.getInstitution().getId() : null;
                 
                 // Validar que el inventario no tenga items asociados
                 long itemsCount = itemRepository.findAllByInventoryId(id).size();
@@ -307,12 +322,19 @@ public class InventoryService
                     // Si no es un error de relaciones, relanzar el error original
                     throw e;
                 }
+                dashboardCounterService.refreshInstitution(institutionId);
+                // Propietario, gestores y firmantes del inventario eliminado pierden el acceso
+                inventoryAccessService.evictAll();
                 
                 // Registrar auditoría
-                recordActionUseCase.recordAction(new RecordActionRequest(
-                        String.format("Inventario eliminado: %s (ID: %d) - Propietario: %s (%s)", 
-                                inventoryName, id, ownerName, ownerEmail)
-                ));
+                recordActionUseCase.recordAction(RecordActionRequest.builder()
+                        .action(String.format("Inventario eliminado: %s (ID: %d) - Propietario: %s (%s)", 
+                                inventoryName, id, ownerName, ownerEmail))
+                        .actionType(AuditActionType.DELETE)
+                        .entityType(AuditEntityType.INVENTORY)
+                        .entityId(id)
+                        .inventoryId(id)
+                        .build());
                 
                 return response;
         }
@@ -341,29 +363,41 @@ public class InventoryService
                 
                 InventoryEntity updatedInventory = InventoryMapper.fromUpdateRequest(request, inventory);
                 updatedInventory = inventoryRepository.save(updatedInventory);
+                if (updatedInventory.isStatus() != originalStatus) {
+                        dashboardCounterService.refreshInventories(List.of(id));
+                }
                 
                 // Registrar auditoría
                 StringBuilder changes = new StringBuilder();
+                Set<String> changedFields = new LinkedHashSet<>();
                 if (request.name() != null && !request.name().equals(originalName)) {
                         changes.append("Nombre actualizado | ");
+                        changedFields.add("name");
                 }
                 if (request.location() != null && !request.location().equals(originalLocation)) {
                         changes.append("Ubicación actualizada | ");
+                        changedFields.add("location");
                 }
                 if (request.status() != null && request.status() != originalStatus) {
                         changes.append("Estado actualizado | ");
+                        changedFields.add("status");
                 }
                 
                 String changesDescription = changes.length() > 0 
                         ? changes.toString().substring(0, changes.length() - 3) 
                         : "Sin cambios";
                 
-                recordActionUseCase.recordAction(new RecordActionRequest(
-                        String.format("Inventario actualizado: %s (ID: %d) - %s", 
+                recordActionUseCase.recordAction(RecordActionRequest.builder()
+                        .action(String.format("Inventario actualizado: %s (ID: %d) - %s", 
                                 updatedInventory.getName() != null ? updatedInventory.getName() : "sin nombre",
                                 id,
-                                changesDescription)
-                ));
+                                changesDescription))
+                        .actionType(AuditActionType.UPDATE)
+                        .entityType(AuditEntityType.INVENTORY)
+                        .entityId(id)
+                        .inventoryId(id)
+                        .changedFields(changedFields)
+                        .build());
                 
                 return InventoryMapper.toUpdateResponse(updatedInventory);
         }
@@ -402,9 +436,11 @@ public class InventoryService
                         // Guardar información del propietario anterior para auditoría
                         String oldOwnerName = inventory.getOwner() != null ? inventory.getOwner().getFullName() : "N/A";
                         String oldOwnerEmail = inventory.getOwner() != null ? inventory.getOwner().getEmail() : "N/A";
+                        Long oldOwnerId = inventory.getOwner() != null ? inventory.getOwner().getId() : null;
                         
                         inventory.setOwner(newOwner);
                         inventory = inventoryRepository.save(inventory);
+                        inventoryAccessService.evictUsers(oldOwnerId, newOwner.getId());
                         
                         // Enviar notificación al nuevo dueño del inventario
                         String inventoryName = inventory.getName() != null ? inventory.getName() : "sin nombre";
@@ -415,15 +451,19 @@ public class InventoryService
                         );
                         
                         // Registrar auditoría
-                        recordActionUseCase.recordAction(new RecordActionRequest(
-                                String.format("Propietario de inventario actualizado: %s (ID: %d) - Anterior: %s (%s) → Nuevo: %s (%s)", 
+                        recordActionUseCase.recordAction(RecordActionRequest.builder()
+                                .action(String.format("Propietario de inventario actualizado: %s (ID: %d) - Anterior: %s (%s) → Nuevo: %s (%s)", 
                                         inventoryName,
                                         inventory.getId(),
                                         oldOwnerName,
                                         oldOwnerEmail,
                                         newOwner.getFullName(),
-                                        newOwner.getEmail())
-                        ));
+                                        newOwner.getEmail()))
+                                .actionType(AuditActionType.ASSIGN)
+                                .entityType(AuditEntityType.INVENTORY)
+                                .entityId(inventory.getId())
+                                .inventoryId(inventory.getId())
+                                .build());
                 }
 
                 return InventoryMapper.toResponse(inventory);
@@ -447,16 +487,24 @@ public class InventoryService
                                                 "Institution not found with id " + request.institutionId()));
 
                 String oldInstitutionName = inventory.getInstitution() != null ? inventory.getInstitution().getName() : "N/A";
+                Long oldInstitutionId = inventory.getInstitution() != null ? inventory.getInstitution().getId() : null;
                 inventory.setInstitution(institution);
                 inventory = inventoryRepository.save(inventory);
+                dashboardCounterService.refreshInstitutions(oldInstitutionId != null
+                                ? List.of(oldInstitutionId, institution.getId())
+                                : List.of(institution.getId()));
 
                 // Registrar auditoría
-                recordActionUseCase.recordAction(new RecordActionRequest(
-                        String.format("Institución de inventario actualizada: %s (ID: %d) - Nueva institución: %s", 
+                recordActionUseCase.recordAction(RecordActionRequest.builder()
+                        .action(String.format("Institución de inventario actualizada: %s (ID: %d) - Nueva institución: %s", 
                                 inventory.getName() != null ? inventory.getName() : "sin nombre",
                                 inventory.getId(),
-                                institution.getName())
-                ));
+                                institution.getName()))
+                        .actionType(AuditActionType.UPDATE)
+                        .entityType(AuditEntityType.INVENTORY)
+                        .entityId(inventory.getId())
+                        .inventoryId(inventory.getId())
+                        .build());
 
                 return InventoryMapper.toResponse(inventory);
         }
@@ -498,14 +546,20 @@ public class InventoryService
 
                 inventoryRepository.save(inventory);
 
+                inventoryAccessService.evictUsers(user.getId());
+
                 // Registrar auditoría
-                recordActionUseCase.recordAction(new RecordActionRequest(
-                        String.format("Manejador asignado a inventario: %s (ID: %d) - Manejador: %s (%s)", 
+                recordActionUseCase.recordAction(RecordActionRequest.builder()
+                        .action(String.format("Manejador asignado a inventario: %s (ID: %d) - Manejador: %s (%s)", 
                                 inventory.getName() != null ? inventory.getName() : "sin nombre",
                                 inventory.getId(),
                                 user.getFullName(),
-                                user.getEmail())
-                ));
+                                user.getEmail()))
+                        .actionType(AuditActionType.ASSIGN)
+                        .entityType(AuditEntityType.INVENTORY)
+                        .entityId(inventory.getId())
+                        .inventoryId(inventory.getId())
+                        .build());
 
                 // Enviar notificaciones
                 sendManagerAssignedNotifications(inventory, user);
@@ -542,14 +596,20 @@ public class InventoryService
                 inventory.setManagers(managers);
                 inventoryRepository.save(inventory);
 
+                inventoryAccessService.evictUsers(user.getId());
+
                 // Registrar auditoría
-                recordActionUseCase.recordAction(new RecordActionRequest(
-                        String.format("Manejador eliminado de inventario: %s (ID: %d) - Manejador: %s (%s)", 
+                recordActionUseCase.recordAction(RecordActionRequest.builder()
+                        .action(String.format("Manejador eliminado de inventario: %s (ID: %d) - Manejador: %s (%s)", 
                                 inventory.getName() != null ? inventory.getName() : "sin nombre",
                                 inventory.getId(),
                                 user.getFullName(),
-                                user.getEmail())
-                ));
+                                user.getEmail()))
+                        .actionType(AuditActionType.UNASSIGN)
+                        .entityType(AuditEntityType.INVENTORY)
+                        .entityId(inventory.getId())
+                        .inventoryId(inventory.getId())
+                        .build());
 
                 // Enviar notificaciones
                 sendManagerRemovedNotifications(inventory, user);
@@ -635,14 +695,20 @@ public class InventoryService
             inventory.setManagers(managers);
             inventoryRepository.save(inventory);
 
+            inventoryAccessService.evictUsers(user.getId());
+
             // Registrar auditoría
-            recordActionUseCase.recordAction(new RecordActionRequest(
-                    String.format("Manejador renunció a inventario: %s (ID: %d) - Manejador: %s (%s)", 
+            recordActionUseCase.recordAction(RecordActionRequest.builder()
+                    .action(String.format("Manejador renunció a inventario: %s (ID: %d) - Manejador: %s (%s)", 
                             inventory.getName() != null ? inventory.getName() : "sin nombre",
                             inventory.getId(),
                             user.getFullName(),
-                            user.getEmail())
-            ));
+                            user.getEmail()))
+                    .actionType(AuditActionType.RESIGN)
+                    .entityType(AuditEntityType.INVENTORY)
+                    .entityId(inventory.getId())
+                    .inventoryId(inventory.getId())
+                    .build());
 
             return new QuitInventoryResponse("Ha renunciado exitosamente a este inventario", inventory.getName());
         }
@@ -696,14 +762,20 @@ public class InventoryService
         userRepository.save(user);
         inventoryRepository.save(inventory);
 
+        inventoryAccessService.evictUsers(user.getId());
+
         // Registrar auditoría
-        recordActionUseCase.recordAction(new RecordActionRequest(
-                String.format("Firmante asignado a inventario: %s (ID: %d) - Firmante: %s (%s)", 
+        recordActionUseCase.recordAction(RecordActionRequest.builder()
+                .action(String.format("Firmante asignado a inventario: %s (ID: %d) - Firmante: %s (%s)", 
                         inventory.getName() != null ? inventory.getName() : "sin nombre",
                         inventory.getId(),
                         user.getFullName(),
-                        user.getEmail())
-        ));
+                        user.getEmail()))
+                .actionType(AuditActionType.ASSIGN)
+                .entityType(AuditEntityType.INVENTORY)
+                .entityId(inventory.getId())
+                .inventoryId(inventory.getId())
+                .build());
 
         // Enviar notificaciones
         sendSignatoryAssignedNotifications(inventory, user);
@@ -747,14 +819,20 @@ public class InventoryService
         user.setMySignatories(userInventories);
         userRepository.save(user);
 
+        inventoryAccessService.evictUsers(user.getId());
+
         // Registrar auditoría
-        recordActionUseCase.recordAction(new RecordActionRequest(
-                String.format("Firmante renunció a inventario: %s (ID: %d) - Firmante: %s (%s)", 
+        recordActionUseCase.recordAction(RecordActionRequest.builder()
+                .action(String.format("Firmante renunció a inventario: %s (ID: %d) - Firmante: %s (%s)", 
                         inventory.getName() != null ? inventory.getName() : "sin nombre",
                         inventory.getId(),
                         user.getFullName(),
-                        user.getEmail())
-        ));
+                        user.getEmail()))
+                .actionType(AuditActionType.RESIGN)
+                .entityType(AuditEntityType.INVENTORY)
+                .entityId(inventory.getId())
+                .inventoryId(inventory.getId())
+                .build());
 
         return new QuitInventoryResponse(
                 "Ha renunciado exitosamente al inventario " + inventory.getName(),
@@ -797,14 +875,20 @@ public class InventoryService
             userRepository.save(user);
         }
 
+        inventoryAccessService.evictUsers(user.getId());
+
         // Registrar auditoría
-        recordActionUseCase.recordAction(new RecordActionRequest(
-                String.format("Firmante eliminado de inventario: %s (ID: %d) - Firmante: %s (%s)", 
+        recordActionUseCase.recordAction(RecordActionRequest.builder()
+                .action(String.format("Firmante eliminado de inventario: %s (ID: %d) - Firmante: %s (%s)", 
                         inventory.getName() != null ? inventory.getName() : "sin nombre",
                         inventory.getId(),
                         user.getFullName(),
-                        user.getEmail())
-        ));
+                        user.getEmail()))
+                .actionType(AuditActionType.UNASSIGN)
+                .entityType(AuditEntityType.INVENTORY)
+                .entityId(inventory.getId())
+                .inventoryId(inventory.getId())
+                .build());
 
         // Enviar notificaciones
         sendSignatoryRemovedNotifications(inventory, user);
@@ -874,14 +958,20 @@ public class InventoryService
         user.setMyManagers(inventoryEntities);
         userRepository.save(user);
 
+        inventoryAccessService.evictUsers(user.getId());
+
         // Registrar auditoría
-        recordActionUseCase.recordAction(new RecordActionRequest(
-                String.format("Manejador renunció a inventario: %s (ID: %d) - Manejador: %s (%s)", 
+        recordActionUseCase.recordAction(RecordActionRequest.builder()
+                .action(String.format("Manejador renunció a inventario: %s (ID: %d) - Manejador: %s (%s)", 
                         inventory.getName() != null ? inventory.getName() : "sin nombre",
                         inventory.getId(),
                         user.getFullName(),
-                        user.getEmail())
-        ));
+                        user.getEmail()))
+                .actionType(AuditActionType.RESIGN)
+                .entityType(AuditEntityType.INVENTORY)
+                .entityId(inventory.getId())
+                .inventoryId(inventory.getId())
+                .build());
 
         return new QuitInventoryResponse(
                         "Successfully quit as manager",
@@ -971,24 +1061,7 @@ public class InventoryService
             );
             
             // Enviar notificaciones a todos los usuarios
-            for (Long userId : userIdsToNotify) {
-                try {
-                    // Guardar en base de datos
-                    notificationPersistenceService.saveNotification(
-                            userId,
-                            "INVENTORY_DELETED",
-                            "Inventario Eliminado",
-                            message,
-                            new InventoryNotificationData(fullInventory.getId(), inventoryName)
-                    );
-                    
-                    // Enviar por WebSocket
-                    notificationService.sendNotificationToUser(userId, notification);
-                } catch (Exception e) {
-                    // Log error pero continuar con otros usuarios
-                    // El log se maneja en NotificationService
-                }
-            }
+            notificationDispatcher.dispatch(userIdsToNotify, notification);
         } catch (Exception e) {
             // Log error pero no fallar la eliminación del inventario
             // El sistema de notificaciones no debe bloquear la eliminación
@@ -1080,24 +1153,7 @@ public class InventoryService
             );
             
             // Enviar notificaciones a todos los usuarios
-            for (Long userId : userIdsToNotify) {
-                try {
-                    // Guardar en base de datos
-                    notificationPersistenceService.saveNotification(
-                            userId,
-                            "INVENTORY_CREATED_INFO",
-                            "Nuevo Inventario Creado",
-                            message,
-                            new InventoryNotificationData(fullInventory.getId(), inventoryName)
-                    );
-                    
-                    // Enviar por WebSocket
-                    notificationService.sendNotificationToUser(userId, notification);
-                } catch (Exception e) {
-                    // Log error pero continuar con otros usuarios
-                    // El log se maneja en NotificationService
-                }
-            }
+            notificationDispatcher.dispatch(userIdsToNotify, notification);
         } catch (Exception e) {
             // Log error pero no fallar la creación del inventario
             // El sistema de notificaciones no debe bloquear la creación
@@ -1130,14 +1186,7 @@ public class InventoryService
                 );
                 
                 try {
-                    notificationPersistenceService.saveNotification(
-                            newManager.getId(),
-                            "MANAGER_ASSIGNED_PERSONAL",
-                            "Asignado como Manejador",
-                            personalMessage,
-                            new InventoryNotificationData(fullInventory.getId(), inventoryName)
-                    );
-                    notificationService.sendNotificationToUser(newManager.getId(), personalNotification);
+                    notificationDispatcher.dispatch(List.of(newManager.getId()), personalNotification);
                 } catch (Exception e) {
                     // Log error pero continuar
                 }
@@ -1195,14 +1244,7 @@ public class InventoryService
                 );
                 
                 try {
-                    notificationPersistenceService.saveNotification(
-                            newSignatory.getId(),
-                            "SIGNATORY_ASSIGNED_PERSONAL",
-                            "Asignado como Firmante",
-                            personalMessage,
-                            new InventoryNotificationData(fullInventory.getId(), inventoryName)
-                    );
-                    notificationService.sendNotificationToUser(newSignatory.getId(), personalNotification);
+                    notificationDispatcher.dispatch(List.of(newSignatory.getId()), personalNotification);
                 } catch (Exception e) {
                     // Log error pero continuar
                 }
@@ -1314,20 +1356,7 @@ public class InventoryService
             );
             
             // Enviar notificaciones a todos los usuarios
-            for (Long userId : userIdsToNotify) {
-                try {
-                    notificationPersistenceService.saveNotification(
-                            userId,
-                            notificationType,
-                            notificationTitle,
-                            message,
-                            new InventoryNotificationData(inventory.getId(), inventoryName)
-                    );
-                    notificationService.sendNotificationToUser(userId, notification);
-                } catch (Exception e) {
-                    // Log error pero continuar con otros usuarios
-                }
-            }
+            notificationDispatcher.dispatch(userIdsToNotify, notification);
         } catch (Exception e) {
             // Log error pero no fallar la operación
         }
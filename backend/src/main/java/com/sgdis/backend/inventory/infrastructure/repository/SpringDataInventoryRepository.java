@@ -129,4 +129,18 @@ public interface SpringDataInventoryRepository extends JpaRepository<InventoryEn
            "LEFT JOIN FETCH inst.regional " +
            "WHERE i.id = :inventoryId")
     Optional<InventoryEntity> findByIdWithBasicRelations(@Param("inventoryId") Long inventoryId);
+
+    // Inventarios de una institución con institución y regional cargadas (exportación a Excel)
+    @Query("SELECT i FROM InventoryEntity i " +
+           "JOIN FETCH i.institution inst " +
+           "LEFT JOIN FETCH inst.regional " +
+           "WHERE inst.id = :institutionId ORDER BY i.id")
+    List<InventoryEntity> findByInstitutionIdWithRegional(@Param("institutionId") Long institutionId);
+
+    // Inventarios de una regional con institución y regional cargadas (exportación a Excel)
+    @Query("SELECT i FROM InventoryEntity i " +
+           "JOIN FETCH i.institution inst " +
+           "JOIN FETCH inst.regional r " +
+           "WHERE r.id = :regionalId ORDER BY i.id")
+    List<InventoryEntity> findByRegionalIdWithInstitution(@Param("regionalId") Long regionalId);
 }
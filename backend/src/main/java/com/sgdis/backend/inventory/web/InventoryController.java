@@ -9,11 +9,14 @@ import com.sgdis.backend.inventory.mapper.InventoryMapper;
 import com.sgdis.backend.item.infrastructure.repository.SpringDataItemRepository;
 import com.sgdis.backend.item.infrastructure.entity.ItemEntity;
 import com.sgdis.backend.exception.ResourceNotFoundException;
-import com.sgdis.backend.user.infrastructure.repository.SpringDataUserRepository;
 import com.sgdis.backend.user.application.dto.InventoryManagerResponse;
 import com.sgdis.backend.user.application.dto.ManagedInventoryResponse;
 import com.sgdis.backend.file.service.FileUploadService;
+import com.sgdis.backend.auth.application.dto.CurrentUser;
 import com.sgdis.backend.auth.application.service.AuthService;
+import com.sgdis.backend.web.dto.StatisticsScope;
+import com.sgdis.backend.web.repository.projection.ScopedStatistics;
+import com.sgdis.backend.web.service.DashboardCounterService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -65,7 +68,7 @@ public class InventoryController {
     private final FileUploadService fileUploadService;
     private final AuthService authService;
     private final SpringDataItemRepository itemRepository;
-    private final SpringDataUserRepository userRepository;
+    private final DashboardCounterService dashboardCounterService;
 
     @Operation(
             summary = "Create new inventory",
@@ -477,11 +480,11 @@ public class InventoryController {
             @Parameter(description = "Page size", required = false)
             @RequestParam(defaultValue = "6") int size
     ) {
-        var currentUser = authService.getCurrentUser();
-        if (currentUser.getInstitution() == null || currentUser.getInstitution().getRegional() == null) {
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
+        if (currentUser.regionalId() == null) {
             throw new ResourceNotFoundException("User institution or regional not found");
         }
-        Long regionalId = currentUser.getInstitution().getRegional().getId();
+        Long regionalId = currentUser.regionalId();
         
         Pageable pageable = PageRequest.of(page, size);
         Page<InventoryEntity> inventoryPage = inventoryRepository.findPageByRegionalId(regionalId, pageable);
@@ -529,20 +532,12 @@ public class InventoryController {
             @Parameter(description = "Page size", required = false)
             @RequestParam(defaultValue = "6") int size
     ) {
-        var currentUser = authService.getCurrentUser();
-        
-        // Load user with institution to avoid lazy loading issues
-        var userWithInstitution = userRepository.findByIdWithInstitution(currentUser.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
-        
-        if (userWithInstitution.getInstitution() == null) {
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
+        if (currentUser.institutionId() == null) {
             throw new ResourceNotFoundException("User institution not found");
         }
         
-        Long institutionId = userWithInstitution.getInstitution().getId();
-        if (institutionId == null) {
-            throw new ResourceNotFoundException("User institution ID not found");
-        }
+        Long institutionId = currentUser.institutionId();
         
         Pageable pageable = PageRequest.of(page, size);
         Page<InventoryEntity> inventoryPage = inventoryRepository.findPageByInstitutionId(institutionId, pageable);
@@ -644,25 +639,14 @@ public class InventoryController {
     @PreAuthorize("hasRole('SUPERADMIN')")
     @GetMapping("/statistics")
     public GeneralInventoryStatisticsResponse getGeneralInventoryStatistics() {
-        long totalInventories = inventoryRepository.count();
-        long activeInventories = inventoryRepository.countByStatus(true);
-        long inactiveInventories = inventoryRepository.countByStatus(false);
-        
-        // Get total value from all inventories
-        Double totalValue = inventoryRepository.sumTotalPrice();
-        if (totalValue == null) {
-            totalValue = 0.0;
-        }
-        
-        // Get total items count from all inventories
-        long totalItems = itemRepository.count();
-        
+        ScopedStatistics stats = dashboardCounterService.getStatistics(StatisticsScope.global());
+
         return GeneralInventoryStatisticsResponse.builder()
-                .totalInventories(totalInventories)
-                .activeInventories(activeInventories)
-                .inactiveInventories(inactiveInventories)
-                .totalItems(totalItems)
-                .totalValue(totalValue)
+                .totalInventories(stats.getTotalInventories())
+                .activeInventories(stats.getActiveInventories())
+                .inactiveInventories(stats.getInactiveInventories())
+                .totalItems(stats.getTotalItems())
+                .totalValue(stats.getInventoriesValue())
                 .build();
     }
 
@@ -684,44 +668,21 @@ public class InventoryController {
             @Parameter(description = "Institution ID to filter by (optional)")
             @RequestParam(required = false) Long institutionId
     ) {
-        var currentUser = authService.getCurrentUser();
-        if (currentUser.getInstitution() == null || currentUser.getInstitution().getRegional() == null) {
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
+        if (currentUser.regionalId() == null) {
             throw new ResourceNotFoundException("User institution or regional not found");
         }
-        Long regionalId = currentUser.getInstitution().getRegional().getId();
-        
-        long totalInventories;
-        long activeInventories;
-        long inactiveInventories;
-        Double totalValue;
-        long totalItems;
-        
-        if (institutionId != null) {
-            // Filter by both regional and institution
-            totalInventories = inventoryRepository.countByRegionalIdAndInstitutionId(regionalId, institutionId);
-            activeInventories = inventoryRepository.countByRegionalIdAndInstitutionIdAndStatus(regionalId, institutionId, true);
-            inactiveInventories = inventoryRepository.countByRegionalIdAndInstitutionIdAndStatus(regionalId, institutionId, false);
-            totalValue = inventoryRepository.sumTotalPriceByRegionalIdAndInstitutionId(regionalId, institutionId);
-            totalItems = itemRepository.countByRegionalIdAndInstitutionId(regionalId, institutionId);
-        } else {
-            // Filter by regional only
-            totalInventories = inventoryRepository.countByRegionalId(regionalId);
-            activeInventories = inventoryRepository.countByRegionalIdAndStatus(regionalId, true);
-            inactiveInventories = inventoryRepository.countByRegionalIdAndStatus(regionalId, false);
-            totalValue = inventoryRepository.sumTotalPriceByRegionalId(regionalId);
-            totalItems = itemRepository.countByRegionalId(regionalId);
-        }
-        
-        if (totalValue == null) {
-            totalValue = 0.0;
-        }
+        Long regionalId = currentUser.regionalId();
         
+        // Filter by regional and, optionally, by institution
+        ScopedStatistics stats = dashboardCounterService.getStatistics(StatisticsScope.of(regionalId, institutionId));
+
         return GeneralInventoryStatisticsResponse.builder()
-                .totalInventories(totalInventories)
-                .activeInventories(activeInventories)
-                .inactiveInventories(inactiveInventories)
-                .totalItems(totalItems)
-                .totalValue(totalValue)
+                .totalInventories(stats.getTotalInventories())
+                .activeInventories(stats.getActiveInventories())
+                .inactiveInventories(stats.getInactiveInventories())
+                .totalItems(stats.getTotalItems())
+                .totalValue(stats.getInventoriesValue())
                 .build();
     }
 
@@ -739,28 +700,20 @@ public class InventoryController {
     @PreAuthorize("hasRole('ADMIN_INSTITUTION')")
     @GetMapping("/institution/statistics")
     public GeneralInventoryStatisticsResponse getInstitutionInventoryStatistics() {
-        var currentUser = authService.getCurrentUser();
-        if (currentUser.getInstitution() == null) {
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
+        if (currentUser.institutionId() == null) {
             throw new ResourceNotFoundException("User institution not found");
         }
-        Long institutionId = currentUser.getInstitution().getId();
-        
-        long totalInventories = inventoryRepository.countByInstitutionId(institutionId);
-        long activeInventories = inventoryRepository.countByInstitutionIdAndStatus(institutionId, true);
-        long inactiveInventories = inventoryRepository.countByInstitutionIdAndStatus(institutionId, false);
-        Double totalValue = inventoryRepository.sumTotalPriceByInstitutionId(institutionId);
-        long totalItems = itemRepository.countByInstitutionId(institutionId);
-        
-        if (totalValue == null) {
-            totalValue = 0.0;
-        }
+        Long institutionId = currentUser.institutionId();
         
+        ScopedStatistics stats = dashboardCounterService.getStatistics(StatisticsScope.institution(institutionId));
+
         return GeneralInventoryStatisticsResponse.builder()
-                .totalInventories(totalInventories)
-                .activeInventories(activeInventories)
-                .inactiveInventories(inactiveInventories)
-                .totalItems(totalItems)
-                .totalValue(totalValue)
+                .totalInventories(stats.getTotalInventories())
+                .activeInventories(stats.getActiveInventories())
+                .inactiveInventories(stats.getInactiveInventories())
+                .totalItems(stats.getTotalItems())
+                .totalValue(stats.getInventoriesValue())
                 .build();
     }
 
@@ -778,28 +731,20 @@ public class InventoryController {
     @PreAuthorize("hasRole('WAREHOUSE')")
     @GetMapping("/warehouse/statistics")
     public GeneralInventoryStatisticsResponse getWarehouseInventoryStatistics() {
-        var currentUser = authService.getCurrentUser();
-        if (currentUser.getInstitution() == null) {
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
+        if (currentUser.institutionId() == null) {
             throw new ResourceNotFoundException("User institution not found");
         }
-        Long institutionId = currentUser.getInstitution().getId();
-        
-        long totalInventories = inventoryRepository.countByInstitutionId(institutionId);
-        long activeInventories = inventoryRepository.countByInstitutionIdAndStatus(institutionId, true);
-        long inactiveInventories = inventoryRepository.countByInstitutionIdAndStatus(institutionId, false);
-        Double totalValue = inventoryRepository.sumTotalPriceByInstitutionId(institutionId);
-        long totalItems = itemRepository.countByInstitutionId(institutionId);
-        
-        if (totalValue == null) {
-            totalValue = 0.0;
-        }
+        Long institutionId = currentUser.institutionId();
         
+        ScopedStatistics stats = dashboardCounterService.getStatistics(StatisticsScope.institution(institutionId));
+
         return GeneralInventoryStatisticsResponse.builder()
-                .totalInventories(totalInventories)
-                .activeInventories(activeInventories)
-                .inactiveInventories(inactiveInventories)
-                .totalItems(totalItems)
-                .totalValue(totalValue)
+                .totalInventories(stats.getTotalInventories())
+                .activeInventories(stats.getActiveInventories())
+                .inactiveInventories(stats.getInactiveInventories())
+                .totalItems(stats.getTotalItems())
+                .totalValue(stats.getInventoriesValue())
                 .build();
     }
 
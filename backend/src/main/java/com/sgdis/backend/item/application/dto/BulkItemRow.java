@@ -0,0 +1,9 @@
+package com.sgdis.backend.item.application.dto;
+
+/**
+ * Fila ya leída y validada de una carga masiva, con su número de fila en el archivo (base 1).
+ */
+public record BulkItemRow(
+        int rowNumber,
+        CreateItemRequest request
+) {}
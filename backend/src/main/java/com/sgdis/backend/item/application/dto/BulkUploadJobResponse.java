@@ -0,0 +1,23 @@
+package com.sgdis.backend.item.application.dto;
+
+import com.sgdis.backend.item.domain.BulkUploadJobStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado de un trabajo de carga masiva. result solo está presente cuando el trabajo terminó
+ * (COMPLETED) y error cuando falló (FAILED).
+ */
+public record BulkUploadJobResponse(
+        String jobId,
+        BulkUploadJobStatus status,
+        Long inventoryId,
+        String fileName,
+        int rowsParsed,
+        int rowsInserted,
+        int rowsFailed,
+        BulkUploadResponse result,
+        String error,
+        LocalDateTime createdAt,
+        LocalDateTime finishedAt
+) {}
@@ -0,0 +1,245 @@
+package com.sgdis.backend.item.application.service;
+
+import com.sgdis.backend.auth.application.service.AuthService;
+import com.sgdis.backend.exception.DomainConflictException;
+import com.sgdis.backend.exception.DomainValidationException;
+import com.sgdis.backend.exception.ResourceNotFoundException;
+import com.sgdis.backend.inventory.infrastructure.repository.SpringDataInventoryRepository;
+import com.sgdis.backend.item.application.dto.BulkUploadJobResponse;
+import com.sgdis.backend.item.application.dto.BulkUploadResponse;
+import com.sgdis.backend.item.domain.BulkUploadJobStatus;
+import com.sgdis.backend.notification.dto.NotificationMessage;
+import com.sgdis.backend.notification.service.NotificationService;
+import com.sgdis.backend.utils.DateTimeUtils;
+import com.sgdis.backend.utils.ExecutorUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.task.DelegatingSecurityContextAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trabajos asíncronos de carga masiva de items.
+ * La subida solo valida y guarda el archivo en disco; la importación corre en un pool acotado
+ * y su avance se consulta por ID o se recibe por WebSocket en /user/queue/notifications.
+ * <p>
+ * Los trabajos solo viven en la memoria de esta instancia: no se persisten, se pierden al reiniciar
+ * la aplicación y los terminados se descartan tras items.bulk-upload.job-retention-ms. Con varias
+ * instancias, la consulta de estado debe llegar a la misma instancia que recibió la subida.
+ * Un ID que ya no está en memoria se responde como trabajo desconocido o expirado.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkUploadJobService {
+
+    private static final String PROGRESS_NOTIFICATION = "BULK_UPLOAD_PROGRESS";
+    private static final long PROGRESS_PUSH_INTERVAL_MS = 500;
+
+    private final ExcelItemService excelItemService;
+    private final SpringDataInventoryRepository inventoryRepository;
+    private final AuthService authService;
+    private final NotificationService notificationService;
+
+    @Value("${items.bulk-upload.max-concurrent-jobs:2}")
+    private int maxConcurrentJobs;
+
+    @Value("${items.bulk-upload.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${items.bulk-upload.job-retention-ms:86400000}")
+    private long jobRetentionMs;
+
+    private final Map<String, BulkUploadJob> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolTaskExecutor threadPool;
+    private AsyncTaskExecutor executor;
+
+    @PostConstruct
+    void initExecutor() {
+        threadPool = ExecutorUtils.fixedPool("bulk-upload-", maxConcurrentJobs, queueCapacity);
+        // Auditoría y notificaciones usan el usuario actual: se propaga el contexto de seguridad
+        executor = new DelegatingSecurityContextAsyncTaskExecutor(threadPool);
+    }
+
+    @PreDestroy
+    void shutdownExecutor() {
+        threadPool.shutdown();
+    }
+
+    /**
+     * Valida el archivo, lo guarda en un temporal y encola su importación.
+     *
+     * @return el trabajo en estado QUEUED
+     */
+    public BulkUploadJobResponse submit(MultipartFile file, Long inventoryId) {
+        excelItemService.validateExcelFile(file);
+        // Se valida antes de encolar para responder 404 en la subida y no como trabajo fallido
+        if (!inventoryRepository.existsById(inventoryId)) {
+            throw new ResourceNotFoundException("Inventory not found with id: " + inventoryId);
+        }
+        Long userId = authService.getCurrentUser().getId();
+        String filename = file.getOriginalFilename();
+
+        // El multipart se elimina al terminar la petición: se copia a un temporal propio del trabajo
+        Path tempFile;
+        try {
+            tempFile = Files.createTempFile("bulk-upload-", filename.endsWith(".xlsx") ? ".xlsx" : ".xls");
+            file.transferTo(tempFile);
+        } catch (IOException e) {
+            throw new DomainValidationException("Error al leer el archivo Excel: " + e.getMessage());
+        }
+
+        BulkUploadJob job = new BulkUploadJob(UUID.randomUUID().toString(), userId, inventoryId, filename);
+        jobs.put(job.jobId, job);
+        try {
+            executor.execute(() -> run(job, tempFile));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.jobId);
+            deleteQuietly(tempFile);
+            throw new DomainConflictException("Hay demasiadas cargas masivas en curso. Intente de nuevo en unos minutos.");
+        }
+
+        log.info("Carga masiva encolada - Trabajo: {}, Inventario ID: {}, Archivo: {}", job.jobId, inventoryId, filename);
+        return job.toResponse();
+    }
+
+    /**
+     * Estado de un trabajo. Solo lo puede consultar el usuario que lo creó.
+     *
+     * @throws ResourceNotFoundException si el ID no existe, pertenece a otro usuario, ya se descartó
+     *                                   por retención o se perdió al reiniciar la aplicación
+     */
+    public BulkUploadJobResponse getJob(String jobId) {
+        BulkUploadJob job = jobs.get(jobId);
+        if (job == null || !job.userId.equals(authService.getCurrentUser().getId())) {
+            throw new ResourceNotFoundException("Bulk upload job unknown or expired: " + jobId
+                    + ". Jobs are kept in memory only and are discarded after the retention period or on restart");
+        }
+        return job.toResponse();
+    }
+
+    private void run(BulkUploadJob job, Path tempFile) {
+        job.status = BulkUploadJobStatus.RUNNING;
+        push(job);
+        try {
+            BulkUploadResponse result = excelItemService.processExcelFile(tempFile, job.fileName, job.inventoryId,
+                    (rowsParsed, rowsInserted, rowsFailed) -> {
+                        job.rowsParsed = rowsParsed;
+                        job.rowsInserted = rowsInserted;
+                        job.rowsFailed = rowsFailed;
+                        pushThrottled(job);
+                    });
+            job.rowsParsed = result.totalRows();
+            job.rowsInserted = result.successfulItems();
+            job.rowsFailed = result.failedItems();
+            job.result = result;
+            job.status = BulkUploadJobStatus.COMPLETED;
+        } catch (Exception e) {
+            log.error("Error en la carga masiva - Trabajo: {}, Inventario ID: {}: {}", job.jobId, job.inventoryId, e.getMessage(), e);
+            job.error = e.getMessage();
+            job.status = BulkUploadJobStatus.FAILED;
+        } finally {
+            job.finishedAt = DateTimeUtils.now();
+            deleteQuietly(tempFile);
+        }
+        push(job);
+    }
+
+    private void pushThrottled(BulkUploadJob job) {
+        long now = System.currentTimeMillis();
+        if (now - job.lastPushAt >= PROGRESS_PUSH_INTERVAL_MS) {
+            push(job);
+        }
+    }
+
+    private void push(BulkUploadJob job) {
+        job.lastPushAt = System.currentTimeMillis();
+        BulkUploadJobResponse snapshot = job.toResponse();
+        String title;
+        String message;
+        switch (snapshot.status()) {
+            case COMPLETED -> {
+                title = "Carga Masiva Finalizada";
+                message = String.format("Archivo %s: %d item(s) creado(s) de %d fila(s)",
+                        snapshot.fileName(), snapshot.rowsInserted(), snapshot.rowsParsed());
+            }
+            case FAILED -> {
+                title = "Carga Masiva Fallida";
+                message = String.format("Archivo %s: %s", snapshot.fileName(), snapshot.error());
+            }
+            default -> {
+                title = "Carga Masiva en Progreso";
+                message = String.format("Archivo %s: %d fila(s) leída(s), %d item(s) creado(s)",
+                        snapshot.fileName(), snapshot.rowsParsed(), snapshot.rowsInserted());
+            }
+        }
+        notificationService.sendNotificationToUser(job.userId,
+                new NotificationMessage(PROGRESS_NOTIFICATION, title, message, snapshot));
+    }
+
+    /**
+     * Descarta los trabajos terminados que superaron el tiempo de retención.
+     */
+    @Scheduled(fixedDelayString = "${items.bulk-upload.cleanup-interval-ms:3600000}")
+    public void purgeFinishedJobs() {
+        LocalDateTime limit = DateTimeUtils.now().minus(Duration.ofMillis(jobRetentionMs));
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(limit));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el archivo temporal {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Estado mutable de un trabajo; lo escribe el hilo del trabajo y lo leen las consultas de estado.
+     */
+    private static final class BulkUploadJob {
+
+        private final String jobId;
+        private final Long userId;
+        private final Long inventoryId;
+        private final String fileName;
+        private final LocalDateTime createdAt = DateTimeUtils.now();
+
+        private volatile BulkUploadJobStatus status = BulkUploadJobStatus.QUEUED;
+        private volatile int rowsParsed;
+        private volatile int rowsInserted;
+        private volatile int rowsFailed;
+        private volatile BulkUploadResponse result;
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+        private volatile long lastPushAt;
+
+        private BulkUploadJob(String jobId, Long userId, Long inventoryId, String fileName) {
+            this.jobId = jobId;
+            this.userId = userId;
+            this.inventoryId = inventoryId;
+            this.fileName = fileName;
+        }
+
+        private BulkUploadJobResponse toResponse() {
+            return new BulkUploadJobResponse(jobId, status, inventoryId, fileName, rowsParsed, rowsInserted,
+                    rowsFailed, result, error, createdAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.sgdis.backend.item.application.service;
+
+/**
+ * Recibe el avance de una carga masiva. Los valores son acumulados.
+ */
+@FunctionalInterface
+public interface BulkUploadProgressListener {
+
+    BulkUploadProgressListener NONE = (rowsParsed, rowsInserted, rowsFailed) -> { };
+
+    void onProgress(int rowsParsed, int rowsInserted, int rowsFailed);
+}
@@ -1,177 +1,457 @@
 package com.sgdis.backend.item.application.service;
 
-import com.sgdis.backend.exception.DomainNotFoundException;
+import com.sgdis.backend.auth.application.service.AuthService;
+import com.sgdis.backend.data.regional.repositories.SpringDataRegionalRepository;
+import com.sgdis.backend.exception.DomainValidationException;
+import com.sgdis.backend.exception.ResourceNotFoundException;
+import com.sgdis.backend.institution.infrastructure.entity.InstitutionEntity;
+import com.sgdis.backend.institution.infrastructure.repository.SpringDataInstitutionRepository;
 import com.sgdis.backend.inventory.infrastructure.entity.InventoryEntity;
 import com.sgdis.backend.inventory.infrastructure.repository.SpringDataInventoryRepository;
-import com.sgdis.backend.item.infrastructure.entity.ItemEntity;
 import com.sgdis.backend.item.infrastructure.repository.SpringDataItemRepository;
+import com.sgdis.backend.item.infrastructure.repository.projection.ItemExportRow;
+import com.sgdis.backend.user.domain.Role;
+import com.sgdis.backend.user.infrastructure.entity.UserEntity;
+import com.sgdis.backend.utils.ExecutorUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.time.format.DateTimeFormatter;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
-
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Exportación de los items de un inventario a Excel (.xlsx).
+ * Los items se leen por páginas (keyset por ID) como proyecciones y se escriben con SXSSF,
+ * que solo mantiene en memoria una ventana de filas y vuelca el resto a un temporal comprimido;
+ * así el heap usado no depende del tamaño del inventario.
+ * Las exportaciones de una institución o regional generan un libro con una hoja por inventario:
+ * las páginas de cada inventario se consultan en paralelo en un pool acotado, pero el libro se escribe
+ * solo en el hilo que atiende la exportación, porque POI no es thread-safe.
+ */
 @Service
 @RequiredArgsConstructor
 public class ExcelExportService {
 
+    private static final String[] HEADERS = {
+        "ir_id",
+        "Cód. regional",
+        "Cód. Centro",
+        "Desc. Almacen",
+        "No. de placa",
+        "Consecutivo",
+        "Desc. SKU",
+        "Descripción elemento",
+        "Atributos",
+        "Fecha adq",
+        "Valor adq",
+        "iv_id",
+        "Ubicación"
+    };
+
+    // Filas que SXSSF mantiene en memoria antes de volcarlas a disco
+    private static final int ROW_ACCESS_WINDOW = 100;
+    private static final int COLUMN_PADDING = 1000;
+    private static final int MAX_COLUMN_WIDTH = 255 * 256;
+    // Páginas que cada consulta en paralelo puede adelantar mientras se escribe una hoja anterior
+    private static final int PREFETCHED_PAGES = 2;
+    // Marca el fin de las páginas de un inventario; las páginas consultadas nunca están vacías
+    private static final List<ItemExportRow> END_OF_PAGES = List.of();
+
     private final SpringDataItemRepository itemRepository;
     private final SpringDataInventoryRepository inventoryRepository;
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private final SpringDataInstitutionRepository institutionRepository;
+    private final SpringDataRegionalRepository regionalRepository;
+    private final AuthService authService;
+
+    @Value("${items.export.page-size:1000}")
+    private int pageSize;
+
+    @Value("${items.export.max-parallel-sheets:4}")
+    private int maxParallelSheets;
+
+    private ThreadPoolTaskExecutor sheetExecutor;
+
+    @PostConstruct
+    void initExecutor() {
+        // Acota cuántas consultas de hojas corren a la vez entre todas las exportaciones
+        sheetExecutor = ExecutorUtils.fixedPool("excel-export-", maxParallelSheets);
+    }
+
+    @PreDestroy
+    void shutdownExecutor() {
+        sheetExecutor.shutdown();
+    }
+
+    /**
+     * Valida que el inventario exista. Se llama antes de empezar a escribir la respuesta,
+     * cuando todavía se puede responder 404.
+     */
+    public void checkInventoryExists(Long inventoryId) {
+        if (!inventoryRepository.existsById(inventoryId)) {
+            throw new ResourceNotFoundException("Inventory not found with id: " + inventoryId);
+        }
+    }
+
+    /**
+     * Escribe el Excel con los items del inventario en el stream indicado.
+     * No abre una transacción: cada página se consulta por separado para no retener
+     * una conexión mientras el cliente descarga el archivo.
+     */
+    public void exportInventoryItemsToExcel(Long inventoryId, OutputStream outputStream) throws IOException {
+        // Inventario con institución y regional para obtener los códigos (solo una vez)
+        InventoryEntity inventory = inventoryRepository.findByIdWithBasicRelations(inventoryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found with id: " + inventoryId));
+
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            ExportStyles styles = ExportStyles.create(workbook);
+            Sheet sheet = workbook.createSheet("Items");
+            setColumnWidths(sheet, writeItemsSheet(sheet, inventory, styles, new ItemPages(inventory.getId())));
+            workbook.write(outputStream);
+        } finally {
+            // Elimina los temporales de SXSSF
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    /**
+     * Valida que la institución exista y que el usuario actual pueda exportarla:
+     * superadmin, admin regional de su regional o admin de la propia institución.
+     */
+    public void checkInstitutionExportAllowed(Long institutionId) {
+        InstitutionEntity institution = institutionRepository.findById(institutionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Institution not found with id: " + institutionId));
+        UserEntity user = authService.getCurrentUser();
+        InstitutionEntity userInstitution = user.getInstitution();
+        boolean allowed = switch (user.getRole()) {
+            case SUPERADMIN -> true;
+            case ADMIN_REGIONAL -> userInstitution != null && userInstitution.getRegional() != null
+                    && institution.getRegional() != null
+                    && Objects.equals(userInstitution.getRegional().getId(), institution.getRegional().getId());
+            case ADMIN_INSTITUTION -> userInstitution != null && Objects.equals(userInstitution.getId(), institutionId);
+            default -> false;
+        };
+        if (!allowed) {
+            throw new DomainValidationException("No cuentas con permisos para exportar los inventarios de esta institución");
+        }
+    }
+
+    /**
+     * Valida que la regional exista y que el usuario actual pueda exportarla:
+     * superadmin o admin regional de esa regional.
+     */
+    public void checkRegionalExportAllowed(Long regionalId) {
+        if (!regionalRepository.existsById(regionalId)) {
+            throw new ResourceNotFoundException("Regional not found with id: " + regionalId);
+        }
+        UserEntity user = authService.getCurrentUser();
+        boolean allowed = user.getRole() == Role.SUPERADMIN
+                || (user.getRole() == Role.ADMIN_REGIONAL && user.getInstitution() != null
+                    && user.getInstitution().getRegional() != null
+                    && Objects.equals(user.getInstitution().getRegional().getId(), regionalId));
+        if (!allowed) {
+            throw new DomainValidationException("No cuentas con permisos para exportar los inventarios de esta regional");
+        }
+    }
+
+    /**
+     * Escribe un Excel con una hoja por cada inventario de la institución.
+     */
+    public void exportInstitutionItemsToExcel(Long institutionId, OutputStream outputStream) throws IOException {
+        exportInventoriesToExcel(inventoryRepository.findByInstitutionIdWithRegional(institutionId), outputStream);
+    }
+
+    /**
+     * Escribe un Excel con una hoja por cada inventario de las instituciones de la regional.
+     */
+    public void exportRegionalItemsToExcel(Long regionalId, OutputStream outputStream) throws IOException {
+        exportInventoriesToExcel(inventoryRepository.findByRegionalIdWithInstitution(regionalId), outputStream);
+    }
+
+    private void exportInventoriesToExcel(List<InventoryEntity> inventories, OutputStream outputStream) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        workbook.setCompressTempFiles(true);
+        List<Future<?>> futures = new ArrayList<>(inventories.size());
+        try {
+            ExportStyles styles = ExportStyles.create(workbook);
+
+            if (inventories.isEmpty()) {
+                Sheet sheet = workbook.createSheet("Items");
+                setColumnWidths(sheet, writeHeader(sheet, styles));
+            }
+
+            // Las consultas corren en el pool y dejan sus páginas en una cola acotada;
+            // hojas, estilos y filas se crean solo en este hilo, en el orden de los inventarios.
+            List<BlockingQueue<List<ItemExportRow>>> queues = new ArrayList<>(inventories.size());
+            for (InventoryEntity inventory : inventories) {
+                BlockingQueue<List<ItemExportRow>> queue = new ArrayBlockingQueue<>(PREFETCHED_PAGES);
+                queues.add(queue);
+                futures.add(sheetExecutor.submit(() -> fetchPages(inventory.getId(), queue)));
+            }
+
+            for (int i = 0; i < inventories.size(); i++) {
+                InventoryEntity inventory = inventories.get(i);
+                Sheet sheet = workbook.createSheet(sheetName(inventory));
+                setColumnWidths(sheet, writeItemsSheet(sheet, inventory, styles, queues.get(i)::take));
+                // Propaga el error de la consulta, si lo hubo
+                awaitPages(futures.get(i));
+            }
+            workbook.write(outputStream);
+        } catch (IOException | RuntimeException e) {
+            // Detiene las consultas que siguen adelantando páginas para un libro que no se va a enviar
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        } finally {
+            // Elimina los temporales de SXSSF
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    /**
+     * Consulta las páginas del inventario y las deja en la cola, terminando con {@link #END_OF_PAGES}.
+     * Si la consulta falla también se marca el fin, para que la escritura no quede esperando.
+     */
+    private Void fetchPages(Long inventoryId, BlockingQueue<List<ItemExportRow>> queue) throws InterruptedException {
+        ItemPages pages = new ItemPages(inventoryId);
+        try {
+            for (List<ItemExportRow> page = pages.next(); !page.isEmpty(); page = pages.next()) {
+                queue.put(page);
+            }
+        } catch (RuntimeException e) {
+            queue.put(END_OF_PAGES);
+            throw e;
+        }
+        queue.put(END_OF_PAGES);
+        return null;
+    }
 
-    public byte[] exportInventoryItemsToExcel(Long inventoryId) throws IOException {
-        // Obtener el inventario con sus relaciones
-        InventoryEntity inventory = inventoryRepository.findById(inventoryId)
-                .orElseThrow(() -> new DomainNotFoundException("Inventory not found with id: " + inventoryId));
+    private static void awaitPages(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Exportación interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Error al consultar los items de la hoja de Excel", e.getCause());
+        }
+    }
 
-        // Obtener todos los items del inventario
-        List<ItemEntity> items = itemRepository.findAllByInventoryId(inventoryId);
+    /**
+     * Nombre de hoja único por inventario; Excel admite hasta 31 caracteres y no permite algunos símbolos.
+     */
+    private static String sheetName(InventoryEntity inventory) {
+        String name = inventory.getName() != null ? inventory.getName() : "";
+        return WorkbookUtil.createSafeSheetName(inventory.getId() + " - " + name);
+    }
 
-        // Obtener códigos (solo una vez)
+    /**
+     * Llena la hoja con el encabezado y los items del inventario.
+     *
+     * @return largo máximo de los valores de cada columna, para ajustar su ancho
+     */
+    private int[] writeItemsSheet(Sheet sheet, InventoryEntity inventory, ExportStyles styles, PageSource pages)
+            throws IOException {
         String regionalCode = "";
         String institutionCode = "";
 
         if (inventory.getInstitution() != null) {
             if (inventory.getInstitution().getRegional() != null) {
-                regionalCode = inventory.getInstitution().getRegional().getRegionalCode() != null 
-                    ? inventory.getInstitution().getRegional().getRegionalCode() 
+                regionalCode = inventory.getInstitution().getRegional().getRegionalCode() != null
+                    ? inventory.getInstitution().getRegional().getRegionalCode()
                     : "";
             }
-            institutionCode = inventory.getInstitution().getCodeInstitution() != null 
-                ? inventory.getInstitution().getCodeInstitution() 
+            institutionCode = inventory.getInstitution().getCodeInstitution() != null
+                ? inventory.getInstitution().getCodeInstitution()
                 : "";
         }
 
-        // Crear el workbook
-        Workbook workbook = new XSSFWorkbook();
-        Sheet sheet = workbook.createSheet("Items");
-
-        // Crear estilo para el encabezado
-        CellStyle headerStyle = workbook.createCellStyle();
-        Font headerFont = workbook.createFont();
-        headerFont.setBold(true);
-        headerFont.setFontHeightInPoints((short) 12);
-        headerStyle.setFont(headerFont);
-        headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        headerStyle.setBorderBottom(BorderStyle.THIN);
-        headerStyle.setBorderTop(BorderStyle.THIN);
-        headerStyle.setBorderLeft(BorderStyle.THIN);
-        headerStyle.setBorderRight(BorderStyle.THIN);
-
-        // Crear fila de encabezado
-        Row headerRow = sheet.createRow(0);
-        String[] headers = {
-            "ir_id",
-            "Cód. regional",
-            "Cód. Centro",
-            "Desc. Almacen",
-            "No. de placa",
-            "Consecutivo",
-            "Desc. SKU",
-            "Descripción elemento",
-            "Atributos",
-            "Fecha adq",
-            "Valor adq",
-            "iv_id",
-            "Ubicación"
-        };
-
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
-        }
+        int[] maxLengths = writeHeader(sheet, styles);
 
-        // Crear estilo para fechas
-        CellStyle dateStyle = workbook.createCellStyle();
-        CreationHelper createHelper = workbook.getCreationHelper();
-        dateStyle.setDataFormat(createHelper.createDataFormat().getFormat("dd/mm/yyyy"));
+        // Llenar datos por páginas
+        int rowNum = 1;
+        for (List<ItemExportRow> page = nextPage(pages); !page.isEmpty(); page = nextPage(pages)) {
+            for (ItemExportRow item : page) {
+                Row row = sheet.createRow(rowNum++);
 
-        // Crear estilo para números
-        CellStyle numberStyle = workbook.createCellStyle();
-        DataFormat numberFormat = workbook.createDataFormat();
-        numberStyle.setDataFormat(numberFormat.getFormat("#,##0.00"));
+                // Columna A: irId
+                setCellValue(row, 0, item.getIrId(), maxLengths);
 
-        // Llenar datos
-        int rowNum = 1;
-        for (ItemEntity item : items) {
-            Row row = sheet.createRow(rowNum++);
+                // Columna B: Cód. regional
+                setCellValue(row, 1, regionalCode, maxLengths);
 
-            // Columna A: irId
-            setCellValue(row, 0, item.getIrId());
+                // Columna C: Cód. Centro
+                setCellValue(row, 2, institutionCode, maxLengths);
 
-            // Columna B: Cód. regional
-            setCellValue(row, 1, regionalCode);
+                // Columna D: wareHouseDescription
+                setCellValue(row, 3, item.getWareHouseDescription(), maxLengths);
 
-            // Columna C: Cód. Centro
-            setCellValue(row, 2, institutionCode);
+                // Columna E: licencePlateNumber
+                setCellValue(row, 4, item.getLicencePlateNumber(), maxLengths);
 
-            // Columna D: wareHouseDescription
-            setCellValue(row, 3, item.getWareHouseDescription());
+                // Columna F: consecutiveNumber
+                setCellValue(row, 5, item.getConsecutiveNumber(), maxLengths);
 
-            // Columna E: licencePlateNumber
-            setCellValue(row, 4, item.getLicencePlateNumber());
+                // Columna G: skuDescription
+                setCellValue(row, 6, item.getSkuDescription(), maxLengths);
 
-            // Columna F: consecutiveNumber
-            setCellValue(row, 5, item.getConsecutiveNumber());
+                // Columna H: descriptionElement
+                setCellValue(row, 7, item.getDescriptionElement(), maxLengths);
 
-            // Columna G: skuDescription
-            setCellValue(row, 6, item.getSkuDescription());
+                // Columna I: allAttributes
+                setCellValue(row, 8, item.getAllAttributes(), maxLengths);
 
-            // Columna H: descriptionElement
-            setCellValue(row, 7, item.getDescriptionElement());
+                // Columna J: acquisitionDate
+                if (item.getAcquisitionDate() != null) {
+                    Cell dateCell = row.createCell(9);
+                    dateCell.setCellValue(item.getAcquisitionDate());
+                    dateCell.setCellStyle(styles.date());
+                    maxLengths[9] = Math.max(maxLengths[9], 10);
+                }
 
-            // Columna I: allAttributes
-            setCellValue(row, 8, item.getAllAttributes());
+                // Columna K: acquisitionValue
+                if (item.getAcquisitionValue() != null) {
+                    Cell valueCell = row.createCell(10);
+                    valueCell.setCellValue(item.getAcquisitionValue());
+                    valueCell.setCellStyle(styles.number());
+                    maxLengths[10] = Math.max(maxLengths[10], String.format("%,.2f", item.getAcquisitionValue()).length());
+                }
 
-            // Columna J: acquisitionDate
-            if (item.getAcquisitionDate() != null) {
-                Cell dateCell = row.createCell(9);
-                dateCell.setCellValue(item.getAcquisitionDate().atStartOfDay().atZone(java.time.ZoneId.systemDefault()).toLocalDate());
-                dateCell.setCellStyle(dateStyle);
-            }
+                // Columna L: ivId
+                setCellValue(row, 11, item.getIvId(), maxLengths);
 
-            // Columna K: acquisitionValue
-            if (item.getAcquisitionValue() != null) {
-                Cell valueCell = row.createCell(10);
-                valueCell.setCellValue(item.getAcquisitionValue());
-                valueCell.setCellStyle(numberStyle);
+                // Columna M: location
+                setCellValue(row, 12, item.getLocation(), maxLengths);
             }
+        }
 
-            // Columna L: ivId
-            setCellValue(row, 11, item.getIvId());
+        return maxLengths;
+    }
 
-            // Columna M: location
-            setCellValue(row, 12, item.getLocation());
+    private static List<ItemExportRow> nextPage(PageSource pages) throws IOException {
+        try {
+            return pages.next();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Exportación interrumpida", e);
         }
+    }
 
-        // Ajustar ancho de columnas
-        for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
-            // Añadir un poco de padding
-            sheet.setColumnWidth(i, sheet.getColumnWidth(i) + 1000);
-        }
+    private int[] writeHeader(Sheet sheet, ExportStyles styles) {
+        // SXSSF no puede autoajustar columnas con filas ya volcadas: se lleva el largo máximo por columna
+        int[] maxLengths = new int[HEADERS.length];
 
-        // Convertir a byte array
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        workbook.write(outputStream);
-        workbook.close();
+        // Crear fila de encabezado
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < HEADERS.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(HEADERS[i]);
+            cell.setCellStyle(styles.header());
+            maxLengths[i] = HEADERS[i].length();
+        }
+        return maxLengths;
+    }
 
-        return outputStream.toByteArray();
+    private static void setColumnWidths(Sheet sheet, int[] maxLengths) {
+        // Ajustar ancho de columnas, con un poco de padding
+        for (int i = 0; i < HEADERS.length; i++) {
+            sheet.setColumnWidth(i, Math.min(maxLengths[i] * 256 + COLUMN_PADDING, MAX_COLUMN_WIDTH));
+        }
     }
 
-    private void setCellValue(Row row, int columnIndex, String value) {
+    private void setCellValue(Row row, int columnIndex, String value, int[] maxLengths) {
         Cell cell = row.createCell(columnIndex);
         if (value != null && !value.trim().isEmpty()) {
             cell.setCellValue(value);
+            maxLengths[columnIndex] = Math.max(maxLengths[columnIndex], value.length());
         } else {
             cell.setCellValue("");
         }
     }
-}
 
+    /**
+     * Origen de las páginas de una hoja; devuelve una lista vacía cuando no hay más items.
+     */
+    @FunctionalInterface
+    private interface PageSource {
+        List<ItemExportRow> next() throws InterruptedException;
+    }
+
+    /**
+     * Páginas de items de un inventario, consultadas por keyset sobre el ID.
+     */
+    private final class ItemPages implements PageSource {
+
+        private final Long inventoryId;
+        private long afterId = 0L;
+        private boolean exhausted;
+
+        private ItemPages(Long inventoryId) {
+            this.inventoryId = inventoryId;
+        }
+
+        @Override
+        public List<ItemExportRow> next() {
+            if (exhausted) {
+                return END_OF_PAGES;
+            }
+            List<ItemExportRow> page = itemRepository.findExportRowsAfter(inventoryId, afterId, PageRequest.of(0, pageSize));
+            exhausted = page.size() < pageSize;
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+            return page;
+        }
+    }
+
+    /**
+     * Estilos del libro; se crean una sola vez por workbook.
+     */
+    private record ExportStyles(CellStyle header, CellStyle date, CellStyle number) {
+
+        static ExportStyles create(Workbook workbook) {
+            // Crear estilo para el encabezado
+            CellStyle headerStyle = workbook.createCellStyle();
+            Font headerFont = workbook.createFont();
+            headerFont.setBold(true);
+            headerFont.setFontHeightInPoints((short) 12);
+            headerStyle.setFont(headerFont);
+            headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            headerStyle.setBorderBottom(BorderStyle.THIN);
+            headerStyle.setBorderTop(BorderStyle.THIN);
+            headerStyle.setBorderLeft(BorderStyle.THIN);
+            headerStyle.setBorderRight(BorderStyle.THIN);
+
+            // Crear estilo para fechas
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd/mm/yyyy"));
+
+            // Crear estilo para números
+            CellStyle numberStyle = workbook.createCellStyle();
+            numberStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
+
+            return new ExportStyles(headerStyle, dateStyle, numberStyle);
+        }
+    }
+}
@@ -4,13 +4,11 @@ import com.sgdis.backend.auth.application.service.AuthService;
 import com.sgdis.backend.exception.DomainValidationException;
 import com.sgdis.backend.inventory.infrastructure.entity.InventoryEntity;
 import com.sgdis.backend.inventory.infrastructure.repository.SpringDataInventoryRepository;
+import com.sgdis.backend.item.application.dto.BulkItemRow;
 import com.sgdis.backend.item.application.dto.BulkUploadResponse;
 import com.sgdis.backend.item.application.dto.CreateItemRequest;
-import com.sgdis.backend.item.application.port.CreateItemUseCase;
-import com.sgdis.backend.item.application.service.ItemService;
 // Notificaciones
-import com.sgdis.backend.notification.service.NotificationService;
-import com.sgdis.backend.notification.service.NotificationPersistenceService;
+import com.sgdis.backend.notification.service.NotificationDispatcher;
 import com.sgdis.backend.notification.dto.NotificationMessage;
 import com.sgdis.backend.user.domain.Role;
 import com.sgdis.backend.user.infrastructure.entity.UserEntity;
@@ -18,19 +16,17 @@ import com.sgdis.backend.user.infrastructure.repository.SpringDataUserRepository
 // Auditoría
 import com.sgdis.backend.auditory.application.port.in.RecordActionUseCase;
 import com.sgdis.backend.auditory.application.dto.RecordActionRequest;
+import com.sgdis.backend.auditory.domain.AuditActionType;
+import com.sgdis.backend.auditory.domain.AuditEntityType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
-import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 import java.util.Set;
 import java.util.HashSet;
@@ -42,17 +38,20 @@ import java.util.regex.Pattern;
 @Slf4j
 public class ExcelItemService {
 
-    private final CreateItemUseCase createItemUseCase;
+    private final ItemBulkImportService itemBulkImportService;
     private final AuthService authService;
     private final SpringDataInventoryRepository inventoryRepository;
     private final RecordActionUseCase recordActionUseCase;
-    private final NotificationService notificationService;
-    private final NotificationPersistenceService notificationPersistenceService;
+    private final NotificationDispatcher notificationDispatcher;
     private final SpringDataUserRepository userRepository;
     private static final Pattern ATTRIBUTE_PATTERN = Pattern.compile("(MARCA|SERIAL|MODELO|OBSERVACIONES):([^;]+)");
     private static final int MAX_STRING_LENGTH = 255;
+    private static final int PROGRESS_INTERVAL_ROWS = 1000;
 
-    public BulkUploadResponse processExcelFile(MultipartFile file, Long inventoryId) throws IOException {
+    /**
+     * Valida que el archivo subido sea un Excel no vacío.
+     */
+    public void validateExcelFile(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new DomainValidationException("El archivo Excel no puede estar vacío");
         }
@@ -61,151 +60,60 @@ public class ExcelItemService {
         if (filename == null || (!filename.endsWith(".xls") && !filename.endsWith(".xlsx"))) {
             throw new DomainValidationException("El archivo debe ser un Excel (.xls o .xlsx)");
         }
+    }
 
-        Workbook workbook;
-        try {
-            if (filename.endsWith(".xlsx")) {
-                workbook = new XSSFWorkbook(file.getInputStream());
-            } else {
-                workbook = new HSSFWorkbook(file.getInputStream());
-            }
-        } catch (Exception e) {
-            throw new DomainValidationException("Error al leer el archivo Excel: " + e.getMessage());
-        }
-
-        Sheet sheet = workbook.getSheetAt(0);
-        if (sheet == null) {
-            workbook.close();
-            throw new DomainValidationException("El archivo Excel no contiene hojas");
-        }
-
+    /**
+     * Importa los items de un Excel ya validado con {@link #validateExcelFile(MultipartFile)}.
+     *
+     * Las filas se entregan al importador a medida que se leen, sin acumular el archivo en memoria.
+     *
+     * @param file archivo en disco; se abre en modo solo lectura
+     * @param filename nombre original del archivo; su extensión determina el formato
+     * @param progressListener recibe el avance cada PROGRESS_INTERVAL_ROWS filas leídas y después de cada bloque insertado
+     */
+    public BulkUploadResponse processExcelFile(Path file, String filename, Long inventoryId,
+                                               BulkUploadProgressListener progressListener) {
         List<String> errors = new ArrayList<>();
-        int successfulItems = 0;
-        int totalRows = 0;
+        int[] totalRows = {0};
+        int[] insertedRows = {0};
 
-        // Activar modo carga masiva para evitar notificaciones individuales
-        ItemService.setBulkUploadMode(true);
-        
-        try {
-        // Comenzar desde la segunda fila (índice 1, ya que 0 es el encabezado)
-        for (int rowIndex = 1; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
-            Row row = sheet.getRow(rowIndex);
-            if (row == null) {
-                continue;
-            }
-
-            // Verificar si la fila está vacía
-            if (isRowEmpty(row)) {
-                continue;
-            }
-
-            totalRows++;
-            
+        int successfulItems = itemBulkImportService.importItems(inventoryId, rowConsumer -> {
             try {
-                // Leer columnas según especificación
-                String irId = getCellValueAsString(row, 0); // Columna A
-                String wareHouseDescription = getCellValueAsString(row, 3); // Columna D
-                String licencePlateNumber = getCellValueAsString(row, 4); // Columna E
-                String consecutiveNumber = getCellValueAsString(row, 5); // Columna F
-                String skuDescription = getCellValueAsString(row, 6); // Columna G (también productName)
-                String descriptionElement = getCellValueAsString(row, 7); // Columna H
-                String attributesString = getCellValueAsString(row, 8); // Columna I
-                LocalDate acquisitionDate = getCellValueAsDate(row, 10); // Columna K
-                Double acquisitionValue = getCellValueAsDouble(row, 11); // Columna L
-                String ivId = getCellValueAsString(row, 14); // Columna O
-                String location = getCellValueAsString(row, 15); // Columna P
-
-                // Parsear atributos de la columna I
-                String brand = "";
-                String serial = "";
-                String model = "";
-                String observations = "";
-
-                if (attributesString != null && !attributesString.trim().isEmpty()) {
-                    Matcher matcher = ATTRIBUTE_PATTERN.matcher(attributesString);
-                    while (matcher.find()) {
-                        String key = matcher.group(1).trim();
-                        String value = matcher.group(2).trim();
-                        switch (key) {
-                            case "MARCA":
-                                brand = value;
-                                break;
-                            case "SERIAL":
-                                serial = value;
-                                break;
-                            case "MODELO":
-                                model = value;
-                                break;
-                            case "OBSERVACIONES":
-                                observations = value;
-                                break;
-                        }
+                ItemSheetReader.read(file, filename.endsWith(".xlsx"), row -> {
+                    // Omitir la fila de encabezado (índice 0) y las filas vacías
+                    if (row.getIndex() == 0 || row.isEmpty()) {
+                        return;
                     }
-                }
-
-                // skuDescription también se usa como productName
-                String productName = skuDescription != null && !skuDescription.trim().isEmpty() 
-                    ? skuDescription 
-                    : (wareHouseDescription != null ? wareHouseDescription : "");
-
-                // Validar campos requeridos
-                if (licencePlateNumber == null || licencePlateNumber.trim().isEmpty()) {
-                    errors.add("Fila " + (rowIndex + 1) + ": El número de placa es obligatorio");
-                    continue;
-                }
-
-                // Truncar todos los campos String a máximo 255 caracteres para evitar errores de base de datos
-                irId = truncateString(irId);
-                productName = truncateString(productName);
-                wareHouseDescription = truncateString(wareHouseDescription);
-                licencePlateNumber = truncateString(licencePlateNumber);
-                consecutiveNumber = truncateString(consecutiveNumber);
-                skuDescription = truncateString(skuDescription);
-                descriptionElement = truncateString(descriptionElement);
-                ivId = truncateString(ivId);
-                location = truncateString(location);
-                brand = truncateString(brand);
-                serial = truncateString(serial);
-                model = truncateString(model);
-                observations = truncateString(observations);
-
-                // Crear el item
-                CreateItemRequest createRequest = new CreateItemRequest(
-                    irId,
-                    productName,
-                    wareHouseDescription,
-                    licencePlateNumber,
-                    consecutiveNumber,
-                    skuDescription,
-                    descriptionElement,
-                    brand,
-                    serial,
-                    model,
-                    observations,
-                    acquisitionDate,
-                    acquisitionValue,
-                    ivId,
-                    location,
-                    inventoryId,
-                    true // status por defecto
-                );
-
-                createItemUseCase.createItem(createRequest);
-                successfulItems++;
-
+                    totalRows[0]++;
+                    if (totalRows[0] % PROGRESS_INTERVAL_ROWS == 0) {
+                        progressListener.onProgress(totalRows[0], insertedRows[0], errors.size());
+                    }
+                    int rowNumber = row.getIndex() + 1;
+                    CreateItemRequest request;
+                    try {
+                        request = toCreateRequest(row, inventoryId);
+                    } catch (Exception e) {
+                        errors.add("Fila " + rowNumber + ": " + e.getMessage());
+                        return;
+                    }
+                    if (request == null) {
+                        errors.add("Fila " + rowNumber + ": El número de placa es obligatorio");
+                    } else {
+                        rowConsumer.accept(new BulkItemRow(rowNumber, request));
+                    }
+                });
+            } catch (DataAccessException e) {
+                // Error al insertar un bloque: no es un problema del archivo
+                throw e;
             } catch (Exception e) {
-                errors.add("Fila " + (rowIndex + 1) + ": " + e.getMessage());
-            }
+                throw new DomainValidationException("Error al leer el archivo Excel: " + e.getMessage());
             }
-        } finally {
-            // Desactivar modo carga masiva
-            ItemService.clearBulkUploadMode();
-        }
+        }, errors, inserted -> {
+            insertedRows[0] = inserted;
+            progressListener.onProgress(totalRows[0], inserted, errors.size());
+        });
+        int failedItems = totalRows[0] - successfulItems;
 
-        workbook.close();
-        
-        int failedItems = totalRows - successfulItems;
-        
         // Registrar auditoría
         try {
             var currentUser = authService.getCurrentUser();
@@ -214,37 +122,123 @@ public class ExcelItemService {
                     ? inventory.get().getName() : "sin nombre";
             String fileNameForAudit = filename != null ? filename : "archivo desconocido";
             
-            recordActionUseCase.recordAction(new RecordActionRequest(
-                    String.format("Carga masiva de items desde Excel: Archivo %s - Inventario: %s (ID: %d) - Total filas: %d - Exitosos: %d - Fallidos: %d - Usuario: %s (%s)", 
+            recordActionUseCase.recordAction(RecordActionRequest.builder()
+                    .action(String.format("Carga masiva de items desde Excel: Archivo %s - Inventario: %s (ID: %d) - Total filas: %d - Exitosos: %d - Fallidos: %d - Usuario: %s (%s)", 
                             fileNameForAudit,
                             inventoryName,
                             inventoryId,
-                            totalRows,
+                            totalRows[0],
                             successfulItems,
                             failedItems,
                             currentUser.getFullName(),
-                            currentUser.getEmail())
-            ));
+                            currentUser.getEmail()))
+                    .actionType(AuditActionType.BULK_IMPORT)
+                    .entityType(AuditEntityType.INVENTORY)
+                    .entityId(inventoryId)
+                    .inventoryId(inventoryId)
+                    .build());
         } catch (Exception e) {
             // Si hay error al obtener el usuario o inventario, no fallar la carga
             // Solo registrar sin información del usuario
             String fileNameForAudit = filename != null ? filename : "archivo desconocido";
-            recordActionUseCase.recordAction(new RecordActionRequest(
-                    String.format("Carga masiva de items desde Excel: Archivo %s - Inventario ID %d - Total filas: %d - Exitosos: %d - Fallidos: %d", 
+            recordActionUseCase.recordAction(RecordActionRequest.builder()
+                    .action(String.format("Carga masiva de items desde Excel: Archivo %s - Inventario ID %d - Total filas: %d - Exitosos: %d - Fallidos: %d", 
                             fileNameForAudit,
                             inventoryId,
-                            totalRows,
+                            totalRows[0],
                             successfulItems,
-                            failedItems)
-            ));
+                            failedItems))
+                    .actionType(AuditActionType.BULK_IMPORT)
+                    .entityType(AuditEntityType.INVENTORY)
+                    .entityId(inventoryId)
+                    .inventoryId(inventoryId)
+                    .build());
         }
         
         // Enviar notificación única de carga masiva
         if (successfulItems > 0) {
-            sendBulkUploadNotification(inventoryId, successfulItems, totalRows, filename);
+            sendBulkUploadNotification(inventoryId, successfulItems, totalRows[0], filename);
         }
         
-        return new BulkUploadResponse(totalRows, successfulItems, failedItems, errors);
+        return new BulkUploadResponse(totalRows[0], successfulItems, failedItems, errors);
+    }
+
+    /**
+     * Convierte una fila del Excel en la solicitud de creación del item.
+     * Retorna null si la fila no tiene número de placa.
+     */
+    private CreateItemRequest toCreateRequest(ItemSheetReader.SheetRow row, Long inventoryId) {
+        // Leer columnas según especificación
+        String irId = row.getString(0); // Columna A
+        String wareHouseDescription = row.getString(3); // Columna D
+        String licencePlateNumber = row.getString(4); // Columna E
+        String consecutiveNumber = row.getString(5); // Columna F
+        String skuDescription = row.getString(6); // Columna G (también productName)
+        String descriptionElement = row.getString(7); // Columna H
+        String attributesString = row.getString(8); // Columna I
+        LocalDate acquisitionDate = row.getDate(10); // Columna K
+        Double acquisitionValue = row.getDouble(11); // Columna L
+        String ivId = row.getString(14); // Columna O
+        String location = row.getString(15); // Columna P
+
+        // Parsear atributos de la columna I
+        String brand = "";
+        String serial = "";
+        String model = "";
+        String observations = "";
+
+        if (attributesString != null && !attributesString.trim().isEmpty()) {
+            Matcher matcher = ATTRIBUTE_PATTERN.matcher(attributesString);
+            while (matcher.find()) {
+                String key = matcher.group(1).trim();
+                String value = matcher.group(2).trim();
+                switch (key) {
+                    case "MARCA":
+                        brand = value;
+                        break;
+                    case "SERIAL":
+                        serial = value;
+                        break;
+                    case "MODELO":
+                        model = value;
+                        break;
+                    case "OBSERVACIONES":
+                        observations = value;
+                        break;
+                }
+            }
+        }
+
+        // skuDescription también se usa como productName
+        String productName = skuDescription != null && !skuDescription.trim().isEmpty() 
+            ? skuDescription 
+            : (wareHouseDescription != null ? wareHouseDescription : "");
+
+        // Validar campos requeridos
+        if (licencePlateNumber == null || licencePlateNumber.trim().isEmpty()) {
+            return null;
+        }
+
+        // Truncar todos los campos String a máximo 255 caracteres para evitar errores de base de datos
+        return new CreateItemRequest(
+            truncateString(irId),
+            truncateString(productName),
+            truncateString(wareHouseDescription),
+            truncateString(licencePlateNumber),
+            truncateString(consecutiveNumber),
+            truncateString(skuDescription),
+            truncateString(descriptionElement),
+            truncateString(brand),
+            truncateString(serial),
+            truncateString(model),
+            truncateString(observations),
+            acquisitionDate,
+            acquisitionValue,
+            truncateString(ivId),
+            truncateString(location),
+            inventoryId,
+            true // status por defecto
+        );
     }
     
     /**
@@ -349,30 +343,9 @@ public class ExcelItemService {
             log.debug("Mensaje de notificación preparado: {}", message);
             
             // Enviar notificaciones a todos los usuarios
-            int notificationsSent = 0;
-            int notificationsFailed = 0;
-            for (Long userId : userIdsToNotify) {
-                try {
-                    // Guardar en base de datos
-                    notificationPersistenceService.saveNotification(
-                            userId,
-                            "BULK_UPLOAD_COMPLETED",
-                            "Carga Masiva Completada",
-                            message,
-                            new BulkUploadNotificationData(inventoryId, inventoryName, successfulItems, totalRows, fileNameDisplay)
-                    );
-                    
-                    // Enviar por WebSocket
-                    notificationService.sendNotificationToUser(userId, notification);
-                    notificationsSent++;
-                } catch (Exception e) {
-                    notificationsFailed++;
-                    log.error("Error al enviar notificación de carga masiva al usuario {}: {}", userId, e.getMessage(), e);
-                }
-            }
+            notificationDispatcher.dispatch(userIdsToNotify, notification);
             
-            log.info("Notificación de carga masiva completada - Enviadas: {}, Fallidas: {}, Total usuarios: {}", 
-                    notificationsSent, notificationsFailed, userIdsToNotify.size());
+            log.info("Notificación de carga masiva completada - Total usuarios: {}", userIdsToNotify.size());
         } catch (Exception e) {
             log.error("Error al enviar notificación de carga masiva para inventario ID {}: {}", inventoryId, e.getMessage(), e);
             // El sistema de notificaciones no debe bloquear la carga
@@ -390,133 +363,6 @@ public class ExcelItemService {
             String fileName
     ) {}
 
-    private String getCellValueAsString(Row row, int columnIndex) {
-        Cell cell = row.getCell(columnIndex);
-        if (cell == null) {
-            return null;
-        }
-
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue().trim();
-            case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getDateCellValue().toString();
-                } else {
-                    // Convertir número a string sin decimales si es entero
-                    double numValue = cell.getNumericCellValue();
-                    if (numValue == (long) numValue) {
-                        return String.valueOf((long) numValue);
-                    } else {
-                        return String.valueOf(numValue);
-                    }
-                }
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                return cell.getCellFormula();
-            default:
-                return null;
-        }
-    }
-
-    private LocalDate getCellValueAsDate(Row row, int columnIndex) {
-        Cell cell = row.getCell(columnIndex);
-        if (cell == null) {
-            return null;
-        }
-
-        try {
-            if (cell.getCellType() == CellType.NUMERIC && DateUtil.isCellDateFormatted(cell)) {
-                Date date = cell.getDateCellValue();
-                return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-            } else if (cell.getCellType() == CellType.STRING) {
-                String dateStr = cell.getStringCellValue().trim();
-                if (!dateStr.isEmpty()) {
-                    // Intentar parsear diferentes formatos de fecha
-                    return LocalDate.parse(dateStr);
-                }
-            }
-        } catch (Exception e) {
-            // Si no se puede parsear, retornar null
-        }
-        return null;
-    }
-
-    private Double getCellValueAsDouble(Row row, int columnIndex) {
-        Cell cell = row.getCell(columnIndex);
-        if (cell == null) {
-            return null;
-        }
-
-        try {
-            if (cell.getCellType() == CellType.NUMERIC) {
-                return cell.getNumericCellValue();
-            } else if (cell.getCellType() == CellType.STRING) {
-                String value = cell.getStringCellValue().trim();
-                if (!value.isEmpty()) {
-                    // Limpiar formato de moneda y separadores
-                    // Ejemplo: "$6.230.000,00" -> "6230000.00"
-                    // Remover símbolos de moneda y otros caracteres no numéricos (excepto coma y punto)
-                    value = value.replaceAll("[^0-9,.]", "");
-                    
-                    // Detectar si hay coma (separador decimal en formato latino)
-                    boolean hasComma = value.contains(",");
-                    
-                    // Remover todos los puntos (son separadores de miles)
-                    value = value.replace(".", "");
-                    
-                    // Si había coma, reemplazarla por punto (separador decimal estándar)
-                    if (hasComma) {
-                        value = value.replace(",", ".");
-                    }
-                    
-                    if (!value.isEmpty()) {
-                        return Double.parseDouble(value);
-                    }
-                }
-            } else if (cell.getCellType() == CellType.FORMULA) {
-                // Si es una fórmula, intentar obtener el valor numérico
-                if (cell.getCachedFormulaResultType() == CellType.NUMERIC) {
-                    return cell.getNumericCellValue();
-                } else if (cell.getCachedFormulaResultType() == CellType.STRING) {
-                    String value = cell.getStringCellValue().trim();
-                    if (!value.isEmpty()) {
-                        // Limpiar formato de moneda y separadores (misma lógica que arriba)
-                        value = value.replaceAll("[^0-9,.]", "");
-                        boolean hasComma = value.contains(",");
-                        value = value.replace(".", "");
-                        if (hasComma) {
-                            value = value.replace(",", ".");
-                        }
-                        if (!value.isEmpty()) {
-                            return Double.parseDouble(value);
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            // Si no se puede parsear, retornar null
-        }
-        return null;
-    }
-
-    private boolean isRowEmpty(Row row) {
-        if (row == null) {
-            return true;
-        }
-        for (int i = 0; i < row.getLastCellNum(); i++) {
-            Cell cell = row.getCell(i);
-            if (cell != null && cell.getCellType() != CellType.BLANK) {
-                String value = getCellValueAsString(row, i);
-                if (value != null && !value.trim().isEmpty()) {
-                    return false;
-                }
-            }
-        }
-        return true;
-    }
-
     /**
      * Trunca un String a la longitud máxima permitida (255 caracteres).
      * Si el String es null, retorna null.
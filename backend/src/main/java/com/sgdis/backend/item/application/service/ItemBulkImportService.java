@@ -0,0 +1,174 @@
+package com.sgdis.backend.item.application.service;
+
+import com.sgdis.backend.exception.ResourceNotFoundException;
+import com.sgdis.backend.inventory.infrastructure.entity.InventoryEntity;
+import com.sgdis.backend.inventory.infrastructure.repository.SpringDataInventoryRepository;
+import com.sgdis.backend.item.application.dto.BulkItemRow;
+import com.sgdis.backend.item.infrastructure.entity.ItemEntity;
+import com.sgdis.backend.item.infrastructure.repository.JdbcItemBulkRepository;
+import com.sgdis.backend.item.infrastructure.repository.SpringDataItemRepository;
+import com.sgdis.backend.item.mapper.ItemMapper;
+import com.sgdis.backend.web.dto.CounterDelta;
+import com.sgdis.backend.web.service.DashboardCounterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Motor de importación masiva de items.
+ * Recibe las filas a medida que se leen del archivo y las inserta con JDBC batch en bloques configurables:
+ * en memoria solo queda el bloque pendiente y las placas ya vistas. Las placas de cada bloque se validan
+ * contra la base de datos con una sola consulta, y el totalPrice del inventario y los contadores se
+ * actualizan una vez al final. Todo ocurre en una transacción: las filas inválidas se reportan y se omiten,
+ * pero un error de lectura o de base de datos deshace la importación completa.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemBulkImportService {
+
+    // PostgreSQL admite como máximo 32767 parámetros por sentencia
+    private static final int MAX_PLATES_PER_LOOKUP = 10_000;
+    private static final int MAX_STRING_LENGTH = 255;
+
+    private final SpringDataItemRepository itemRepository;
+    private final SpringDataInventoryRepository inventoryRepository;
+    private final JdbcItemBulkRepository jdbcItemBulkRepository;
+    private final DashboardCounterService dashboardCounterService;
+
+    @Value("${items.bulk-import.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Origen de las filas a importar; entrega cada fila al consumidor a medida que la lee.
+     */
+    @FunctionalInterface
+    public interface RowSource {
+        void forEach(Consumer<BulkItemRow> rowConsumer);
+    }
+
+    /**
+     * Importa las filas en el inventario indicado.
+     *
+     * @param errors lista donde se agregan los errores de las filas omitidas
+     * @param onInserted recibe el total acumulado de items insertados después de cada bloque
+     * @return cantidad de items creados
+     */
+    @Transactional
+    public int importItems(Long inventoryId, RowSource rows, List<String> errors, IntConsumer onInserted) {
+        InventoryEntity inventory = inventoryRepository.findById(inventoryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found with id " + inventoryId));
+
+        ImportBatch batch = new ImportBatch(inventoryId,
+                truncateString(inventory.getLocation() != null ? inventory.getLocation() : ""), errors, onInserted);
+        rows.forEach(batch::add);
+        batch.flush();
+
+        if (batch.inventoryValue > 0) {
+            inventoryRepository.addToTotalPrice(inventoryId, batch.inventoryValue);
+        }
+        if (batch.created > 0) {
+            dashboardCounterService.applyToInventory(inventoryId, CounterDelta.builder()
+                    .totalItems(batch.created)
+                    .activeItems(batch.activeItems)
+                    .itemsValue(batch.itemsValue)
+                    .inventoriesValue(batch.inventoryValue)
+                    .build());
+        }
+
+        log.info("Importación masiva completada - Inventario ID: {}, Items creados: {}, Omitidos: {}",
+                inventoryId, batch.created, batch.received - batch.created);
+        return batch.created;
+    }
+
+    private String truncateString(String value) {
+        if (value.length() > MAX_STRING_LENGTH) {
+            return value.substring(0, MAX_STRING_LENGTH - 3) + "...";
+        }
+        return value;
+    }
+
+    /**
+     * Bloque de filas pendientes de insertar y totales acumulados de la importación.
+     */
+    private final class ImportBatch {
+
+        private final Long inventoryId;
+        private final String defaultLocation;
+        private final List<String> errors;
+        private final IntConsumer onInserted;
+        private final int size = Math.max(1, Math.min(chunkSize, MAX_PLATES_PER_LOOKUP));
+        private final List<BulkItemRow> pending = new ArrayList<>();
+        // Placas ya recibidas, para detectar las repetidas dentro del archivo
+        private final Set<String> seenPlates = new HashSet<>();
+
+        private int received;
+        private int created;
+        private int activeItems;
+        private double itemsValue;
+        private double inventoryValue;
+
+        private ImportBatch(Long inventoryId, String defaultLocation, List<String> errors, IntConsumer onInserted) {
+            this.inventoryId = inventoryId;
+            this.defaultLocation = defaultLocation;
+            this.errors = errors;
+            this.onInserted = onInserted;
+        }
+
+        void add(BulkItemRow row) {
+            received++;
+            String plate = row.request().licencePlateNumber();
+            if (!seenPlates.add(plate)) {
+                errors.add("Fila " + row.rowNumber() + ": El número de placa " + plate + " está repetido en el archivo");
+                return;
+            }
+            pending.add(row);
+            if (pending.size() >= size) {
+                flush();
+            }
+        }
+
+        /**
+         * Omite las filas cuya placa ya existe en la base de datos e inserta el resto del bloque.
+         */
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            Set<String> existingPlates = new HashSet<>(itemRepository.findExistingLicencePlateNumbers(
+                    pending.stream().map(row -> row.request().licencePlateNumber()).toList()));
+
+            List<ItemEntity> chunk = new ArrayList<>(pending.size());
+            for (BulkItemRow row : pending) {
+                String plate = row.request().licencePlateNumber();
+                if (existingPlates.contains(plate)) {
+                    errors.add("Fila " + row.rowNumber() + ": Ya existe un item con el número de placa: " + plate);
+                    continue;
+                }
+                ItemEntity item = ItemMapper.toEntity(row.request());
+                if (item.getLocation() == null || item.getLocation().trim().isEmpty()) {
+                    item.setLocation(defaultLocation);
+                }
+                chunk.add(item);
+
+                Double value = item.getAcquisitionValue();
+                itemsValue += value != null ? value : 0.0;
+                inventoryValue += value != null && value > 0 ? value : 0.0;
+                activeItems += item.isStatus() ? 1 : 0;
+            }
+            pending.clear();
+
+            created += jdbcItemBulkRepository.insertAll(inventoryId, chunk).size();
+            onInserted.accept(created);
+        }
+    }
+}
@@ -28,10 +28,12 @@ import com.sgdis.backend.item.mapper.ItemMapper;
 // Auditoría
 import com.sgdis.backend.auditory.application.port.in.RecordActionUseCase;
 import com.sgdis.backend.auditory.application.dto.RecordActionRequest;
+import com.sgdis.backend.auditory.domain.AuditActionType;
+import com.sgdis.backend.auditory.domain.AuditEntityType;
 // Notificaciones
 import com.sgdis.backend.auth.application.service.AuthService;
-import com.sgdis.backend.notification.service.NotificationService;
-import com.sgdis.backend.notification.service.NotificationPersistenceService;
+import com.sgdis.backend.notification.service.NotificationDispatcher;
+import com.sgdis.backend.notification.dto.NotificationDigest;
 import com.sgdis.backend.notification.dto.NotificationMessage;
 import com.sgdis.backend.user.domain.Role;
 import com.sgdis.backend.user.infrastructure.entity.UserEntity;
@@ -42,6 +44,9 @@ import com.sgdis.backend.transfers.infrastructure.entity.TransferEntity;
 import com.sgdis.backend.cancellation.infrastructure.repository.SpringDataCancellationRepository;
 import com.sgdis.backend.cancellation.infrastructure.entity.CancellationEntity;
 import com.sgdis.backend.verification.infrastructure.entity.VerificationEntity;
+// Contadores de dashboards
+import com.sgdis.backend.web.dto.CounterDelta;
+import com.sgdis.backend.web.service.DashboardCounterService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -50,6 +55,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 
 @Service
 @RequiredArgsConstructor
@@ -69,37 +75,13 @@ public class ItemService implements
     private final FileUploadService fileUploadService;
     private final RecordActionUseCase recordActionUseCase;
     private final AuthService authService;
-    private final NotificationService notificationService;
-    private final NotificationPersistenceService notificationPersistenceService;
+    private final NotificationDispatcher notificationDispatcher;
     private final SpringDataUserRepository userRepository;
     private final SpringDataVerificationRepository verificationRepository;
     private final SpringDataTransferRepository transferRepository;
     private final SpringDataCancellationRepository cancellationRepository;
+    private final DashboardCounterService dashboardCounterService;
     
-    // ThreadLocal para indicar si estamos en modo carga masiva
-    private static final ThreadLocal<Boolean> BULK_UPLOAD_MODE = ThreadLocal.withInitial(() -> false);
-    
-    /**
-     * Activa el modo de carga masiva para evitar notificaciones individuales
-     */
-    public static void setBulkUploadMode(boolean enabled) {
-        BULK_UPLOAD_MODE.set(enabled);
-    }
-    
-    /**
-     * Verifica si estamos en modo de carga masiva
-     */
-    public static boolean isBulkUploadMode() {
-        return BULK_UPLOAD_MODE.get();
-    }
-    
-    /**
-     * Limpia el modo de carga masiva
-     */
-    public static void clearBulkUploadMode() {
-        BULK_UPLOAD_MODE.remove();
-    }
-
     @Override
     @Transactional
     public CreateItemResponse createItem(CreateItemRequest request) {
@@ -144,21 +126,32 @@ public class ItemService implements
         inventoryRepository.save(inventoryEntity);
         itemRepository.save(itemEntity);
 
+        // Actualizar contadores de dashboards
+        double itemValue = itemEntity.getAcquisitionValue() != null ? itemEntity.getAcquisitionValue() : 0.0;
+        dashboardCounterService.applyToInventory(inventoryEntity.getId(), CounterDelta.builder()
+                .totalItems(1)
+                .activeItems(itemEntity.isStatus() ? 1 : 0)
+                .itemsValue(itemValue)
+                .inventoriesValue(request.acquisitionValue() != null && request.acquisitionValue() > 0 ? request.acquisitionValue() : 0.0)
+                .build());
+
         // Registrar auditoría
         String inventoryName = inventoryEntity.getName() != null ? inventoryEntity.getName() : "sin nombre";
         String itemName = itemEntity.getProductName() != null ? itemEntity.getProductName() : "sin nombre";
-        recordActionUseCase.recordAction(new RecordActionRequest(
-                String.format("Item creado: %s (ID: %d) - Inventario: %s (ID: %d)", 
+        recordActionUseCase.recordAction(RecordActionRequest.builder()
+                .action(String.format("Item creado: %s (ID: %d) - Inventario: %s (ID: %d)", 
                         itemName,
                         itemEntity.getId(),
                         inventoryName,
-                        inventoryEntity.getId())
-        ));
+                        inventoryEntity.getId()))
+                .actionType(AuditActionType.CREATE)
+                .entityType(AuditEntityType.ITEM)
+                .entityId(itemEntity.getId())
+                .inventoryId(inventoryEntity.getId())
+                .build());
 
-        // Enviar notificaciones a los usuarios relacionados solo si NO estamos en modo carga masiva
-        if (!isBulkUploadMode()) {
-            sendItemCreatedNotifications(inventoryEntity, itemEntity);
-        }
+        // Enviar notificaciones a los usuarios relacionados (agrupadas por inventario)
+        sendItemCreatedNotifications(inventoryEntity, itemEntity);
 
         return new CreateItemResponse(itemEntity.getProductName(), "Successfully created item");
     }
@@ -174,6 +167,7 @@ public class ItemService implements
         String originalLicencePlateNumber = existingItem.getLicencePlateNumber();
         Double oldAcquisitionValue = existingItem.getAcquisitionValue() != null ? existingItem.getAcquisitionValue() : 0.0;
         Double newAcquisitionValue = request.acquisitionValue() != null ? request.acquisitionValue() : 0.0;
+        boolean originalStatus = existingItem.isStatus();
 
         // Obtener el inventario antes de actualizar el item (cargar la relación LAZY)
         InventoryEntity inventoryEntity = existingItem.getInventory();
@@ -192,16 +186,30 @@ public class ItemService implements
         
         itemRepository.save(updatedItem);
 
+        // Actualizar contadores de dashboards si cambió el estado o el valor
+        if (inventoryEntity != null
+                && (originalStatus != updatedItem.isStatus() || !oldAcquisitionValue.equals(newAcquisitionValue))) {
+            dashboardCounterService.applyToInventory(inventoryEntity.getId(), CounterDelta.builder()
+                    .activeItems((updatedItem.isStatus() ? 1 : 0) - (originalStatus ? 1 : 0))
+                    .itemsValue(newAcquisitionValue - oldAcquisitionValue)
+                    .inventoriesValue(newAcquisitionValue - oldAcquisitionValue)
+                    .build());
+        }
+
         // Registrar auditoría - construir descripción de cambios
         StringBuilder changes = new StringBuilder();
+        Set<String> changedFields = new LinkedHashSet<>();
         if (request.productName() != null && !request.productName().equals(originalProductName)) {
             changes.append("Nombre actualizado | ");
+            changedFields.add("productName");
         }
         if (request.licencePlateNumber() != null && !request.licencePlateNumber().equals(originalLicencePlateNumber)) {
             changes.append("Placa actualizada | ");
+            changedFields.add("licencePlateNumber");
         }
         if (!oldAcquisitionValue.equals(newAcquisitionValue)) {
             changes.append("Valor de adquisición actualizado | ");
+            changedFields.add("acquisitionValue");
         }
         
         String changesDescription = changes.length() > 0 
@@ -211,13 +219,18 @@ public class ItemService implements
         String itemName = updatedItem.getProductName() != null ? updatedItem.getProductName() : "sin nombre";
         String inventoryName = inventoryEntity != null && inventoryEntity.getName() != null ? inventoryEntity.getName() : "sin nombre";
         
-        recordActionUseCase.recordAction(new RecordActionRequest(
-                String.format("Item actualizado: %s (ID: %d) - Inventario: %s - %s", 
+        recordActionUseCase.recordAction(RecordActionRequest.builder()
+                .action(String.format("Item actualizado: %s (ID: %d) - Inventario: %s - %s", 
                         itemName,
                         updatedItem.getId(),
                         inventoryName,
-                        changesDescription)
-        ));
+                        changesDescription))
+                .actionType(AuditActionType.UPDATE)
+                .entityType(AuditEntityType.ITEM)
+                .entityId(updatedItem.getId())
+                .inventoryId(inventoryEntity != null ? inventoryEntity.getId() : null)
+                .changedFields(changedFields)
+                .build());
 
         return new UpdateItemResponse(updatedItem.getId(), "Item updated successfully");
     }
@@ -355,14 +368,24 @@ public class ItemService implements
             inventoryRepository.save(inventory);
         }
 
+        // Recalcular contadores de dashboards: la eliminación en cascada afecta a préstamos,
+        // verificaciones, traslados y bajas, así que se recalcula en lugar de calcular el delta
+        if (inventoryId != null) {
+            dashboardCounterService.refreshInventories(List.of(inventoryId));
+        }
+
         // Registrar auditoría
-        recordActionUseCase.recordAction(new RecordActionRequest(
-                String.format("Item eliminado: %s (ID: %d) - Inventario: %s%s", 
+        recordActionUseCase.recordAction(RecordActionRequest.builder()
+                .action(String.format("Item eliminado: %s (ID: %d) - Inventario: %s%s", 
                         itemName,
                         itemId,
                         inventoryName,
-                        inventoryId != null ? " (ID: " + inventoryId + ")" : "")
-        ));
+                        inventoryId != null ? " (ID: " + inventoryId + ")" : ""))
+                .actionType(AuditActionType.DELETE)
+                .entityType(AuditEntityType.ITEM)
+                .entityId(itemId)
+                .inventoryId(inventoryId)
+                .build());
 
         return new DeleteItemResponse(itemId, itemName, "Item deleted successfully");
     }
@@ -428,11 +451,11 @@ public class ItemService implements
      * - Los manejadores del inventario
      * 
      * No se envía notificación al usuario que realiza la acción.
+     * Las creaciones del mismo inventario se agrupan en un resumen durante la ventana configurada.
      */
     private void sendItemCreatedNotifications(InventoryEntity inventory, ItemEntity item) {
         try {
-            UserEntity currentUser = authService.getCurrentUser();
-            Long currentUserId = currentUser.getId();
+            Long currentUserId = authService.getCurrentUserId();
             
             // Cargar el inventario con relaciones básicas (sin las colecciones problemáticas)
             InventoryEntity fullInventory = inventoryRepository.findByIdWithBasicRelations(inventory.getId())
@@ -500,24 +523,11 @@ public class ItemService implements
             );
             
             // Enviar notificaciones a todos los usuarios
-            for (Long userId : userIdsToNotify) {
-                try {
-                    // Guardar en base de datos
-                    notificationPersistenceService.saveNotification(
-                            userId,
-                            "ITEM_CREATED",
-                            "Nuevo Item Creado",
-                            message,
-                            new ItemNotificationData(item.getId(), itemName, fullInventory.getId(), inventoryName)
-                    );
-                    
-                    // Enviar por WebSocket
-                    notificationService.sendNotificationToUser(userId, notification);
-                } catch (Exception e) {
-                    // Log error pero continuar con otros usuarios
-                    // El log se maneja en NotificationService
-                }
-            }
+            notificationDispatcher.dispatchDigest(userIdsToNotify, notification, new NotificationDigest(
+                    "ITEM_CREATED:" + fullInventory.getId(),
+                    "Nuevos Items Creados",
+                    String.format("Se han creado %s items en el inventario '%s'", NotificationDigest.COUNT_PLACEHOLDER, inventoryName)
+            ));
         } catch (Exception e) {
             // Log error pero no fallar la creación del item
             // El sistema de notificaciones no debe bloquear la creación
@@ -528,11 +538,11 @@ public class ItemService implements
      * Envía notificaciones a todos los usuarios relacionados cuando se elimina un item.
      * Se notifica a los mismos usuarios que cuando se crea un item.
      * No se envía notificación al usuario que realiza la acción.
+     * Las eliminaciones del mismo inventario se agrupan en un resumen durante la ventana configurada.
      */
     private void sendItemDeletedNotifications(InventoryEntity inventory, ItemEntity item) {
         try {
-            UserEntity currentUser = authService.getCurrentUser();
-            Long currentUserId = currentUser.getId();
+            Long currentUserId = authService.getCurrentUserId();
             
             // Cargar el inventario con relaciones básicas (sin las colecciones problemáticas)
             InventoryEntity fullInventory = inventoryRepository.findByIdWithBasicRelations(inventory.getId())
@@ -600,24 +610,11 @@ public class ItemService implements
             );
             
             // Enviar notificaciones a todos los usuarios
-            for (Long userId : userIdsToNotify) {
-                try {
-                    // Guardar en base de datos
-                    notificationPersistenceService.saveNotification(
-                            userId,
-                            "ITEM_DELETED",
-                            "Item Eliminado",
-                            message,
-                            new ItemNotificationData(item.getId(), itemName, fullInventory.getId(), inventoryName)
-                    );
-                    
-                    // Enviar por WebSocket
-                    notificationService.sendNotificationToUser(userId, notification);
-                } catch (Exception e) {
-                    // Log error pero continuar con otros usuarios
-                    // El log se maneja en NotificationService
-                }
-            }
+            notificationDispatcher.dispatchDigest(userIdsToNotify, notification, new NotificationDigest(
+                    "ITEM_DELETED:" + fullInventory.getId(),
+                    "Items Eliminados",
+                    String.format("Se han eliminado %s items del inventario '%s'", NotificationDigest.COUNT_PLACEHOLDER, inventoryName)
+            ));
         } catch (Exception e) {
             // Log error pero no fallar la eliminación del item
             // El sistema de notificaciones no debe bloquear la eliminación
@@ -0,0 +1,322 @@
+package com.sgdis.backend.item.application.service;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Lector fila a fila de la primera hoja de un Excel.
+ * Los .xlsx se abren desde el archivo en disco (sin copiar el zip a memoria) y su hoja se lee
+ * en streaming con SAX, sin cargar el libro completo; los .xls (formato binario, máximo 65.536 filas)
+ * se siguen leyendo con HSSF.
+ */
+final class ItemSheetReader {
+
+    private ItemSheetReader() {}
+
+    /**
+     * Recorre las filas de la primera hoja en orden, incluida la de encabezado.
+     *
+     * @param xlsx true si el archivo es .xlsx, false si es .xls
+     */
+    static void read(Path file, boolean xlsx, Consumer<SheetRow> rowConsumer) throws Exception {
+        if (xlsx) {
+            readXlsx(file, rowConsumer);
+        } else {
+            readXls(file, rowConsumer);
+        }
+    }
+
+    private static void readXlsx(Path file, Consumer<SheetRow> rowConsumer) throws Exception {
+        // Solo lectura: el paquete lee cada parte del zip desde el archivo cuando se necesita
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new IllegalStateException("El archivo Excel no contiene hojas");
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new SheetHandler(sharedStrings, styles, rowConsumer));
+                parser.parse(new InputSource(sheet));
+            }
+        }
+    }
+
+    private static void readXls(Path file, Consumer<SheetRow> rowConsumer) throws Exception {
+        try (POIFSFileSystem fileSystem = new POIFSFileSystem(file.toFile(), true);
+             HSSFWorkbook workbook = new HSSFWorkbook(fileSystem)) {
+            if (workbook.getNumberOfSheets() == 0) {
+                throw new IllegalStateException("El archivo Excel no contiene hojas");
+            }
+            Sheet sheet = workbook.getSheetAt(0);
+            for (Row row : sheet) {
+                SheetRow sheetRow = new SheetRow(row.getRowNum());
+                for (Cell cell : row) {
+                    CellType type = cell.getCellType() == CellType.FORMULA ? cell.getCachedFormulaResultType() : cell.getCellType();
+                    switch (type) {
+                        case STRING -> sheetRow.put(cell.getColumnIndex(), SheetCell.text(cell.getStringCellValue()));
+                        case NUMERIC -> sheetRow.put(cell.getColumnIndex(),
+                                SheetCell.number(cell.getNumericCellValue(), DateUtil.isCellDateFormatted(cell)));
+                        case BOOLEAN -> sheetRow.put(cell.getColumnIndex(), SheetCell.bool(cell.getBooleanCellValue()));
+                        default -> { }
+                    }
+                }
+                rowConsumer.accept(sheetRow);
+            }
+        }
+    }
+
+    /**
+     * Valor de una celda: texto, número (con indicador de formato fecha) o booleano.
+     * En las fórmulas se usa el último resultado calculado guardado en el archivo.
+     */
+    record SheetCell(CellType type, String text, double number, boolean date) {
+
+        static SheetCell text(String text) {
+            return new SheetCell(CellType.STRING, text, 0, false);
+        }
+
+        static SheetCell number(double number, boolean date) {
+            return new SheetCell(CellType.NUMERIC, null, number, date);
+        }
+
+        static SheetCell bool(boolean value) {
+            return new SheetCell(CellType.BOOLEAN, String.valueOf(value), 0, false);
+        }
+    }
+
+    /**
+     * Fila leída, con sus celdas no vacías indexadas por columna (base 0).
+     */
+    static final class SheetRow {
+
+        private final int index;
+        private final Map<Integer, SheetCell> cells = new HashMap<>();
+
+        SheetRow(int index) {
+            this.index = index;
+        }
+
+        /** Índice de la fila en la hoja (base 0). */
+        int getIndex() {
+            return index;
+        }
+
+        void put(int columnIndex, SheetCell cell) {
+            cells.put(columnIndex, cell);
+        }
+
+        String getString(int columnIndex) {
+            SheetCell cell = cells.get(columnIndex);
+            if (cell == null) {
+                return null;
+            }
+            switch (cell.type()) {
+                case STRING:
+                    return cell.text().trim();
+                case NUMERIC:
+                    if (cell.date()) {
+                        return DateUtil.getJavaDate(cell.number()).toString();
+                    }
+                    // Convertir número a string sin decimales si es entero
+                    double numValue = cell.number();
+                    if (numValue == (long) numValue) {
+                        return String.valueOf((long) numValue);
+                    }
+                    return String.valueOf(numValue);
+                case BOOLEAN:
+                    return cell.text();
+                default:
+                    return null;
+            }
+        }
+
+        LocalDate getDate(int columnIndex) {
+            SheetCell cell = cells.get(columnIndex);
+            if (cell == null) {
+                return null;
+            }
+            try {
+                if (cell.type() == CellType.NUMERIC && cell.date()) {
+                    return DateUtil.getJavaDate(cell.number()).toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+                } else if (cell.type() == CellType.STRING) {
+                    String dateStr = cell.text().trim();
+                    if (!dateStr.isEmpty()) {
+                        return LocalDate.parse(dateStr);
+                    }
+                }
+            } catch (Exception e) {
+                // Si no se puede parsear, retornar null
+            }
+            return null;
+        }
+
+        Double getDouble(int columnIndex) {
+            SheetCell cell = cells.get(columnIndex);
+            if (cell == null) {
+                return null;
+            }
+            try {
+                if (cell.type() == CellType.NUMERIC) {
+                    return cell.number();
+                } else if (cell.type() == CellType.STRING) {
+                    String value = cell.text().trim();
+                    if (!value.isEmpty()) {
+                        // Limpiar formato de moneda y separadores
+                        // Ejemplo: "$6.230.000,00" -> "6230000.00"
+                        value = value.replaceAll("[^0-9,.]", "");
+                        // Si hay coma es el separador decimal (formato latino) y los puntos son separadores de miles
+                        boolean hasComma = value.contains(",");
+                        value = value.replace(".", "");
+                        if (hasComma) {
+                            value = value.replace(",", ".");
+                        }
+                        if (!value.isEmpty()) {
+                            return Double.parseDouble(value);
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                // Si no se puede parsear, retornar null
+            }
+            return null;
+        }
+
+        boolean isEmpty() {
+            for (Integer columnIndex : cells.keySet()) {
+                String value = getString(columnIndex);
+                if (value != null && !value.trim().isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Handler SAX de sheetN.xml: arma cada fila a partir de los elementos c/v/is/t
+     * y la entrega al consumidor al cerrar el elemento row.
+     */
+    private static final class SheetHandler extends DefaultHandler {
+
+        private final ReadOnlySharedStringsTable sharedStrings;
+        private final StylesTable styles;
+        private final Consumer<SheetRow> rowConsumer;
+
+        private final StringBuilder value = new StringBuilder();
+        private SheetRow currentRow;
+        private int nextRowIndex;
+        private int columnIndex;
+        private String cellType;
+        private String cellStyle;
+        private boolean collecting;
+
+        SheetHandler(ReadOnlySharedStringsTable sharedStrings, StylesTable styles, Consumer<SheetRow> rowConsumer) {
+            this.sharedStrings = sharedStrings;
+            this.styles = styles;
+            this.rowConsumer = rowConsumer;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row" -> {
+                    String ref = attributes.getValue("r");
+                    int rowIndex = ref != null ? Integer.parseInt(ref) - 1 : nextRowIndex;
+                    currentRow = new SheetRow(rowIndex);
+                    nextRowIndex = rowIndex + 1;
+                    columnIndex = -1;
+                }
+                case "c" -> {
+                    String ref = attributes.getValue("r");
+                    columnIndex = ref != null ? new CellReference(ref).getCol() : columnIndex + 1;
+                    cellType = attributes.getValue("t");
+                    cellStyle = attributes.getValue("s");
+                    value.setLength(0);
+                }
+                case "v", "t" -> collecting = true;
+                default -> { }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (collecting) {
+                value.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v", "t" -> collecting = false;
+                case "c" -> {
+                    SheetCell cell = toCell();
+                    if (cell != null && currentRow != null) {
+                        currentRow.put(columnIndex, cell);
+                    }
+                }
+                case "row" -> {
+                    if (currentRow != null) {
+                        rowConsumer.accept(currentRow);
+                        currentRow = null;
+                    }
+                }
+                default -> { }
+            }
+        }
+
+        private SheetCell toCell() {
+            String raw = value.toString();
+            if (raw.isEmpty()) {
+                return null;
+            }
+            if (cellType == null || cellType.equals("n")) {
+                return SheetCell.number(Double.parseDouble(raw), isDateStyle());
+            }
+            return switch (cellType) {
+                case "s" -> SheetCell.text(sharedStrings.getItemAt(Integer.parseInt(raw)).getString());
+                case "inlineStr", "str", "d" -> SheetCell.text(raw);
+                case "b" -> SheetCell.bool(raw.equals("1"));
+                default -> null; // "e": celdas con error
+            };
+        }
+
+        private boolean isDateStyle() {
+            if (cellStyle == null || styles == null) {
+                return false;
+            }
+            XSSFCellStyle style = styles.getStyleAt(Integer.parseInt(cellStyle));
+            return style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+        }
+    }
+}
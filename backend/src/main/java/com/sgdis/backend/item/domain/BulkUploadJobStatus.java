@@ -0,0 +1,8 @@
+package com.sgdis.backend.item.domain;
+
+public enum BulkUploadJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,109 @@
+package com.sgdis.backend.item.infrastructure.repository;
+
+import com.sgdis.backend.item.domain.Attribute;
+import com.sgdis.backend.item.infrastructure.entity.ItemEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserciones masivas de items con JDBC batch.
+ * Los items usan IDENTITY, por lo que Hibernate no puede agrupar sus INSERT; aquí se envían
+ * en un solo batch por bloque y se recuperan las claves generadas para insertar los atributos.
+ * Las tablas y columnas corresponden al mapeo de {@link ItemEntity}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JdbcItemBulkRepository {
+
+    private static final String INSERT_ITEM =
+            "INSERT INTO items (ir_id, product_name, ware_house_description, licence_plate_number, " +
+            "consecutive_number, sku_description, description_element, acquisition_date, acquisition_value, " +
+            "iv_id, all_attributes, location, status, inventory_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ATTRIBUTE =
+            "INSERT INTO item_entity_attributes (item_entity_id, attributes_key, attribute_value) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserta los items (y sus atributos) en el inventario indicado.
+     *
+     * @return IDs generados, en el mismo orden que la lista de items
+     */
+    public List<Long> insertAll(Long inventoryId, List<ItemEntity> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_ITEM, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ItemEntity item = items.get(i);
+                        ps.setString(1, item.getIrId());
+                        ps.setString(2, item.getProductName());
+                        ps.setString(3, item.getWareHouseDescription());
+                        ps.setString(4, item.getLicencePlateNumber());
+                        ps.setString(5, item.getConsecutiveNumber());
+                        ps.setString(6, item.getSkuDescription());
+                        ps.setString(7, item.getDescriptionElement());
+                        if (item.getAcquisitionDate() != null) {
+                            ps.setDate(8, Date.valueOf(item.getAcquisitionDate()));
+                        } else {
+                            ps.setNull(8, Types.DATE);
+                        }
+                        if (item.getAcquisitionValue() != null) {
+                            ps.setDouble(9, item.getAcquisitionValue());
+                        } else {
+                            ps.setNull(9, Types.DOUBLE);
+                        }
+                        ps.setString(10, item.getIvId());
+                        ps.setString(11, item.getAllAttributes());
+                        ps.setString(12, item.getLocation());
+                        ps.setBoolean(13, item.isStatus());
+                        ps.setLong(14, inventoryId);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return items.size();
+                    }
+                },
+                keyHolder);
+
+        List<Long> ids = new ArrayList<>(items.size());
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            ids.add(((Number) keys.values().iterator().next()).longValue());
+        }
+
+        List<Object[]> attributeRows = new ArrayList<>(items.size() * Attribute.values().length);
+        for (int i = 0; i < items.size(); i++) {
+            Map<Attribute, String> attributes = items.get(i).getAttributes();
+            if (attributes == null) {
+                continue;
+            }
+            Long itemId = ids.get(i);
+            attributes.forEach((key, value) -> attributeRows.add(new Object[]{itemId, key.name(), value}));
+        }
+        if (!attributeRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ATTRIBUTE, attributeRows);
+        }
+
+        return ids;
+    }
+}
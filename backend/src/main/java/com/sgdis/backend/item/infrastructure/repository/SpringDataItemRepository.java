@@ -2,6 +2,7 @@ package com.sgdis.backend.item.infrastructure.repository;
 
 import com.sgdis.backend.item.domain.Attribute;
 import com.sgdis.backend.item.infrastructure.entity.ItemEntity;
+import com.sgdis.backend.item.infrastructure.repository.projection.ItemExportRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +25,9 @@ public interface SpringDataItemRepository extends JpaRepository<ItemEntity, Long
     @Query("SELECT i FROM ItemEntity i LEFT JOIN FETCH i.inventory inv LEFT JOIN FETCH inv.institution WHERE i.licencePlateNumber = :licencePlateNumber")
     Optional<ItemEntity> findByLicencePlateNumber(@Param("licencePlateNumber") String licencePlateNumber);
 
+    @Query("SELECT i.licencePlateNumber FROM ItemEntity i WHERE i.licencePlateNumber IN :licencePlateNumbers")
+    List<String> findExistingLicencePlateNumbers(@Param("licencePlateNumbers") Collection<String> licencePlateNumbers);
+
     @Query("SELECT DISTINCT i FROM ItemEntity i LEFT JOIN FETCH i.inventory inv LEFT JOIN FETCH inv.institution, IN(i.attributes) a WHERE KEY(a) = :attributeKey AND VALUE(a) = :attributeValue")
     Optional<ItemEntity> findByAttribute(@Param("attributeKey") Attribute attributeKey, @Param("attributeValue") String attributeValue);
 
@@ -30,6 +35,28 @@ public interface SpringDataItemRepository extends JpaRepository<ItemEntity, Long
            "AND NOT EXISTS (SELECT 1 FROM com.sgdis.backend.cancellation.infrastructure.entity.CancellationEntity c JOIN c.items ci " +
            "WHERE ci.id = i.id AND c.approved = true AND c.refusedAt IS NULL)")
     List<ItemEntity> findAllByInventoryId(@Param("inventoryId") Long inventoryId);
+
+    /**
+     * Página de la exportación a Excel: items no dados de baja con ID mayor a {@code afterId}, ordenados por ID.
+     * Devuelve solo columnas, sin entidades administradas ni atributos.
+     */
+    @Query("SELECT i.id AS id, i.irId AS irId, i.wareHouseDescription AS wareHouseDescription, " +
+           "i.licencePlateNumber AS licencePlateNumber, i.consecutiveNumber AS consecutiveNumber, " +
+           "i.skuDescription AS skuDescription, i.descriptionElement AS descriptionElement, " +
+           "i.allAttributes AS allAttributes, i.acquisitionDate AS acquisitionDate, " +
+           "i.acquisitionValue AS acquisitionValue, i.ivId AS ivId, i.location AS location " +
+           "FROM ItemEntity i WHERE i.inventory.id = :inventoryId AND i.id > :afterId " +
+           "AND NOT EXISTS (SELECT 1 FROM com.sgdis.backend.cancellation.infrastructure.entity.CancellationEntity c JOIN c.items ci " +
+           "WHERE ci.id = i.id AND c.approved = true AND c.refusedAt IS NULL) " +
+           "ORDER BY i.id")
+    List<ItemExportRow> findExportRowsAfter(@Param("inventoryId") Long inventoryId,
+                                            @Param("afterId") Long afterId,
+                                            Pageable pageable);
+
+    @Query("SELECT i FROM ItemEntity i WHERE i.inventory.id IN :inventoryIds " +
+           "AND NOT EXISTS (SELECT 1 FROM com.sgdis.backend.cancellation.infrastructure.entity.CancellationEntity c JOIN c.items ci " +
+           "WHERE ci.id = i.id AND c.approved = true AND c.refusedAt IS NULL)")
+    List<ItemEntity> findAllByInventoryIdIn(@Param("inventoryIds") Collection<Long> inventoryIds);
     
     // Statistics queries
     @Query("SELECT COUNT(i) FROM ItemEntity i WHERE i.inventory.institution.regional.id = :regionalId")
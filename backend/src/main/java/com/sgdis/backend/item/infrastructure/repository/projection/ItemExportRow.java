@@ -0,0 +1,22 @@
+package com.sgdis.backend.item.infrastructure.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Columnas de un item que se escriben en la exportación a Excel.
+ */
+public interface ItemExportRow {
+
+    Long getId();
+    String getIrId();
+    String getWareHouseDescription();
+    String getLicencePlateNumber();
+    String getConsecutiveNumber();
+    String getSkuDescription();
+    String getDescriptionElement();
+    String getAllAttributes();
+    LocalDate getAcquisitionDate();
+    Double getAcquisitionValue();
+    String getIvId();
+    String getLocation();
+}
@@ -1,7 +1,7 @@
 package com.sgdis.backend.item.web;
 
 import com.sgdis.backend.exception.ResourceNotFoundException;
-import com.sgdis.backend.item.application.dto.BulkUploadResponse;
+import com.sgdis.backend.item.application.dto.BulkUploadJobResponse;
 import com.sgdis.backend.item.application.dto.CreateItemRequest;
 import com.sgdis.backend.item.application.dto.CreateItemResponse;
 import com.sgdis.backend.item.application.dto.DeleteItemResponse;
@@ -9,7 +9,7 @@ import com.sgdis.backend.item.application.dto.ItemDTO;
 import com.sgdis.backend.item.application.dto.ItemStatisticsResponse;
 import com.sgdis.backend.item.application.dto.UpdateItemRequest;
 import com.sgdis.backend.item.application.dto.UpdateItemResponse;
-import com.sgdis.backend.item.application.service.ExcelItemService;
+import com.sgdis.backend.item.application.service.BulkUploadJobService;
 import com.sgdis.backend.item.application.service.ExcelExportService;
 import com.sgdis.backend.item.application.port.CreateItemUseCase;
 import com.sgdis.backend.item.application.port.DeleteItemUseCase;
@@ -23,17 +23,19 @@ import com.sgdis.backend.verification.application.port.in.GetItemVerificationsUs
 import com.sgdis.backend.item.infrastructure.entity.ItemEntity;
 import com.sgdis.backend.item.infrastructure.repository.SpringDataItemRepository;
 import com.sgdis.backend.inventory.infrastructure.repository.SpringDataInventoryRepository;
-import com.sgdis.backend.inventory.infrastructure.entity.InventoryEntity;
-import com.sgdis.backend.user.infrastructure.entity.UserEntity;
-import com.sgdis.backend.user.infrastructure.repository.SpringDataUserRepository;
+import com.sgdis.backend.inventory.application.service.InventoryAccessService;
+import com.sgdis.backend.auth.application.dto.CurrentUser;
 import com.sgdis.backend.auth.application.service.AuthService;
 import com.sgdis.backend.item.mapper.ItemMapper;
+import com.sgdis.backend.exception.BadRequestException;
 import com.sgdis.backend.exception.ResourceNotFoundException;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.access.prepost.PreAuthorize;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import com.sgdis.backend.item.application.dto.ItemDTO;
+import com.sgdis.backend.file.domain.ImageVariant;
 import com.sgdis.backend.file.service.FileUploadService;
+import com.sgdis.backend.file.web.ImageVariantResourceResolver;
 import org.springframework.data.domain.Page;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -42,18 +44,18 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequiredArgsConstructor
@@ -71,10 +73,10 @@ public class ItemController {
     private final GetItemVerificationsUseCase getItemVerificationsUseCase;
     private final SpringDataItemRepository itemRepository;
     private final SpringDataInventoryRepository inventoryRepository;
-    private final SpringDataUserRepository userRepository;
+    private final InventoryAccessService inventoryAccessService;
     private final AuthService authService;
     private final FileUploadService fileUploadService;
-    private final ExcelItemService excelItemService;
+    private final BulkUploadJobService bulkUploadJobService;
     private final ExcelExportService excelExportService;
 
     @Operation(
@@ -331,7 +333,9 @@ public class ItemController {
 
     @Operation(
             summary = "Get all images for an item",
-            description = "Retrieves all image URLs associated with a specific item"
+            description = "Retrieves all image URLs associated with a specific item. " +
+                    "With variant=thumb or variant=medium the URLs point to a reduced version of each image " +
+                    "(the original is served until the variant is generated)."
     )
     @ApiResponse(
             responseCode = "200",
@@ -341,7 +345,10 @@ public class ItemController {
     @ApiResponse(responseCode = "404", description = "Item not found")
     @ApiResponse(responseCode = "401", description = "Not authenticated")
     @GetMapping("/{itemId}/images")
-    public ResponseEntity<List<String>> getItemImages(@PathVariable Long itemId) {
+    public ResponseEntity<List<String>> getItemImages(
+            @PathVariable Long itemId,
+            @Parameter(description = "Optional image variant: thumb or medium")
+            @RequestParam(required = false) String variant) {
         ItemEntity item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new ResourceNotFoundException("Item not found"));
 
@@ -350,6 +357,16 @@ public class ItemController {
             images = new ArrayList<>();
         }
 
+        if (variant != null) {
+            ImageVariant imageVariant = ImageVariant.fromParam(variant);
+            if (imageVariant == null) {
+                throw new BadRequestException("Variante de imagen no válida: " + variant);
+            }
+            images = images.stream()
+                    .map(url -> url + "?" + ImageVariantResourceResolver.VARIANT_PARAM + "=" + imageVariant.getParam())
+                    .toList();
+        }
+
         return ResponseEntity.ok(images);
     }
 
@@ -367,26 +384,77 @@ public class ItemController {
     )
     @ApiResponse(responseCode = "404", description = "Inventory not found")
     @GetMapping(value = "/inventory/{inventoryId}/export", produces = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-    public ResponseEntity<Resource> exportInventoryItemsToExcel(
+    public ResponseEntity<StreamingResponseBody> exportInventoryItemsToExcel(
             @Parameter(description = "Inventory ID to export items from", required = true)
             @PathVariable Long inventoryId
     ) {
-        try {
-            byte[] excelData = excelExportService.exportInventoryItemsToExcel(inventoryId);
-            ByteArrayResource resource = new ByteArrayResource(excelData);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=items_inventario_" + inventoryId + ".xlsx");
-            headers.add(HttpHeaders.CONTENT_TYPE, "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .contentLength(excelData.length)
-                    .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(resource);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        // Se valida antes de escribir: una vez iniciado el streaming ya no se puede responder 404
+        excelExportService.checkInventoryExists(inventoryId);
+        StreamingResponseBody body = outputStream ->
+                excelExportService.exportInventoryItemsToExcel(inventoryId, outputStream);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=items_inventario_" + inventoryId + ".xlsx")
+                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Export institution items to Excel",
+            description = "Exports the items of every inventory of an institution to a single Excel file (.xlsx), " +
+                    "with one sheet per inventory and the same columns as the inventory export. " +
+                    "Available to superadmins, the regional admins of its regional and its institution admins."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Excel file generated successfully",
+            content = @Content(mediaType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+    )
+    @ApiResponse(responseCode = "400", description = "User cannot export this institution")
+    @ApiResponse(responseCode = "404", description = "Institution not found")
+    @PreAuthorize("hasAnyRole('SUPERADMIN', 'ADMIN_REGIONAL', 'ADMIN_INSTITUTION')")
+    @GetMapping(value = "/institution/{institutionId}/export", produces = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+    public ResponseEntity<StreamingResponseBody> exportInstitutionItemsToExcel(
+            @Parameter(description = "Institution ID to export items from", required = true)
+            @PathVariable Long institutionId
+    ) {
+        excelExportService.checkInstitutionExportAllowed(institutionId);
+        StreamingResponseBody body = outputStream ->
+                excelExportService.exportInstitutionItemsToExcel(institutionId, outputStream);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=items_institucion_" + institutionId + ".xlsx")
+                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Export regional items to Excel",
+            description = "Exports the items of every inventory of the institutions of a regional to a single Excel file (.xlsx), " +
+                    "with one sheet per inventory and the same columns as the inventory export. " +
+                    "Available to superadmins and the regional admins of that regional."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Excel file generated successfully",
+            content = @Content(mediaType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+    )
+    @ApiResponse(responseCode = "400", description = "User cannot export this regional")
+    @ApiResponse(responseCode = "404", description = "Regional not found")
+    @PreAuthorize("hasAnyRole('SUPERADMIN', 'ADMIN_REGIONAL')")
+    @GetMapping(value = "/regional/{regionalId}/export", produces = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+    public ResponseEntity<StreamingResponseBody> exportRegionalItemsToExcel(
+            @Parameter(description = "Regional ID to export items from", required = true)
+            @PathVariable Long regionalId
+    ) {
+        excelExportService.checkRegionalExportAllowed(regionalId);
+        StreamingResponseBody body = outputStream ->
+                excelExportService.exportRegionalItemsToExcel(regionalId, outputStream);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=items_regional_" + regionalId + ".xlsx")
+                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .body(body);
     }
 
     @Operation(
@@ -473,60 +541,19 @@ public class ItemController {
     @GetMapping("/user-items")
     @Transactional(readOnly = true)
     public ResponseEntity<List<ItemDTO>> getUserItems() {
-        var currentUser = authService.getCurrentUser();
-        Long userId = currentUser.getId();
-        
-        // Get all inventories where user is owner, manager, or signatory
-        List<InventoryEntity> ownedInventories = userRepository.findInventoriesByOwnerId(userId);
-        List<InventoryEntity> managedInventories = userRepository.findManagedInventoriesByUserId(userId);
-        
-        // Get signatory inventories
-        UserEntity user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        List<InventoryEntity> signatoryInventories = user.getMySignatories();
-        if (signatoryInventories == null) {
-            signatoryInventories = List.of();
-        } else {
-            // Initialize the collection to avoid LazyInitializationException
-            signatoryInventories.size();
-        }
-        
-        // Combine all inventories and get unique IDs
-        List<Long> inventoryIds = new ArrayList<>();
-        ownedInventories.forEach(inv -> {
-            if (inv != null && inv.getId() != null) {
-                inventoryIds.add(inv.getId());
-            }
-        });
-        managedInventories.forEach(inv -> {
-            if (inv != null && inv.getId() != null && !inventoryIds.contains(inv.getId())) {
-                inventoryIds.add(inv.getId());
-            }
-        });
-        signatoryInventories.forEach(inv -> {
-            if (inv != null && inv.getId() != null && !inventoryIds.contains(inv.getId())) {
-                inventoryIds.add(inv.getId());
-            }
-        });
-        
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
+
+        // Inventarios donde el usuario es propietario, gestor o firmante (una consulta, cacheada por usuario)
+        Set<Long> inventoryIds = inventoryAccessService.getAccessibleInventoryIds(currentUser.id());
+
         // If no inventories, return empty list
         if (inventoryIds.isEmpty()) {
             return ResponseEntity.ok(List.of());
         }
-        
-        // Get all items from user's inventories
-        List<ItemEntity> allItems = new ArrayList<>();
-        for (Long inventoryId : inventoryIds) {
-            try {
-                List<ItemEntity> items = itemRepository.findAllByInventoryId(inventoryId);
-                if (items != null) {
-                    allItems.addAll(items);
-                }
-            } catch (Exception e) {
-                System.err.println("Error fetching items for inventory " + inventoryId + ": " + e.getMessage());
-            }
-        }
-        
+
+        // Get all items from user's inventories in a single query
+        List<ItemEntity> allItems = itemRepository.findAllByInventoryIdIn(inventoryIds);
+
         // Convert to DTOs
         List<ItemDTO> itemDTOs = ItemMapper.toDTOList(allItems);
         
@@ -584,22 +611,25 @@ public class ItemController {
 
     @Operation(
             summary = "Bulk upload items from Excel file",
-            description = "Uploads items from an Excel file (.xls or .xlsx). " +
+            description = "Uploads items from an Excel file (.xls or .xlsx) and starts an asynchronous import job. " +
                     "The file should start from row 2 (row 1 is header). " +
                     "Column mapping: A=irId, D=wareHouseDescription, E=licencePlateNumber, " +
                     "F=consecutiveNumber, G=skuDescription/productName, H=descriptionElement, " +
                     "I=attributes (MARCA:...; SERIAL:...; MODELO:...; OBSERVACIONES:...), " +
-                    "K=acquisitionDate, L=acquisitionValue, O=ivId."
+                    "K=acquisitionDate, L=acquisitionValue, O=ivId. " +
+                    "Progress is available at GET /bulk-upload/jobs/{jobId} and is pushed to /user/queue/notifications " +
+                    "as BULK_UPLOAD_PROGRESS messages; the final BulkUploadResponse is returned in the job result."
     )
     @ApiResponse(
-            responseCode = "200",
-            description = "Items uploaded successfully",
-            content = @Content(schema = @Schema(implementation = BulkUploadResponse.class))
+            responseCode = "202",
+            description = "Import job accepted",
+            content = @Content(schema = @Schema(implementation = BulkUploadJobResponse.class))
     )
     @ApiResponse(responseCode = "400", description = "Invalid file or request")
     @ApiResponse(responseCode = "404", description = "Inventory not found")
+    @ApiResponse(responseCode = "409", description = "Too many bulk uploads in progress")
     @PostMapping(value = "/bulk-upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<BulkUploadResponse> bulkUploadItems(
+    public ResponseEntity<BulkUploadJobResponse> bulkUploadItems(
             @Parameter(
                     description = "Excel file (.xls or .xlsx) with items data",
                     required = true,
@@ -612,15 +642,25 @@ public class ItemController {
             @Parameter(description = "Inventory ID where items will be added", required = true)
             @RequestParam("inventoryId") Long inventoryId
     ) {
-        try {
-            BulkUploadResponse response = excelItemService.processExcelFile(file, inventoryId);
-            return ResponseEntity.ok(response);
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new BulkUploadResponse(0, 0, 0, List.of("Error al procesar el archivo: " + e.getMessage())));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new BulkUploadResponse(0, 0, 0, List.of("Error: " + e.getMessage())));
-        }
+        BulkUploadJobResponse job = bulkUploadJobService.submit(file, inventoryId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @Operation(
+            summary = "Get bulk upload job status",
+            description = "Returns the progress of a bulk upload job started by the current user. " +
+                    "When the job is COMPLETED the result field contains the BulkUploadResponse. " +
+                    "Jobs are kept only in the memory of the server instance that accepted the upload: " +
+                    "they are lost on restart and finished jobs are discarded after the retention period."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Job status retrieved successfully",
+            content = @Content(schema = @Schema(implementation = BulkUploadJobResponse.class))
+    )
+    @ApiResponse(responseCode = "404", description = "Job unknown or expired")
+    @GetMapping("/bulk-upload/jobs/{jobId}")
+    public ResponseEntity<BulkUploadJobResponse> getBulkUploadJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(bulkUploadJobService.getJob(jobId));
     }
 }
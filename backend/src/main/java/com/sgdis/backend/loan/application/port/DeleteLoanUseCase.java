@@ -0,0 +1,5 @@
+package com.sgdis.backend.loan.application.port;
+
+public interface DeleteLoanUseCase {
+    void deleteLoan(Long loanId);
+}
@@ -9,6 +9,7 @@ import com.sgdis.backend.loan.application.dto.LendItemResponse;
 import com.sgdis.backend.loan.application.dto.LoanResponse;
 import com.sgdis.backend.loan.application.dto.ReturnItemRequest;
 import com.sgdis.backend.loan.application.dto.ReturnItemResponse;
+import com.sgdis.backend.loan.application.port.DeleteLoanUseCase;
 import com.sgdis.backend.loan.application.port.GetLastLoanByItemUseCase;
 import com.sgdis.backend.loan.application.port.GetLoansByItemUseCase;
 import com.sgdis.backend.loan.application.port.GetMyLoansUseCase;
@@ -18,23 +19,29 @@ import com.sgdis.backend.loan.infrastructure.entity.LoanEntity;
 import com.sgdis.backend.loan.infrastructure.repository.SpringDataLoanRepository;
 import com.sgdis.backend.loan.mapper.LoanMapper;
 import com.sgdis.backend.cancellation.infrastructure.repository.SpringDataCancellationRepository;
+import com.sgdis.backend.file.service.FileUploadService;
 import com.sgdis.backend.user.domain.Role;
 import com.sgdis.backend.user.infrastructure.entity.UserEntity;
 import com.sgdis.backend.user.infrastructure.repository.SpringDataUserRepository;
 import com.sgdis.backend.inventory.infrastructure.entity.InventoryEntity;
 import com.sgdis.backend.inventory.infrastructure.repository.SpringDataInventoryRepository;
 // Notificaciones
-import com.sgdis.backend.notification.service.NotificationService;
-import com.sgdis.backend.notification.service.NotificationPersistenceService;
+import com.sgdis.backend.notification.service.NotificationDispatcher;
 import com.sgdis.backend.notification.dto.NotificationMessage;
 // Auditoría
 import com.sgdis.backend.auditory.application.port.in.RecordActionUseCase;
 import com.sgdis.backend.auditory.application.dto.RecordActionRequest;
+import com.sgdis.backend.auditory.domain.AuditActionType;
+import com.sgdis.backend.auditory.domain.AuditEntityType;
+// Contadores de dashboards
+import com.sgdis.backend.web.dto.CounterDelta;
+import com.sgdis.backend.web.service.DashboardCounterService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
@@ -47,7 +54,7 @@ import com.sgdis.backend.utils.DateTimeUtils;
 
 @Service
 @RequiredArgsConstructor
-public class LoanService implements LendItemUseCase, ReturnItemUseCase, GetLoansByItemUseCase, GetLastLoanByItemUseCase, GetMyLoansUseCase {
+public class LoanService implements LendItemUseCase, ReturnItemUseCase, DeleteLoanUseCase, GetLoansByItemUseCase, GetLastLoanByItemUseCase, GetMyLoansUseCase {
 
     private final AuthService authService;
     private final SpringDataLoanRepository loanRepository;
@@ -56,8 +63,9 @@ public class LoanService implements LendItemUseCase, ReturnItemUseCase, GetLoans
     private final SpringDataCancellationRepository cancellationRepository;
     private final SpringDataInventoryRepository inventoryRepository;
     private final RecordActionUseCase recordActionUseCase;
-    private final NotificationService notificationService;
-    private final NotificationPersistenceService notificationPersistenceService;
+    private final DashboardCounterService dashboardCounterService;
+    private final NotificationDispatcher notificationDispatcher;
+    private final FileUploadService fileUploadService;
 
     @Override
     @Transactional
@@ -160,20 +168,32 @@ public class LoanService implements LendItemUseCase, ReturnItemUseCase, GetLoans
         loanRepository.save(loanEntity);
 
         // Verificar y eliminar préstamos duplicados en los últimos 2 minutos
-        checkAndRemoveDuplicateLoans(loanEntity);
+        int removedDuplicates = checkAndRemoveDuplicateLoans(loanEntity);
+
+        // Actualizar contadores de dashboards
+        if (item.getInventory() != null) {
+            dashboardCounterService.applyToInventory(item.getInventory().getId(), CounterDelta.builder()
+                    .totalLoans(1 - removedDuplicates)
+                    .activeLoans((Boolean.TRUE.equals(loanEntity.getReturned()) ? 0 : 1) - removedDuplicates)
+                    .build());
+        }
 
         // Registrar auditoría
         String itemName = item.getProductName() != null ? item.getProductName() : "sin nombre";
         String inventoryName = item.getInventory() != null && item.getInventory().getName() != null 
                 ? item.getInventory().getName() : "sin nombre";
-        recordActionUseCase.recordAction(new RecordActionRequest(
-                String.format("Item prestado: %s (ID: %d) - Prestado a: %s (%s) - Inventario: %s", 
+        recordActionUseCase.recordAction(RecordActionRequest.builder()
+                .action(String.format("Item prestado: %s (ID: %d) - Prestado a: %s (%s) - Inventario: %s", 
                         itemName,
                         item.getId(),
                         responsible.getFullName(),
                         responsible.getEmail(),
-                        inventoryName)
-        ));
+                        inventoryName))
+                .actionType(AuditActionType.LOAN)
+                .entityType(AuditEntityType.ITEM)
+                .entityId(item.getId())
+                .inventoryId(item.getInventory() != null ? item.getInventory().getId() : null)
+                .build());
 
         // Enviar notificaciones
         sendItemLentNotifications(item, responsible, loanEntity);
@@ -182,6 +202,7 @@ public class LoanService implements LendItemUseCase, ReturnItemUseCase, GetLoans
     }
 
     @Override
+    @Transactional
     public ReturnItemResponse returnItem(ReturnItemRequest request) {
         UserEntity user = authService.getCurrentUser();
 
@@ -213,18 +234,28 @@ public class LoanService implements LendItemUseCase, ReturnItemUseCase, GetLoans
         itemRepository.save(itemEntity);
         loanRepository.save(loanEntity);
 
+        // Actualizar contadores de dashboards
+        if (itemEntity.getInventory() != null) {
+            dashboardCounterService.applyToInventory(itemEntity.getInventory().getId(),
+                    CounterDelta.builder().activeLoans(-1).build());
+        }
+
         // Registrar auditoría
         String itemName = itemEntity.getProductName() != null ? itemEntity.getProductName() : "sin nombre";
         String responsibleName = loanEntity.getResponsible() != null ? loanEntity.getResponsible().getFullName() : "N/A";
         String inventoryName = itemEntity.getInventory() != null && itemEntity.getInventory().getName() != null 
                 ? itemEntity.getInventory().getName() : "sin nombre";
-        recordActionUseCase.recordAction(new RecordActionRequest(
-                String.format("Item devuelto: %s (ID: %d) - Devuelto por: %s - Inventario: %s", 
+        recordActionUseCase.recordAction(RecordActionRequest.builder()
+                .action(String.format("Item devuelto: %s (ID: %d) - Devuelto por: %s - Inventario: %s", 
                         itemName,
                         itemEntity.getId(),
                         responsibleName,
-                        inventoryName)
-        ));
+                        inventoryName))
+                .actionType(AuditActionType.RETURN)
+                .entityType(AuditEntityType.ITEM)
+                .entityId(itemEntity.getId())
+                .inventoryId(itemEntity.getInventory() != null ? itemEntity.getInventory().getId() : null)
+                .build());
 
         // Enviar notificaciones
         sendItemReturnedNotifications(itemEntity, loanEntity.getResponsible(), loanEntity);
@@ -232,14 +263,43 @@ public class LoanService implements LendItemUseCase, ReturnItemUseCase, GetLoans
         return new ReturnItemResponse(user.getFullName(), "Item devuelto exitosamente");
     }
 
+    @Override
+    @Transactional
+    public void deleteLoan(Long loanId) {
+        LoanEntity loan = loanRepository.findById(loanId)
+                .orElseThrow(() -> new ResourceNotFoundException("Loan not found"));
+
+        // Eliminar el documento asociado si existe
+        if (loan.getDocumentUrl() != null) {
+            try {
+                fileUploadService.deleteFile(loan.getDocumentUrl());
+            } catch (IOException e) {
+                // Se continúa con la eliminación del préstamo
+            }
+        }
+
+        loanRepository.delete(loan);
+
+        // Actualizar contadores de dashboards
+        ItemEntity item = loan.getItem();
+        if (item != null && item.getInventory() != null) {
+            dashboardCounterService.applyToInventory(item.getInventory().getId(), CounterDelta.builder()
+                    .totalLoans(-1)
+                    .activeLoans(Boolean.TRUE.equals(loan.getReturned()) ? 0 : -1)
+                    .build());
+        }
+    }
+
     /**
      * Verifica si hay préstamos duplicados en los últimos 2 minutos y elimina los duplicados.
      * Dos préstamos se consideran duplicados si tienen el mismo item, lender y responsible.
      * Si hay 2 o más duplicados, se eliminan todos menos el más reciente.
+     *
+     * @return cantidad de préstamos eliminados
      */
-    private void checkAndRemoveDuplicateLoans(LoanEntity savedLoan) {
+    private int checkAndRemoveDuplicateLoans(LoanEntity savedLoan) {
         if (savedLoan.getItem() == null || savedLoan.getLender() == null || savedLoan.getResponsible() == null || savedLoan.getLendAt() == null) {
-            return; // No se puede verificar si falta información esencial
+            return 0; // No se puede verificar si falta información esencial
         }
 
         // Calcular la fecha de hace 2 minutos
@@ -253,6 +313,8 @@ public class LoanService implements LendItemUseCase, ReturnItemUseCase, GetLoans
                 twoMinutesAgo
         );
 
+        int removed = 0;
+
         // Si hay 2 o más préstamos duplicados (incluyendo el que acabamos de guardar)
         if (duplicateLoans.size() >= 2) {
             // Ordenar por fecha de préstamo descendente (más reciente primero)
@@ -269,9 +331,11 @@ public class LoanService implements LendItemUseCase, ReturnItemUseCase, GetLoans
                 // Solo eliminar si no está devuelto (para evitar eliminar préstamos ya procesados)
                 if (duplicateLoan.getReturned() == null || !duplicateLoan.getReturned()) {
                     loanRepository.delete(duplicateLoan);
+                    removed++;
                 }
             }
         }
+        return removed;
     }
 
     @Override
@@ -352,15 +416,7 @@ public class LoanService implements LendItemUseCase, ReturnItemUseCase, GetLoans
                 );
                 
                 try {
-                    notificationPersistenceService.saveNotification(
-                            responsible.getId(),
-                            "ITEM_LENT_PERSONAL",
-                            "Item Prestado",
-                            personalMessage,
-                            new LoanNotificationData(loan.getId(), item.getId(), itemName, 
-                                    fullInventory.getId(), inventoryName, responsible.getId(), "LENT")
-                    );
-                    notificationService.sendNotificationToUser(responsible.getId(), personalNotification);
+                    notificationDispatcher.dispatch(List.of(responsible.getId()), personalNotification);
                 } catch (Exception e) {
                     // Log error pero continuar
                 }
@@ -409,15 +465,7 @@ public class LoanService implements LendItemUseCase, ReturnItemUseCase, GetLoans
                 );
                 
                 try {
-                    notificationPersistenceService.saveNotification(
-                            responsible.getId(),
-                            "ITEM_RETURNED_PERSONAL",
-                            "Item Devuelto",
-                            personalMessage,
-                            new LoanNotificationData(loan.getId(), item.getId(), itemName, 
-                                    fullInventory.getId(), inventoryName, responsible.getId(), "RETURNED")
-                    );
-                    notificationService.sendNotificationToUser(responsible.getId(), personalNotification);
+                    notificationDispatcher.dispatch(List.of(responsible.getId()), personalNotification);
                 } catch (Exception e) {
                     // Log error pero continuar
                 }
@@ -514,21 +562,7 @@ public class LoanService implements LendItemUseCase, ReturnItemUseCase, GetLoans
             );
             
             // Enviar notificaciones a todos los usuarios
-            for (Long userId : userIdsToNotify) {
-                try {
-                    notificationPersistenceService.saveNotification(
-                            userId,
-                            notificationType,
-                            notificationTitle,
-                            message,
-                            new LoanNotificationData(loan.getId(), item.getId(), itemName, 
-                                    inventory.getId(), inventoryName, responsibleId, action)
-                    );
-                    notificationService.sendNotificationToUser(userId, notification);
-                } catch (Exception e) {
-                    // Log error pero continuar con otros usuarios
-                }
-            }
+            notificationDispatcher.dispatch(userIdsToNotify, notification);
         } catch (Exception e) {
             // Log error pero no fallar la operación
         }
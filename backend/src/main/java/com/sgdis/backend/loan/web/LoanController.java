@@ -1,5 +1,6 @@
 package com.sgdis.backend.loan.web;
 
+import com.sgdis.backend.inventory.application.service.InventoryAccessService;
 import com.sgdis.backend.exception.ResourceNotFoundException;
 import com.sgdis.backend.loan.application.dto.LendItemRequest;
 import com.sgdis.backend.loan.application.dto.LendItemResponse;
@@ -7,8 +8,10 @@ import com.sgdis.backend.loan.application.dto.LoanResponse;
 import com.sgdis.backend.loan.application.dto.LoanStatisticsResponse;
 import com.sgdis.backend.loan.application.dto.ReturnItemRequest;
 import com.sgdis.backend.loan.application.dto.ReturnItemResponse;
+import com.sgdis.backend.auth.application.dto.CurrentUser;
 import com.sgdis.backend.auth.application.service.AuthService;
 import com.sgdis.backend.exception.ResourceNotFoundException;
+import com.sgdis.backend.loan.application.port.DeleteLoanUseCase;
 import com.sgdis.backend.loan.application.port.GetLastLoanByItemUseCase;
 import com.sgdis.backend.loan.application.port.GetLoansByItemUseCase;
 import com.sgdis.backend.loan.application.port.LendItemUseCase;
@@ -17,12 +20,8 @@ import com.sgdis.backend.loan.infrastructure.entity.LoanEntity;
 import com.sgdis.backend.loan.infrastructure.repository.SpringDataLoanRepository;
 import com.sgdis.backend.loan.mapper.LoanMapper;
 import com.sgdis.backend.file.service.FileUploadService;
-import com.sgdis.backend.user.infrastructure.entity.UserEntity;
-import com.sgdis.backend.user.infrastructure.repository.SpringDataUserRepository;
-import com.sgdis.backend.inventory.infrastructure.entity.InventoryEntity;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.Set;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -63,10 +62,11 @@ public class LoanController {
 
     private final LendItemUseCase lendItemUseCase;
     private final ReturnItemUseCase returnItemUseCase;
+    private final DeleteLoanUseCase deleteLoanUseCase;
     private final GetLoansByItemUseCase getLoansByItemUseCase;
     private final GetLastLoanByItemUseCase getLastLoanByItemUseCase;
     private final SpringDataLoanRepository loanRepository;
-    private final SpringDataUserRepository userRepository;
+    private final InventoryAccessService inventoryAccessService;
     private final FileUploadService fileUploadService;
     private final AuthService authService;
 
@@ -289,41 +289,10 @@ public class LoanController {
     @GetMapping("/my-inventories")
     @Transactional(readOnly = true)
     public ResponseEntity<List<LoanResponse>> getLoansFromMyInventories() {
-        var currentUser = authService.getCurrentUser();
-        Long userId = currentUser.getId();
+        Long userId = authService.getCurrentUserId();
         
-        // Get all inventories where user is owner, manager, or signatory
-        List<InventoryEntity> ownedInventories = userRepository.findInventoriesByOwnerId(userId);
-        List<InventoryEntity> managedInventories = userRepository.findManagedInventoriesByUserId(userId);
-        
-        // Get signatory inventories
-        UserEntity user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        List<InventoryEntity> signatoryInventories = user.getMySignatories();
-        if (signatoryInventories == null) {
-            signatoryInventories = List.of();
-        } else {
-            // Initialize the collection to avoid LazyInitializationException
-            signatoryInventories.size();
-        }
-        
-        // Combine all inventories and get unique IDs
-        Set<Long> inventoryIds = new HashSet<>();
-        ownedInventories.forEach(inv -> {
-            if (inv != null && inv.getId() != null) {
-                inventoryIds.add(inv.getId());
-            }
-        });
-        managedInventories.forEach(inv -> {
-            if (inv != null && inv.getId() != null) {
-                inventoryIds.add(inv.getId());
-            }
-        });
-        signatoryInventories.forEach(inv -> {
-            if (inv != null && inv.getId() != null) {
-                inventoryIds.add(inv.getId());
-            }
-        });
+        // Inventarios donde el usuario es propietario, gestor o firmante (una consulta, cacheada por usuario)
+        Set<Long> inventoryIds = inventoryAccessService.getAccessibleInventoryIds(userId);
         
         // If no inventories, return empty list
         if (inventoryIds.isEmpty()) {
@@ -363,19 +332,7 @@ public class LoanController {
     @ApiResponse(responseCode = "404", description = "Loan not found")
     @ApiResponse(responseCode = "401", description = "Not authenticated")
     public ResponseEntity<String> deleteLoan(@PathVariable Long loanId) {
-        LoanEntity loan = loanRepository.findById(loanId)
-                .orElseThrow(() -> new ResourceNotFoundException("Loan not found"));
-
-        // Delete associated document if exists
-        if (loan.getDocumentUrl() != null) {
-            try {
-                fileUploadService.deleteFile(loan.getDocumentUrl());
-            } catch (IOException e) {
-                // Log error but continue with deletion
-            }
-        }
-
-        loanRepository.delete(loan);
+        deleteLoanUseCase.deleteLoan(loanId);
         return ResponseEntity.ok("Loan deleted successfully");
     }
 
@@ -394,11 +351,11 @@ public class LoanController {
     @PreAuthorize("hasRole('ADMIN_REGIONAL')")
     @GetMapping("/regional/statistics")
     public ResponseEntity<LoanStatisticsResponse> getRegionalLoanStatistics() {
-        var currentUser = authService.getCurrentUser();
-        if (currentUser.getInstitution() == null || currentUser.getInstitution().getRegional() == null) {
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
+        if (currentUser.regionalId() == null) {
             throw new ResourceNotFoundException("User institution or regional not found");
         }
-        Long regionalId = currentUser.getInstitution().getRegional().getId();
+        Long regionalId = currentUser.regionalId();
         
         Long total = loanRepository.countByRegionalId(regionalId);
         Long active = loanRepository.countActiveByRegionalId(regionalId);
@@ -424,11 +381,11 @@ public class LoanController {
     @PreAuthorize("hasRole('ADMIN_INSTITUTION')")
     @GetMapping("/institution/statistics")
     public ResponseEntity<LoanStatisticsResponse> getInstitutionLoanStatistics() {
-        var currentUser = authService.getCurrentUser();
-        if (currentUser.getInstitution() == null) {
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
+        if (currentUser.institutionId() == null) {
             throw new ResourceNotFoundException("User institution not found");
         }
-        Long institutionId = currentUser.getInstitution().getId();
+        Long institutionId = currentUser.institutionId();
         
         Long total = loanRepository.countByInstitutionId(institutionId);
         Long active = loanRepository.countActiveByInstitutionId(institutionId);
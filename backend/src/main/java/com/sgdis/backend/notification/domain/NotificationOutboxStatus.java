@@ -0,0 +1,9 @@
+package com.sgdis.backend.notification.domain;
+
+public enum NotificationOutboxStatus {
+    PENDING,
+    DELIVERED,
+    // Entrada agrupada en un resumen, que se entrega como otra entrada
+    MERGED,
+    FAILED
+}
@@ -0,0 +1,20 @@
+package com.sgdis.backend.notification.dto;
+
+/**
+ * Agrupación de notificaciones de alto volumen.
+ * Los eventos con la misma clave que llegan dentro de la ventana se entregan a cada destinatario
+ * como un solo resumen; si un destinatario recibe un único evento, se le entrega el mensaje original.
+ * El resumen mantiene el tipo y los datos del último evento y agrega el campo {@code count}.
+ *
+ * @param key clave de agrupación, por ejemplo {@code ITEM_CREATED:15}
+ * @param title título del resumen
+ * @param message mensaje del resumen; {@code {count}} se reemplaza por la cantidad de eventos
+ */
+public record NotificationDigest(
+        String key,
+        String title,
+        String message
+) {
+    public static final String COUNT_PLACEHOLDER = "{count}";
+    public static final String COUNT_FIELD = "count";
+}
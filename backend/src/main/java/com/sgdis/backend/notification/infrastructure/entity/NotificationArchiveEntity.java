@@ -0,0 +1,52 @@
+package com.sgdis.backend.notification.infrastructure.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notificación leída movida fuera de {@code notifications} por la tarea de retención.
+ * Conserva el ID original; el usuario se guarda solo por ID para no depender de que siga existiendo.
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "notifications_archive", indexes = {
+        @Index(name = "idx_notifications_archive_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_notifications_archive_archived_at", columnList = "archived_at")
+})
+public class NotificationArchiveEntity {
+
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String type;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false, length = 500)
+    private String message;
+
+    @Column(columnDefinition = "TEXT")
+    private String dataJson;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime readAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,80 @@
+package com.sgdis.backend.notification.infrastructure.entity;
+
+import com.sgdis.backend.notification.domain.NotificationOutboxStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notificación pendiente de entregar, escrita en la misma transacción que el cambio que la origina.
+ * El relay la guarda en {@code notifications} para cada destinatario y la publica por WebSocket.
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "notification_outbox", indexes = {
+        @Index(name = "idx_notification_outbox_status_next_attempt", columnList = "status, next_attempt_at, id"),
+        @Index(name = "idx_notification_outbox_digest_key", columnList = "digest_key, status")
+})
+public class NotificationOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // IDs de los destinatarios separados por coma
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String recipientIds;
+
+    @Column(nullable = false)
+    private String type;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false, length = 500)
+    private String message;
+
+    @Column(columnDefinition = "TEXT")
+    private String dataJson;
+
+    // Resumen (ver NotificationDigest); null si la notificación se entrega tal cual
+    @Column
+    private String digestKey;
+
+    @Column
+    private String digestTitle;
+
+    @Column(length = 500)
+    private String digestMessage;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private NotificationOutboxStatus status = NotificationOutboxStatus.PENDING;
+
+    // true cuando ya se insertaron las filas en notifications; los reintentos solo vuelven a publicar
+    @Column(nullable = false)
+    private boolean persisted;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime deliveredAt;
+
+    @Column(length = 500)
+    private String lastError;
+}
@@ -0,0 +1,98 @@
+package com.sgdis.backend.notification.infrastructure.repository;
+
+import com.sgdis.backend.notification.infrastructure.entity.NotificationArchiveEntity;
+import com.sgdis.backend.notification.infrastructure.entity.NotificationEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Inserciones masivas de notificaciones con JDBC batch.
+ * Una misma notificación se guarda para varios usuarios usando solo su ID, sin cargar las entidades;
+ * los IDs de usuarios que ya no existen se omiten.
+ * También mueve las notificaciones leídas antiguas a {@code notifications_archive}.
+ * Las tablas y columnas corresponden al mapeo de {@link NotificationEntity} y {@link NotificationArchiveEntity}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JdbcNotificationRepository {
+
+    private static final String INSERT_NOTIFICATION =
+            "INSERT INTO notifications (user_id, type, title, message, data_json, is_read, created_at) " +
+            "SELECT u.id, ?, ?, ?, ?, false, ? FROM users u WHERE u.id = ?";
+
+    private static final String SELECT_ARCHIVABLE_IDS =
+            "SELECT id FROM notifications WHERE is_read = true AND created_at < ? ORDER BY id LIMIT ?";
+
+    private static final String COPY_TO_ARCHIVE =
+            "INSERT INTO notifications_archive (id, user_id, type, title, message, data_json, created_at, read_at, archived_at) " +
+            "SELECT id, user_id, type, title, message, data_json, created_at, read_at, ? FROM notifications WHERE id IN (%s)";
+
+    private static final String DELETE_BY_IDS = "DELETE FROM notifications WHERE id IN (%s)";
+
+    private static final String SELECT_EXPIRED_ARCHIVE_IDS =
+            "SELECT id FROM notifications_archive WHERE archived_at < ? ORDER BY id LIMIT ?";
+
+    private static final String DELETE_ARCHIVE_BY_IDS = "DELETE FROM notifications_archive WHERE id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserta una fila por usuario con el mismo contenido.
+     */
+    public void insertForUsers(Collection<Long> userIds, String type, String title, String message,
+                               String dataJson, LocalDateTime createdAt) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Timestamp created = Timestamp.valueOf(createdAt);
+        List<Object[]> rows = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            rows.add(new Object[]{type, title, message, dataJson, created, userId});
+        }
+        jdbcTemplate.batchUpdate(INSERT_NOTIFICATION, rows);
+    }
+
+    /**
+     * Mueve a {@code notifications_archive} un lote de notificaciones leídas creadas antes de la fecha indicada.
+     * Debe ejecutarse dentro de una transacción.
+     *
+     * @return cantidad de notificaciones archivadas
+     */
+    public int archiveReadBefore(LocalDateTime before, int limit, LocalDateTime archivedAt) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_ARCHIVABLE_IDS, Long.class, Timestamp.valueOf(before), limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = placeholders(ids.size());
+        List<Object> copyArgs = new ArrayList<>(ids.size() + 1);
+        copyArgs.add(Timestamp.valueOf(archivedAt));
+        copyArgs.addAll(ids);
+        jdbcTemplate.update(String.format(COPY_TO_ARCHIVE, placeholders), copyArgs.toArray());
+        return jdbcTemplate.update(String.format(DELETE_BY_IDS, placeholders), ids.toArray());
+    }
+
+    /**
+     * Elimina un lote de notificaciones archivadas antes de la fecha indicada.
+     *
+     * @return cantidad de notificaciones eliminadas
+     */
+    public int deleteArchivedBefore(LocalDateTime before, int limit) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_EXPIRED_ARCHIVE_IDS, Long.class, Timestamp.valueOf(before), limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(String.format(DELETE_ARCHIVE_BY_IDS, placeholders(ids.size())), ids.toArray());
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
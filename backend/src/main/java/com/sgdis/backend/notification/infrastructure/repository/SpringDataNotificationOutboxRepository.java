@@ -0,0 +1,60 @@
+package com.sgdis.backend.notification.infrastructure.repository;
+
+import com.sgdis.backend.notification.domain.NotificationOutboxStatus;
+import com.sgdis.backend.notification.infrastructure.entity.NotificationOutboxEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SpringDataNotificationOutboxRepository extends JpaRepository<NotificationOutboxEntity, Long> {
+
+    @Query("SELECT o FROM NotificationOutboxEntity o WHERE o.status = :status AND o.nextAttemptAt <= :now " +
+           "AND o.digestKey IS NULL ORDER BY o.id")
+    List<NotificationOutboxEntity> findDue(@Param("status") NotificationOutboxStatus status,
+                                           @Param("now") LocalDateTime now,
+                                           Pageable pageable);
+
+    // Claves de resumen cuya ventana ya terminó (la ventana empieza con el primer evento pendiente)
+    @Query("SELECT DISTINCT o.digestKey FROM NotificationOutboxEntity o WHERE o.status = :status " +
+           "AND o.digestKey IS NOT NULL AND o.nextAttemptAt <= :now")
+    List<String> findDueDigestKeys(@Param("status") NotificationOutboxStatus status,
+                                   @Param("now") LocalDateTime now,
+                                   Pageable pageable);
+
+    List<NotificationOutboxEntity> findByDigestKeyAndStatusOrderById(String digestKey, NotificationOutboxStatus status);
+
+    @Modifying
+    @Query("UPDATE NotificationOutboxEntity o SET o.status = com.sgdis.backend.notification.domain.NotificationOutboxStatus.MERGED, " +
+           "o.deliveredAt = :mergedAt WHERE o.id IN :ids")
+    int markMerged(@Param("ids") List<Long> ids, @Param("mergedAt") LocalDateTime mergedAt);
+
+    @Modifying
+    @Query("UPDATE NotificationOutboxEntity o SET o.persisted = true WHERE o.id IN :ids")
+    int markPersisted(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("UPDATE NotificationOutboxEntity o SET o.status = com.sgdis.backend.notification.domain.NotificationOutboxStatus.DELIVERED, " +
+           "o.deliveredAt = :deliveredAt, o.lastError = NULL WHERE o.id IN :ids")
+    int markDelivered(@Param("ids") List<Long> ids, @Param("deliveredAt") LocalDateTime deliveredAt);
+
+    @Modifying
+    @Query("UPDATE NotificationOutboxEntity o SET o.status = :status, o.attempts = :attempts, " +
+           "o.nextAttemptAt = :nextAttemptAt, o.lastError = :lastError WHERE o.id = :id")
+    int markAttemptFailed(@Param("id") Long id,
+                          @Param("status") NotificationOutboxStatus status,
+                          @Param("attempts") int attempts,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                          @Param("lastError") String lastError);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutboxEntity o WHERE o.status IN (com.sgdis.backend.notification.domain.NotificationOutboxStatus.DELIVERED, " +
+           "com.sgdis.backend.notification.domain.NotificationOutboxStatus.MERGED) AND o.deliveredAt < :before")
+    int deleteDeliveredBefore(@Param("before") LocalDateTime before);
+}
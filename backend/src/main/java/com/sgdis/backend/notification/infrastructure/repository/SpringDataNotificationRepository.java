@@ -15,16 +15,16 @@ public interface SpringDataNotificationRepository extends JpaRepository<Notifica
     
     Page<NotificationEntity> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
     
-    List<NotificationEntity> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(Long userId);
+    List<NotificationEntity> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(Long userId, Pageable pageable);
     
     long countByUserIdAndIsReadFalse(Long userId);
     
     @Modifying
-    @Query("UPDATE NotificationEntity n SET n.isRead = true, n.readAt = CURRENT_TIMESTAMP WHERE n.id = :notificationId")
-    void markAsRead(Long notificationId);
+    @Query("UPDATE NotificationEntity n SET n.isRead = true, n.readAt = CURRENT_TIMESTAMP WHERE n.id = :notificationId AND n.user.id = :userId AND n.isRead = false")
+    int markAsRead(Long notificationId, Long userId);
     
     @Modifying
     @Query("UPDATE NotificationEntity n SET n.isRead = true, n.readAt = CURRENT_TIMESTAMP WHERE n.user.id = :userId AND n.isRead = false")
-    void markAllAsReadForUser(Long userId);
+    int markAllAsReadForUser(Long userId);
 }
 
@@ -0,0 +1,95 @@
+package com.sgdis.backend.notification.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgdis.backend.notification.dto.NotificationDigest;
+import com.sgdis.backend.notification.dto.NotificationMessage;
+import com.sgdis.backend.notification.infrastructure.entity.NotificationOutboxEntity;
+import com.sgdis.backend.notification.infrastructure.repository.SpringDataNotificationOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Envío de una misma notificación a varios usuarios.
+ * Solo escribe una fila en el outbox dentro de la transacción actual (o en una propia si no hay):
+ * la notificación existe si y solo si el cambio que la origina se confirma.
+ * {@link NotificationOutboxRelay} se encarga de guardarla para cada destinatario y publicarla por WebSocket.
+ * Los eventos de alto volumen pueden encolarse como resumen ({@link NotificationDigest}).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationDispatcher {
+
+    private final SpringDataNotificationOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${notifications.digest.window-ms:10000}")
+    private long digestWindowMs;
+
+    /**
+     * Encola la notificación para los usuarios indicados.
+     *
+     * @param userIds destinatarios; se ignoran los nulos
+     */
+    public void dispatch(Collection<Long> userIds, NotificationMessage notification) {
+        enqueue(userIds, notification, null, Duration.ZERO);
+    }
+
+    /**
+     * Encola una notificación de alto volumen que se agrupa con las demás de la misma clave:
+     * se entrega al terminar la ventana configurada, como un solo resumen por destinatario.
+     *
+     * @param userIds destinatarios; se ignoran los nulos
+     */
+    public void dispatchDigest(Collection<Long> userIds, NotificationMessage notification, NotificationDigest digest) {
+        enqueue(userIds, notification, digest, Duration.ofMillis(digestWindowMs));
+    }
+
+    private void enqueue(Collection<Long> userIds, NotificationMessage notification,
+                         NotificationDigest digest, Duration delay) {
+        List<Long> recipients = userIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (recipients.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.save(NotificationOutboxEntity.builder()
+                .recipientIds(recipients.stream().map(String::valueOf).collect(Collectors.joining(",")))
+                .type(notification.type())
+                .title(notification.title())
+                .message(notification.message())
+                .dataJson(toJson(notification.data()))
+                .digestKey(digest != null ? digest.key() : null)
+                .digestTitle(digest != null ? digest.title() : null)
+                .digestMessage(digest != null ? digest.message() : null)
+                .nextAttemptAt(now.plus(delay))
+                .createdAt(now)
+                .build());
+
+        log.debug("Notificación {} encolada para {} usuario(s)", notification.type(), recipients.size());
+    }
+
+    private String toJson(Object data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Error al serializar los datos de la notificación", e);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.sgdis.backend.notification.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sgdis.backend.notification.domain.NotificationOutboxStatus;
+import com.sgdis.backend.notification.dto.NotificationDigest;
+import com.sgdis.backend.notification.dto.NotificationMessage;
+import com.sgdis.backend.notification.infrastructure.entity.NotificationOutboxEntity;
+import com.sgdis.backend.notification.infrastructure.repository.JdbcNotificationRepository;
+import com.sgdis.backend.notification.infrastructure.repository.SpringDataNotificationOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Relay del outbox de notificaciones.
+ * Toma las entradas pendientes por lotes; en una transacción inserta las filas de {@code notifications}
+ * de las que aún no se guardaron y luego publica cada entrada por WebSocket. Si la publicación falla,
+ * la entrada se reintenta con espera exponencial hasta el máximo de intentos (entrega al menos una vez:
+ * un reintento puede repetir el mensaje WebSocket, pero nunca las filas de la campanita).
+ * Antes de cada lote se agrupan los resúmenes ({@link NotificationDigest}) cuya ventana terminó.
+ * Los contadores de no leídas se actualizan tras el commit de cada lote.
+ * Supone una sola instancia de la aplicación procesando el outbox.
+ * Corre en el pool de tareas programadas ({@code spring.task.scheduling.pool.size}), que debe tener más de un hilo:
+ * con el hilo único por defecto la entrega se detendría mientras corren la reconciliación de contadores o el archivado.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationOutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final SpringDataNotificationOutboxRepository outboxRepository;
+    private final JdbcNotificationRepository jdbcNotificationRepository;
+    private final NotificationService notificationService;
+    private final NotificationUnreadCountService unreadCountService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${notifications.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${notifications.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${notifications.outbox.retry-base-delay-ms:1000}")
+    private long retryBaseDelayMs;
+
+    @Value("${notifications.outbox.retry-max-delay-ms:300000}")
+    private long retryMaxDelayMs;
+
+    @Value("${notifications.outbox.retention-ms:604800000}")
+    private long retentionMs;
+
+    /**
+     * Procesa las entradas pendientes hasta vaciar las que ya están listas.
+     */
+    @Scheduled(fixedDelayString = "${notifications.outbox.relay-interval-ms:500}")
+    public void relay() {
+        List<NotificationOutboxEntity> batch;
+        do {
+            try {
+                batch = transactionTemplate.execute(status -> persistBatch());
+            } catch (Exception e) {
+                // Error de base de datos: el lote completo se reintenta en la próxima ejecución
+                log.error("Error al guardar las notificaciones del outbox: {}", e.getMessage(), e);
+                return;
+            }
+            deliver(batch);
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * Carga un lote pendiente y guarda en {@code notifications} las entradas que aún no se guardaron.
+     */
+    private List<NotificationOutboxEntity> persistBatch() {
+        coalesceDueDigests();
+
+        List<NotificationOutboxEntity> batch = outboxRepository.findDue(
+                NotificationOutboxStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, batchSize));
+
+        List<Long> persistedIds = new ArrayList<>();
+        Map<Long, Integer> newByUser = new HashMap<>();
+        for (NotificationOutboxEntity entry : batch) {
+            if (!entry.isPersisted()) {
+                List<Long> recipients = recipients(entry);
+                jdbcNotificationRepository.insertForUsers(recipients, entry.getType(), entry.getTitle(),
+                        entry.getMessage(), entry.getDataJson(), entry.getCreatedAt());
+                persistedIds.add(entry.getId());
+                recipients.forEach(userId -> newByUser.merge(userId, 1, Integer::sum));
+            }
+        }
+        if (!persistedIds.isEmpty()) {
+            outboxRepository.markPersisted(persistedIds);
+            unreadCountService.addUnread(newByUser);
+        }
+        return batch;
+    }
+
+    /**
+     * Agrupa los resúmenes cuya ventana terminó. Para cada clave se cuentan los eventos de cada destinatario
+     * y se crea una entrada normal por cada mensaje distinto (el original si recibió uno solo, el resumen
+     * si recibió varios); las entradas originales quedan como MERGED.
+     */
+    private void coalesceDueDigests() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> keys = outboxRepository.findDueDigestKeys(
+                NotificationOutboxStatus.PENDING, now, PageRequest.of(0, batchSize));
+
+        for (String key : keys) {
+            List<NotificationOutboxEntity> entries =
+                    outboxRepository.findByDigestKeyAndStatusOrderById(key, NotificationOutboxStatus.PENDING);
+
+            // Eventos de cada destinatario, en orden de llegada
+            Map<Long, List<NotificationOutboxEntity>> eventsByRecipient = new LinkedHashMap<>();
+            for (NotificationOutboxEntity entry : entries) {
+                for (Long userId : recipients(entry)) {
+                    eventsByRecipient.computeIfAbsent(userId, id -> new ArrayList<>()).add(entry);
+                }
+            }
+
+            // Los destinatarios que reciben el mismo mensaje comparten una entrada
+            Map<String, NotificationOutboxEntity> mergedEntries = new LinkedHashMap<>();
+            Map<String, List<Long>> mergedRecipients = new LinkedHashMap<>();
+            eventsByRecipient.forEach((userId, events) -> {
+                NotificationOutboxEntity latest = events.get(events.size() - 1);
+                String group = events.size() == 1
+                        ? "single:" + latest.getId()
+                        : "digest:" + events.size() + ":" + latest.getId();
+                mergedEntries.computeIfAbsent(group, g -> events.size() == 1
+                        ? copyOf(latest, now)
+                        : digestOf(latest, events.size(), now));
+                mergedRecipients.computeIfAbsent(group, g -> new ArrayList<>()).add(userId);
+            });
+
+            mergedEntries.forEach((group, merged) -> {
+                merged.setRecipientIds(mergedRecipients.get(group).stream()
+                        .map(String::valueOf)
+                        .collect(Collectors.joining(",")));
+                outboxRepository.save(merged);
+            });
+            outboxRepository.markMerged(entries.stream().map(NotificationOutboxEntity::getId).toList(), now);
+
+            log.debug("Resumen {}: {} evento(s) agrupado(s) en {} notificación(es)", key, entries.size(), mergedEntries.size());
+        }
+    }
+
+    private static NotificationOutboxEntity copyOf(NotificationOutboxEntity entry, LocalDateTime now) {
+        return NotificationOutboxEntity.builder()
+                .type(entry.getType())
+                .title(entry.getTitle())
+                .message(entry.getMessage())
+                .dataJson(entry.getDataJson())
+                .nextAttemptAt(now)
+                .createdAt(entry.getCreatedAt())
+                .build();
+    }
+
+    /**
+     * Resumen de varios eventos. Los datos conservan los campos del último evento, con el mismo formato
+     * que la notificación original, y agregan {@code count} con la cantidad de eventos agrupados.
+     */
+    private NotificationOutboxEntity digestOf(NotificationOutboxEntity latest, int count, LocalDateTime now) {
+        ObjectNode data = objectMapper.createObjectNode();
+        try {
+            JsonNode original = latest.getDataJson() != null ? objectMapper.readTree(latest.getDataJson()) : null;
+            if (original instanceof ObjectNode fields) {
+                data.setAll(fields);
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Datos inválidos en la notificación {} del outbox: {}", latest.getId(), e.getMessage());
+        }
+        data.put(NotificationDigest.COUNT_FIELD, count);
+        return NotificationOutboxEntity.builder()
+                .type(latest.getType())
+                .title(latest.getDigestTitle())
+                .message(latest.getDigestMessage().replace(NotificationDigest.COUNT_PLACEHOLDER, String.valueOf(count)))
+                .dataJson(data.toString())
+                .nextAttemptAt(now)
+                .createdAt(latest.getCreatedAt())
+                .build();
+    }
+
+    private void deliver(List<NotificationOutboxEntity> batch) {
+        List<Long> deliveredIds = new ArrayList<>();
+        for (NotificationOutboxEntity entry : batch) {
+            try {
+                NotificationMessage notification = new NotificationMessage(
+                        entry.getType(), entry.getTitle(), entry.getMessage(), data(entry));
+                for (Long userId : recipients(entry)) {
+                    notificationService.deliverToUser(userId, notification);
+                }
+                deliveredIds.add(entry.getId());
+            } catch (Exception e) {
+                scheduleRetry(entry, e);
+            }
+        }
+        if (!deliveredIds.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxRepository.markDelivered(deliveredIds, LocalDateTime.now()));
+        }
+    }
+
+    private void scheduleRetry(NotificationOutboxEntity entry, Exception error) {
+        int attempts = entry.getAttempts() + 1;
+        NotificationOutboxStatus status = attempts >= maxAttempts
+                ? NotificationOutboxStatus.FAILED
+                : NotificationOutboxStatus.PENDING;
+        long delayMs = Math.min(retryBaseDelayMs << Math.min(attempts - 1, 20), retryMaxDelayMs);
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+
+        log.warn("Error al publicar la notificación {} del outbox (intento {} de {}): {}",
+                entry.getId(), attempts, maxAttempts, message);
+        String lastError = message;
+        transactionTemplate.executeWithoutResult(tx -> outboxRepository.markAttemptFailed(entry.getId(), status,
+                attempts, LocalDateTime.now().plus(Duration.ofMillis(delayMs)), lastError));
+    }
+
+    /**
+     * Elimina las entradas entregadas que superaron el tiempo de retención.
+     */
+    @Scheduled(fixedDelayString = "${notifications.outbox.cleanup-interval-ms:3600000}")
+    public void purgeDelivered() {
+        LocalDateTime before = LocalDateTime.now().minus(Duration.ofMillis(retentionMs));
+        Integer deleted = transactionTemplate.execute(status -> outboxRepository.deleteDeliveredBefore(before));
+        if (deleted != null && deleted > 0) {
+            log.info("Outbox de notificaciones: {} entrada(s) entregada(s) eliminada(s)", deleted);
+        }
+    }
+
+    private static List<Long> recipients(NotificationOutboxEntity entry) {
+        return Arrays.stream(entry.getRecipientIds().split(","))
+                .map(Long::valueOf)
+                .toList();
+    }
+
+    private JsonNode data(NotificationOutboxEntity entry) throws Exception {
+        return entry.getDataJson() != null ? objectMapper.readTree(entry.getDataJson()) : null;
+    }
+}
@@ -1,15 +1,14 @@
 package com.sgdis.backend.notification.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sgdis.backend.auth.application.service.AuthService;
 import com.sgdis.backend.notification.dto.NotificationResponse;
 import com.sgdis.backend.notification.infrastructure.entity.NotificationEntity;
 import com.sgdis.backend.notification.infrastructure.repository.SpringDataNotificationRepository;
-import com.sgdis.backend.user.infrastructure.entity.UserEntity;
-import com.sgdis.backend.user.infrastructure.repository.SpringDataUserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,78 +21,58 @@ import java.util.stream.Collectors;
 @Slf4j
 public class NotificationPersistenceService {
 
+    private static final int MAX_UNREAD_PAGE_SIZE = 100;
+
     private final SpringDataNotificationRepository notificationRepository;
-    private final SpringDataUserRepository userRepository;
     private final AuthService authService;
-    private final ObjectMapper objectMapper;
-
-    /**
-     * Guarda una notificación en la base de datos
-     */
-    @Transactional
-    public NotificationEntity saveNotification(Long userId, String type, String title, String message, Object data) {
-        try {
-            UserEntity user = userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-
-            String dataJson = data != null ? objectMapper.writeValueAsString(data) : null;
-
-            NotificationEntity notification = NotificationEntity.builder()
-                    .user(user)
-                    .type(type)
-                    .title(title)
-                    .message(message)
-                    .dataJson(dataJson)
-                    .isRead(false)
-                    .build();
-
-            NotificationEntity saved = notificationRepository.save(notification);
-            log.info("Notificación guardada para usuario {}: {}", userId, title);
-            return saved;
-        } catch (Exception e) {
-            log.error("Error al guardar notificación: {}", e.getMessage(), e);
-            throw new RuntimeException("Error al guardar notificación", e);
-        }
-    }
+    private final NotificationUnreadCountService unreadCountService;
 
     /**
      * Obtiene las notificaciones del usuario actual
      */
     public Page<NotificationResponse> getMyNotifications(Pageable pageable) {
-        UserEntity currentUser = authService.getCurrentUser();
+        Long currentUserId = authService.getCurrentUserId();
         Page<NotificationEntity> notifications = notificationRepository
-                .findByUserIdOrderByCreatedAtDesc(currentUser.getId(), pageable);
+                .findByUserIdOrderByCreatedAtDesc(currentUserId, pageable);
         
         return notifications.map(this::toResponse);
     }
 
     /**
-     * Obtiene las notificaciones no leídas del usuario actual
+     * Obtiene una página de las notificaciones no leídas del usuario actual.
+     * El total se toma del contador en caché, sin consulta de conteo.
      */
-    public List<NotificationResponse> getMyUnreadNotifications() {
-        UserEntity currentUser = authService.getCurrentUser();
-        List<NotificationEntity> notifications = notificationRepository
-                .findByUserIdAndIsReadFalseOrderByCreatedAtDesc(currentUser.getId());
-        
-        return notifications.stream()
+    public Page<NotificationResponse> getMyUnreadNotifications(Pageable pageable) {
+        Long currentUserId = authService.getCurrentUserId();
+        Pageable bounded = pageable.getPageSize() > MAX_UNREAD_PAGE_SIZE
+                ? PageRequest.of(pageable.getPageNumber(), MAX_UNREAD_PAGE_SIZE)
+                : pageable;
+        List<NotificationResponse> notifications = notificationRepository
+                .findByUserIdAndIsReadFalseOrderByCreatedAtDesc(currentUserId, bounded)
+                .stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
+
+        return new PageImpl<>(notifications, bounded, unreadCountService.getUnreadCount(currentUserId));
     }
 
     /**
-     * Cuenta las notificaciones no leídas del usuario actual
+     * Cuenta las notificaciones no leídas del usuario actual (desde la caché de contadores)
      */
     public long countMyUnreadNotifications() {
-        UserEntity currentUser = authService.getCurrentUser();
-        return notificationRepository.countByUserIdAndIsReadFalse(currentUser.getId());
+        Long currentUserId = authService.getCurrentUserId();
+        return unreadCountService.getUnreadCount(currentUserId);
     }
 
     /**
-     * Marca una notificación como leída
+     * Marca una notificación del usuario actual como leída
      */
     @Transactional
     public void markAsRead(Long notificationId) {
-        notificationRepository.markAsRead(notificationId);
+        Long currentUserId = authService.getCurrentUserId();
+        if (notificationRepository.markAsRead(notificationId, currentUserId) > 0) {
+            unreadCountService.markOneRead(currentUserId);
+        }
         log.info("Notificación {} marcada como leída", notificationId);
     }
 
@@ -102,9 +81,10 @@ public class NotificationPersistenceService {
      */
     @Transactional
     public void markAllAsRead() {
-        UserEntity currentUser = authService.getCurrentUser();
-        notificationRepository.markAllAsReadForUser(currentUser.getId());
-        log.info("Todas las notificaciones del usuario {} marcadas como leídas", currentUser.getId());
+        Long currentUserId = authService.getCurrentUserId();
+        notificationRepository.markAllAsReadForUser(currentUserId);
+        unreadCountService.markAllRead(currentUserId);
+        log.info("Todas las notificaciones del usuario {} marcadas como leídas", currentUserId);
     }
 
     /**
@@ -0,0 +1,76 @@
+package com.sgdis.backend.notification.service;
+
+import com.sgdis.backend.notification.infrastructure.repository.JdbcNotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.function.IntSupplier;
+
+/**
+ * Retención de notificaciones.
+ * Mueve por lotes a {@code notifications_archive} las notificaciones leídas más antiguas que el plazo
+ * configurado, para que {@code notifications} solo contenga el historial reciente y las no leídas.
+ * Opcionalmente elimina las archivadas tras un segundo plazo (0 = conservarlas).
+ * Cada lote usa su propia transacción para no bloquear la tabla durante toda la tarea.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationRetentionService {
+
+    private final JdbcNotificationRepository jdbcNotificationRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${notifications.retention.archive-after-days:90}")
+    private int archiveAfterDays;
+
+    @Value("${notifications.retention.archive-retention-days:0}")
+    private int archiveRetentionDays;
+
+    @Value("${notifications.retention.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Archiva las notificaciones leídas antiguas y elimina las archivadas vencidas.
+     */
+    @Scheduled(fixedDelayString = "${notifications.retention.interval-ms:3600000}")
+    public void applyRetention() {
+        LocalDateTime now = LocalDateTime.now();
+
+        LocalDateTime archiveBefore = now.minusDays(archiveAfterDays);
+        int archived = runInBatches(() -> jdbcNotificationRepository.archiveReadBefore(archiveBefore, batchSize, now));
+        if (archived > 0) {
+            log.info("Retención de notificaciones: {} notificación(es) leída(s) archivada(s)", archived);
+        }
+
+        if (archiveRetentionDays > 0) {
+            LocalDateTime deleteBefore = now.minusDays(archiveRetentionDays);
+            int deleted = runInBatches(() -> jdbcNotificationRepository.deleteArchivedBefore(deleteBefore, batchSize));
+            if (deleted > 0) {
+                log.info("Retención de notificaciones: {} notificación(es) archivada(s) eliminada(s)", deleted);
+            }
+        }
+    }
+
+    private int runInBatches(IntSupplier operation) {
+        int total = 0;
+        int processed;
+        do {
+            try {
+                Integer result = transactionTemplate.execute(status -> operation.getAsInt());
+                processed = result != null ? result : 0;
+            } catch (Exception e) {
+                // El resto se procesa en la próxima ejecución
+                log.error("Error en la retención de notificaciones: {}", e.getMessage(), e);
+                break;
+            }
+            total += processed;
+        } while (processed == batchSize);
+        return total;
+    }
+}
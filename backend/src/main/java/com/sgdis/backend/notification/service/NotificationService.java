@@ -6,35 +6,46 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationService {
 
     private final SimpMessagingTemplate messagingTemplate;
-    private final NotificationPersistenceService notificationPersistenceService;
+    private final NotificationDispatcher notificationDispatcher;
 
     /**
-     * Envía una notificación a un usuario específico
+     * Envía una notificación a un usuario específico.
+     * Solo publica por WebSocket; los errores se registran y no se propagan.
      * 
      * @param userId ID del usuario destinatario
      * @param notification Mensaje de notificación
      */
     public void sendNotificationToUser(Long userId, NotificationMessage notification) {
         try {
-            String destination = "/queue/notifications";
-            messagingTemplate.convertAndSendToUser(
-                    userId.toString(),
-                    destination,
-                    notification
-            );
-            log.info("Notificación enviada al usuario {} - Tipo: {}, Título: {}", 
-                    userId, notification.type(), notification.title());
+            deliverToUser(userId, notification);
         } catch (Exception e) {
             log.error("Error al enviar notificación al usuario {}: {}", userId, e.getMessage(), e);
         }
     }
 
+    /**
+     * Publica una notificación por WebSocket a un usuario. A diferencia de
+     * {@link #sendNotificationToUser}, propaga el error para que el outbox pueda reintentar.
+     */
+    public void deliverToUser(Long userId, NotificationMessage notification) {
+        String destination = "/queue/notifications";
+        messagingTemplate.convertAndSendToUser(
+                userId.toString(),
+                destination,
+                notification
+        );
+        log.info("Notificación enviada al usuario {} - Tipo: {}, Título: {}", 
+                userId, notification.type(), notification.title());
+    }
+
     /**
      * Envía una notificación de inventario creado al dueño
      * 
@@ -50,17 +61,8 @@ public class NotificationService {
                 new InventoryNotificationData(inventoryId, inventoryName)
         );
         
-        // 1. Guardar en base de datos (para campanita)
-        notificationPersistenceService.saveNotification(
-                ownerId,
-                "INVENTORY_CREATED",
-                "Nuevo Inventario Asignado",
-                String.format("Se te ha asignado como dueño del inventario '%s'", inventoryName),
-                new InventoryNotificationData(inventoryId, inventoryName)
-        );
-        
-        // 2. Enviar por WebSocket (para web)
-        sendNotificationToUser(ownerId, notification);
+        // Guardar (para campanita) y enviar por WebSocket (para web) cuando se confirme la transacción
+        notificationDispatcher.dispatch(List.of(ownerId), notification);
     }
 
     /**
@@ -78,17 +80,8 @@ public class NotificationService {
                 new InventoryNotificationData(inventoryId, inventoryName)
         );
         
-        // 1. Guardar en base de datos (para campanita)
-        notificationPersistenceService.saveNotification(
-                ownerId,
-                "INVENTORY_CREATED",
-                "Inventario Asignado",
-                String.format("Se te ha asignado como dueño del inventario '%s'", inventoryName),
-                new InventoryNotificationData(inventoryId, inventoryName)
-        );
-        
-        // 2. Enviar por WebSocket (para web)
-        sendNotificationToUser(ownerId, notification);
+        // Guardar (para campanita) y enviar por WebSocket (para web) cuando se confirme la transacción
+        notificationDispatcher.dispatch(List.of(ownerId), notification);
     }
 
     /**
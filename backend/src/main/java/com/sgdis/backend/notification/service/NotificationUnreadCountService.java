@@ -0,0 +1,102 @@
+package com.sgdis.backend.notification.service;
+
+import com.sgdis.backend.notification.dto.NotificationMessage;
+import com.sgdis.backend.notification.infrastructure.repository.SpringDataNotificationRepository;
+import com.sgdis.backend.utils.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Contador de notificaciones no leídas por usuario, en memoria.
+ * La primera lectura lo carga desde la base de datos; luego se mantiene con escritura directa
+ * (inserciones del outbox, marcar como leída, marcar todas) tras el commit de cada cambio,
+ * y el nuevo valor se publica por WebSocket como {@code UNREAD_COUNT}.
+ * Cada entrada expira tras un TTL como red de seguridad frente a carreras entre carga y escritura.
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationUnreadCountService {
+
+    public static final String UNREAD_COUNT_NOTIFICATION = "UNREAD_COUNT";
+
+    private final SpringDataNotificationRepository notificationRepository;
+    private final NotificationService notificationService;
+
+    @Value("${notifications.unread-count.cache-ttl-ms:60000}")
+    private long cacheTtlMs;
+
+    private final Map<Long, CachedCount> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Cantidad de notificaciones no leídas del usuario.
+     */
+    public long getUnreadCount(Long userId) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = cache.get(userId);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.count();
+        }
+        long count = notificationRepository.countByUserIdAndIsReadFalse(userId);
+        cache.put(userId, new CachedCount(count, now + cacheTtlMs));
+        return count;
+    }
+
+    /**
+     * Suma las notificaciones nuevas de cada usuario tras el commit.
+     * Solo se actualizan los contadores ya cargados; el resto se carga en la próxima lectura.
+     */
+    public void addUnread(Map<Long, Integer> newByUser) {
+        if (newByUser.isEmpty()) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> newByUser.forEach((userId, added) -> update(userId, count -> count + added)));
+    }
+
+    /**
+     * Descuenta una notificación leída del usuario tras el commit.
+     */
+    public void markOneRead(Long userId) {
+        TransactionUtils.afterCommit(() -> update(userId, count -> Math.max(count - 1, 0)));
+    }
+
+    /**
+     * Deja en cero el contador del usuario tras el commit.
+     */
+    public void markAllRead(Long userId) {
+        TransactionUtils.afterCommit(() -> {
+            cache.put(userId, new CachedCount(0, System.currentTimeMillis() + cacheTtlMs));
+            push(userId, 0);
+        });
+    }
+
+    private void update(Long userId, LongUnaryOperator change) {
+        CachedCount updated = cache.computeIfPresent(userId, (id, cached) ->
+                new CachedCount(change.applyAsLong(cached.count()), cached.expiresAt()));
+        if (updated != null) {
+            push(userId, updated.count());
+        }
+    }
+
+    private void push(Long userId, long count) {
+        notificationService.sendNotificationToUser(userId, new NotificationMessage(
+                UNREAD_COUNT_NOTIFICATION, null, null, Map.of("count", count)));
+    }
+
+    /**
+     * Descarta los contadores vencidos para que la caché no crezca con usuarios inactivos.
+     */
+    @Scheduled(fixedDelayString = "${notifications.unread-count.cleanup-interval-ms:600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        cache.values().removeIf(cached -> cached.expiresAt() <= now);
+    }
+
+    private record CachedCount(long count, long expiresAt) {
+    }
+}
@@ -6,11 +6,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -35,9 +35,9 @@ public class NotificationController {
 
     @GetMapping("/my-notifications/unread")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<NotificationResponse>> getMyUnreadNotifications() {
+    public ResponseEntity<Page<NotificationResponse>> getMyUnreadNotifications(@PageableDefault(size = 20) Pageable pageable) {
         try {
-            List<NotificationResponse> notifications = notificationPersistenceService.getMyUnreadNotifications();
+            Page<NotificationResponse> notifications = notificationPersistenceService.getMyUnreadNotifications(pageable);
             return ResponseEntity.ok(notifications);
         } catch (Exception e) {
             log.error("Error al obtener notificaciones no leídas: {}", e.getMessage(), e);
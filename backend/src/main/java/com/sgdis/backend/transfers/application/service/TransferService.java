@@ -32,22 +32,31 @@ import com.sgdis.backend.user.domain.Role;
 import com.sgdis.backend.user.infrastructure.entity.UserEntity;
 import com.sgdis.backend.user.infrastructure.repository.SpringDataUserRepository;
 // Notificaciones
-import com.sgdis.backend.notification.service.NotificationService;
-import com.sgdis.backend.notification.service.NotificationPersistenceService;
+import com.sgdis.backend.notification.service.NotificationDispatcher;
 import com.sgdis.backend.notification.dto.NotificationMessage;
 // Auditoría
 import com.sgdis.backend.auditory.application.port.in.RecordActionUseCase;
 import com.sgdis.backend.auditory.application.dto.RecordActionRequest;
+import com.sgdis.backend.auditory.domain.AuditActionType;
+import com.sgdis.backend.auditory.domain.AuditEntityType;
+// Contadores de dashboards
+import com.sgdis.backend.web.dto.CounterDelta;
+import com.sgdis.backend.web.service.DashboardCounterService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -61,9 +70,9 @@ public class TransferService implements ApproveTransferUseCase, RejectTransferUs
     private final SpringDataInventoryRepository inventoryRepository;
     private final SpringDataCancellationRepository cancellationRepository;
     private final RecordActionUseCase recordActionUseCase;
-    private final NotificationService notificationService;
-    private final NotificationPersistenceService notificationPersistenceService;
+    private final NotificationDispatcher notificationDispatcher;
     private final SpringDataUserRepository userRepository;
+    private final DashboardCounterService dashboardCounterService;
 
     @Override
     @Transactional
@@ -194,6 +203,13 @@ public class TransferService implements ApproveTransferUseCase, RejectTransferUs
         }
 
         TransferEntity saved = transferRepository.save(transfer);
+
+        // Actualizar contadores de dashboards
+        dashboardCounterService.applyToInventories(
+                List.of(sourceInventory.getId(), destinationInventory.getId()),
+                isDirectTransfer
+                        ? CounterDelta.builder().approvedTransfers(1).build()
+                        : CounterDelta.builder().pendingTransfers(1).build());
         
         // Registrar auditoría
         String itemName = item.getProductName() != null ? item.getProductName() : "sin nombre";
@@ -201,8 +217,8 @@ public class TransferService implements ApproveTransferUseCase, RejectTransferUs
         String destinationInventoryName = destinationInventory.getName() != null ? destinationInventory.getName() : "sin nombre";
         String transferType = isDirectTransfer ? "Transferencia directa" : "Solicitud de transferencia";
         
-        recordActionUseCase.recordAction(new RecordActionRequest(
-                String.format("%s: Item %s (ID: %d) - De: %s (ID: %d) → A: %s (ID: %d) - Solicitado por: %s (%s)", 
+        recordActionUseCase.recordAction(RecordActionRequest.builder()
+                .action(String.format("%s: Item %s (ID: %d) - De: %s (ID: %d) → A: %s (ID: %d) - Solicitado por: %s (%s)", 
                         transferType,
                         itemName,
                         item.getId(),
@@ -211,8 +227,12 @@ public class TransferService implements ApproveTransferUseCase, RejectTransferUs
                         destinationInventoryName,
                         destinationInventory.getId(),
                         requester.getFullName(),
-                        requester.getEmail())
-        ));
+                        requester.getEmail()))
+                .actionType(AuditActionType.REQUEST)
+                .entityType(AuditEntityType.TRANSFER)
+                .entityId(saved.getId())
+                .inventoryId(sourceInventory.getId())
+                .build());
         
         // Enviar notificaciones
         if (isDirectTransfer) {
@@ -312,14 +332,19 @@ public class TransferService implements ApproveTransferUseCase, RejectTransferUs
         }
         transferRepository.save(transfer);
 
+        // Actualizar contadores de dashboards
+        dashboardCounterService.applyToInventories(
+                List.of(sourceInventory.getId(), destinationInventory.getId()),
+                CounterDelta.builder().pendingTransfers(-1).approvedTransfers(1).build());
+
         // Registrar auditoría
         String itemName = item.getProductName() != null ? item.getProductName() : "sin nombre";
         String sourceInventoryName = sourceInventory.getName() != null ? sourceInventory.getName() : "sin nombre";
         String destinationInventoryName = destinationInventory.getName() != null ? destinationInventory.getName() : "sin nombre";
         String requesterName = transfer.getRequestedBy() != null ? transfer.getRequestedBy().getFullName() : "N/A";
         
-        recordActionUseCase.recordAction(new RecordActionRequest(
-                String.format("Transferencia aprobada: Item %s (ID: %d) - De: %s (ID: %d) → A: %s (ID: %d) - Aprobado por: %s (%s) - Solicitado por: %s", 
+        recordActionUseCase.recordAction(RecordActionRequest.builder()
+                .action(String.format("Transferencia aprobada: Item %s (ID: %d) - De: %s (ID: %d) → A: %s (ID: %d) - Aprobado por: %s (%s) - Solicitado por: %s", 
                         itemName,
                         item.getId(),
                         sourceInventoryName,
@@ -328,8 +353,12 @@ public class TransferService implements ApproveTransferUseCase, RejectTransferUs
                         destinationInventory.getId(),
                         approver.getFullName(),
                         approver.getEmail(),
-                        requesterName)
-        ));
+                        requesterName))
+                .actionType(AuditActionType.APPROVE)
+                .entityType(AuditEntityType.TRANSFER)
+                .entityId(transfer.getId())
+                .inventoryId(sourceInventory.getId())
+                .build());
 
         // Enviar notificaciones
         sendTransferApprovedNotifications(transfer);
@@ -385,14 +414,19 @@ public class TransferService implements ApproveTransferUseCase, RejectTransferUs
         }
         transferRepository.save(transfer);
 
+        // Actualizar contadores de dashboards
+        dashboardCounterService.applyToInventories(
+                List.of(sourceInventory.getId(), destinationInventory.getId()),
+                CounterDelta.builder().pendingTransfers(-1).rejectedTransfers(1).build());
+
         // Registrar auditoría
         String itemName = item.getProductName() != null ? item.getProductName() : "sin nombre";
         String sourceInventoryName = sourceInventory.getName() != null ? sourceInventory.getName() : "sin nombre";
         String destinationInventoryName = destinationInventory.getName() != null ? destinationInventory.getName() : "sin nombre";
         String requesterName = transfer.getRequestedBy() != null ? transfer.getRequestedBy().getFullName() : "N/A";
         
-        recordActionUseCase.recordAction(new RecordActionRequest(
-                String.format("Transferencia rechazada: Item %s (ID: %d) - De: %s (ID: %d) → A: %s (ID: %d) - Rechazado por: %s (%s) - Solicitado por: %s", 
+        recordActionUseCase.recordAction(RecordActionRequest.builder()
+                .action(String.format("Transferencia rechazada: Item %s (ID: %d) - De: %s (ID: %d) → A: %s (ID: %d) - Rechazado por: %s (%s) - Solicitado por: %s", 
                         itemName,
                         item.getId(),
                         sourceInventoryName,
@@ -401,8 +435,12 @@ public class TransferService implements ApproveTransferUseCase, RejectTransferUs
                         destinationInventory.getId(),
                         rejecter.getFullName(),
                         rejecter.getEmail(),
-                        requesterName)
-        ));
+                        requesterName))
+                .actionType(AuditActionType.REJECT)
+                .entityType(AuditEntityType.TRANSFER)
+                .entityId(transfer.getId())
+                .inventoryId(sourceInventory.getId())
+                .build());
 
         // Enviar notificaciones
         sendTransferRejectedNotifications(transfer);
@@ -478,31 +516,26 @@ public class TransferService implements ApproveTransferUseCase, RejectTransferUs
     public Page<TransferSummaryResponse> getAllTransfers(Pageable pageable) {
         // Obtener el total de transferencias
         Long totalElements = transferRepository.countAllTransfers();
-        
-        // Cargar todas las transferencias con relaciones (sin paginación en la query)
-        List<TransferEntity> allTransfers = transferRepository.findAllOrderedByRequestedAtWithRelations();
-        
-        // Aplicar paginación manualmente
-        int page = pageable.getPageNumber();
-        int size = pageable.getPageSize();
-        int start = page * size;
-        int end = Math.min(start + size, allTransfers.size());
-        
-        List<TransferEntity> paginatedTransfers = start < allTransfers.size() 
-            ? allTransfers.subList(start, end)
-            : new java.util.ArrayList<>();
-        
-        // Convertir a DTOs
-        List<TransferSummaryResponse> content = paginatedTransfers.stream()
+
+        // Fase 1: IDs de la página, paginados en la base de datos (el orden lo define la query)
+        List<Long> pageIds = transferRepository.findPageIdsOrderedByRequestedAt(
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, totalElements);
+        }
+
+        // Fase 2: cargar relaciones solo para esos IDs y respetar el orden de la fase 1
+        Map<Long, TransferEntity> transfersById = transferRepository.findAllByIdInWithRelations(pageIds)
+                .stream()
+                .collect(Collectors.toMap(TransferEntity::getId, Function.identity()));
+
+        List<TransferSummaryResponse> content = pageIds.stream()
+                .map(transfersById::get)
+                .filter(Objects::nonNull)
                 .map(TransferMapper::toSummaryResponse)
                 .collect(Collectors.toList());
-        
-        // Crear Page con el contenido y la información de paginación
-        return new org.springframework.data.domain.PageImpl<>(
-                content,
-                pageable,
-                totalElements
-        );
+
+        return new PageImpl<>(content, pageable, totalElements);
     }
 
     @Override
@@ -566,8 +599,7 @@ public class TransferService implements ApproveTransferUseCase, RejectTransferUs
      */
     private void sendTransferRequestedNotifications(TransferEntity transfer) {
         try {
-            UserEntity currentUser = authService.getCurrentUser();
-            Long currentUserId = currentUser.getId();
+            Long currentUserId = authService.getCurrentUserId();
             
             InventoryEntity sourceInventory = transfer.getSourceInventory();
             InventoryEntity destinationInventory = transfer.getInventory();
@@ -616,10 +648,7 @@ public class TransferService implements ApproveTransferUseCase, RejectTransferUs
             );
             
             // Enviar notificaciones a todos los usuarios
-            sendNotificationsToUsers(userIdsToNotify, notification, "TRANSFER_REQUESTED", "Transferencia Solicitada", message,
-                    new TransferNotificationData(transfer.getId(), item.getId(), itemName, 
-                            sourceInventory.getId(), sourceInventoryName,
-                            destinationInventory.getId(), destinationInventoryName, "REQUESTED"));
+            notificationDispatcher.dispatch(userIdsToNotify, notification);
         } catch (Exception e) {
             // Log error pero no fallar la operación
         }
@@ -630,8 +659,7 @@ public class TransferService implements ApproveTransferUseCase, RejectTransferUs
      */
     private void sendTransferApprovedNotifications(TransferEntity transfer) {
         try {
-            UserEntity currentUser = authService.getCurrentUser();
-            Long currentUserId = currentUser.getId();
+            Long currentUserId = authService.getCurrentUserId();
             
             InventoryEntity sourceInventory = transfer.getSourceInventory();
             InventoryEntity destinationInventory = transfer.getInventory();
@@ -683,16 +711,7 @@ public class TransferService implements ApproveTransferUseCase, RejectTransferUs
                 );
                 
                 try {
-                    notificationPersistenceService.saveNotification(
-                            transfer.getRequestedBy().getId(),
-                            "TRANSFER_APPROVED_PERSONAL",
-                            "Tu Transferencia fue Aprobada",
-                            personalMessage,
-                            new TransferNotificationData(transfer.getId(), item.getId(), itemName, 
-                                    sourceInventory.getId(), sourceInventoryName,
-                                    destinationInventory.getId(), destinationInventoryName, "APPROVED")
-                    );
-                    notificationService.sendNotificationToUser(transfer.getRequestedBy().getId(), personalNotification);
+                    notificationDispatcher.dispatch(List.of(transfer.getRequestedBy().getId()), personalNotification);
                 } catch (Exception e) {
                     // Log error pero continuar
                 }
@@ -715,10 +734,7 @@ public class TransferService implements ApproveTransferUseCase, RejectTransferUs
             if (transfer.getRequestedBy() != null) {
                 userIdsToNotify.remove(transfer.getRequestedBy().getId());
             }
-            sendNotificationsToUsers(userIdsToNotify, notification, "TRANSFER_APPROVED", "Transferencia Aprobada", message,
-                    new TransferNotificationData(transfer.getId(), item.getId(), itemName, 
-                            sourceInventory.getId(), sourceInventoryName,
-                            destinationInventory.getId(), destinationInventoryName, "APPROVED"));
+            notificationDispatcher.dispatch(userIdsToNotify, notification);
         } catch (Exception e) {
             // Log error pero no fallar la operación
         }
@@ -729,8 +745,7 @@ public class TransferService implements ApproveTransferUseCase, RejectTransferUs
      */
     private void sendTransferRejectedNotifications(TransferEntity transfer) {
         try {
-            UserEntity currentUser = authService.getCurrentUser();
-            Long currentUserId = currentUser.getId();
+            Long currentUserId = authService.getCurrentUserId();
             
             InventoryEntity sourceInventory = transfer.getSourceInventory();
             InventoryEntity destinationInventory = transfer.getInventory();
@@ -789,16 +804,7 @@ public class TransferService implements ApproveTransferUseCase, RejectTransferUs
                 );
                 
                 try {
-                    notificationPersistenceService.saveNotification(
-                            transfer.getRequestedBy().getId(),
-                            "TRANSFER_REJECTED_PERSONAL",
-                            "Tu Transferencia fue Rechazada",
-                            personalMessage,
-                            new TransferNotificationData(transfer.getId(), item.getId(), itemName, 
-                                    sourceInventory.getId(), sourceInventoryName,
-                                    destinationInventory.getId(), destinationInventoryName, "REJECTED")
-                    );
-                    notificationService.sendNotificationToUser(transfer.getRequestedBy().getId(), personalNotification);
+                    notificationDispatcher.dispatch(List.of(transfer.getRequestedBy().getId()), personalNotification);
                 } catch (Exception e) {
                     // Log error pero continuar
                 }
@@ -821,10 +827,7 @@ public class TransferService implements ApproveTransferUseCase, RejectTransferUs
             if (transfer.getRequestedBy() != null) {
                 userIdsToNotify.remove(transfer.getRequestedBy().getId());
             }
-            sendNotificationsToUsers(userIdsToNotify, notification, "TRANSFER_REJECTED", "Transferencia Rechazada", message,
-                    new TransferNotificationData(transfer.getId(), item.getId(), itemName, 
-                            sourceInventory.getId(), sourceInventoryName,
-                            destinationInventory.getId(), destinationInventoryName, "REJECTED"));
+            notificationDispatcher.dispatch(userIdsToNotify, notification);
         } catch (Exception e) {
             // Log error pero no fallar la operación
         }
@@ -878,24 +881,6 @@ public class TransferService implements ApproveTransferUseCase, RejectTransferUs
         });
     }
 
-    /**
-     * Envía notificaciones a una lista de usuarios.
-     */
-    private void sendNotificationsToUsers(Set<Long> userIdsToNotify, NotificationMessage notification, 
-                                         String type, String title, String message, Object data) {
-        for (Long userId : userIdsToNotify) {
-            try {
-                // Guardar en base de datos
-                notificationPersistenceService.saveNotification(userId, type, title, message, data);
-                
-                // Enviar por WebSocket
-                notificationService.sendNotificationToUser(userId, notification);
-            } catch (Exception e) {
-                // Log error pero continuar con otros usuarios
-            }
-        }
-    }
-    
     /**
      * DTO interno para datos de transferencia en la notificación
      */
@@ -19,7 +19,9 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "transfers")
+@Table(name = "transfers", indexes = {
+        @Index(name = "idx_transfers_requested_at_id", columnList = "requested_at, id")
+})
 public class TransferEntity {
 
     @Id
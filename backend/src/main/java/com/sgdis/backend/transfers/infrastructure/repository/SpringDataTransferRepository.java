@@ -51,16 +51,27 @@ public interface SpringDataTransferRepository extends JpaRepository<TransferEnti
             """)
     List<TransferEntity> findAllByItemId(@Param("itemId") Long itemId);
 
+    /**
+     * Primera fase de la paginación: solo los IDs de la página, paginados en la base de datos.
+     * El id desempata transferencias con la misma fecha para que las páginas sean estables.
+     */
+    @Query("SELECT t.id FROM TransferEntity t ORDER BY t.requestedAt DESC, t.id DESC")
+    List<Long> findPageIdsOrderedByRequestedAt(Pageable pageable);
+
+    /**
+     * Segunda fase de la paginación: carga las relaciones solo de los IDs de la página.
+     * No garantiza orden; el llamador reordena según la lista de IDs.
+     */
     @Query("""
-            SELECT DISTINCT t FROM TransferEntity t
+            SELECT t FROM TransferEntity t
             LEFT JOIN FETCH t.item
             LEFT JOIN FETCH t.inventory
             LEFT JOIN FETCH t.sourceInventory
             LEFT JOIN FETCH t.requestedBy
             LEFT JOIN FETCH t.approvedBy
-            ORDER BY t.requestedAt DESC
+            WHERE t.id IN :ids
             """)
-    List<TransferEntity> findAllOrderedByRequestedAtWithRelations();
+    List<TransferEntity> findAllByIdInWithRelations(@Param("ids") List<Long> ids);
 
     @Query("SELECT COUNT(t) FROM TransferEntity t")
     Long countAllTransfers();
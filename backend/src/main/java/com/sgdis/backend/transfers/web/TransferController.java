@@ -1,5 +1,6 @@
 package com.sgdis.backend.transfers.web;
 
+import com.sgdis.backend.inventory.application.service.InventoryAccessService;
 import com.sgdis.backend.transfers.application.dto.ApproveTransferRequest;
 import com.sgdis.backend.transfers.application.dto.ApproveTransferResponse;
 import com.sgdis.backend.transfers.application.dto.RejectTransferRequest;
@@ -16,18 +17,15 @@ import com.sgdis.backend.transfers.application.port.in.GetAllTransfersUseCase;
 import com.sgdis.backend.transfers.application.port.in.GetRegionalTransfersUseCase;
 import com.sgdis.backend.transfers.application.port.in.GetTransferStatisticsUseCase;
 import com.sgdis.backend.transfers.application.dto.TransferStatisticsResponse;
+import com.sgdis.backend.auth.application.dto.CurrentUser;
 import com.sgdis.backend.auth.application.service.AuthService;
 import com.sgdis.backend.exception.ResourceNotFoundException;
 import com.sgdis.backend.transfers.domain.TransferStatus;
 import com.sgdis.backend.transfers.infrastructure.repository.SpringDataTransferRepository;
 import com.sgdis.backend.transfers.infrastructure.entity.TransferEntity;
 import com.sgdis.backend.transfers.mapper.TransferMapper;
-import com.sgdis.backend.user.infrastructure.entity.UserEntity;
-import com.sgdis.backend.user.infrastructure.repository.SpringDataUserRepository;
-import com.sgdis.backend.inventory.infrastructure.entity.InventoryEntity;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.Set;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -65,7 +63,7 @@ public class TransferController {
     private final GetTransferStatisticsUseCase getTransferStatisticsUseCase;
     private final AuthService authService;
     private final SpringDataTransferRepository transferRepository;
-    private final SpringDataUserRepository userRepository;
+    private final InventoryAccessService inventoryAccessService;
 
     @Operation(
             summary = "Get all transfers",
@@ -242,11 +240,11 @@ public class TransferController {
     @PreAuthorize("hasRole('ADMIN_REGIONAL')")
     @GetMapping("/regional/statistics")
     public ResponseEntity<TransferStatisticsResponse> getRegionalTransferStatistics() {
-        var currentUser = authService.getCurrentUser();
-        if (currentUser.getInstitution() == null || currentUser.getInstitution().getRegional() == null) {
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
+        if (currentUser.regionalId() == null) {
             throw new ResourceNotFoundException("User institution or regional not found");
         }
-        Long regionalId = currentUser.getInstitution().getRegional().getId();
+        Long regionalId = currentUser.regionalId();
         
         Long total = transferRepository.countByRegionalId(regionalId);
         Long pending = transferRepository.countByRegionalIdAndStatus(regionalId, TransferStatus.PENDING);
@@ -272,11 +270,11 @@ public class TransferController {
     @PreAuthorize("hasRole('ADMIN_INSTITUTION')")
     @GetMapping("/institution/statistics")
     public ResponseEntity<TransferStatisticsResponse> getInstitutionTransferStatistics() {
-        var currentUser = authService.getCurrentUser();
-        if (currentUser.getInstitution() == null) {
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
+        if (currentUser.institutionId() == null) {
             throw new ResourceNotFoundException("User institution not found");
         }
-        Long institutionId = currentUser.getInstitution().getId();
+        Long institutionId = currentUser.institutionId();
         
         Long total = transferRepository.countByInstitutionId(institutionId);
         Long pending = transferRepository.countByInstitutionIdAndStatus(institutionId, TransferStatus.PENDING);
@@ -307,11 +305,11 @@ public class TransferController {
             @Parameter(description = "Page size", required = false)
             @RequestParam(defaultValue = "5") int size
     ) {
-        var currentUser = authService.getCurrentUser();
-        if (currentUser.getInstitution() == null) {
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
+        if (currentUser.institutionId() == null) {
             throw new ResourceNotFoundException("User institution not found");
         }
-        Long institutionId = currentUser.getInstitution().getId();
+        Long institutionId = currentUser.institutionId();
         
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "requestedAt"));
         Page<TransferEntity> transferPage = transferRepository.findAllByInstitutionId(institutionId, pageable);
@@ -344,11 +342,11 @@ public class TransferController {
     @PreAuthorize("hasRole('WAREHOUSE')")
     @GetMapping("/warehouse/statistics")
     public ResponseEntity<TransferStatisticsResponse> getWarehouseTransferStatistics() {
-        var currentUser = authService.getCurrentUser();
-        if (currentUser.getInstitution() == null) {
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
+        if (currentUser.institutionId() == null) {
             throw new ResourceNotFoundException("User institution not found");
         }
-        Long institutionId = currentUser.getInstitution().getId();
+        Long institutionId = currentUser.institutionId();
         
         Long total = transferRepository.countByInstitutionId(institutionId);
         Long pending = transferRepository.countByInstitutionIdAndStatus(institutionId, TransferStatus.PENDING);
@@ -375,41 +373,10 @@ public class TransferController {
     @Transactional(readOnly = true)
     public ResponseEntity<List<TransferSummaryResponse>> getTransfersFromMyInventories() {
         try {
-            var currentUser = authService.getCurrentUser();
-            Long userId = currentUser.getId();
+            Long userId = authService.getCurrentUserId();
             
-            // Get all inventories where user is owner, manager, or signatory
-            List<InventoryEntity> ownedInventories = userRepository.findInventoriesByOwnerId(userId);
-            List<InventoryEntity> managedInventories = userRepository.findManagedInventoriesByUserId(userId);
-            
-            // Get signatory inventories
-            UserEntity user = userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            List<InventoryEntity> signatoryInventories = user.getMySignatories();
-            if (signatoryInventories == null) {
-                signatoryInventories = List.of();
-            } else {
-                // Initialize the collection to avoid LazyInitializationException
-                signatoryInventories.size();
-            }
-            
-            // Combine all inventories and get unique IDs
-            Set<Long> inventoryIds = new HashSet<>();
-            ownedInventories.forEach(inv -> {
-                if (inv != null && inv.getId() != null) {
-                    inventoryIds.add(inv.getId());
-                }
-            });
-            managedInventories.forEach(inv -> {
-                if (inv != null && inv.getId() != null) {
-                    inventoryIds.add(inv.getId());
-                }
-            });
-            signatoryInventories.forEach(inv -> {
-                if (inv != null && inv.getId() != null) {
-                    inventoryIds.add(inv.getId());
-                }
-            });
+            // Inventarios donde el usuario es propietario, gestor o firmante (una consulta, cacheada por usuario)
+            Set<Long> inventoryIds = inventoryAccessService.getAccessibleInventoryIds(userId);
             
             // If no inventories, return empty list
             if (inventoryIds.isEmpty()) {
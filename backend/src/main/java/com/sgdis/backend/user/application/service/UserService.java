@@ -19,15 +19,18 @@ import com.sgdis.backend.inventory.infrastructure.entity.InventoryEntity;
 // Auditoría
 import com.sgdis.backend.auditory.application.port.in.RecordActionUseCase;
 import com.sgdis.backend.auditory.application.dto.RecordActionRequest;
+import com.sgdis.backend.auditory.domain.AuditActionType;
+import com.sgdis.backend.auditory.domain.AuditEntityType;
 // Regional
 import com.sgdis.backend.data.regional.entity.RegionalEntity;
 import com.sgdis.backend.data.regional.repositories.SpringDataRegionalRepository;
 // Auth
+import com.sgdis.backend.auth.application.dto.CurrentUser;
 import com.sgdis.backend.auth.application.service.AuthService;
 // Notificaciones
-import com.sgdis.backend.notification.service.NotificationService;
-import com.sgdis.backend.notification.service.NotificationPersistenceService;
+import com.sgdis.backend.notification.service.NotificationDispatcher;
 import com.sgdis.backend.notification.dto.NotificationMessage;
+import com.sgdis.backend.web.service.DashboardCounterService;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -40,8 +43,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -63,8 +68,8 @@ public class UserService implements
     private final PasswordEncoder passwordEncoder;
     private final RecordActionUseCase recordActionUseCase;
     private final AuthService authService;
-    private final NotificationService notificationService;
-    private final NotificationPersistenceService notificationPersistenceService;
+    private final NotificationDispatcher notificationDispatcher;
+    private final DashboardCounterService dashboardCounterService;
 
     private static final Pattern ALLOWED_EMAIL =
             Pattern.compile("^[A-Za-z0-9._%+-]+@(soy\\.sena\\.edu\\.co|sena\\.edu\\.co)$");
@@ -172,13 +177,13 @@ public class UserService implements
 
         // Validate that ADMIN_REGIONAL can only create users in their own regional
         try {
-            UserEntity currentUser = authService.getCurrentUser();
-            if (currentUser.getRole() == Role.ADMIN_REGIONAL) {
-                if (currentUser.getInstitution() == null || currentUser.getInstitution().getRegional() == null) {
+            CurrentUser currentUser = authService.getCurrentUserSnapshot();
+            if (currentUser.role() == Role.ADMIN_REGIONAL) {
+                if (currentUser.regionalId() == null) {
                     throw new DomainValidationException("El administrador regional no tiene una institución o regional asignada");
                 }
                 
-                Long currentUserRegionalId = currentUser.getInstitution().getRegional().getId();
+                Long currentUserRegionalId = currentUser.regionalId();
                 Long institutionRegionalId = institution.getRegional() != null ? institution.getRegional().getId() : null;
                 
                 if (institutionRegionalId == null || !institutionRegionalId.equals(currentUserRegionalId)) {
@@ -204,14 +209,18 @@ public class UserService implements
         }
         institutionRepository.save(institution);
         UserEntity saved = userRepository.save(user);
+        dashboardCounterService.refreshInstitution(institution.getId());
         
         // Enviar notificaciones a usuarios relacionados
         sendUserCreatedNotifications(saved);
         
         // Registrar auditoría
-        recordActionUseCase.recordAction(new RecordActionRequest(
-                String.format("Usuario creado: %s (%s) - Rol: %s", saved.getFullName(), saved.getEmail(), saved.getRole())
-        ));
+        recordActionUseCase.recordAction(RecordActionRequest.builder()
+                .action(String.format("Usuario creado: %s (%s) - Rol: %s", saved.getFullName(), saved.getEmail(), saved.getRole()))
+                .actionType(AuditActionType.CREATE)
+                .entityType(AuditEntityType.USER)
+                .entityId(saved.getId())
+                .build());
         
         return UserMapper.toResponse(saved);
     }
@@ -233,6 +242,7 @@ public class UserService implements
         String originalJobTitle = existingUser.getJobTitle();
         String originalLaborDepartment = existingUser.getLaborDepartment();
         String originalInstitutionName = existingUser.getInstitution() != null ? existingUser.getInstitution().getName() : null;
+        Long originalInstitutionId = existingUser.getInstitution() != null ? existingUser.getInstitution().getId() : null;
         
         if (currentUserId.equals(id) && updateUserRequest.status() != null && !updateUserRequest.status()) {
             throw new DomainValidationException("No puedes desactivar tu propio estado de usuario");
@@ -315,43 +325,68 @@ public class UserService implements
         
         // Reload to verify the institution was saved
         UserEntity reloaded = userRepository.findById(updated.getId()).orElse(updated);
+
+        // Los contadores por rol dependen del rol y la institución del usuario
+        Long newInstitutionId = reloaded.getInstitution() != null ? reloaded.getInstitution().getId() : null;
+        if (reloaded.getRole() != originalRole || !Objects.equals(originalInstitutionId, newInstitutionId)) {
+            List<Long> affectedInstitutionIds = new ArrayList<>();
+            if (originalInstitutionId != null) {
+                affectedInstitutionIds.add(originalInstitutionId);
+            }
+            if (newInstitutionId != null && !newInstitutionId.equals(originalInstitutionId)) {
+                affectedInstitutionIds.add(newInstitutionId);
+            }
+            dashboardCounterService.refreshInstitutions(affectedInstitutionIds);
+        }
         
         // Registrar auditoría - construir descripción de cambios usando valores originales
         StringBuilder changes = new StringBuilder();
+        Set<String> changedFields = new LinkedHashSet<>();
         if (updateUserRequest.fullName() != null && !updateUserRequest.fullName().equals(originalFullName)) {
             changes.append("Nombre actualizado | ");
+            changedFields.add("fullName");
         }
         if (updateUserRequest.email() != null && !updateUserRequest.email().equalsIgnoreCase(originalEmail)) {
             changes.append("Email actualizado | ");
+            changedFields.add("email");
         }
         if (updateUserRequest.role() != null) {
             Role newRole = Role.valueOf(updateUserRequest.role().toUpperCase());
             if (!newRole.equals(originalRole)) {
                 changes.append("Rol actualizado | ");
+                changedFields.add("role");
             }
         }
         if (updateUserRequest.status() != null && updateUserRequest.status() != originalStatus) {
             changes.append("Estado actualizado | ");
+            changedFields.add("status");
         }
         if (updateUserRequest.jobTitle() != null && (originalJobTitle == null || !updateUserRequest.jobTitle().equals(originalJobTitle))) {
             changes.append("Cargo actualizado | ");
+            changedFields.add("jobTitle");
         }
         if (updateUserRequest.laborDepartment() != null && (originalLaborDepartment == null || !updateUserRequest.laborDepartment().equals(originalLaborDepartment))) {
             changes.append("Departamento actualizado | ");
+            changedFields.add("laborDepartment");
         }
         if (institutionIdValue != null && institutionIdValue > 0 && reloaded.getInstitution() != null) {
             String newInstitution = reloaded.getInstitution().getName();
             String oldInstitution = originalInstitutionName != null ? originalInstitutionName : "N/A";
             if (!newInstitution.equals(oldInstitution)) {
                 changes.append("Institución actualizada | ");
+                changedFields.add("institution");
             }
         }
         
         String changesDescription = changes.length() > 0 ? changes.toString().substring(0, changes.length() - 3) : "Sin cambios";
         
-        recordActionUseCase.recordAction(new RecordActionRequest(
-                String.format("Usuario actualizado: %s (%s) - %s", reloaded.getFullName(), reloaded.getEmail(), changesDescription)
-        ));
+        recordActionUseCase.recordAction(RecordActionRequest.builder()
+                .action(String.format("Usuario actualizado: %s (%s) - %s", reloaded.getFullName(), reloaded.getEmail(), changesDescription))
+                .actionType(AuditActionType.UPDATE)
+                .entityType(AuditEntityType.USER)
+                .entityId(reloaded.getId())
+                .changedFields(changedFields)
+                .build());
         
         return UserMapper.toResponse(reloaded);
     }
@@ -386,12 +421,17 @@ public class UserService implements
             // Enviar notificaciones antes de eliminar el usuario
             sendUserDeletedNotifications(user);
             
+            Long institutionId = user.getInstitution() != null ? user.getInstitution().getId() : null;
             userRepository.deleteById(id);
+            dashboardCounterService.refreshInstitution(institutionId);
             
             // Registrar auditoría
-            recordActionUseCase.recordAction(new RecordActionRequest(
-                    String.format("Usuario eliminado: %s (%s)", userName, userEmail)
-            ));
+            recordActionUseCase.recordAction(RecordActionRequest.builder()
+                    .action(String.format("Usuario eliminado: %s (%s)", userName, userEmail))
+                    .actionType(AuditActionType.DELETE)
+                    .entityType(AuditEntityType.USER)
+                    .entityId(id)
+                    .build());
             
             return UserMapper.toResponse(user);
         } catch (Exception e) {
@@ -427,9 +467,12 @@ public class UserService implements
         userRepository.save(userEntity);
         
         // Registrar auditoría
-        recordActionUseCase.recordAction(new RecordActionRequest(
-                String.format("Contraseña restablecida: %s (%s)", userEntity.getFullName(), userEntity.getEmail())
-        ));
+        recordActionUseCase.recordAction(RecordActionRequest.builder()
+                .action(String.format("Contraseña restablecida: %s (%s)", userEntity.getFullName(), userEntity.getEmail()))
+                .actionType(AuditActionType.PASSWORD_RESET)
+                .entityType(AuditEntityType.USER)
+                .entityId(userEntity.getId())
+                .build());
         
         return new ChangePasswordResponse("Password changed successfully",userEntity.getFullName());
     }
@@ -445,8 +488,7 @@ public class UserService implements
      */
     private void sendUserCreatedNotifications(UserEntity user) {
         try {
-            UserEntity currentUser = authService.getCurrentUser();
-            Long currentUserId = currentUser.getId();
+            Long currentUserId = authService.getCurrentUserId();
             
             // Usar un Set para evitar duplicados
             Set<Long> userIdsToNotify = new HashSet<>();
@@ -494,24 +536,7 @@ public class UserService implements
             );
             
             // Enviar notificaciones a todos los usuarios
-            for (Long userId : userIdsToNotify) {
-                try {
-                    // Guardar en base de datos
-                    notificationPersistenceService.saveNotification(
-                            userId,
-                            "USER_CREATED",
-                            "Nuevo Usuario Creado",
-                            message,
-                            new UserNotificationData(user.getId(), userName, userEmail, userRole, institutionName)
-                    );
-                    
-                    // Enviar por WebSocket
-                    notificationService.sendNotificationToUser(userId, notification);
-                } catch (Exception e) {
-                    // Log error pero continuar con otros usuarios
-                    // El log se maneja en NotificationService
-                }
-            }
+            notificationDispatcher.dispatch(userIdsToNotify, notification);
         } catch (Exception e) {
             // Log error pero no fallar la creación del usuario
             // El sistema de notificaciones no debe bloquear la creación
@@ -529,8 +554,7 @@ public class UserService implements
      */
     private void sendUserDeletedNotifications(UserEntity user) {
         try {
-            UserEntity currentUser = authService.getCurrentUser();
-            Long currentUserId = currentUser.getId();
+            Long currentUserId = authService.getCurrentUserId();
             
             // Usar un Set para evitar duplicados
             Set<Long> userIdsToNotify = new HashSet<>();
@@ -577,24 +601,7 @@ public class UserService implements
             );
             
             // Enviar notificaciones a todos los usuarios
-            for (Long userId : userIdsToNotify) {
-                try {
-                    // Guardar en base de datos
-                    notificationPersistenceService.saveNotification(
-                            userId,
-                            "USER_DELETED",
-                            "Usuario Eliminado",
-                            message,
-                            new UserNotificationData(user.getId(), userName, userEmail, userRole, institutionName)
-                    );
-                    
-                    // Enviar por WebSocket
-                    notificationService.sendNotificationToUser(userId, notification);
-                } catch (Exception e) {
-                    // Log error pero continuar con otros usuarios
-                    // El log se maneja en NotificationService
-                }
-            }
+            notificationDispatcher.dispatch(userIdsToNotify, notification);
         } catch (Exception e) {
             // Log error pero no fallar la eliminación del usuario
             // El sistema de notificaciones no debe bloquear la eliminación
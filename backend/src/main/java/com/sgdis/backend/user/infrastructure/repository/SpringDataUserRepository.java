@@ -1,5 +1,6 @@
 package com.sgdis.backend.user.infrastructure.repository;
 
+import com.sgdis.backend.auth.application.dto.CurrentUser;
 import com.sgdis.backend.institution.infrastructure.entity.InstitutionEntity;
 import com.sgdis.backend.inventory.infrastructure.entity.InventoryEntity;
 import com.sgdis.backend.user.domain.Role;
@@ -19,6 +20,12 @@ public interface SpringDataUserRepository extends JpaRepository<UserEntity, Long
 
     @Query("SELECT i FROM InventoryEntity i WHERE i.owner.id = :userId")
     List<InventoryEntity> findInventoriesByOwnerId(Long userId);
+
+    // IDs de los inventarios donde el usuario es propietario, gestor o firmante, en una sola consulta
+    @Query("SELECT i.id FROM InventoryEntity i WHERE i.owner.id = :userId " +
+           "UNION SELECT i.id FROM InventoryEntity i JOIN i.managers m WHERE m.id = :userId " +
+           "UNION SELECT i.id FROM UserEntity u JOIN u.mySignatories i WHERE u.id = :userId")
+    List<Long> findAccessibleInventoryIds(@Param("userId") Long userId);
     
     @Query("SELECT u FROM UserEntity u WHERE u.institution = :institution AND u.role != :role1 AND u.role != :role2")
     List<UserEntity> findByInstitutionExcludingRoles(
@@ -56,6 +63,10 @@ public interface SpringDataUserRepository extends JpaRepository<UserEntity, Long
     
     @Query("SELECT u FROM UserEntity u LEFT JOIN FETCH u.institution WHERE u.id = :userId")
     Optional<UserEntity> findByIdWithInstitution(@Param("userId") Long userId);
+
+    @Query("SELECT new com.sgdis.backend.auth.application.dto.CurrentUser(u.id, u.role, i.id, r.id) " +
+           "FROM UserEntity u LEFT JOIN u.institution i LEFT JOIN i.regional r WHERE u.id = :userId")
+    Optional<CurrentUser> findCurrentUser(@Param("userId") Long userId);
     
     // Institution statistics queries
     @Query("SELECT COUNT(u) FROM UserEntity u WHERE u.institution.id = :institutionId AND u.role != :excludedRole")
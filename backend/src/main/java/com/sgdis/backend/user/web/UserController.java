@@ -1,5 +1,6 @@
 package com.sgdis.backend.user.web;
 
+import com.sgdis.backend.auth.application.dto.CurrentUser;
 import com.sgdis.backend.auth.application.service.AuthService;
 import com.sgdis.backend.exception.ResourceNotFoundException;
 import com.sgdis.backend.loan.application.dto.LoanResponse;
@@ -16,9 +17,10 @@ import com.sgdis.backend.user.infrastructure.repository.SpringDataUserRepository
 import com.sgdis.backend.exception.userExceptions.UserNotFoundException;
 import com.sgdis.backend.inventory.application.dto.InventoryResponse;
 import com.sgdis.backend.inventory.infrastructure.entity.InventoryEntity;
-import com.sgdis.backend.inventory.infrastructure.repository.SpringDataInventoryRepository;
 import com.sgdis.backend.inventory.mapper.InventoryMapper;
-import com.sgdis.backend.item.infrastructure.repository.SpringDataItemRepository;
+import com.sgdis.backend.web.dto.StatisticsScope;
+import com.sgdis.backend.web.repository.projection.ScopedStatistics;
+import com.sgdis.backend.web.service.DashboardCounterService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -60,8 +62,7 @@ public class UserController {
     private final AuthService authService;
     private final GetMyLoansUseCase getMyLoansUseCase;
     private final LoanService loanService;
-    private final SpringDataInventoryRepository inventoryRepository;
-    private final SpringDataItemRepository itemRepository;
+    private final DashboardCounterService dashboardCounterService;
 
     @Operation(
             summary = "Get user by ID",
@@ -400,14 +401,14 @@ public class UserController {
     public PagedUserResponse getUsersByRegional(
             @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "6") int size) {
-        UserEntity currentUser = authService.getCurrentUser();
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
         
-        if (currentUser.getInstitution() == null || currentUser.getInstitution().getRegional() == null) {
+        if (currentUser.regionalId() == null) {
             throw new ResourceNotFoundException("Current user does not have an institution or regional assigned");
         }
         
-        Long regionalId = currentUser.getInstitution().getRegional().getId();
-        Long currentUserId = currentUser.getId();
+        Long regionalId = currentUser.regionalId();
+        Long currentUserId = currentUser.id();
         
         Pageable pageable = PageRequest.of(page, size);
         org.springframework.data.domain.Page<UserEntity> userPage = userRepository.findByRegionalExcludingRoleAndCurrentUser(
@@ -446,20 +447,15 @@ public class UserController {
     @PreAuthorize("hasRole('SUPERADMIN')")
     @GetMapping("/statistics")
     public UserStatisticsResponse getUserStatistics() {
-        long totalUsers = userRepository.count();
-        long superadminCount = userRepository.countByRole(Role.SUPERADMIN);
-        long adminInstitutionCount = userRepository.countByRole(Role.ADMIN_INSTITUTION);
-        long adminRegionalCount = userRepository.countByRole(Role.ADMIN_REGIONAL);
-        long warehouseCount = userRepository.countByRole(Role.WAREHOUSE);
-        long userCount = userRepository.countByRole(Role.USER);
+        ScopedStatistics stats = dashboardCounterService.getStatistics(StatisticsScope.global());
 
         return UserStatisticsResponse.builder()
-                .totalUsers(totalUsers)
-                .superadminCount(superadminCount)
-                .adminInstitutionCount(adminInstitutionCount)
-                .adminRegionalCount(adminRegionalCount)
-                .warehouseCount(warehouseCount)
-                .userCount(userCount)
+                .totalUsers(stats.getTotalUsers())
+                .superadminCount(stats.getSuperadminCount())
+                .adminInstitutionCount(stats.getAdminInstitutionCount())
+                .adminRegionalCount(stats.getAdminRegionalCount())
+                .warehouseCount(stats.getWarehouseCount())
+                .userCount(stats.getUserCount())
                 .build();
     }
 
@@ -477,28 +473,23 @@ public class UserController {
     @PreAuthorize("hasRole('ADMIN_REGIONAL')")
     @GetMapping("/regional/statistics")
     public UserStatisticsResponse getRegionalUserStatistics() {
-        UserEntity currentUser = authService.getCurrentUser();
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
         
-        if (currentUser.getInstitution() == null || currentUser.getInstitution().getRegional() == null) {
+        if (currentUser.regionalId() == null) {
             throw new ResourceNotFoundException("Current user does not have an institution or regional assigned");
         }
         
-        Long regionalId = currentUser.getInstitution().getRegional().getId();
+        Long regionalId = currentUser.regionalId();
+        ScopedStatistics stats = dashboardCounterService.getStatistics(StatisticsScope.regional(regionalId));
         
         // Count users by role in the regional (excluding SUPERADMIN)
-        long totalUsers = userRepository.countByRegionalIdExcludingRole(regionalId, Role.SUPERADMIN);
-        long adminInstitutionCount = userRepository.countByRegionalIdAndRole(regionalId, Role.ADMIN_INSTITUTION);
-        long adminRegionalCount = userRepository.countByRegionalIdAndRole(regionalId, Role.ADMIN_REGIONAL);
-        long warehouseCount = userRepository.countByRegionalIdAndRole(regionalId, Role.WAREHOUSE);
-        long userCount = userRepository.countByRegionalIdAndRole(regionalId, Role.USER);
-        
         return UserStatisticsResponse.builder()
-                .totalUsers(totalUsers)
+                .totalUsers(stats.getTotalUsers() - stats.getSuperadminCount())
                 .superadminCount(0L) // Always 0 for regional statistics
-                .adminInstitutionCount(adminInstitutionCount)
-                .adminRegionalCount(adminRegionalCount)
-                .warehouseCount(warehouseCount)
-                .userCount(userCount)
+                .adminInstitutionCount(stats.getAdminInstitutionCount())
+                .adminRegionalCount(stats.getAdminRegionalCount())
+                .warehouseCount(stats.getWarehouseCount())
+                .userCount(stats.getUserCount())
                 .build();
     }
 
@@ -516,27 +507,23 @@ public class UserController {
     @PreAuthorize("hasRole('ADMIN_INSTITUTION')")
     @GetMapping("/institution/statistics")
     public UserStatisticsResponse getInstitutionUserStatistics() {
-        UserEntity currentUser = authService.getCurrentUser();
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
         
-        if (currentUser.getInstitution() == null) {
+        if (currentUser.institutionId() == null) {
             throw new ResourceNotFoundException("Current user does not have an institution assigned");
         }
         
-        Long institutionId = currentUser.getInstitution().getId();
+        Long institutionId = currentUser.institutionId();
+        ScopedStatistics stats = dashboardCounterService.getStatistics(StatisticsScope.institution(institutionId));
         
         // Count users by role in the institution (excluding SUPERADMIN and ADMIN_REGIONAL)
-        long totalUsers = userRepository.countByInstitutionIdExcludingRole(institutionId, Role.SUPERADMIN);
-        long adminInstitutionCount = userRepository.countByInstitutionIdAndRole(institutionId, Role.ADMIN_INSTITUTION);
-        long warehouseCount = userRepository.countByInstitutionIdAndRole(institutionId, Role.WAREHOUSE);
-        long userCount = userRepository.countByInstitutionIdAndRole(institutionId, Role.USER);
-        
         return UserStatisticsResponse.builder()
-                .totalUsers(totalUsers)
+                .totalUsers(stats.getTotalUsers() - stats.getSuperadminCount())
                 .superadminCount(0L) // Always 0 for institution statistics
-                .adminInstitutionCount(adminInstitutionCount)
+                .adminInstitutionCount(stats.getAdminInstitutionCount())
                 .adminRegionalCount(0L) // Always 0 for institution statistics
-                .warehouseCount(warehouseCount)
-                .userCount(userCount)
+                .warehouseCount(stats.getWarehouseCount())
+                .userCount(stats.getUserCount())
                 .build();
     }
 
@@ -554,39 +541,24 @@ public class UserController {
     @PreAuthorize("hasRole('WAREHOUSE')")
     @GetMapping("/warehouse/statistics")
     public WarehouseStatisticsResponse getWarehouseStatistics() {
-        UserEntity currentUser = authService.getCurrentUser();
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
         
-        if (currentUser.getInstitution() == null) {
+        if (currentUser.institutionId() == null) {
             throw new ResourceNotFoundException("Current user does not have an institution assigned");
         }
         
-        Long institutionId = currentUser.getInstitution().getId();
-        
-        // User statistics
-        long totalUsers = userRepository.countByInstitutionIdExcludingRole(institutionId, Role.SUPERADMIN);
-        long warehouseManagersCount = userRepository.countByInstitutionIdAndRole(institutionId, Role.WAREHOUSE);
-        long systemUsersCount = userRepository.countByInstitutionIdAndRole(institutionId, Role.USER);
-        
-        // Inventory statistics
-        long totalInventories = inventoryRepository.countByInstitutionId(institutionId);
-        long activeInventories = inventoryRepository.countByInstitutionIdAndStatus(institutionId, true);
-        long inactiveInventories = inventoryRepository.countByInstitutionIdAndStatus(institutionId, false);
-        Double totalValue = inventoryRepository.sumTotalPriceByInstitutionId(institutionId);
-        long totalItems = itemRepository.countByInstitutionId(institutionId);
-        
-        if (totalValue == null) {
-            totalValue = 0.0;
-        }
+        Long institutionId = currentUser.institutionId();
+        ScopedStatistics stats = dashboardCounterService.getStatistics(StatisticsScope.institution(institutionId));
         
         return WarehouseStatisticsResponse.builder()
-                .totalUsers(totalUsers)
-                .warehouseManagersCount(warehouseManagersCount)
-                .systemUsersCount(systemUsersCount)
-                .totalInventories(totalInventories)
-                .activeInventories(activeInventories)
-                .inactiveInventories(inactiveInventories)
-                .totalItems(totalItems)
-                .totalValue(totalValue)
+                .totalUsers(stats.getTotalUsers() - stats.getSuperadminCount())
+                .warehouseManagersCount(stats.getWarehouseCount())
+                .systemUsersCount(stats.getUserCount())
+                .totalInventories(stats.getTotalInventories())
+                .activeInventories(stats.getActiveInventories())
+                .inactiveInventories(stats.getInactiveInventories())
+                .totalItems(stats.getTotalItems())
+                .totalValue(stats.getInventoriesValue())
                 .build();
     }
 
@@ -0,0 +1,31 @@
+package com.sgdis.backend.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Utilidad para calcular ETags fuertes a partir del contenido de una respuesta.
+ */
+public final class ETagUtils {
+
+    private ETagUtils() {
+        // Clase de utilidad, no debe ser instanciada
+    }
+
+    /**
+     * ETag fuerte (entre comillas) con los primeros 128 bits del SHA-256 del JSON del valor:
+     * dos valores con el mismo JSON tienen el mismo ETag.
+     */
+    public static String strongETag(ObjectMapper objectMapper, Object value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(value));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Error al calcular el ETag", e);
+        }
+    }
+}
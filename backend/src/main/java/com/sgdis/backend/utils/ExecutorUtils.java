@@ -0,0 +1,40 @@
+package com.sgdis.backend.utils;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Pools de hilos propios de los servicios que procesan trabajo en segundo plano.
+ * No se registran como beans para no desplazar el executor por defecto de Spring Boot;
+ * cada servicio crea su pool al iniciar y lo cierra al destruirse.
+ */
+public final class ExecutorUtils {
+
+    private ExecutorUtils() {
+        // Clase de utilidad, no debe ser instanciada
+    }
+
+    /**
+     * Crea e inicializa un pool con una cantidad fija de hilos y una cola acotada.
+     * Cuando la cola está llena, {@code execute} lanza {@link org.springframework.core.task.TaskRejectedException}.
+     *
+     * @param threadNamePrefix prefijo del nombre de los hilos
+     * @param threads cantidad de hilos
+     * @param queueCapacity capacidad de la cola de tareas pendientes
+     */
+    public static ThreadPoolTaskExecutor fixedPool(String threadNamePrefix, int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Crea e inicializa un pool con una cantidad fija de hilos; las tareas que exceden los hilos esperan en cola.
+     */
+    public static ThreadPoolTaskExecutor fixedPool(String threadNamePrefix, int threads) {
+        return fixedPool(threadNamePrefix, threads, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,55 @@
+package com.sgdis.backend.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utilidad para diferir trabajo hasta que la transacción actual se confirme.
+ */
+public final class TransactionUtils {
+
+    private TransactionUtils() {
+        // Clase de utilidad, no debe ser instanciada
+    }
+
+    /**
+     * Ejecuta la acción tras el commit de la transacción actual, o de inmediato si no hay transacción activa.
+     * Si la transacción se revierte la acción no se ejecuta.
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Ejecuta {@code onCommit} tras el commit de la transacción actual u {@code onRollback} si se revierte.
+     * Sin transacción activa ejecuta {@code onCommit} de inmediato.
+     */
+    public static void afterCompletion(Runnable onCommit, Runnable onRollback) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    onCommit.run();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        onRollback.run();
+                    }
+                }
+            });
+        } else {
+            onCommit.run();
+        }
+    }
+}
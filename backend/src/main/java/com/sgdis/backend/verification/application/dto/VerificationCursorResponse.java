@@ -0,0 +1,26 @@
+package com.sgdis.backend.verification.application.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Keyset-paginated verifications response")
+public class VerificationCursorResponse {
+
+    @Schema(description = "Verifications, newest first")
+    private List<VerificationResponse> verifications;
+
+    @Schema(description = "Whether there are more verifications after this page")
+    private boolean hasMore;
+
+    @Schema(description = "Cursor for the next page: pass as afterId (null when there are no more verifications)")
+    private Long nextId;
+}
@@ -0,0 +1,5 @@
+package com.sgdis.backend.verification.application.port.in;
+
+public interface DeleteVerificationEvidenceUseCase {
+    boolean deleteEvidence(Long verificationId);
+}
@@ -0,0 +1,7 @@
+package com.sgdis.backend.verification.application.port.in;
+
+import com.sgdis.backend.verification.application.dto.VerificationCursorResponse;
+
+public interface ListVerificationsByCursorUseCase {
+    VerificationCursorResponse listVerifications(Long afterId, int size);
+}
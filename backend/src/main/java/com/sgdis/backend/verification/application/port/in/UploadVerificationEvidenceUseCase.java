@@ -0,0 +1,9 @@
+package com.sgdis.backend.verification.application.port.in;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+public interface UploadVerificationEvidenceUseCase {
+    String uploadEvidence(Long verificationId, MultipartFile file) throws IOException;
+}
@@ -1,8 +1,10 @@
 package com.sgdis.backend.verification.application.service;
 
+import com.sgdis.backend.auth.application.dto.CurrentUser;
 import com.sgdis.backend.auth.application.service.AuthService;
 import com.sgdis.backend.exception.DomainValidationException;
 import com.sgdis.backend.exception.ResourceNotFoundException;
+import com.sgdis.backend.institution.infrastructure.entity.InstitutionEntity;
 import com.sgdis.backend.inventory.infrastructure.entity.InventoryEntity;
 import com.sgdis.backend.inventory.infrastructure.repository.SpringDataInventoryRepository;
 import com.sgdis.backend.item.domain.Attribute;
@@ -10,7 +12,6 @@ import com.sgdis.backend.item.infrastructure.entity.ItemEntity;
 import com.sgdis.backend.item.infrastructure.repository.SpringDataItemRepository;
 import com.sgdis.backend.user.domain.Role;
 import com.sgdis.backend.user.infrastructure.entity.UserEntity;
-import com.sgdis.backend.user.infrastructure.repository.SpringDataUserRepository;
 import com.sgdis.backend.file.service.FileUploadService;
 import com.sgdis.backend.verification.application.dto.BatchVerificationItemRequest;
 import com.sgdis.backend.verification.application.dto.BatchVerificationItemResponse;
@@ -19,22 +20,29 @@ import com.sgdis.backend.verification.application.dto.CreateVerificationByLicenc
 import com.sgdis.backend.verification.application.dto.CreateVerificationBySerialRequest;
 import com.sgdis.backend.verification.application.dto.CreateVerificationResponse;
 import com.sgdis.backend.verification.application.dto.LatestVerificationResponse;
+import com.sgdis.backend.verification.application.dto.VerificationCursorResponse;
 import com.sgdis.backend.verification.application.dto.VerificationResponse;
 import com.sgdis.backend.verification.application.port.in.CreateBatchVerificationUseCase;
 import com.sgdis.backend.verification.application.port.in.CreateVerificationByLicencePlateNumberUseCase;
 import com.sgdis.backend.verification.application.port.in.CreateVerificationBySerialUseCase;
+import com.sgdis.backend.verification.application.port.in.DeleteVerificationEvidenceUseCase;
 import com.sgdis.backend.verification.application.port.in.GetItemVerificationsUseCase;
 import com.sgdis.backend.verification.application.port.in.GetLatestInventoryVerificationsUseCase;
 import com.sgdis.backend.verification.application.port.in.GetVerificationsByItemUseCase;
+import com.sgdis.backend.verification.application.port.in.ListVerificationsByCursorUseCase;
+import com.sgdis.backend.verification.application.port.in.UploadVerificationEvidenceUseCase;
 import com.sgdis.backend.verification.infrastructure.entity.VerificationEntity;
 import com.sgdis.backend.verification.infrastructure.repository.SpringDataVerificationRepository;
 import com.sgdis.backend.verification.mapper.VerificationMapper;
 import com.sgdis.backend.cancellation.infrastructure.repository.SpringDataCancellationRepository;
+import com.sgdis.backend.web.dto.CounterDelta;
+import com.sgdis.backend.web.service.DashboardCounterService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -49,15 +57,20 @@ public class VerificationService implements
         CreateBatchVerificationUseCase,
         GetVerificationsByItemUseCase,
         GetItemVerificationsUseCase,
-        GetLatestInventoryVerificationsUseCase {
+        GetLatestInventoryVerificationsUseCase,
+        UploadVerificationEvidenceUseCase,
+        DeleteVerificationEvidenceUseCase,
+        ListVerificationsByCursorUseCase {
+
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
 
     private final AuthService authService;
     private final SpringDataVerificationRepository verificationRepository;
     private final SpringDataItemRepository itemRepository;
     private final SpringDataInventoryRepository inventoryRepository;
-    private final SpringDataUserRepository userRepository;
     private final SpringDataCancellationRepository cancellationRepository;
     private final FileUploadService fileUploadService;
+    private final DashboardCounterService dashboardCounterService;
 
     @Override
     @Transactional
@@ -90,6 +103,7 @@ public class VerificationService implements
 
         // Guardar la verificación
         VerificationEntity savedVerification = verificationRepository.save(verification);
+        recordVerificationCounters(item, false);
 
         return new CreateVerificationResponse(
                 savedVerification.getId(),
@@ -128,6 +142,7 @@ public class VerificationService implements
 
         // Guardar la verificación
         VerificationEntity savedVerification = verificationRepository.save(verification);
+        recordVerificationCounters(item, false);
 
         return new CreateVerificationResponse(
                 savedVerification.getId(),
@@ -213,55 +228,19 @@ public class VerificationService implements
             return;
         }
 
-        // Verificar si el usuario es WAREHOUSE y pertenece a la misma institución que el inventario
-        if (user.getRole() == Role.WAREHOUSE) {
-            // Load user with institution to avoid LazyInitializationException
-            UserEntity userWithInstitution = userRepository.findByIdWithInstitution(user.getId())
-                    .orElse(user);
-            
-            // The inventory should already have its institution loaded from the item query
-            // But if it's null, try to access it (will trigger lazy load if in transaction)
-            if (userWithInstitution.getInstitution() != null && inventory.getInstitution() != null) {
-                if (userWithInstitution.getInstitution().getId().equals(inventory.getInstitution().getId())) {
-                    return;
-                }
-            }
-        }
-
-        // Verificar si el usuario es ADMIN_INSTITUTION y pertenece a la misma institución que el inventario
-        if (user.getRole() == Role.ADMIN_INSTITUTION) {
-            // Load user with institution to avoid LazyInitializationException
-            UserEntity userWithInstitution = userRepository.findByIdWithInstitution(user.getId())
-                    .orElse(user);
-            
-            // The inventory should already have its institution loaded from the item query
-            // But if it's null, try to access it (will trigger lazy load if in transaction)
-            if (userWithInstitution.getInstitution() != null && inventory.getInstitution() != null) {
-                if (userWithInstitution.getInstitution().getId().equals(inventory.getInstitution().getId())) {
-                    return;
-                }
-            }
-        }
-
-        // Verificar si el usuario es ADMIN_REGIONAL y pertenece a la misma regional que el inventario
-        if (user.getRole() == Role.ADMIN_REGIONAL) {
-            // Load user with institution to get regional
-            UserEntity userWithInstitution = userRepository.findByIdWithInstitution(user.getId())
-                    .orElse(user);
-            
-            // Get user's regional from their institution
-            if (userWithInstitution.getInstitution() != null && 
-                userWithInstitution.getInstitution().getRegional() != null) {
-                Long userRegionalId = userWithInstitution.getInstitution().getRegional().getId();
-                
-                // Get inventory's regional (through institution)
-                if (inventory.getInstitution() != null && 
-                    inventory.getInstitution().getRegional() != null) {
-                    Long inventoryRegionalId = inventory.getInstitution().getRegional().getId();
-                    
-                    if (userRegionalId.equals(inventoryRegionalId)) {
+        // WAREHOUSE y ADMIN_INSTITUTION: misma institución que el inventario; ADMIN_REGIONAL: misma regional.
+        // La institución y la regional del usuario se cargan una sola vez por petición
+        if (user.getRole() == Role.WAREHOUSE || user.getRole() == Role.ADMIN_INSTITUTION || user.getRole() == Role.ADMIN_REGIONAL) {
+            CurrentUser scope = authService.getCurrentUserSnapshot();
+            InstitutionEntity inventoryInstitution = inventory.getInstitution();
+            if (inventoryInstitution != null) {
+                if (user.getRole() == Role.ADMIN_REGIONAL) {
+                    if (scope.regionalId() != null && inventoryInstitution.getRegional() != null
+                            && scope.regionalId().equals(inventoryInstitution.getRegional().getId())) {
                         return;
                     }
+                } else if (scope.institutionId() != null && scope.institutionId().equals(inventoryInstitution.getId())) {
+                    return;
                 }
             }
         }
@@ -312,6 +291,7 @@ public class VerificationService implements
 
                 // Guardar la verificación primero para obtener el ID
                 VerificationEntity savedVerification = verificationRepository.save(verification);
+                recordVerificationCounters(item, false);
 
                 // Si hay una foto, guardarla (solo una foto por verificación)
                 if (itemRequest.photo() != null && !itemRequest.photo().isEmpty()) {
@@ -324,6 +304,7 @@ public class VerificationService implements
                         );
                         savedVerification.setPhotoUrl(fileUrl);
                         verificationRepository.save(savedVerification);
+                        recordVerificationCounters(item, true);
                     } catch (IOException e) {
                         // Si falla al guardar la foto, continuar pero registrar el error
                         results.add(new BatchVerificationItemResponse(
@@ -386,6 +367,75 @@ public class VerificationService implements
         );
     }
 
+    /**
+     * Guarda la evidencia de una verificación (solo una foto por verificación; reemplaza la anterior)
+     * y, si es la primera, la cuenta en los dashboards en la misma transacción.
+     *
+     * @return URL del archivo guardado
+     */
+    @Override
+    @Transactional
+    public String uploadEvidence(Long verificationId, MultipartFile file) throws IOException {
+        VerificationEntity verification = verificationRepository.findById(verificationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Verification not found"));
+
+        if (verification.getItem() == null) {
+            throw new DomainValidationException("Verification does not have an associated item");
+        }
+        String licencePlateNumber = verification.getItem().getLicencePlateNumber();
+        if (licencePlateNumber == null || licencePlateNumber.trim().isEmpty()) {
+            throw new DomainValidationException("Item does not have a valid licence plate number");
+        }
+
+        // Si ya hay una foto, eliminar la anterior antes de guardar la nueva
+        boolean hadEvidence = verification.getPhotoUrl() != null && !verification.getPhotoUrl().isEmpty();
+        if (hadEvidence) {
+            try {
+                fileUploadService.deleteFile(verification.getPhotoUrl());
+            } catch (IOException e) {
+                // Se continúa con la nueva subida
+            }
+        }
+
+        String fileUrl = fileUploadService.saveVerificationFile(file, licencePlateNumber, verificationId, 0);
+        verification.setPhotoUrl(fileUrl);
+        verificationRepository.save(verification);
+        if (!hadEvidence) {
+            recordVerificationCounters(verification.getItem(), true);
+        }
+        return fileUrl;
+    }
+
+    /**
+     * Elimina la evidencia de una verificación y la descuenta de los dashboards en la misma transacción.
+     *
+     * @return false si la verificación no tenía evidencia
+     */
+    @Override
+    @Transactional
+    public boolean deleteEvidence(Long verificationId) {
+        VerificationEntity verification = verificationRepository.findById(verificationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Verification not found"));
+
+        if (verification.getPhotoUrl() == null || verification.getPhotoUrl().isEmpty()) {
+            return false;
+        }
+
+        try {
+            fileUploadService.deleteFile(verification.getPhotoUrl());
+        } catch (IOException e) {
+            // Se continúa quitando la URL de la base de datos
+        }
+
+        verification.setPhotoUrl(null);
+        verificationRepository.save(verification);
+        if (verification.getItem() != null && verification.getItem().getInventory() != null) {
+            dashboardCounterService.applyToInventory(verification.getItem().getInventory().getId(),
+                    CounterDelta.builder().verificationsWithEvidence(-1).build());
+        }
+        return true;
+    }
+
     /**
      * Valida la coherencia de la información del ítem antes de crear la verificación.
      */
@@ -400,5 +450,40 @@ public class VerificationService implements
             throw new DomainValidationException("Item must belong to an inventory");
         }
     }
-}
 
+    /**
+     * Actualiza los contadores de dashboards del inventario del ítem.
+     *
+     * @param evidence true si se registra la evidencia de una verificación ya contada
+     */
+    private void recordVerificationCounters(ItemEntity item, boolean evidence) {
+        if (item.getInventory() == null) {
+            return;
+        }
+        dashboardCounterService.applyToInventory(item.getInventory().getId(), evidence
+                ? CounterDelta.builder().verificationsWithEvidence(1).build()
+                : CounterDelta.builder().totalVerifications(1).build());
+    }
+
+    /**
+     * Página de verificaciones por keyset sobre el ID, de la más reciente a la más antigua.
+     * Se consulta un ID de más para saber si hay otra página sin contar la tabla.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public VerificationCursorResponse listVerifications(Long afterId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Long> ids = afterId != null
+                ? verificationRepository.findPageIdsAfter(afterId, limit)
+                : verificationRepository.findPageIds(limit);
+
+        boolean hasMore = ids.size() > pageSize;
+        List<Long> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+        return VerificationCursorResponse.builder()
+                .verifications(VerificationMapper.toDtoList(verificationRepository.findAllByIdInOrder(pageIds)))
+                .hasMore(hasMore)
+                .nextId(hasMore ? pageIds.get(pageIds.size() - 1) : null)
+                .build();
+    }
+}
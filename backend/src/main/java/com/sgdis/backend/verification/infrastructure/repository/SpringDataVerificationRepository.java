@@ -8,7 +8,12 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Repository
 public interface SpringDataVerificationRepository extends JpaRepository<VerificationEntity, Long> {
@@ -54,9 +59,30 @@ public interface SpringDataVerificationRepository extends JpaRepository<Verifica
     @Query("SELECT COUNT(v) FROM VerificationEntity v WHERE v.item.inventory.institution.regional.id = :regionalId AND v.photoUrl IS NOT NULL AND v.photoUrl != ''")
     long countWithEvidenceByRegionalId(@Param("regionalId") Long regionalId);
     
-    // Query to get all verifications with JOIN FETCH for loading relationships
-    @Query("SELECT DISTINCT v FROM VerificationEntity v JOIN FETCH v.item i JOIN FETCH i.inventory ORDER BY v.id DESC")
-    List<VerificationEntity> findAllWithJoins();
+    // Paginación por IDs: primero la página de IDs (offset o cursor), luego las relaciones de esos IDs
+    @Query("SELECT v.id FROM VerificationEntity v ORDER BY v.id DESC")
+    List<Long> findPageIds(Pageable pageable);
+
+    // Keyset: IDs menores que el cursor, sin recorrer las filas de las páginas anteriores
+    @Query("SELECT v.id FROM VerificationEntity v WHERE v.id < :afterId ORDER BY v.id DESC")
+    List<Long> findPageIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Carga las relaciones solo de los IDs de la página (sin orden garantizado)
+    @Query("SELECT v FROM VerificationEntity v LEFT JOIN FETCH v.item i LEFT JOIN FETCH i.inventory LEFT JOIN FETCH v.user WHERE v.id IN :ids")
+    List<VerificationEntity> findAllByIdInWithJoins(@Param("ids") List<Long> ids);
+
+    // Verificaciones de los IDs con sus relaciones, en el orden de la lista
+    default List<VerificationEntity> findAllByIdInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, VerificationEntity> verificationsById = findAllByIdInWithJoins(ids).stream()
+                .collect(Collectors.toMap(VerificationEntity::getId, Function.identity()));
+        return ids.stream()
+                .map(verificationsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
     
     // Institution queries for recent verifications
     @Query("SELECT v FROM VerificationEntity v JOIN FETCH v.item i JOIN FETCH i.inventory inv WHERE inv.institution.id = :institutionId ORDER BY v.createdAt DESC")
@@ -66,6 +92,16 @@ public interface SpringDataVerificationRepository extends JpaRepository<Verifica
     @Query("SELECT DISTINCT v FROM VerificationEntity v JOIN FETCH v.item i JOIN FETCH i.inventory inv WHERE inv.id IN :inventoryIds ORDER BY v.id DESC")
     Page<VerificationEntity> findAllByInventoryIds(@Param("inventoryIds") List<Long> inventoryIds, Pageable pageable);
     
+    // Verificaciones de los items (no dados de baja) de un conjunto de inventarios, en una sola consulta IN
+    @Query(value = "SELECT v FROM VerificationEntity v JOIN FETCH v.item i JOIN FETCH i.inventory inv " +
+                   "WHERE inv.id IN :inventoryIds AND " + ITEM_NOT_CANCELLED + " ORDER BY v.id DESC",
+           countQuery = "SELECT COUNT(v) FROM VerificationEntity v JOIN v.item i " +
+                        "WHERE i.inventory.id IN :inventoryIds AND " + ITEM_NOT_CANCELLED)
+    Page<VerificationEntity> findAllActiveItemsByInventoryIds(@Param("inventoryIds") Collection<Long> inventoryIds, Pageable pageable);
+
+    String ITEM_NOT_CANCELLED = "NOT EXISTS (SELECT 1 FROM com.sgdis.backend.cancellation.infrastructure.entity.CancellationEntity c " +
+            "JOIN c.items ci WHERE ci.id = i.id AND c.approved = true AND c.refusedAt IS NULL)";
+
     // Query to get verifications by item IDs
     @Query("SELECT DISTINCT v FROM VerificationEntity v JOIN FETCH v.item i JOIN FETCH i.inventory WHERE i.id IN :itemIds ORDER BY v.id DESC")
     Page<VerificationEntity> findAllByItemIds(@Param("itemIds") List<Long> itemIds, Pageable pageable);
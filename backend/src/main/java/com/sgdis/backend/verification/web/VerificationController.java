@@ -1,7 +1,12 @@
 package com.sgdis.backend.verification.web;
 
+import com.sgdis.backend.exception.DomainValidationException;
 import com.sgdis.backend.exception.ResourceNotFoundException;
+import com.sgdis.backend.inventory.application.service.InventoryAccessService;
+import com.sgdis.backend.file.domain.ImageVariant;
 import com.sgdis.backend.file.service.FileUploadService;
+import com.sgdis.backend.file.service.ImageVariantService;
+import com.sgdis.backend.file.web.ImageVariantResourceResolver;
 import com.sgdis.backend.verification.application.dto.BatchVerificationItemRequest;
 import com.sgdis.backend.verification.application.dto.CreateBatchVerificationResponse;
 import com.sgdis.backend.verification.application.dto.CreateVerificationByLicencePlateNumberRequest;
@@ -9,22 +14,25 @@ import com.sgdis.backend.verification.application.dto.CreateVerificationBySerial
 import com.sgdis.backend.verification.application.dto.CreateVerificationResponse;
 import com.sgdis.backend.verification.application.dto.LatestVerificationResponse;
 import com.sgdis.backend.verification.application.dto.UploadEvidenceResponse;
+import com.sgdis.backend.verification.application.dto.VerificationCursorResponse;
 import com.sgdis.backend.verification.application.dto.VerificationResponse;
 import com.sgdis.backend.verification.application.dto.VerificationStatisticsResponse;
+import com.sgdis.backend.auth.application.dto.CurrentUser;
 import com.sgdis.backend.auth.application.service.AuthService;
 import com.sgdis.backend.verification.application.port.in.CreateBatchVerificationUseCase;
 import com.sgdis.backend.verification.application.port.in.CreateVerificationByLicencePlateNumberUseCase;
 import com.sgdis.backend.verification.application.port.in.CreateVerificationBySerialUseCase;
+import com.sgdis.backend.verification.application.port.in.DeleteVerificationEvidenceUseCase;
 import com.sgdis.backend.verification.application.port.in.GetLatestInventoryVerificationsUseCase;
 import com.sgdis.backend.verification.application.port.in.GetVerificationsByItemUseCase;
+import com.sgdis.backend.verification.application.port.in.ListVerificationsByCursorUseCase;
+import com.sgdis.backend.verification.application.port.in.UploadVerificationEvidenceUseCase;
 import com.sgdis.backend.verification.infrastructure.entity.VerificationEntity;
 import com.sgdis.backend.verification.infrastructure.repository.SpringDataVerificationRepository;
 import com.sgdis.backend.verification.mapper.VerificationMapper;
-import com.sgdis.backend.user.infrastructure.repository.SpringDataUserRepository;
-import com.sgdis.backend.inventory.infrastructure.entity.InventoryEntity;
-import com.sgdis.backend.user.infrastructure.entity.UserEntity;
-import com.sgdis.backend.item.infrastructure.repository.SpringDataItemRepository;
-import com.sgdis.backend.item.infrastructure.entity.ItemEntity;
+import com.sgdis.backend.web.dto.StatisticsScope;
+import com.sgdis.backend.web.repository.projection.ScopedStatistics;
+import com.sgdis.backend.web.service.DashboardCounterService;
 import org.springframework.transaction.annotation.Transactional;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.Operation;
@@ -58,6 +66,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequiredArgsConstructor
@@ -71,11 +80,15 @@ public class VerificationController {
     private final CreateBatchVerificationUseCase createBatchVerificationUseCase;
     private final GetVerificationsByItemUseCase getVerificationsByItemUseCase;
     private final GetLatestInventoryVerificationsUseCase getLatestInventoryVerificationsUseCase;
+    private final UploadVerificationEvidenceUseCase uploadVerificationEvidenceUseCase;
+    private final DeleteVerificationEvidenceUseCase deleteVerificationEvidenceUseCase;
+    private final ListVerificationsByCursorUseCase listVerificationsByCursorUseCase;
     private final SpringDataVerificationRepository verificationRepository;
     private final FileUploadService fileUploadService;
+    private final ImageVariantService imageVariantService;
+    private final DashboardCounterService dashboardCounterService;
     private final AuthService authService;
-    private final SpringDataUserRepository userRepository;
-    private final SpringDataItemRepository itemRepository;
+    private final InventoryAccessService inventoryAccessService;
 
     @Operation(
             summary = "Create verification by serial number",
@@ -265,54 +278,16 @@ public class VerificationController {
             @RequestPart("file") MultipartFile file
     ) {
         try {
-            VerificationEntity verification = verificationRepository.findById(verificationId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Verification not found"));
-
-            if (verification.getItem() == null) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(new UploadEvidenceResponse(
-                                "Verification does not have an associated item",
-                                null,
-                                verificationId
-                        ));
-            }
-
-            String licencePlateNumber = verification.getItem().getLicencePlateNumber();
-            if (licencePlateNumber == null || licencePlateNumber.trim().isEmpty()) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(new UploadEvidenceResponse(
-                                "Item does not have a valid licence plate number",
-                                null,
-                                verificationId
-                        ));
-            }
-
-            // Si ya hay una foto, eliminar la anterior antes de guardar la nueva
-            if (verification.getPhotoUrl() != null && !verification.getPhotoUrl().isEmpty()) {
-                try {
-                    fileUploadService.deleteFile(verification.getPhotoUrl());
-                } catch (IOException e) {
-                    // Log error but continue with new upload
-                }
-            }
-
-            // Guardar el archivo y obtener la URL (solo una foto por verificación)
-            String fileUrl = fileUploadService.saveVerificationFile(
-                    file,
-                    licencePlateNumber,
-                    verificationId,
-                    0 // Solo una foto, siempre índice 0
-            );
-
-            // Guardar la URL de la foto en la base de datos
-            verification.setPhotoUrl(fileUrl);
-            verificationRepository.save(verification);
+            String fileUrl = uploadVerificationEvidenceUseCase.uploadEvidence(verificationId, file);
 
             return ResponseEntity.ok(new UploadEvidenceResponse(
                     "Evidence file uploaded successfully and URL saved to database",
                     fileUrl,
                     verificationId
             ));
+        } catch (DomainValidationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new UploadEvidenceResponse(e.getMessage(), null, verificationId));
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new UploadEvidenceResponse(
@@ -332,7 +307,9 @@ public class VerificationController {
 
     @Operation(
             summary = "Download evidence file for a verification",
-            description = "Downloads the evidence file associated with a specific verification"
+            description = "Downloads the evidence file associated with a specific verification. " +
+                    "With variant=thumb or variant=medium a reduced JPEG of the photo is returned when it exists; " +
+                    "otherwise the original file is returned."
     )
     @ApiResponse(
             responseCode = "200",
@@ -342,7 +319,9 @@ public class VerificationController {
     @ApiResponse(responseCode = "401", description = "Not authenticated")
     @GetMapping("/{verificationId}/evidence")
     public ResponseEntity<Resource> downloadVerificationEvidence(
-            @PathVariable Long verificationId
+            @PathVariable Long verificationId,
+            @Parameter(description = "Reduced image variant: thumb or medium")
+            @RequestParam(name = ImageVariantResourceResolver.VARIANT_PARAM, required = false) String variant
     ) {
         try {
             VerificationEntity verification = verificationRepository.findById(verificationId)
@@ -354,6 +333,19 @@ public class VerificationController {
 
             String fileUrl = verification.getPhotoUrl();
 
+            // Variante reducida para las vistas previas, si ya fue generada
+            ImageVariant imageVariant = ImageVariant.fromParam(variant);
+            if (imageVariant != null) {
+                var variantPath = imageVariantService.resolve(fileUrl, imageVariant);
+                if (variantPath.isPresent()) {
+                    return ResponseEntity.ok()
+                            .contentType(MediaType.IMAGE_JPEG)
+                            .header(HttpHeaders.CONTENT_DISPOSITION,
+                                    "inline; filename=\"evidencia_" + verificationId + "_" + imageVariant.getParam() + ".jpg\"")
+                            .body(new FileSystemResource(variantPath.get()));
+                }
+            }
+
             // Construir la ruta del archivo usando el mismo patrón que CancellationService
             Path filePath;
             if (fileUrl != null && fileUrl.startsWith("/uploads/")) {
@@ -415,27 +407,11 @@ public class VerificationController {
             @PathVariable Long verificationId
     ) {
         try {
-            VerificationEntity verification = verificationRepository.findById(verificationId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Verification not found"));
-
-            if (verification.getPhotoUrl() == null || verification.getPhotoUrl().isEmpty()) {
+            if (!deleteVerificationEvidenceUseCase.deleteEvidence(verificationId)) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body("Verification has no evidence file");
             }
 
-            String fileUrl = verification.getPhotoUrl();
-
-            // Eliminar archivo físico
-            try {
-                fileUploadService.deleteFile(fileUrl);
-            } catch (IOException e) {
-                // Log error but continue with removing from database
-            }
-
-            // Remover la URL de la foto
-            verification.setPhotoUrl(null);
-            verificationRepository.save(verification);
-
             return ResponseEntity.ok("Evidence file deleted successfully");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -478,27 +454,36 @@ public class VerificationController {
         } else if (regionalId != null) {
             verificationPage = verificationRepository.findAllByRegionalId(regionalId, pageable);
         } else {
-            // Get all verifications with JOIN FETCH to load relationships
-            // First get total count
+            // Sin filtros: paginar primero los IDs en la base de datos y cargar relaciones solo para la página
             long totalCount = verificationRepository.countAll();
-            
-            // Then get all verifications with JOIN FETCH
-            List<VerificationEntity> allVerifications = verificationRepository.findAllWithJoins();
-            
-            // Apply pagination manually
-            int start = (int) pageable.getOffset();
-            int end = Math.min((start + pageable.getPageSize()), allVerifications.size());
-            List<VerificationEntity> paginatedVerifications = allVerifications.subList(start, end);
-            
-            // Create Page manually
-            verificationPage = new PageImpl<>(paginatedVerifications, pageable, totalCount);
+            List<Long> pageIds = verificationRepository.findPageIds(PageRequest.of(page, size));
+            verificationPage = new PageImpl<>(verificationRepository.findAllByIdInOrder(pageIds), pageable, totalCount);
         }
         
         Page<VerificationResponse> responsePage = verificationPage.map(VerificationMapper::toDto);
-        
         return ResponseEntity.ok(responsePage);
     }
 
+    @Operation(
+            summary = "List verifications by cursor",
+            description = "Keyset-paginated listing of every verification, newest first (Superadmin only). " +
+                    "Unlike the paged listing it does not count the table nor skip the rows of previous pages"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Verifications retrieved successfully",
+            content = @Content(schema = @Schema(implementation = VerificationCursorResponse.class))
+    )
+    @ApiResponse(responseCode = "403", description = "Access denied - SUPERADMIN role required")
+    @PreAuthorize("hasRole('SUPERADMIN')")
+    @GetMapping("/cursor")
+    public VerificationCursorResponse listVerificationsByCursor(
+            @Parameter(description = "Keyset cursor: nextId of the previous page") @RequestParam(required = false) Long afterId,
+            @Parameter(description = "Page size (max 100)") @RequestParam(defaultValue = "20") int size
+    ) {
+        return listVerificationsByCursorUseCase.listVerifications(afterId, size);
+    }
+
     @Operation(
             summary = "Get verifications by regional",
             description = "Retrieves all verifications from inventories belonging to institutions in the specified regional with pagination"
@@ -574,11 +559,11 @@ public class VerificationController {
             @Parameter(description = "Page size", required = false)
             @RequestParam(defaultValue = "10") int size
     ) {
-        var currentUser = authService.getCurrentUser();
-        if (currentUser.getInstitution() == null) {
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
+        if (currentUser.institutionId() == null) {
             throw new ResourceNotFoundException("User institution not found");
         }
-        Long institutionId = currentUser.getInstitution().getId();
+        Long institutionId = currentUser.institutionId();
         
         Pageable pageable = PageRequest.of(page, size);
         Page<VerificationEntity> verificationPage = verificationRepository.findAllByInstitutionId(institutionId, pageable);
@@ -606,84 +591,21 @@ public class VerificationController {
             @Parameter(description = "Page size", required = false)
             @RequestParam(defaultValue = "10") int size
     ) {
-        var currentUser = authService.getCurrentUser();
-        Long userId = currentUser.getId();
-        
-        // Get all inventories where user is owner, manager, or signatory
-        List<InventoryEntity> ownedInventories = userRepository.findInventoriesByOwnerId(userId);
-        List<InventoryEntity> managedInventories = userRepository.findManagedInventoriesByUserId(userId);
-        
-        // Get signatory inventories
-        UserEntity user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        List<InventoryEntity> signatoryInventories = user.getMySignatories();
-        if (signatoryInventories == null) {
-            signatoryInventories = List.of();
-        } else {
-            // Initialize the collection to avoid LazyInitializationException
-            signatoryInventories.size();
-        }
-        
-        // Combine all inventories and get unique IDs
-        List<Long> inventoryIds = new ArrayList<>();
-        ownedInventories.forEach(inv -> {
-            if (inv != null && inv.getId() != null) {
-                inventoryIds.add(inv.getId());
-            }
-        });
-        managedInventories.forEach(inv -> {
-            if (inv != null && inv.getId() != null && !inventoryIds.contains(inv.getId())) {
-                inventoryIds.add(inv.getId());
-            }
-        });
-        signatoryInventories.forEach(inv -> {
-            if (inv != null && inv.getId() != null && !inventoryIds.contains(inv.getId())) {
-                inventoryIds.add(inv.getId());
-            }
-        });
-        
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
+
+        // Inventarios donde el usuario es propietario, gestor o firmante (una consulta, cacheada por usuario)
+        Set<Long> inventoryIds = inventoryAccessService.getAccessibleInventoryIds(currentUser.id());
+
         // If no inventories, return empty page
         if (inventoryIds.isEmpty()) {
             Pageable pageable = PageRequest.of(page, size);
             return ResponseEntity.ok(new PageImpl<>(List.of(), pageable, 0));
         }
-        
-        // Step 1: Get all items from user's inventories
-        List<Long> itemIds = new ArrayList<>();
-        for (Long inventoryId : inventoryIds) {
-            try {
-                List<ItemEntity> items = itemRepository.findAllByInventoryId(inventoryId);
-                if (items != null) {
-                    System.out.println("Found " + items.size() + " items in inventory " + inventoryId);
-                    items.forEach(item -> {
-                        if (item != null && item.getId() != null) {
-                            itemIds.add(item.getId());
-                        }
-                    });
-                }
-            } catch (Exception e) {
-                // Log error but continue with other inventories
-                System.err.println("Error fetching items for inventory " + inventoryId + ": " + e.getMessage());
-                e.printStackTrace();
-            }
-        }
-        
-        System.out.println("Total item IDs found: " + itemIds.size());
-        
-        // If no items, return empty page
-        if (itemIds.isEmpty()) {
-            System.out.println("No items found in user's inventories, returning empty page");
-            Pageable pageable = PageRequest.of(page, size);
-            return ResponseEntity.ok(new PageImpl<>(List.of(), pageable, 0));
-        }
-        
-        // Step 2: Get all verifications for these items
+
         // Use a larger page size to get all verifications (since frontend requests size=1000)
         int actualSize = size > 1000 ? size : 1000;
-        Pageable pageable = PageRequest.of(page, actualSize, Sort.by(Sort.Direction.DESC, "id"));
-        System.out.println("Searching for verifications with " + itemIds.size() + " item IDs");
-        Page<VerificationEntity> verificationPage = verificationRepository.findAllByItemIds(itemIds, pageable);
-        System.out.println("Found " + verificationPage.getTotalElements() + " verifications");
+        Pageable pageable = PageRequest.of(page, actualSize);
+        Page<VerificationEntity> verificationPage = verificationRepository.findAllActiveItemsByInventoryIds(inventoryIds, pageable);
         Page<VerificationResponse> responsePage = verificationPage.map(VerificationMapper::toDto);
         return ResponseEntity.ok(responsePage);
     }
@@ -703,20 +625,18 @@ public class VerificationController {
     @PreAuthorize("hasRole('ADMIN_REGIONAL')")
     @GetMapping("/regional/statistics")
     public ResponseEntity<VerificationStatisticsResponse> getRegionalVerificationStatistics() {
-        var currentUser = authService.getCurrentUser();
-        if (currentUser.getInstitution() == null || currentUser.getInstitution().getRegional() == null) {
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
+        if (currentUser.regionalId() == null) {
             throw new ResourceNotFoundException("User institution or regional not found");
         }
-        Long regionalId = currentUser.getInstitution().getRegional().getId();
+        Long regionalId = currentUser.regionalId();
         
-        Long total = verificationRepository.countByRegionalId(regionalId);
-        Long completed = verificationRepository.countCompletedByRegionalId(regionalId);
-        Long withEvidence = verificationRepository.countWithEvidenceByRegionalId(regionalId);
+        ScopedStatistics stats = dashboardCounterService.getStatistics(StatisticsScope.regional(regionalId));
         
         VerificationStatisticsResponse statistics = new VerificationStatisticsResponse(
-                total,
-                completed,
-                withEvidence
+                stats.getTotalVerifications(),
+                stats.getVerificationsWithEvidence(),
+                stats.getVerificationsWithEvidence()
         );
         
         return ResponseEntity.ok(statistics);
@@ -737,21 +657,19 @@ public class VerificationController {
     @PreAuthorize("hasRole('ADMIN_INSTITUTION')")
     @GetMapping("/institution/statistics")
     public ResponseEntity<VerificationStatisticsResponse> getInstitutionVerificationStatistics() {
-        var currentUser = authService.getCurrentUser();
-        if (currentUser.getInstitution() == null) {
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
+        if (currentUser.institutionId() == null) {
             throw new ResourceNotFoundException("User institution not found");
         }
-        Long institutionId = currentUser.getInstitution().getId();
+        Long institutionId = currentUser.institutionId();
         
-        Long total = verificationRepository.countByInstitutionId(institutionId);
-        // For completed and withEvidence, we use the same count since they're the same query
-        Long completed = verificationRepository.countByInstitutionId(institutionId);
-        Long withEvidence = verificationRepository.countByInstitutionId(institutionId);
+        ScopedStatistics stats = dashboardCounterService.getStatistics(StatisticsScope.institution(institutionId));
         
+        // For completed and withEvidence, we use the same count as total
         VerificationStatisticsResponse statistics = new VerificationStatisticsResponse(
-                total,
-                completed,
-                withEvidence
+                stats.getTotalVerifications(),
+                stats.getTotalVerifications(),
+                stats.getTotalVerifications()
         );
         
         return ResponseEntity.ok(statistics);
@@ -777,11 +695,11 @@ public class VerificationController {
             @Parameter(description = "Page size", required = false)
             @RequestParam(defaultValue = "5") int size
     ) {
-        var currentUser = authService.getCurrentUser();
-        if (currentUser.getInstitution() == null) {
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
+        if (currentUser.institutionId() == null) {
             throw new ResourceNotFoundException("User institution not found");
         }
-        Long institutionId = currentUser.getInstitution().getId();
+        Long institutionId = currentUser.institutionId();
         
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
         Page<VerificationEntity> verificationPage = verificationRepository.findAllByInstitutionIdOrderedByCreatedAt(institutionId, pageable);
@@ -799,4 +717,3 @@ public class VerificationController {
         return ResponseEntity.ok(response);
     }
 }
-
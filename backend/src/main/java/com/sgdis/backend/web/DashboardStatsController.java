@@ -1,14 +1,16 @@
 package com.sgdis.backend.web;
 
+import com.sgdis.backend.auth.application.dto.CurrentUser;
 import com.sgdis.backend.auth.application.service.AuthService;
-import com.sgdis.backend.user.infrastructure.entity.UserEntity;
 import com.sgdis.backend.web.dto.AdminInstitutionDashboardStatsResponse;
+import com.sgdis.backend.web.dto.CentersMapResponse;
 import com.sgdis.backend.web.dto.AdminRegionalDashboardStatsResponse;
 import com.sgdis.backend.web.dto.SuperadminDashboardStatsResponse;
 import com.sgdis.backend.web.dto.UserDashboardStatsResponse;
 import com.sgdis.backend.web.dto.WarehouseDashboardStatsResponse;
 import com.sgdis.backend.web.service.AdminInstitutionDashboardStatsService;
 import com.sgdis.backend.web.service.AdminRegionalDashboardStatsService;
+import com.sgdis.backend.web.service.CentersMapService;
 import com.sgdis.backend.web.service.SuperadminDashboardStatsService;
 import com.sgdis.backend.web.service.UserDashboardStatsService;
 import com.sgdis.backend.web.service.WarehouseDashboardStatsService;
@@ -17,6 +19,7 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -36,6 +39,7 @@ public class DashboardStatsController {
     private final AdminInstitutionDashboardStatsService adminInstitutionDashboardStatsService;
     private final WarehouseDashboardStatsService warehouseDashboardStatsService;
     private final UserDashboardStatsService userDashboardStatsService;
+    private final CentersMapService centersMapService;
     private final AuthService authService;
 
     @Operation(
@@ -54,6 +58,20 @@ public class DashboardStatsController {
         return ResponseEntity.ok(stats);
     }
 
+    @Operation(
+            summary = "Get centers map data",
+            description = "Retrieves a precomputed GeoJSON-like FeatureCollection with every institution, its coordinates and its inventory, item and value counters. Supports If-None-Match with a strong ETag."
+    )
+    @GetMapping("/superadmin/centers-map")
+    @PreAuthorize("hasRole('SUPERADMIN')")
+    public ResponseEntity<CentersMapResponse> getCentersMap() {
+        CentersMapService.CentersMap centersMap = centersMapService.getCentersMap();
+        return ResponseEntity.ok()
+                .eTag(centersMap.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(centersMap.payload());
+    }
+
     @Operation(
             summary = "Get admin regional dashboard statistics",
             description = "Retrieves all consolidated statistics for the admin regional dashboard. Statistics are automatically filtered by the user's regional."
@@ -62,14 +80,14 @@ public class DashboardStatsController {
     @PreAuthorize("hasRole('ADMIN_REGIONAL')")
     public ResponseEntity<AdminRegionalDashboardStatsResponse> getAdminRegionalDashboardStats() {
         // Get the current user
-        UserEntity currentUser = authService.getCurrentUser();
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
         
         // Get the user's institution and regional ID
-        if (currentUser.getInstitution() == null || currentUser.getInstitution().getRegional() == null) {
+        if (currentUser.regionalId() == null) {
             throw new IllegalStateException("El usuario no tiene una institución o regional asignada");
         }
         
-        Long regionalId = currentUser.getInstitution().getRegional().getId();
+        Long regionalId = currentUser.regionalId();
         AdminRegionalDashboardStatsResponse stats = adminRegionalDashboardStatsService.getDashboardStats(regionalId);
         return ResponseEntity.ok(stats);
     }
@@ -82,14 +100,14 @@ public class DashboardStatsController {
     @PreAuthorize("hasRole('ADMIN_INSTITUTION')")
     public ResponseEntity<AdminInstitutionDashboardStatsResponse> getAdminInstitutionDashboardStats() {
         // Get the current user
-        UserEntity currentUser = authService.getCurrentUser();
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
         
         // Get the user's institution ID
-        if (currentUser.getInstitution() == null || currentUser.getInstitution().getId() == null) {
+        if (currentUser.institutionId() == null) {
             throw new IllegalStateException("El usuario no tiene una institución asignada");
         }
         
-        Long institutionId = currentUser.getInstitution().getId();
+        Long institutionId = currentUser.institutionId();
         AdminInstitutionDashboardStatsResponse stats = adminInstitutionDashboardStatsService.getDashboardStats(institutionId);
         return ResponseEntity.ok(stats);
     }
@@ -102,14 +120,14 @@ public class DashboardStatsController {
     @PreAuthorize("hasRole('WAREHOUSE')")
     public ResponseEntity<WarehouseDashboardStatsResponse> getWarehouseDashboardStats() {
         // Get the current user
-        UserEntity currentUser = authService.getCurrentUser();
+        CurrentUser currentUser = authService.getCurrentUserSnapshot();
         
         // Get the user's institution ID
-        if (currentUser.getInstitution() == null || currentUser.getInstitution().getId() == null) {
+        if (currentUser.institutionId() == null) {
             throw new IllegalStateException("El usuario no tiene una institución asignada");
         }
         
-        Long institutionId = currentUser.getInstitution().getId();
+        Long institutionId = currentUser.institutionId();
         WarehouseDashboardStatsResponse stats = warehouseDashboardStatsService.getDashboardStats(institutionId);
         return ResponseEntity.ok(stats);
     }
@@ -122,9 +140,7 @@ public class DashboardStatsController {
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<UserDashboardStatsResponse> getUserDashboardStats() {
         // Get the current user
-        UserEntity currentUser = authService.getCurrentUser();
-        
-        Long userId = currentUser.getId();
+        Long userId = authService.getCurrentUserId();
         UserDashboardStatsResponse stats = userDashboardStatsService.getDashboardStats(userId);
         return ResponseEntity.ok(stats);
     }
@@ -1,16 +1,24 @@
 package com.sgdis.backend.web;
 
+import com.sgdis.backend.file.web.ImageVariantResourceResolver;
 import io.swagger.v3.oas.annotations.Hidden;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Hidden
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ImageVariantResourceResolver imageVariantResourceResolver;
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/uploads/**").addResourceLocations("file:uploads/");
+        // Sin caché de la cadena: el recurso depende del parámetro ?variant=
+        registry.addResourceHandler("/uploads/**").addResourceLocations("file:uploads/")
+                .resourceChain(false)
+                .addResolver(imageVariantResourceResolver);
     }
-}
\ No newline at end of file
+}
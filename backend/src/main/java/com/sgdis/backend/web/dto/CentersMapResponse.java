@@ -0,0 +1,46 @@
+package com.sgdis.backend.web.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Datos precalculados del mapa de centros, con forma de FeatureCollection de GeoJSON:
+ * un punto por institución con sus datos y contadores en {@code properties}.
+ * Las instituciones sin coordenadas se incluyen con {@code geometry} null.
+ */
+public record CentersMapResponse(
+        String type,
+        long version,
+        LocalDateTime generatedAt,
+        long totalRegionals,
+        List<Feature> features
+) {
+
+    public static final String FEATURE_COLLECTION = "FeatureCollection";
+
+    public record Feature(String type, Long id, Geometry geometry, Properties properties) {
+
+        public static final String FEATURE = "Feature";
+    }
+
+    /**
+     * Punto GeoJSON: {@code coordinates} es [longitud, latitud].
+     */
+    public record Geometry(String type, List<Double> coordinates) {
+
+        public static final String POINT = "Point";
+    }
+
+    public record Properties(
+            String name,
+            String codeInstitution,
+            String cityName,
+            Long regionalId,
+            String regionalName,
+            String departamentName,
+            long totalInventories,
+            long totalItems,
+            double itemsValue
+    ) {
+    }
+}
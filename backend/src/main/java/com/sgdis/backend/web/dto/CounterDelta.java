@@ -0,0 +1,145 @@
+package com.sgdis.backend.web.dto;
+
+import com.sgdis.backend.web.repository.projection.ScopedStatistics;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Variación a aplicar sobre los contadores materializados de los dashboards.
+ * Los campos no indicados en el builder quedan en 0.
+ */
+@Value
+@Builder
+public class CounterDelta {
+
+    long totalInventories;
+    long activeInventories;
+    double inventoriesValue;
+
+    long totalItems;
+    long activeItems;
+    double itemsValue;
+
+    long superadminCount;
+    long adminRegionalCount;
+    long adminInstitutionCount;
+    long warehouseCount;
+    long userCount;
+
+    long totalInstitutions;
+
+    long pendingTransfers;
+    long approvedTransfers;
+    long rejectedTransfers;
+
+    long totalVerifications;
+    long verificationsWithEvidence;
+
+    long totalLoans;
+    long activeLoans;
+
+    long totalCancellations;
+    long approvedCancellations;
+    long rejectedCancellations;
+
+    long totalAuditActions;
+
+    /**
+     * Contadores de una instantánea expresados como delta (los valores nulos cuentan como 0).
+     */
+    public static CounterDelta of(ScopedStatistics statistics) {
+        return new CounterDelta(
+                valueOf(statistics.getTotalInventories()),
+                valueOf(statistics.getActiveInventories()),
+                valueOf(statistics.getInventoriesValue()),
+                valueOf(statistics.getTotalItems()),
+                valueOf(statistics.getActiveItems()),
+                valueOf(statistics.getItemsValue()),
+                valueOf(statistics.getSuperadminCount()),
+                valueOf(statistics.getAdminRegionalCount()),
+                valueOf(statistics.getAdminInstitutionCount()),
+                valueOf(statistics.getWarehouseCount()),
+                valueOf(statistics.getUserCount()),
+                valueOf(statistics.getTotalInstitutions()),
+                valueOf(statistics.getPendingTransfers()),
+                valueOf(statistics.getApprovedTransfers()),
+                valueOf(statistics.getRejectedTransfers()),
+                valueOf(statistics.getTotalVerifications()),
+                valueOf(statistics.getVerificationsWithEvidence()),
+                valueOf(statistics.getTotalLoans()),
+                valueOf(statistics.getActiveLoans()),
+                valueOf(statistics.getTotalCancellations()),
+                valueOf(statistics.getApprovedCancellations()),
+                valueOf(statistics.getRejectedCancellations()),
+                valueOf(statistics.getTotalAuditActions())
+        );
+    }
+
+    public CounterDelta minus(CounterDelta other) {
+        return new CounterDelta(
+                totalInventories - other.totalInventories,
+                activeInventories - other.activeInventories,
+                inventoriesValue - other.inventoriesValue,
+                totalItems - other.totalItems,
+                activeItems - other.activeItems,
+                itemsValue - other.itemsValue,
+                superadminCount - other.superadminCount,
+                adminRegionalCount - other.adminRegionalCount,
+                adminInstitutionCount - other.adminInstitutionCount,
+                warehouseCount - other.warehouseCount,
+                userCount - other.userCount,
+                totalInstitutions - other.totalInstitutions,
+                pendingTransfers - other.pendingTransfers,
+                approvedTransfers - other.approvedTransfers,
+                rejectedTransfers - other.rejectedTransfers,
+                totalVerifications - other.totalVerifications,
+                verificationsWithEvidence - other.verificationsWithEvidence,
+                totalLoans - other.totalLoans,
+                activeLoans - other.activeLoans,
+                totalCancellations - other.totalCancellations,
+                approvedCancellations - other.approvedCancellations,
+                rejectedCancellations - other.rejectedCancellations,
+                totalAuditActions - other.totalAuditActions
+        );
+    }
+
+    public CounterDelta plus(CounterDelta other) {
+        return new CounterDelta(
+                totalInventories + other.totalInventories,
+                activeInventories + other.activeInventories,
+                inventoriesValue + other.inventoriesValue,
+                totalItems + other.totalItems,
+                activeItems + other.activeItems,
+                itemsValue + other.itemsValue,
+                superadminCount + other.superadminCount,
+                adminRegionalCount + other.adminRegionalCount,
+                adminInstitutionCount + other.adminInstitutionCount,
+                warehouseCount + other.warehouseCount,
+                userCount + other.userCount,
+                totalInstitutions + other.totalInstitutions,
+                pendingTransfers + other.pendingTransfers,
+                approvedTransfers + other.approvedTransfers,
+                rejectedTransfers + other.rejectedTransfers,
+                totalVerifications + other.totalVerifications,
+                verificationsWithEvidence + other.verificationsWithEvidence,
+                totalLoans + other.totalLoans,
+                activeLoans + other.activeLoans,
+                totalCancellations + other.totalCancellations,
+                approvedCancellations + other.approvedCancellations,
+                rejectedCancellations + other.rejectedCancellations,
+                totalAuditActions + other.totalAuditActions
+        );
+    }
+
+    public boolean isZero() {
+        return equals(CounterDelta.builder().build());
+    }
+
+    private static long valueOf(Long value) {
+        return value != null ? value : 0;
+    }
+
+    private static double valueOf(Double value) {
+        return value != null ? value : 0;
+    }
+}
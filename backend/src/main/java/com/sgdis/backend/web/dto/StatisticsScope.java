@@ -0,0 +1,35 @@
+package com.sgdis.backend.web.dto;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Alcance sobre el que se calculan las estadísticas de los dashboards.
+ * Los filtros en null no se aplican; si inventoryIds no es null, solo se consideran esos inventarios.
+ */
+public record StatisticsScope(Long regionalId, Long institutionId, List<Long> inventoryIds) {
+
+    public static StatisticsScope global() {
+        return new StatisticsScope(null, null, null);
+    }
+
+    public static StatisticsScope regional(Long regionalId) {
+        return new StatisticsScope(regionalId, null, null);
+    }
+
+    public static StatisticsScope institution(Long institutionId) {
+        return new StatisticsScope(null, institutionId, null);
+    }
+
+    public static StatisticsScope of(Long regionalId, Long institutionId) {
+        return new StatisticsScope(regionalId, institutionId, null);
+    }
+
+    public static StatisticsScope inventories(Collection<Long> inventoryIds) {
+        return new StatisticsScope(null, null, List.copyOf(inventoryIds));
+    }
+
+    public boolean isInventorySet() {
+        return inventoryIds != null;
+    }
+}
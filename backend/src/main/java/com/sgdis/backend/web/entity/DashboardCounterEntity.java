@@ -0,0 +1,106 @@
+package com.sgdis.backend.web.entity;
+
+import com.sgdis.backend.web.repository.projection.ScopedStatistics;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Contadores materializados de un alcance de dashboard (global, regional o institución).
+ * Los flujos de escritura aplican deltas en la misma transacción y un job periódico
+ * los recalcula desde el motor agregado para corregir desviaciones.
+ */
+@Data
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "dashboard_counters")
+public class DashboardCounterEntity implements ScopedStatistics {
+
+    public static final String GLOBAL_KEY = "GLOBAL";
+    public static final String REGIONAL_PREFIX = "REGIONAL:";
+    public static final String INSTITUTION_PREFIX = "INSTITUTION:";
+
+    @Id
+    @Column(name = "scope_key", length = 64)
+    private String scopeKey;
+
+    private Long regionalId;
+    private Long institutionId;
+
+    private Long totalInventories;
+    private Long activeInventories;
+    private Double inventoriesValue;
+
+    private Long totalItems;
+    private Long activeItems;
+    private Double itemsValue;
+
+    private Long superadminCount;
+    private Long adminRegionalCount;
+    private Long adminInstitutionCount;
+    private Long warehouseCount;
+    private Long userCount;
+
+    private Long totalInstitutions;
+
+    private Long pendingTransfers;
+    private Long approvedTransfers;
+    private Long rejectedTransfers;
+
+    private Long totalVerifications;
+    private Long verificationsWithEvidence;
+
+    private Long totalLoans;
+    private Long activeLoans;
+
+    private Long totalCancellations;
+    private Long approvedCancellations;
+    private Long rejectedCancellations;
+
+    private Long totalAuditActions;
+
+    private LocalDateTime updatedAt;
+
+    public static String regionalKey(Long regionalId) {
+        return REGIONAL_PREFIX + regionalId;
+    }
+
+    public static String institutionKey(Long institutionId) {
+        return INSTITUTION_PREFIX + institutionId;
+    }
+
+    /**
+     * Reemplaza todos los contadores por los de una instantánea calculada por el motor agregado.
+     */
+    public void copyFrom(ScopedStatistics statistics) {
+        this.totalInventories = statistics.getTotalInventories();
+        this.activeInventories = statistics.getActiveInventories();
+        this.inventoriesValue = statistics.getInventoriesValue();
+        this.totalItems = statistics.getTotalItems();
+        this.activeItems = statistics.getActiveItems();
+        this.itemsValue = statistics.getItemsValue();
+        this.superadminCount = statistics.getSuperadminCount();
+        this.adminRegionalCount = statistics.getAdminRegionalCount();
+        this.adminInstitutionCount = statistics.getAdminInstitutionCount();
+        this.warehouseCount = statistics.getWarehouseCount();
+        this.userCount = statistics.getUserCount();
+        this.totalInstitutions = statistics.getTotalInstitutions();
+        this.pendingTransfers = statistics.getPendingTransfers();
+        this.approvedTransfers = statistics.getApprovedTransfers();
+        this.rejectedTransfers = statistics.getRejectedTransfers();
+        this.totalVerifications = statistics.getTotalVerifications();
+        this.verificationsWithEvidence = statistics.getVerificationsWithEvidence();
+        this.totalLoans = statistics.getTotalLoans();
+        this.activeLoans = statistics.getActiveLoans();
+        this.totalCancellations = statistics.getTotalCancellations();
+        this.approvedCancellations = statistics.getApprovedCancellations();
+        this.rejectedCancellations = statistics.getRejectedCancellations();
+        this.totalAuditActions = statistics.getTotalAuditActions();
+    }
+}
@@ -0,0 +1,33 @@
+package com.sgdis.backend.web.repository;
+
+import com.sgdis.backend.institution.infrastructure.entity.InstitutionEntity;
+import com.sgdis.backend.web.repository.projection.CenterMapRow;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Consultas del mapa de centros: cada institución con su ubicación y los contadores materializados
+ * de {@code dashboard_counters}, sin cargar entidades.
+ */
+public interface SpringDataCentersMapRepository extends Repository<InstitutionEntity, Long> {
+
+    String CENTER_MAP_SELECT = "SELECT i.id AS id, i.name AS name, i.codeInstitution AS codeInstitution, " +
+           "i.latitude AS latitude, i.longitude AS longitude, ci.city AS cityName, " +
+           "r.id AS regionalId, r.name AS regionalName, d.departament AS departamentName, " +
+           "c.totalInventories AS totalInventories, c.totalItems AS totalItems, c.itemsValue AS itemsValue " +
+           "FROM InstitutionEntity i LEFT JOIN i.city ci LEFT JOIN i.regional r LEFT JOIN r.departament d " +
+           "LEFT JOIN DashboardCounterEntity c ON c.institutionId = i.id ";
+
+    @Query(CENTER_MAP_SELECT + "ORDER BY i.id")
+    List<CenterMapRow> findAllCenterMapRows();
+
+    @Query(CENTER_MAP_SELECT + "WHERE i.id IN :institutionIds")
+    List<CenterMapRow> findCenterMapRows(@Param("institutionIds") Collection<Long> institutionIds);
+
+    @Query("SELECT COUNT(r) FROM RegionalEntity r")
+    long countRegionals();
+}
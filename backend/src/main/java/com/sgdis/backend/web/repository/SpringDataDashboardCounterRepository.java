@@ -0,0 +1,71 @@
+package com.sgdis.backend.web.repository;
+
+import com.sgdis.backend.web.dto.CounterDelta;
+import com.sgdis.backend.web.entity.DashboardCounterEntity;
+import com.sgdis.backend.web.repository.projection.CounterScope;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface SpringDataDashboardCounterRepository extends JpaRepository<DashboardCounterEntity, String> {
+
+    /**
+     * Suma un delta a los contadores de un alcance.
+     * Usa una query directa para que el incremento sea atómico frente a escrituras concurrentes.
+     * Si el alcance aún no tiene fila no se actualiza nada: el job de reconciliación la crea.
+     */
+    @Modifying
+    @Query("UPDATE DashboardCounterEntity c SET " +
+           "c.totalInventories = c.totalInventories + :#{#delta.totalInventories}, " +
+           "c.activeInventories = c.activeInventories + :#{#delta.activeInventories}, " +
+           "c.inventoriesValue = GREATEST(c.inventoriesValue + :#{#delta.inventoriesValue}, 0), " +
+           "c.totalItems = c.totalItems + :#{#delta.totalItems}, " +
+           "c.activeItems = c.activeItems + :#{#delta.activeItems}, " +
+           "c.itemsValue = c.itemsValue + :#{#delta.itemsValue}, " +
+           "c.superadminCount = c.superadminCount + :#{#delta.superadminCount}, " +
+           "c.adminRegionalCount = c.adminRegionalCount + :#{#delta.adminRegionalCount}, " +
+           "c.adminInstitutionCount = c.adminInstitutionCount + :#{#delta.adminInstitutionCount}, " +
+           "c.warehouseCount = c.warehouseCount + :#{#delta.warehouseCount}, " +
+           "c.userCount = c.userCount + :#{#delta.userCount}, " +
+           "c.totalInstitutions = c.totalInstitutions + :#{#delta.totalInstitutions}, " +
+           "c.pendingTransfers = c.pendingTransfers + :#{#delta.pendingTransfers}, " +
+           "c.approvedTransfers = c.approvedTransfers + :#{#delta.approvedTransfers}, " +
+           "c.rejectedTransfers = c.rejectedTransfers + :#{#delta.rejectedTransfers}, " +
+           "c.totalVerifications = c.totalVerifications + :#{#delta.totalVerifications}, " +
+           "c.verificationsWithEvidence = c.verificationsWithEvidence + :#{#delta.verificationsWithEvidence}, " +
+           "c.totalLoans = c.totalLoans + :#{#delta.totalLoans}, " +
+           "c.activeLoans = c.activeLoans + :#{#delta.activeLoans}, " +
+           "c.totalCancellations = c.totalCancellations + :#{#delta.totalCancellations}, " +
+           "c.approvedCancellations = c.approvedCancellations + :#{#delta.approvedCancellations}, " +
+           "c.rejectedCancellations = c.rejectedCancellations + :#{#delta.rejectedCancellations}, " +
+           "c.totalAuditActions = c.totalAuditActions + :#{#delta.totalAuditActions} " +
+           "WHERE c.scopeKey = :scopeKey")
+    int applyDelta(@Param("scopeKey") String scopeKey, @Param("delta") CounterDelta delta);
+
+    @Modifying
+    @Query("UPDATE DashboardCounterEntity c SET c.updatedAt = :updatedAt WHERE c.scopeKey = :scopeKey")
+    int markUpdated(@Param("scopeKey") String scopeKey, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("SELECT c.scopeKey FROM DashboardCounterEntity c")
+    List<String> findAllScopeKeys();
+
+    @Query("SELECT inst.id AS institutionId, inst.regional.id AS regionalId " +
+           "FROM InventoryEntity inv JOIN inv.institution inst WHERE inv.id IN :inventoryIds")
+    List<CounterScope> findScopesByInventoryIds(@Param("inventoryIds") Collection<Long> inventoryIds);
+
+    @Query("SELECT inst.id AS institutionId, inst.regional.id AS regionalId " +
+           "FROM InstitutionEntity inst WHERE inst.id = :institutionId")
+    Optional<CounterScope> findScopeByInstitutionId(@Param("institutionId") Long institutionId);
+
+    @Query("SELECT r.id FROM RegionalEntity r")
+    List<Long> findAllRegionalIds();
+
+    @Query("SELECT i.id FROM InstitutionEntity i")
+    List<Long> findAllInstitutionIds();
+}
@@ -0,0 +1,93 @@
+package com.sgdis.backend.web.repository;
+
+import com.sgdis.backend.inventory.infrastructure.entity.InventoryEntity;
+import com.sgdis.backend.web.repository.projection.ScopedStatistics;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Consultas agregadas (COUNT/SUM) para los dashboards.
+ * Todas las métricas de un alcance se resuelven en una sola consulta sin cargar entidades en memoria.
+ * Los filtros regionalId/institutionId son opcionales: si llegan en null no se aplican.
+ * Si byInventorySet es true, solo se consideran los inventarios de inventoryIds.
+ */
+public interface SpringDataDashboardStatsRepository extends Repository<InventoryEntity, Long> {
+
+    // Filtro sobre el alias "inst" (institución)
+    String INSTITUTION_SCOPE =
+            "(:institutionId IS NULL OR inst.id = :institutionId) " +
+            "AND (:regionalId IS NULL OR inst.regional.id = :regionalId)";
+
+    // Filtro sobre los alias "inv" (inventario) e "inst" (institución del inventario)
+    String INVENTORY_SCOPE = INSTITUTION_SCOPE + " " +
+            "AND (:byInventorySet = false OR inv.id IN :inventoryIds)";
+
+    String UNSCOPED = "(:institutionId IS NULL AND :regionalId IS NULL AND :byInventorySet = false)";
+
+    String INVENTORY_FROM = "FROM InventoryEntity inv LEFT JOIN inv.institution inst WHERE " + INVENTORY_SCOPE;
+
+    String ITEM_FROM = "FROM ItemEntity it LEFT JOIN it.inventory inv LEFT JOIN inv.institution inst WHERE " + INVENTORY_SCOPE;
+
+    // Los usuarios no dependen de inventarios: en un alcance por conjunto de inventarios no se cuentan
+    String USER_FROM = "FROM UserEntity u LEFT JOIN u.institution inst WHERE :byInventorySet = false AND " + INSTITUTION_SCOPE;
+
+    // Una transferencia pertenece al alcance si su inventario de origen o de destino pertenece a él
+    String TRANSFER_FROM = "FROM TransferEntity t " +
+            "LEFT JOIN t.sourceInventory src LEFT JOIN src.institution srcInst " +
+            "LEFT JOIN t.inventory dst LEFT JOIN dst.institution dstInst " +
+            "WHERE (((:institutionId IS NULL OR srcInst.id = :institutionId) " +
+            "AND (:regionalId IS NULL OR srcInst.regional.id = :regionalId) " +
+            "AND (:byInventorySet = false OR src.id IN :inventoryIds)) " +
+            "OR ((:institutionId IS NULL OR dstInst.id = :institutionId) " +
+            "AND (:regionalId IS NULL OR dstInst.regional.id = :regionalId) " +
+            "AND (:byInventorySet = false OR dst.id IN :inventoryIds)))";
+
+    String VERIFICATION_FROM = "FROM VerificationEntity v LEFT JOIN v.item it LEFT JOIN it.inventory inv " +
+            "LEFT JOIN inv.institution inst WHERE " + INVENTORY_SCOPE;
+
+    String LOAN_FROM = "FROM LoanEntity l LEFT JOIN l.item it LEFT JOIN it.inventory inv " +
+            "LEFT JOIN inv.institution inst WHERE " + INVENTORY_SCOPE;
+
+    // Una cancelación pertenece al alcance si al menos uno de sus items pertenece a él
+    String CANCELLATION_FROM = "FROM CancellationEntity c WHERE (" + UNSCOPED + " OR EXISTS (" +
+            "SELECT 1 FROM CancellationEntity c2 JOIN c2.items it JOIN it.inventory inv LEFT JOIN inv.institution inst " +
+            "WHERE c2.id = c.id AND " + INVENTORY_SCOPE + "))";
+
+    String AUDIT_FROM = "FROM AuditoryEntity a LEFT JOIN a.institution inst WHERE :byInventorySet = false AND " + INSTITUTION_SCOPE;
+
+    String ROLE = "com.sgdis.backend.user.domain.Role.";
+    String TRANSFER_STATUS = "com.sgdis.backend.transfers.domain.TransferStatus.";
+
+    @Query("SELECT " +
+           "(SELECT COUNT(inv) " + INVENTORY_FROM + ") AS totalInventories, " +
+           "(SELECT COUNT(inv) " + INVENTORY_FROM + " AND inv.status = true) AS activeInventories, " +
+           "(SELECT COALESCE(SUM(inv.totalPrice), 0) " + INVENTORY_FROM + ") AS inventoriesValue, " +
+           "(SELECT COUNT(it) " + ITEM_FROM + ") AS totalItems, " +
+           "(SELECT COUNT(it) " + ITEM_FROM + " AND it.status = true) AS activeItems, " +
+           "(SELECT COALESCE(SUM(it.acquisitionValue), 0) " + ITEM_FROM + ") AS itemsValue, " +
+           "(SELECT COUNT(u) " + USER_FROM + " AND u.role = " + ROLE + "SUPERADMIN) AS superadminCount, " +
+           "(SELECT COUNT(u) " + USER_FROM + " AND u.role = " + ROLE + "ADMIN_REGIONAL) AS adminRegionalCount, " +
+           "(SELECT COUNT(u) " + USER_FROM + " AND u.role = " + ROLE + "ADMIN_INSTITUTION) AS adminInstitutionCount, " +
+           "(SELECT COUNT(u) " + USER_FROM + " AND u.role = " + ROLE + "WAREHOUSE) AS warehouseCount, " +
+           "(SELECT COUNT(u) " + USER_FROM + " AND u.role = " + ROLE + "USER) AS userCount, " +
+           "(SELECT COUNT(ri) FROM InstitutionEntity ri WHERE :byInventorySet = false " +
+           "AND (:regionalId IS NULL OR ri.regional.id = :regionalId)) AS totalInstitutions, " +
+           "(SELECT COUNT(t) " + TRANSFER_FROM + " AND t.approvalStatus = " + TRANSFER_STATUS + "PENDING) AS pendingTransfers, " +
+           "(SELECT COUNT(t) " + TRANSFER_FROM + " AND t.approvalStatus = " + TRANSFER_STATUS + "APPROVED) AS approvedTransfers, " +
+           "(SELECT COUNT(t) " + TRANSFER_FROM + " AND t.approvalStatus = " + TRANSFER_STATUS + "REJECTED) AS rejectedTransfers, " +
+           "(SELECT COUNT(v) " + VERIFICATION_FROM + ") AS totalVerifications, " +
+           "(SELECT COUNT(v) " + VERIFICATION_FROM + " AND v.photoUrl IS NOT NULL AND v.photoUrl != '') AS verificationsWithEvidence, " +
+           "(SELECT COUNT(l) " + LOAN_FROM + ") AS totalLoans, " +
+           "(SELECT COUNT(l) " + LOAN_FROM + " AND (l.returned IS NULL OR l.returned = false)) AS activeLoans, " +
+           "(SELECT COUNT(c) " + CANCELLATION_FROM + ") AS totalCancellations, " +
+           "(SELECT COUNT(c) " + CANCELLATION_FROM + " AND c.approved = true AND c.refusedAt IS NULL) AS approvedCancellations, " +
+           "(SELECT COUNT(c) " + CANCELLATION_FROM + " AND c.refusedAt IS NOT NULL) AS rejectedCancellations, " +
+           "(SELECT COUNT(a) " + AUDIT_FROM + ") AS totalAuditActions")
+    ScopedStatistics aggregateScope(@Param("regionalId") Long regionalId,
+                                    @Param("institutionId") Long institutionId,
+                                    @Param("byInventorySet") boolean byInventorySet,
+                                    @Param("inventoryIds") List<Long> inventoryIds);
+}
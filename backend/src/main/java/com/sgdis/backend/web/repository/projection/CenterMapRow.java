@@ -0,0 +1,22 @@
+package com.sgdis.backend.web.repository.projection;
+
+/**
+ * Institución con sus coordenadas y los contadores materializados que se muestran en el mapa de centros.
+ * Los contadores son null si la institución aún no tiene fila de contadores.
+ */
+public interface CenterMapRow {
+
+    Long getId();
+    String getName();
+    String getCodeInstitution();
+    Double getLatitude();
+    Double getLongitude();
+    String getCityName();
+    Long getRegionalId();
+    String getRegionalName();
+    String getDepartamentName();
+
+    Long getTotalInventories();
+    Long getTotalItems();
+    Double getItemsValue();
+}
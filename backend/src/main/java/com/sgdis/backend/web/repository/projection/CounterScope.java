@@ -0,0 +1,10 @@
+package com.sgdis.backend.web.repository.projection;
+
+/**
+ * Institución y regional a las que pertenece un inventario.
+ */
+public interface CounterScope {
+
+    Long getInstitutionId();
+    Long getRegionalId();
+}
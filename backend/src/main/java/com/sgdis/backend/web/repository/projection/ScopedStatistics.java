@@ -0,0 +1,65 @@
+package com.sgdis.backend.web.repository.projection;
+
+/**
+ * Métricas de un alcance (global, regional, institución o conjunto de inventarios)
+ * calculadas en una sola consulta. Los valores derivados se obtienen de los conteos base.
+ */
+public interface ScopedStatistics {
+
+    Long getTotalInventories();
+    Long getActiveInventories();
+    Double getInventoriesValue();
+
+    Long getTotalItems();
+    Long getActiveItems();
+    Double getItemsValue();
+
+    Long getSuperadminCount();
+    Long getAdminRegionalCount();
+    Long getAdminInstitutionCount();
+    Long getWarehouseCount();
+    Long getUserCount();
+
+    Long getTotalInstitutions();
+
+    Long getPendingTransfers();
+    Long getApprovedTransfers();
+    Long getRejectedTransfers();
+
+    Long getTotalVerifications();
+    Long getVerificationsWithEvidence();
+
+    Long getTotalLoans();
+    Long getActiveLoans();
+
+    Long getTotalCancellations();
+    Long getApprovedCancellations();
+    Long getRejectedCancellations();
+
+    Long getTotalAuditActions();
+
+    default long getInactiveInventories() {
+        return getTotalInventories() - getActiveInventories();
+    }
+
+    default long getInactiveItems() {
+        return getTotalItems() - getActiveItems();
+    }
+
+    default long getTotalUsers() {
+        return getSuperadminCount() + getAdminRegionalCount() + getAdminInstitutionCount()
+                + getWarehouseCount() + getUserCount();
+    }
+
+    default long getTotalTransfers() {
+        return getPendingTransfers() + getApprovedTransfers() + getRejectedTransfers();
+    }
+
+    default long getReturnedLoans() {
+        return getTotalLoans() - getActiveLoans();
+    }
+
+    default long getPendingCancellations() {
+        return getTotalCancellations() - getApprovedCancellations() - getRejectedCancellations();
+    }
+}
@@ -0,0 +1,127 @@
+package com.sgdis.backend.web.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgdis.backend.utils.ETagUtils;
+import com.sgdis.backend.web.dto.CentersMapResponse;
+import com.sgdis.backend.web.dto.CentersMapResponse.Feature;
+import com.sgdis.backend.web.dto.CentersMapResponse.Geometry;
+import com.sgdis.backend.web.dto.CentersMapResponse.Properties;
+import com.sgdis.backend.web.repository.SpringDataCentersMapRepository;
+import com.sgdis.backend.web.repository.projection.CenterMapRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Datos del mapa de centros precalculados en memoria.
+ * La primera lectura arma el mapa completo; luego solo se vuelven a consultar las instituciones
+ * marcadas como modificadas (por cambios en sus contadores o en sus datos) y se publica una nueva versión.
+ * La cantidad de regionales se vuelve a contar en cada reconstrucción.
+ * Cada versión lleva un ETag fuerte calculado sobre su contenido; si el contenido no cambió se conserva la versión.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CentersMapService {
+
+    private final SpringDataCentersMapRepository centersMapRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Set<Long> changedInstitutionIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Puntos de la versión actual por id de institución; solo se usa dentro de {@link #rebuild()}.
+     */
+    private Map<Long, Feature> features;
+    private long totalRegionals;
+    private long version;
+
+    private volatile CentersMap current;
+
+    /**
+     * Mapa de centros actual, actualizado con las instituciones modificadas desde la última lectura.
+     */
+    public CentersMap getCentersMap() {
+        CentersMap map = current;
+        if (map != null && changedInstitutionIds.isEmpty()) {
+            return map;
+        }
+        return rebuild();
+    }
+
+    /**
+     * Marca instituciones cuyos datos o contadores cambiaron. Debe llamarse con los cambios ya confirmados.
+     */
+    public void markChanged(Collection<Long> institutionIds) {
+        changedInstitutionIds.addAll(institutionIds);
+    }
+
+    private synchronized CentersMap rebuild() {
+        if (features == null) {
+            changedInstitutionIds.clear();
+            Map<Long, Feature> loaded = new TreeMap<>();
+            centersMapRepository.findAllCenterMapRows().forEach(row -> loaded.put(row.getId(), toFeature(row)));
+            features = loaded;
+        } else {
+            // Se quitan del conjunto antes de consultar: un cambio marcado después se ve en la próxima lectura
+            List<Long> changed = new ArrayList<>(changedInstitutionIds);
+            if (changed.isEmpty()) {
+                return current;
+            }
+            changedInstitutionIds.removeAll(changed);
+            List<CenterMapRow> rows;
+            try {
+                rows = centersMapRepository.findCenterMapRows(changed);
+            } catch (RuntimeException e) {
+                changedInstitutionIds.addAll(changed);
+                throw e;
+            }
+            Map<Long, Feature> updated = new TreeMap<>(features);
+            changed.forEach(updated::remove);
+            rows.forEach(row -> updated.put(row.getId(), toFeature(row)));
+            features = updated;
+            log.debug("Mapa de centros: {} institución(es) actualizada(s)", changed.size());
+        }
+        totalRegionals = centersMapRepository.countRegionals();
+
+        List<Feature> featureList = List.copyOf(features.values());
+        String etag = ETagUtils.strongETag(objectMapper, List.of(totalRegionals, featureList));
+        if (current != null && current.etag().equals(etag)) {
+            // Sin cambios visibles (por ejemplo, una reconciliación): se conserva la versión actual
+            return current;
+        }
+        version++;
+        current = new CentersMap(new CentersMapResponse(CentersMapResponse.FEATURE_COLLECTION, version,
+                LocalDateTime.now(), totalRegionals, featureList), etag);
+        return current;
+    }
+
+    private static Feature toFeature(CenterMapRow row) {
+        Geometry geometry = row.getLatitude() != null && row.getLongitude() != null
+                ? new Geometry(Geometry.POINT, List.of(row.getLongitude(), row.getLatitude()))
+                : null;
+        Properties properties = new Properties(
+                row.getName(),
+                row.getCodeInstitution(),
+                row.getCityName(),
+                row.getRegionalId(),
+                row.getRegionalName(),
+                row.getDepartamentName(),
+                row.getTotalInventories() != null ? row.getTotalInventories() : 0,
+                row.getTotalItems() != null ? row.getTotalItems() : 0,
+                row.getItemsValue() != null ? row.getItemsValue() : 0);
+        return new Feature(Feature.FEATURE, row.getId(), geometry, properties);
+    }
+
+    public record CentersMap(CentersMapResponse payload, String etag) {
+    }
+}
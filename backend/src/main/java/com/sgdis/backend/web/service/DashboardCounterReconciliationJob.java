@@ -0,0 +1,54 @@
+package com.sgdis.backend.web.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Recalcula periódicamente todos los contadores materializados desde el motor agregado.
+ * Crea las filas de alcances nuevos (regionales e instituciones) y corrige cualquier desviación
+ * producida por flujos de escritura que no registran deltas.
+ * Además recalcula, poco después del commit, los alcances que los flujos de escritura marcaron como pendientes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DashboardCounterReconciliationJob {
+
+    private final DashboardCounterService dashboardCounterService;
+
+    @Scheduled(
+            initialDelayString = "${dashboard.counters.reconciliation.initial-delay-ms:10000}",
+            fixedDelayString = "${dashboard.counters.reconciliation.interval-ms:900000}"
+    )
+    public void reconcile() {
+        List<String> scopeKeys = dashboardCounterService.getAllScopeKeys();
+        int failed = 0;
+        for (String scopeKey : scopeKeys) {
+            try {
+                // Cada alcance se recalcula en su propia transacción para no bloquear varias filas a la vez
+                dashboardCounterService.refresh(scopeKey, true);
+            } catch (Exception e) {
+                failed++;
+                log.warn("Error reconciliando contadores del alcance {}: {}", scopeKey, e.getMessage());
+            }
+        }
+        log.info("Reconciliación de contadores de dashboards completada - Alcances: {}, Errores: {}",
+                scopeKeys.size(), failed);
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.counters.stale-refresh.delay-ms:5000}")
+    public void refreshStaleScopes() {
+        for (String scopeKey : dashboardCounterService.takeStaleScopeKeys()) {
+            try {
+                dashboardCounterService.refresh(scopeKey, false);
+            } catch (Exception e) {
+                dashboardCounterService.markStale(scopeKey);
+                log.warn("Error recalculando los contadores del alcance {}: {}", scopeKey, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.sgdis.backend.web.service;
+
+import com.sgdis.backend.web.dto.CounterDelta;
+import com.sgdis.backend.web.dto.StatisticsScope;
+import com.sgdis.backend.web.entity.DashboardCounterEntity;
+import com.sgdis.backend.web.repository.SpringDataDashboardCounterRepository;
+import com.sgdis.backend.web.repository.projection.CounterScope;
+import com.sgdis.backend.web.repository.projection.ScopedStatistics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Contadores materializados de los dashboards.
+ * Las lecturas de los alcances global, regional e institución son una búsqueda por clave;
+ * el resto de alcances (conjuntos de inventarios, regional + institución) usan el motor agregado.
+ * Los flujos de escritura registran deltas que se acumulan por transacción y se aplican justo
+ * antes del commit, de modo que las filas de contadores solo quedan bloqueadas durante el commit.
+ * Los flujos cuyo delta es costoso de calcular no recalculan dentro de su transacción: marcan sus alcances
+ * (y el global) como pendientes tras el commit y {@link DashboardCounterReconciliationJob} los recalcula.
+ * El recálculo lee la fila y el motor agregado en una misma instantánea, sin bloqueos, y aplica la diferencia
+ * como un delta más: la fila solo queda bloqueada durante ese UPDATE.
+ * Tras el commit, las instituciones cuyos contadores cambiaron se marcan en el mapa de centros.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardCounterService {
+
+    private final SpringDataDashboardCounterRepository counterRepository;
+    private final ScopedStatisticsService scopedStatisticsService;
+    private final CentersMapService centersMapService;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Set<String> staleScopeKeys = ConcurrentHashMap.newKeySet();
+
+    private TransactionTemplate snapshotTemplate;
+    private TransactionTemplate writeTemplate;
+
+    @PostConstruct
+    void initTransactions() {
+        // La fila y las estadísticas se leen en la misma instantánea para que su diferencia sea exacta
+        snapshotTemplate = new TransactionTemplate(transactionManager);
+        snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshotTemplate.setReadOnly(true);
+        writeTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional(readOnly = true)
+    public ScopedStatistics getStatistics(StatisticsScope scope) {
+        String scopeKey = scopeKeyOf(scope);
+        if (scopeKey == null) {
+            return scopedStatisticsService.getStatistics(scope);
+        }
+        return counterRepository.findById(scopeKey)
+                .<ScopedStatistics>map(counter -> counter)
+                .orElseGet(() -> scopedStatisticsService.getStatistics(scope));
+    }
+
+    /**
+     * Registra un delta para los alcances del inventario (global, su regional y su institución).
+     */
+    @Transactional
+    public void applyToInventory(Long inventoryId, CounterDelta delta) {
+        if (inventoryId == null) {
+            return;
+        }
+        applyToInventories(List.of(inventoryId), delta);
+    }
+
+    /**
+     * Registra un delta una sola vez por alcance, aunque varios inventarios compartan institución o regional.
+     * Se usa para registros que pertenecen a varios inventarios (transferencias, bajas).
+     */
+    @Transactional
+    public void applyToInventories(Collection<Long> inventoryIds, CounterDelta delta) {
+        PendingDeltas pending = currentPendingDeltas();
+        Set<String> scopeKeys = new LinkedHashSet<>();
+        scopeKeys.add(DashboardCounterEntity.GLOBAL_KEY);
+        for (Long inventoryId : inventoryIds) {
+            if (inventoryId != null) {
+                scopeKeys.addAll(pending.scopeKeysOf(inventoryId));
+            }
+        }
+        scopeKeys.forEach(scopeKey -> pending.add(scopeKey, delta));
+    }
+
+    /**
+     * Registra un delta para el alcance global y, si se indican, para la institución y la regional.
+     */
+    @Transactional
+    public void applyToInstitution(Long institutionId, Long regionalId, CounterDelta delta) {
+        PendingDeltas pending = currentPendingDeltas();
+        pending.add(DashboardCounterEntity.GLOBAL_KEY, delta);
+        if (institutionId != null) {
+            pending.add(DashboardCounterEntity.institutionKey(institutionId), delta);
+        }
+        if (regionalId != null) {
+            pending.add(DashboardCounterEntity.regionalKey(regionalId), delta);
+        }
+    }
+
+    /**
+     * Marca para recalcular tras el commit los contadores de los alcances de los inventarios y el global.
+     * Se usa en flujos poco frecuentes cuyo delta es costoso de calcular (eliminaciones en cascada,
+     * altas o cambios de inventarios).
+     */
+    @Transactional
+    public void refreshInventories(Collection<Long> inventoryIds) {
+        List<Long> ids = inventoryIds.stream().filter(id -> id != null).toList();
+        Set<String> scopeKeys = new TreeSet<>();
+        if (!ids.isEmpty()) {
+            for (CounterScope scope : counterRepository.findScopesByInventoryIds(ids)) {
+                scopeKeys.addAll(scopeKeysOf(scope));
+            }
+        }
+        markStaleAfterCommit(scopeKeys);
+    }
+
+    /**
+     * Marca para recalcular tras el commit los contadores de una regional y el global.
+     */
+    @Transactional
+    public void refreshRegional(Long regionalId) {
+        markStaleAfterCommit(regionalId != null ? Set.of(DashboardCounterEntity.regionalKey(regionalId)) : Set.of());
+    }
+
+    @Transactional
+    public void refreshInstitution(Long institutionId) {
+        refreshInstitutions(institutionId != null ? List.of(institutionId) : List.of());
+    }
+
+    /**
+     * Marca para recalcular tras el commit los contadores de las instituciones indicadas, sus regionales y el global.
+     * Se usa en altas, cambios y eliminaciones de usuarios e instituciones.
+     */
+    @Transactional
+    public void refreshInstitutions(Collection<Long> institutionIds) {
+        Set<String> scopeKeys = new TreeSet<>();
+        for (Long institutionId : institutionIds) {
+            if (institutionId != null) {
+                counterRepository.findScopeByInstitutionId(institutionId)
+                        .ifPresent(scope -> scopeKeys.addAll(scopeKeysOf(scope)));
+            }
+        }
+        markStaleAfterCommit(scopeKeys);
+    }
+
+    /**
+     * Recalcula los contadores de un alcance desde el motor agregado.
+     * La fila y las estadísticas se leen en una transacción de solo lectura con la misma instantánea,
+     * sin bloquear la fila; la diferencia se aplica luego como delta. Los deltas que otras transacciones
+     * confirmen mientras tanto no están en ninguna de las dos lecturas y se conservan.
+     * No debe llamarse dentro de una transacción de negocio.
+     *
+     * @param scopeKey clave del alcance
+     * @param create si es true y la fila no existe se crea; si es false solo se recalculan filas existentes
+     */
+    public void refresh(String scopeKey, boolean create) {
+        CounterSnapshot snapshot = snapshotTemplate.execute(status -> {
+            DashboardCounterEntity counter = counterRepository.findById(scopeKey).orElse(null);
+            if (counter == null && !create) {
+                return null;
+            }
+            DashboardCounterEntity scope = counter != null ? counter : newCounter(scopeKey);
+            ScopedStatistics statistics = scopedStatisticsService.getStatistics(
+                    StatisticsScope.of(scope.getRegionalId(), scope.getInstitutionId()));
+            return new CounterSnapshot(scope, counter != null ? CounterDelta.of(counter) : null, statistics);
+        });
+        if (snapshot == null) {
+            return;
+        }
+
+        CounterDelta difference = snapshot.previous() != null
+                ? CounterDelta.of(snapshot.statistics()).minus(snapshot.previous())
+                : null;
+        writeTemplate.executeWithoutResult(status -> {
+            if (difference == null) {
+                DashboardCounterEntity counter = snapshot.scope();
+                counter.copyFrom(snapshot.statistics());
+                counter.setUpdatedAt(LocalDateTime.now());
+                counterRepository.save(counter);
+            } else {
+                counterRepository.applyDelta(scopeKey, difference);
+                counterRepository.markUpdated(scopeKey, LocalDateTime.now());
+            }
+        });
+
+        Long institutionId = snapshot.scope().getInstitutionId();
+        if (institutionId != null && (difference == null || !difference.isZero())) {
+            centersMapService.markChanged(List.of(institutionId));
+        }
+    }
+
+    /**
+     * Devuelve y desmarca los alcances pendientes de recálculo.
+     * Lo consume {@link DashboardCounterReconciliationJob}, que vuelve a marcar los que fallen.
+     */
+    public Set<String> takeStaleScopeKeys() {
+        Set<String> taken = new TreeSet<>(staleScopeKeys);
+        staleScopeKeys.removeAll(taken);
+        return taken;
+    }
+
+    public void markStale(String scopeKey) {
+        staleScopeKeys.add(scopeKey);
+    }
+
+    /**
+     * Los alcances indicados y el global se recalculan después del commit, fuera de la transacción actual.
+     */
+    private void markStaleAfterCommit(Set<String> scopeKeys) {
+        PendingDeltas pending = currentPendingDeltas();
+        pending.staleScopeKeys.add(DashboardCounterEntity.GLOBAL_KEY);
+        pending.staleScopeKeys.addAll(scopeKeys);
+    }
+
+    /**
+     * Claves de todos los alcances que deben tener contadores materializados:
+     * global, cada regional y cada institución.
+     */
+    @Transactional(readOnly = true)
+    public List<String> getAllScopeKeys() {
+        List<String> scopeKeys = new ArrayList<>();
+        scopeKeys.add(DashboardCounterEntity.GLOBAL_KEY);
+        counterRepository.findAllRegionalIds()
+                .forEach(regionalId -> scopeKeys.add(DashboardCounterEntity.regionalKey(regionalId)));
+        counterRepository.findAllInstitutionIds()
+                .forEach(institutionId -> scopeKeys.add(DashboardCounterEntity.institutionKey(institutionId)));
+        return scopeKeys;
+    }
+
+    private DashboardCounterEntity newCounter(String scopeKey) {
+        DashboardCounterEntity counter = DashboardCounterEntity.builder().scopeKey(scopeKey).build();
+        if (scopeKey.startsWith(DashboardCounterEntity.REGIONAL_PREFIX)) {
+            counter.setRegionalId(Long.valueOf(scopeKey.substring(DashboardCounterEntity.REGIONAL_PREFIX.length())));
+        } else if (scopeKey.startsWith(DashboardCounterEntity.INSTITUTION_PREFIX)) {
+            counter.setInstitutionId(Long.valueOf(scopeKey.substring(DashboardCounterEntity.INSTITUTION_PREFIX.length())));
+        }
+        return counter;
+    }
+
+    private static String scopeKeyOf(StatisticsScope scope) {
+        if (scope.isInventorySet()) {
+            return null;
+        }
+        if (scope.regionalId() != null && scope.institutionId() != null) {
+            return null;
+        }
+        if (scope.institutionId() != null) {
+            return DashboardCounterEntity.institutionKey(scope.institutionId());
+        }
+        if (scope.regionalId() != null) {
+            return DashboardCounterEntity.regionalKey(scope.regionalId());
+        }
+        return DashboardCounterEntity.GLOBAL_KEY;
+    }
+
+    private static List<String> scopeKeysOf(CounterScope scope) {
+        List<String> scopeKeys = new ArrayList<>(2);
+        if (scope.getInstitutionId() != null) {
+            scopeKeys.add(DashboardCounterEntity.institutionKey(scope.getInstitutionId()));
+        }
+        if (scope.getRegionalId() != null) {
+            scopeKeys.add(DashboardCounterEntity.regionalKey(scope.getRegionalId()));
+        }
+        return scopeKeys;
+    }
+
+    private PendingDeltas currentPendingDeltas() {
+        PendingDeltas pending = (PendingDeltas) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingDeltas();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    /**
+     * Deltas acumulados en la transacción actual, agrupados por alcance.
+     * Se aplican en beforeCommit en orden de clave para que todas las transacciones
+     * bloqueen las filas de contadores en el mismo orden.
+     */
+    private class PendingDeltas implements TransactionSynchronization {
+
+        private final Map<String, CounterDelta> deltas = new TreeMap<>();
+        private final Map<Long, List<String>> inventoryScopeKeys = new HashMap<>();
+        private final Set<Long> changedInstitutionIds = new HashSet<>();
+        private final Set<String> staleScopeKeys = new HashSet<>();
+
+        void add(String scopeKey, CounterDelta delta) {
+            deltas.merge(scopeKey, delta, CounterDelta::plus);
+            if (scopeKey.startsWith(DashboardCounterEntity.INSTITUTION_PREFIX)) {
+                changedInstitutionIds.add(Long.valueOf(scopeKey.substring(DashboardCounterEntity.INSTITUTION_PREFIX.length())));
+            }
+        }
+
+        List<String> scopeKeysOf(Long inventoryId) {
+            return inventoryScopeKeys.computeIfAbsent(inventoryId, id ->
+                    counterRepository.findScopesByInventoryIds(List.of(id)).stream()
+                            .findFirst()
+                            .map(DashboardCounterService::scopeKeysOf)
+                            .orElse(List.of()));
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            deltas.forEach(counterRepository::applyDelta);
+            deltas.clear();
+        }
+
+        @Override
+        public void afterCommit() {
+            staleScopeKeys.forEach(DashboardCounterService.this::markStale);
+            if (!changedInstitutionIds.isEmpty()) {
+                centersMapService.markChanged(changedInstitutionIds);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DashboardCounterService.this);
+        }
+    }
+
+    private record CounterSnapshot(DashboardCounterEntity scope, CounterDelta previous, ScopedStatistics statistics) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.sgdis.backend.web.service;
+
+import com.sgdis.backend.web.dto.StatisticsScope;
+import com.sgdis.backend.web.repository.SpringDataDashboardStatsRepository;
+import com.sgdis.backend.web.repository.projection.ScopedStatistics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Motor de estadísticas compartido por los dashboards y los endpoints de estadísticas.
+ * Calcula todas las métricas de un alcance en una sola consulta agregada.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScopedStatisticsService {
+
+    private final SpringDataDashboardStatsRepository dashboardStatsRepository;
+
+    @Transactional(readOnly = true)
+    public ScopedStatistics getStatistics(StatisticsScope scope) {
+        log.debug("Calculando estadísticas - RegionalId: {}, InstitutionId: {}, Inventarios: {}",
+                scope.regionalId(), scope.institutionId(), scope.inventoryIds());
+
+        List<Long> inventoryIds = scope.isInventorySet() ? scope.inventoryIds() : List.of();
+        return dashboardStatsRepository.aggregateScope(
+                scope.regionalId(),
+                scope.institutionId(),
+                scope.isInventorySet(),
+                inventoryIds
+        );
+    }
+}
@@ -1,7 +1,7 @@
 // centers-map-integration.js - Integración del mapa de Colombia con la API SENA
 
 // Variables globales
-let regionalsData = [];
+let totalRegionals = 0;
 let centersData = [];
 let currentSelectedDepartment = null;
 let mapInstance = null;
@@ -91,23 +91,24 @@ async function loadMapData() {
     try {
         const token = localStorage.getItem('jwt');
         
-        const [regionalsResponse, centersResponse] = await Promise.all([
-            fetch('/api/v1/regional/map', {
-                method: 'GET',
-                headers: { 'Content-Type': 'application/json' }
-            }),
-            fetch('/api/v1/institutions/map', {
-                method: 'GET',
-                headers: {
-                    'Authorization': `Bearer ${token}`,
-                    'Content-Type': 'application/json'
-                }
-            })
-        ]);
+        // Una sola petición con los datos precalculados del mapa (el navegador la revalida con su ETag)
+        const response = await fetch('/api/v1/dashboard/superadmin/centers-map', {
+            method: 'GET',
+            headers: {
+                'Authorization': `Bearer ${token}`,
+                'Content-Type': 'application/json'
+            }
+        });
 
-        if (regionalsResponse.ok && centersResponse.ok) {
-            regionalsData = await regionalsResponse.json();
-            centersData = await centersResponse.json();
+        if (response.ok) {
+            const centersMap = await response.json();
+            totalRegionals = centersMap.totalRegionals;
+            centersData = centersMap.features.map(feature => ({
+                id: feature.id,
+                latitude: feature.geometry ? feature.geometry.coordinates[1] : null,
+                longitude: feature.geometry ? feature.geometry.coordinates[0] : null,
+                ...feature.properties
+            }));
             
             updateStats();
             initializeMap();
@@ -397,6 +398,21 @@ window.showCenterDetail = function(centerId) {
                         <strong>Departamento:</strong><br>
                         <span style="font-size: 16px; margin-left: 24px;">${center.departamentName || 'N/A'}</span>
                     </div>
+                    <div>
+                        <i class="fas fa-warehouse mr-2"></i>
+                        <strong>Inventarios:</strong><br>
+                        <span style="font-size: 16px; margin-left: 24px;">${(center.totalInventories || 0).toLocaleString('es-CO')}</span>
+                    </div>
+                    <div>
+                        <i class="fas fa-box mr-2"></i>
+                        <strong>Items:</strong><br>
+                        <span style="font-size: 16px; margin-left: 24px;">${(center.totalItems || 0).toLocaleString('es-CO')}</span>
+                    </div>
+                    <div>
+                        <i class="fas fa-dollar-sign mr-2"></i>
+                        <strong>Valor:</strong><br>
+                        <span style="font-size: 16px; margin-left: 24px;">${(center.itemsValue || 0).toLocaleString('es-CO', { style: 'currency', currency: 'COP', maximumFractionDigits: 0 })}</span>
+                    </div>
                 </div>
             </div>
         </div>
@@ -470,7 +486,7 @@ window.showAllCenters = function() {
 // Actualizar estadísticas
 function updateStats() {
     document.getElementById('totalCenters').textContent = centersData.length;
-    document.getElementById('totalRegionals').textContent = regionalsData.length || 33;
+    document.getElementById('totalRegionals').textContent = totalRegionals || 33;
 }
 
 // Utilidades
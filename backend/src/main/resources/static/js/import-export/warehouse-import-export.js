@@ -283,7 +283,9 @@ async function handleImport() {
         clearInterval(progressInterval);
 
         if (response.ok) {
-            const result = await response.json();
+            // La importación corre en segundo plano: esperar a que el trabajo termine
+            const job = await response.json();
+            const result = await waitForBulkUploadJob(job.jobId, headers);
             updateImportProgress(100, 'Completado');
             
             // Hide progress bar immediately
@@ -303,7 +305,7 @@ async function handleImport() {
     } catch (error) {
         clearInterval(progressInterval);
         console.error('Error importing:', error);
-        showErrorToastLocal('Error', 'Error al procesar el archivo');
+        showErrorToastLocal('Error', error.message || 'Error al procesar el archivo');
         progressDiv.classList.add('hidden');
         resetImportProgress();
     } finally {
@@ -312,6 +314,28 @@ async function handleImport() {
     }
 }
 
+// Poll bulk upload job until it finishes; returns the BulkUploadResponse
+async function waitForBulkUploadJob(jobId, headers) {
+    while (true) {
+        await new Promise(resolve => setTimeout(resolve, 1000));
+        const response = await fetch(`/api/v1/items/bulk-upload/jobs/${jobId}`, { headers: headers });
+        if (response.status === 404) {
+            throw new Error('La importación ya no está disponible (expiró o el servidor se reinició). Revise el inventario antes de volver a cargar el archivo');
+        }
+        if (!response.ok) {
+            throw new Error('No se pudo consultar el estado de la importación');
+        }
+        const job = await response.json();
+        if (job.status === 'COMPLETED') {
+            return job.result;
+        }
+        if (job.status === 'FAILED') {
+            throw new Error(job.error || 'Error al procesar el archivo');
+        }
+        updateImportProgress(95, `Procesando datos... ${job.rowsParsed} filas leídas, ${job.rowsInserted} items creados`);
+    }
+}
+
 // Update import progress
 function updateImportProgress(percent, status) {
     const progressBar = document.getElementById('importProgressBar');
@@ -349,6 +349,10 @@ async function populateViewItemModal(item) {
     const imageElements = images
       .map((imgUrl, index) => {
         const escapedUrl = imgUrl.replace(/'/g, "\\'").replace(/"/g, "&quot;");
+        // Versión mediana para el carrusel (si aún no existe se sirve la original)
+        const mediumUrl = imgUrl.startsWith("/uploads/")
+          ? escapedUrl + (imgUrl.includes("?") ? "&" : "?") + "variant=medium"
+          : escapedUrl;
         const doubleEscapedUrl = imgUrl.replace(/'/g, "\\'").replace(/"/g, "&quot;").replace(/\\/g, "\\\\");
         return `
             <div class="absolute inset-0 transition-opacity duration-300 ${
@@ -356,7 +360,7 @@ async function populateViewItemModal(item) {
             }" 
                  id="${carouselId}-img-container-${index}"
                  data-index="${index}">
-              <img src="${escapedUrl}" alt="${productName} - Imagen ${index + 1}" 
+              <img src="${mediumUrl}" alt="${productName} - Imagen ${index + 1}" 
                    class="w-full h-full object-cover"
                    id="${carouselId}-img-${index}"
                    data-index="${index}">
@@ -12,6 +12,8 @@ function createItemImageWithSpinner(imgUrl, alt, className, size = "w-24 h-24",
         </div>`;
     }
 
+    // Miniatura generada por el servidor para las imágenes de /uploads/ (si aún no existe se sirve la original)
+    const thumbUrl = imgUrl.startsWith("/uploads/") ? imgUrl + (imgUrl.includes("?") ? "&" : "?") + "variant=thumb" : imgUrl;
     const uniqueId = "img-" + Math.random().toString(36).substr(2, 9);
     const clickable = itemId ? `cursor-pointer hover:opacity-80 transition-opacity` : '';
     const onClick = itemId ? `onclick="handleItemImageUploadClick(${itemId}, '${uniqueId}')"` : '';
@@ -23,7 +25,7 @@ function createItemImageWithSpinner(imgUrl, alt, className, size = "w-24 h-24",
             <div class="absolute inset-0 flex items-center justify-center bg-gray-100" id="spinner-${uniqueId}">
                 <div class="image-loading-spinner"></div>
             </div>
-            <img src="${imgUrl}" alt="${alt}" class="${className} opacity-0 transition-opacity duration-300" 
+            <img src="${thumbUrl}" alt="${alt}" class="${className} opacity-0 transition-opacity duration-300" 
                  id="img-${uniqueId}"
                  onload="(function() { const img = document.getElementById('img-${uniqueId}'); const spinner = document.getElementById('spinner-${uniqueId}'); if (img) img.classList.remove('opacity-0'); if (spinner) spinner.style.display='none'; })();"
                  ${errorHandler}>
@@ -266,13 +266,15 @@ function createItemImageWithSpinner(imgUrl, alt, className, size = "w-24 h-24",
         </div>`;
     }
 
+    // Miniatura generada por el servidor para las imágenes de /uploads/ (si aún no existe se sirve la original)
+    const thumbUrl = imgUrl.startsWith("/uploads/") ? imgUrl + (imgUrl.includes("?") ? "&" : "?") + "variant=thumb" : imgUrl;
     const uniqueId = "img-" + Math.random().toString(36).substr(2, 9);
     return `
         <div class="relative ${size} ${shape} overflow-hidden">
             <div class="absolute inset-0 flex items-center justify-center bg-gray-100 dark:bg-gray-800" id="spinner-${uniqueId}">
                 <div class="image-loading-spinner"></div>
             </div>
-            <img src="${imgUrl}" alt="${alt}" class="${className} opacity-0 transition-opacity duration-300" 
+            <img src="${thumbUrl}" alt="${alt}" class="${className} opacity-0 transition-opacity duration-300" 
                  id="img-${uniqueId}"
                  onload="(function() { const img = document.getElementById('img-${uniqueId}'); const spinner = document.getElementById('spinner-${uniqueId}'); if (img) img.classList.remove('opacity-0'); if (spinner) spinner.style.display='none'; })();"
                  onerror="this.src='../../svg/box.png'; document.getElementById('spinner-${uniqueId}').style.display='none';">
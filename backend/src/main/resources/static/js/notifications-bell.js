@@ -298,7 +298,9 @@ const NotificationBell = {
             });
 
             if (response && response.ok) {
-                this.notifications = await response.json();
+                // Primera página de no leídas (el endpoint es paginado)
+                const page = await response.json();
+                this.notifications = page.content || [];
                 this.renderNotifications();
             } else if (response && (response.status === 403 || response.status === 401)) {
                 // Token expirado o inválido, intentar refrescar
@@ -605,6 +607,15 @@ const NotificationBell = {
      */
     setupWebSocketListener() {
         window.addEventListener('sgdis-notification', async (event) => {
+            // El servidor publica el contador de no leídas cuando cambia: solo se actualiza el badge
+            if (event.detail.type === 'UNREAD_COUNT') {
+                this.updateBadge(event.detail.data?.count ?? 0);
+                if (this.isOpen) {
+                    this.loadNotifications();
+                }
+                return;
+            }
+
             console.log('Notificación recibida en NotificationBell:', event.detail);
             
             // Actualizar contador y lista
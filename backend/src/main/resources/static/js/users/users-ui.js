@@ -1,3 +1,11 @@
+// Miniatura generada por el servidor para las imágenes de /uploads/ (si aún no existe se sirve la original)
+function thumbnailUrl(imgUrl) {
+  if (!imgUrl || !imgUrl.startsWith("/uploads/")) {
+    return imgUrl;
+  }
+  return imgUrl + (imgUrl.includes("?") ? "&" : "?") + "variant=thumb";
+}
+
 // Helper function to create image with loading spinner
 function createImageWithSpinner(
   imgUrl,
@@ -747,7 +755,7 @@ function updateUsersTable() {
 
       const profileImage = user.imgUrl
         ? createImageWithSpinner(
-            user.imgUrl,
+            thumbnailUrl(user.imgUrl),
             fullName,
             "w-full h-full object-cover border-2 border-gray-200",
             "w-8 h-8",
@@ -1598,7 +1606,7 @@ function updateUsersCards() {
 
       const profileImage = user.imgUrl
         ? createImageWithSpinner(
-            user.imgUrl,
+            thumbnailUrl(user.imgUrl),
             fullName,
             "w-full h-full object-cover border-2 border-gray-200 mx-auto",
             "w-16 h-16",
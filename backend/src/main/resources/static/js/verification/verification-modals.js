@@ -205,7 +205,8 @@ async function loadEvidencePreview(verificationId) {
         const headers = {};
         if (token) headers['Authorization'] = `Bearer ${token}`;
 
-        const response = await fetch(`/api/v1/verifications/${verificationId}/evidence`, {
+        // Vista previa reducida; al hacer clic se abre la imagen original
+        const response = await fetch(`/api/v1/verifications/${verificationId}/evidence?variant=medium`, {
             method: 'GET',
             headers: headers
         });
@@ -121,11 +121,18 @@ class WebSocketNotificationClient {
      * Maneja las notificaciones recibidas
      */
     async handleNotification(notification) {
-        // Mostrar la notificación usando el sistema de notificaciones existente
-        this.showNotification(notification);
-
-        // Reproducir sonido si está disponible
-        await this.playNotificationSound();
+        // El avance de las cargas masivas y el contador de no leídas no se muestran como notificación:
+        // solo se reenvían como evento
+        const silent = notification.type === 'UNREAD_COUNT'
+            || (notification.type === 'BULK_UPLOAD_PROGRESS' && notification.data?.status !== 'COMPLETED'
+                && notification.data?.status !== 'FAILED');
+        if (!silent) {
+            // Mostrar la notificación usando el sistema de notificaciones existente
+            this.showNotification(notification);
+
+            // Reproducir sonido si está disponible
+            await this.playNotificationSound();
+        }
 
         // Disparar evento personalizado para que otros módulos puedan reaccionar
         const event = new CustomEvent('sgdis-notification', {
@@ -0,0 +1,81 @@
+package com.sgdis.backend.auditory.application.service;
+
+import com.sgdis.backend.auditory.application.dto.AuditRecord;
+import com.sgdis.backend.auditory.domain.AuditActionType;
+import com.sgdis.backend.auditory.domain.AuditEntityType;
+import com.sgdis.backend.auditory.infrastructure.repository.JdbcAuditoryRepository;
+import com.sgdis.backend.web.entity.DashboardCounterEntity;
+import com.sgdis.backend.web.repository.SpringDataDashboardCounterRepository;
+import com.sgdis.backend.web.service.CentersMapService;
+import com.sgdis.backend.web.service.DashboardCounterService;
+import com.sgdis.backend.web.service.ScopedStatisticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "auditory.writer.spool-file=target/audit-spool-test.jsonl")
+@Import({AuditLogWriter.class, JdbcAuditoryRepository.class, DashboardCounterService.class, JacksonAutoConfiguration.class})
+class AuditLogWriterTest {
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private SpringDataDashboardCounterRepository counterRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private ScopedStatisticsService scopedStatisticsService;
+
+    @MockitoBean
+    private CentersMapService centersMapService;
+
+    @Test
+    void recordEnqueuedWithFullBufferIsPersistedAfterCommit() {
+        counterRepository.save(DashboardCounterEntity.builder()
+                .scopeKey(DashboardCounterEntity.GLOBAL_KEY)
+                .totalAuditActions(0L)
+                .build());
+        // Buffer que siempre está lleno: la acción se escribe en el hilo que la registra
+        ReflectionTestUtils.setField(auditLogWriter, "buffer", new ArrayBlockingQueue<AuditRecord>(1) {
+            @Override
+            public boolean offer(AuditRecord record) {
+                return false;
+            }
+        });
+
+        transactionTemplate.executeWithoutResult(status -> auditLogWriter.enqueue(new AuditRecord(
+                "Acción de prueba", null, null, null, LocalDateTime.now(), AuditActionType.CREATE,
+                AuditEntityType.ITEM, 1L, null, Set.of())));
+
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM auditories WHERE action = 'Acción de prueba'", Integer.class);
+        assertThat(rows).isEqualTo(1);
+        assertThat(counterRepository.findById(DashboardCounterEntity.GLOBAL_KEY))
+                .hasValueSatisfying(counter -> assertThat(counter.getTotalAuditActions()).isEqualTo(1L));
+    }
+}
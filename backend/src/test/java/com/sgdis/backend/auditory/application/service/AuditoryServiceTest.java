@@ -0,0 +1,47 @@
+package com.sgdis.backend.auditory.application.service;
+
+import com.sgdis.backend.auditory.application.dto.AuditRecord;
+import com.sgdis.backend.auditory.application.dto.RecordActionRequest;
+import com.sgdis.backend.auditory.domain.AuditActionType;
+import com.sgdis.backend.auditory.domain.AuditEntityType;
+import com.sgdis.backend.auditory.infrastructure.repository.JdbcAuditoryRepository;
+import com.sgdis.backend.auditory.infrastructure.repository.SpringDataAuditoryArchiveRepository;
+import com.sgdis.backend.auditory.infrastructure.repository.SpringDataAuditoryRepository;
+import com.sgdis.backend.auth.application.dto.CurrentUser;
+import com.sgdis.backend.auth.application.service.AuthService;
+import com.sgdis.backend.user.domain.Role;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuditoryServiceTest {
+
+    private final AuthService authService = mock(AuthService.class);
+    private final AuditLogWriter auditLogWriter = mock(AuditLogWriter.class);
+
+    private final AuditoryService auditoryService = new AuditoryService(mock(SpringDataAuditoryRepository.class),
+            authService, auditLogWriter, mock(JdbcAuditoryRepository.class), mock(SpringDataAuditoryArchiveRepository.class));
+
+    @Test
+    void recordCapturesTheInstitutionAndRegionalAtActionTime() {
+        when(authService.getCurrentUserSnapshot()).thenReturn(new CurrentUser(7L, Role.WAREHOUSE, 5L, 2L));
+
+        auditoryService.recordAction(RecordActionRequest.builder()
+                .action("Item creado")
+                .actionType(AuditActionType.CREATE)
+                .entityType(AuditEntityType.ITEM)
+                .entityId(10L)
+                .build());
+
+        ArgumentCaptor<AuditRecord> record = ArgumentCaptor.forClass(AuditRecord.class);
+        verify(auditLogWriter).enqueue(record.capture());
+        assertThat(record.getValue().performerId()).isEqualTo(7L);
+        assertThat(record.getValue().institutionId()).isEqualTo(5L);
+        assertThat(record.getValue().regionalId()).isEqualTo(2L);
+        assertThat(record.getValue().entityId()).isEqualTo(10L);
+    }
+}
@@ -0,0 +1,177 @@
+package com.sgdis.backend.file.service;
+
+import com.sgdis.backend.file.infrastructure.repository.SpringDataStoredFileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * El servicio se crea sin proxy: cada prueba define la transacción con {@link TransactionTemplate}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FileUploadServiceTest {
+
+    @Autowired
+    private SpringDataStoredFileRepository storedFileRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @TempDir
+    private Path root;
+
+    private FileUploadService fileUploadService;
+
+    @BeforeEach
+    void setUp() {
+        storedFileRepository.deleteAll();
+        fileUploadService = new FileUploadService(storedFileRepository, mock(ImageVariantService.class));
+        ReflectionTestUtils.setField(fileUploadService, "rootLocation", root);
+        ReflectionTestUtils.setField(fileUploadService, "blobLocation", root.resolve("blobs"));
+        ReflectionTestUtils.setField(fileUploadService, "tempLocation", root.resolve(".tmp"));
+        fileUploadService.init();
+    }
+
+    @Test
+    void sameContentIsStoredOnceUntilTheLastUrlIsDeleted() throws IOException {
+        String first = inTransaction(() -> fileUploadService.saveInventoryFile(file("a.pdf", "contenido"), "inv-1"));
+        String second = inTransaction(() -> fileUploadService.saveLoanDocument(file("b.pdf", "contenido"), 7L));
+
+        assertThat(read(first)).isEqualTo("contenido");
+        assertThat(read(second)).isEqualTo("contenido");
+        assertThat(blobs()).hasSize(1);
+
+        deleteInTransaction(first);
+        assertThat(Files.exists(urlPath(first))).isFalse();
+        assertThat(blobs()).hasSize(1);
+        assertThat(read(second)).isEqualTo("contenido");
+
+        deleteInTransaction(second);
+        assertThat(blobs()).isEmpty();
+        assertThat(storedFileRepository.count()).isZero();
+    }
+
+    @Test
+    void rolledBackUploadLeavesNoFiles() throws IOException {
+        transactionTemplate.executeWithoutResult(status -> {
+            call(() -> fileUploadService.saveInventoryFile(file("a.pdf", "contenido"), "inv-1"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(storedFileRepository.count()).isZero();
+        assertThat(Files.exists(root.resolve("inventories/inv-1/inventory.pdf"))).isFalse();
+        assertThat(blobs()).isEmpty();
+        try (Stream<Path> temps = Files.list(root.resolve(".tmp"))) {
+            assertThat(temps).isEmpty();
+        }
+    }
+
+    @Test
+    void rolledBackDeleteKeepsTheFile() throws IOException {
+        String url = inTransaction(() -> fileUploadService.saveInventoryFile(file("a.pdf", "contenido"), "inv-1"));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            call(() -> {
+                fileUploadService.deleteFile(url);
+                return null;
+            });
+            status.setRollbackOnly();
+        });
+
+        assertThat(read(url)).isEqualTo("contenido");
+        assertThat(blobs()).hasSize(1);
+    }
+
+    @Test
+    void uncommittedUploadSurvivesConcurrentReleaseOfTheSameContent() throws IOException {
+        String existing = inTransaction(() -> fileUploadService.saveInventoryFile(file("a.pdf", "contenido"), "inv-1"));
+
+        String uploaded = transactionTemplate.execute(status -> {
+            String url = call(() -> fileUploadService.saveLoanDocument(file("b.pdf", "contenido"), 7L));
+            // Otra transacción elimina la única URL confirmada con el mismo contenido
+            CompletableFuture.runAsync(() -> deleteInTransaction(existing)).join();
+            assertThat(blobs()).isEmpty();
+            return url;
+        });
+
+        assertThat(read(uploaded)).isEqualTo("contenido");
+        assertThat(blobs()).hasSize(1);
+    }
+
+    @Test
+    void replacedContentIsReleasedAfterCommit() throws IOException {
+        String url = inTransaction(() -> fileUploadService.saveInventoryFile(file("a.pdf", "versión 1"), "inv-1"));
+        List<Path> before = blobs();
+
+        inTransaction(() -> fileUploadService.saveInventoryFile(file("a.pdf", "versión 2"), "inv-1"));
+
+        assertThat(read(url)).isEqualTo("versión 2");
+        assertThat(blobs()).hasSize(1).doesNotContainAnyElementsOf(before);
+    }
+
+    private void deleteInTransaction(String url) {
+        inTransaction(() -> {
+            fileUploadService.deleteFile(url);
+            return null;
+        });
+    }
+
+    private <T> T inTransaction(IoCall<T> action) {
+        return transactionTemplate.execute(status -> call(action));
+    }
+
+    private static <T> T call(IoCall<T> action) {
+        try {
+            return action.call();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String read(String url) throws IOException {
+        return Files.readString(urlPath(url), StandardCharsets.UTF_8);
+    }
+
+    private Path urlPath(String url) {
+        return root.resolve(url.substring("/uploads/".length()));
+    }
+
+    private List<Path> blobs() {
+        try (Stream<Path> files = Files.walk(root.resolve("blobs"))) {
+            return files.filter(Files::isRegularFile).toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MockMultipartFile file(String name, String content) {
+        return new MockMultipartFile("file", name, "application/pdf", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @FunctionalInterface
+    private interface IoCall<T> {
+        T call() throws IOException;
+    }
+}
@@ -0,0 +1,135 @@
+package com.sgdis.backend.item.application.service;
+
+import com.sgdis.backend.auth.application.service.AuthService;
+import com.sgdis.backend.data.regional.repositories.SpringDataRegionalRepository;
+import com.sgdis.backend.institution.infrastructure.entity.InstitutionEntity;
+import com.sgdis.backend.institution.infrastructure.repository.SpringDataInstitutionRepository;
+import com.sgdis.backend.inventory.infrastructure.entity.InventoryEntity;
+import com.sgdis.backend.inventory.infrastructure.repository.SpringDataInventoryRepository;
+import com.sgdis.backend.item.infrastructure.repository.SpringDataItemRepository;
+import com.sgdis.backend.item.infrastructure.repository.projection.ItemExportRow;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExcelExportServiceTest {
+
+    private static final int PAGE_SIZE = 3;
+
+    private final SpringDataItemRepository itemRepository = mock(SpringDataItemRepository.class);
+    private final SpringDataInventoryRepository inventoryRepository = mock(SpringDataInventoryRepository.class);
+
+    // Hilos en los que se consultaron las páginas
+    private final Set<String> queryThreads = ConcurrentHashMap.newKeySet();
+
+    private ExcelExportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ExcelExportService(itemRepository, inventoryRepository,
+                mock(SpringDataInstitutionRepository.class), mock(SpringDataRegionalRepository.class),
+                mock(AuthService.class));
+        ReflectionTestUtils.setField(service, "pageSize", PAGE_SIZE);
+        ReflectionTestUtils.setField(service, "maxParallelSheets", 2);
+        service.initExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdownExecutor();
+    }
+
+    @Test
+    void institutionExportWritesOneSheetPerInventoryInOrder() throws Exception {
+        List<InventoryEntity> inventories = List.of(inventory(1L, "Bodega"), inventory(2L, "Oficina"), inventory(3L, "Vacío"));
+        when(inventoryRepository.findByInstitutionIdWithRegional(10L)).thenReturn(inventories);
+        // 7 items (tres páginas), 3 items (página llena seguida de una vacía) y ninguno
+        stubItems(1L, 100L, 7);
+        stubItems(2L, 200L, 3);
+        stubItems(3L, 300L, 0);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportInstitutionItemsToExcel(10L, out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertThat(workbook.getNumberOfSheets()).isEqualTo(3);
+            assertThat(workbook.getSheetName(0)).isEqualTo("1 - Bodega");
+            assertThat(workbook.getSheetName(1)).isEqualTo("2 - Oficina");
+            assertThat(workbook.getSheetName(2)).isEqualTo("3 - Vacío");
+
+            assertThat(plates(workbook.getSheetAt(0))).containsExactly("P101", "P102", "P103", "P104", "P105", "P106", "P107");
+            assertThat(plates(workbook.getSheetAt(1))).containsExactly("P201", "P202", "P203");
+            assertThat(plates(workbook.getSheetAt(2))).isEmpty();
+            assertThat(workbook.getSheetAt(0).getRow(1).getCell(2).getStringCellValue()).isEqualTo("C-10");
+        }
+        assertThat(queryThreads).allMatch(name -> name.startsWith("excel-export-"));
+    }
+
+    @Test
+    void failedQueryPropagatesInsteadOfWaitingForPages() {
+        when(inventoryRepository.findByRegionalIdWithInstitution(5L))
+                .thenReturn(List.of(inventory(1L, "Bodega"), inventory(2L, "Oficina")));
+        stubItems(1L, 100L, 2);
+        when(itemRepository.findExportRowsAfter(eq(2L), anyLong(), any(Pageable.class)))
+                .thenThrow(new IllegalStateException("consulta fallida"));
+
+        assertThatThrownBy(() -> service.exportRegionalItemsToExcel(5L, new ByteArrayOutputStream()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("consulta fallida");
+    }
+
+    private void stubItems(Long inventoryId, long firstId, int count) {
+        List<ItemExportRow> items = LongStream.range(0, count).mapToObj(i -> item(firstId + i + 1)).toList();
+        when(itemRepository.findExportRowsAfter(eq(inventoryId), anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            queryThreads.add(Thread.currentThread().getName());
+            long afterId = invocation.getArgument(1);
+            Pageable pageable = invocation.getArgument(2);
+            return items.stream().filter(item -> item.getId() > afterId).limit(pageable.getPageSize()).toList();
+        });
+    }
+
+    private static ItemExportRow item(long id) {
+        ItemExportRow row = mock(ItemExportRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getLicencePlateNumber()).thenReturn("P" + id);
+        return row;
+    }
+
+    private static InventoryEntity inventory(Long id, String name) {
+        InventoryEntity inventory = new InventoryEntity();
+        inventory.setId(id);
+        inventory.setName(name);
+        InstitutionEntity institution = new InstitutionEntity();
+        institution.setCodeInstitution("C-10");
+        inventory.setInstitution(institution);
+        return inventory;
+    }
+
+    private static List<String> plates(Sheet sheet) {
+        List<String> plates = new ArrayList<>();
+        for (int i = 1; i <= sheet.getLastRowNum(); i++) {
+            plates.add(sheet.getRow(i).getCell(4).getStringCellValue());
+        }
+        return plates;
+    }
+}
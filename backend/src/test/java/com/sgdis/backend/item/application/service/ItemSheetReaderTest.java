@@ -0,0 +1,125 @@
+package com.sgdis.backend.item.application.service;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ItemSheetReaderTest {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void sharedStringsAndDateStyledNumbersAreRead() throws Exception {
+        Path file = write("shared.xlsx", new XSSFWorkbook());
+
+        List<ItemSheetReader.SheetRow> rows = read(file, true);
+
+        assertThat(rows).extracting(ItemSheetReader.SheetRow::getIndex).containsExactly(0, 1, 4);
+        ItemSheetReader.SheetRow first = rows.get(1);
+        assertThat(first.getString(0)).isEqualTo("Placa 1");
+        assertThat(first.getDate(1)).isEqualTo(LocalDate.of(2024, 3, 15));
+        // Un número sin formato de fecha no se interpreta como fecha
+        assertThat(first.getDate(2)).isNull();
+        assertThat(first.getDouble(2)).isEqualTo(1250.5);
+        assertThat(first.getString(3)).isEqualTo("42");
+    }
+
+    @Test
+    void inlineStringsAreRead() throws Exception {
+        // SXSSF escribe los textos como inlineStr en lugar de la tabla compartida
+        SXSSFWorkbook workbook = new SXSSFWorkbook();
+        Path file = write("inline.xlsx", workbook);
+        workbook.dispose();
+
+        List<ItemSheetReader.SheetRow> rows = read(file, true);
+
+        assertThat(rows.get(1).getString(0)).isEqualTo("Placa 1");
+        assertThat(rows.get(2).getString(5)).isEqualTo("$6.230.000,00");
+        assertThat(rows.get(2).getDouble(5)).isEqualTo(6_230_000.0);
+    }
+
+    @Test
+    void sparseCellsKeepTheirColumnAndRowIndexes() throws Exception {
+        Path file = write("sparse.xlsx", new XSSFWorkbook());
+
+        ItemSheetReader.SheetRow sparse = read(file, true).get(2);
+
+        assertThat(sparse.getIndex()).isEqualTo(4);
+        assertThat(sparse.getString(0)).isNull();
+        assertThat(sparse.getString(4)).isNull();
+        assertThat(sparse.getString(5)).isEqualTo("$6.230.000,00");
+        assertThat(sparse.getString(15)).isEqualTo("Bodega 3");
+        assertThat(sparse.getString(16)).isEqualTo("true");
+    }
+
+    @Test
+    void xlsFilesAreReadWithTheSameCells() throws Exception {
+        Path file = write("legacy.xls", new HSSFWorkbook());
+
+        List<ItemSheetReader.SheetRow> rows = read(file, false);
+
+        assertThat(rows).extracting(ItemSheetReader.SheetRow::getIndex).containsExactly(0, 1, 4);
+        assertThat(rows.get(1).getDate(1)).isEqualTo(LocalDate.of(2024, 3, 15));
+        assertThat(rows.get(2).getString(15)).isEqualTo("Bodega 3");
+    }
+
+    @Test
+    void fileThatIsNotAnExcelFails() throws Exception {
+        Path file = Files.writeString(dir.resolve("broken.xlsx"), "no es un zip");
+
+        assertThatThrownBy(() -> read(file, true)).isInstanceOf(Exception.class);
+    }
+
+    /**
+     * Hoja con encabezado, una fila completa en la fila 2 y una fila dispersa en la fila 5.
+     */
+    private Path write(String name, Workbook workbook) throws Exception {
+        Sheet sheet = workbook.createSheet("Items");
+        CellStyle dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd/mm/yyyy"));
+
+        sheet.createRow(0).createCell(0).setCellValue("Placa");
+
+        Row first = sheet.createRow(1);
+        first.createCell(0).setCellValue("Placa 1");
+        first.createCell(1).setCellValue(LocalDate.of(2024, 3, 15));
+        first.getCell(1).setCellStyle(dateStyle);
+        first.createCell(2).setCellValue(1250.5);
+        first.createCell(3).setCellValue(42);
+
+        Row sparse = sheet.createRow(4);
+        sparse.createCell(5).setCellValue("$6.230.000,00");
+        sparse.createCell(15).setCellValue("Bodega 3");
+        sparse.createCell(16).setCellValue(true);
+
+        Path file = dir.resolve(name);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            workbook.write(out);
+        }
+        workbook.close();
+        return file;
+    }
+
+    private static List<ItemSheetReader.SheetRow> read(Path file, boolean xlsx) throws Exception {
+        List<ItemSheetReader.SheetRow> rows = new ArrayList<>();
+        ItemSheetReader.read(file, xlsx, rows::add);
+        return rows;
+    }
+}
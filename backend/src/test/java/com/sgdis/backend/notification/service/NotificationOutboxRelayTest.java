@@ -0,0 +1,202 @@
+package com.sgdis.backend.notification.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sgdis.backend.notification.domain.NotificationOutboxStatus;
+import com.sgdis.backend.notification.dto.NotificationMessage;
+import com.sgdis.backend.notification.infrastructure.entity.NotificationOutboxEntity;
+import com.sgdis.backend.notification.infrastructure.repository.JdbcNotificationRepository;
+import com.sgdis.backend.notification.infrastructure.repository.SpringDataNotificationOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({NotificationOutboxRelay.class, JacksonAutoConfiguration.class})
+// La ejecución programada solo corre al iniciar el contexto; los tests llaman al relay directamente
+@TestPropertySource(properties = {
+        "notifications.outbox.relay-interval-ms=3600000",
+        "notifications.outbox.max-attempts=3",
+        "notifications.outbox.retry-base-delay-ms=60000",
+        "notifications.outbox.retry-max-delay-ms=90000"
+})
+class NotificationOutboxRelayTest {
+
+    private static final String ITEM_DATA =
+            "{\"itemId\":%d,\"itemName\":\"Silla\",\"inventoryId\":15,\"inventoryName\":\"Bodega\"}";
+
+    @Autowired
+    private NotificationOutboxRelay relay;
+
+    @Autowired
+    private SpringDataNotificationOutboxRepository outboxRepository;
+
+    @MockitoBean
+    private JdbcNotificationRepository jdbcNotificationRepository;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @MockitoBean
+    private NotificationUnreadCountService unreadCountService;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void digestKeepsTheOriginalDataAndAddsTheCount() {
+        outboxRepository.saveAll(List.of(itemCreated("1,2", 1), itemCreated("1", 2)));
+
+        relay.relay();
+
+        ArgumentCaptor<NotificationMessage> digest = ArgumentCaptor.forClass(NotificationMessage.class);
+        verify(notificationService).deliverToUser(eq(1L), digest.capture());
+        assertThat(digest.getValue().type()).isEqualTo("ITEM_CREATED");
+        assertThat(digest.getValue().message()).isEqualTo("Se han creado 2 items en el inventario 'Bodega'");
+        JsonNode data = (JsonNode) digest.getValue().data();
+        assertThat(data.get("count").asInt()).isEqualTo(2);
+        assertThat(data.get("itemId").asLong()).isEqualTo(2L);
+        assertThat(data.get("inventoryId").asLong()).isEqualTo(15L);
+        assertThat(data.get("inventoryName").asText()).isEqualTo("Bodega");
+    }
+
+    @Test
+    void singleEventIsDeliveredUnchanged() {
+        outboxRepository.saveAll(List.of(itemCreated("1,2", 1), itemCreated("1", 2)));
+
+        relay.relay();
+
+        ArgumentCaptor<NotificationMessage> single = ArgumentCaptor.forClass(NotificationMessage.class);
+        verify(notificationService, times(1)).deliverToUser(eq(2L), single.capture());
+        assertThat(single.getValue().message()).isEqualTo("Se ha creado el item 'Silla' en el inventario 'Bodega'");
+        JsonNode data = (JsonNode) single.getValue().data();
+        assertThat(data.get("itemId").asLong()).isEqualTo(1L);
+        assertThat(data.has("count")).isFalse();
+        assertThat(outboxRepository.findAll())
+                .filteredOn(entry -> entry.getDigestKey() != null)
+                .extracting(NotificationOutboxEntity::getStatus)
+                .containsOnly(NotificationOutboxStatus.MERGED);
+    }
+
+    @Test
+    void failedDeliveryIsRetriedWithBackoffWithoutSavingTheNotificationAgain() {
+        doThrow(new IllegalStateException("broker caído")).when(notificationService).deliverToUser(any(), any());
+        Long id = outboxRepository.save(notification("7")).getId();
+
+        LocalDateTime before = LocalDateTime.now();
+        relay.relay();
+
+        NotificationOutboxEntity entry = outboxRepository.findById(id).orElseThrow();
+        assertThat(entry.getStatus()).isEqualTo(NotificationOutboxStatus.PENDING);
+        assertThat(entry.getAttempts()).isEqualTo(1);
+        assertThat(entry.isPersisted()).isTrue();
+        assertThat(entry.getLastError()).isEqualTo("broker caído");
+        assertThat(entry.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(60));
+
+        // Antes de la espera no se vuelve a intentar
+        relay.relay();
+        verify(notificationService, times(1)).deliverToUser(eq(7L), any());
+
+        // El segundo intento duplica la espera, limitada por el máximo
+        makeDue(id);
+        before = LocalDateTime.now();
+        relay.relay();
+
+        entry = outboxRepository.findById(id).orElseThrow();
+        assertThat(entry.getAttempts()).isEqualTo(2);
+        assertThat(entry.getNextAttemptAt())
+                .isAfterOrEqualTo(before.plusSeconds(90))
+                .isBefore(before.plusSeconds(120));
+        verify(jdbcNotificationRepository, times(1)).insertForUsers(anyList(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void deliveryIsMarkedFailedAfterTheMaximumAttempts() {
+        doThrow(new IllegalStateException("broker caído")).when(notificationService).deliverToUser(any(), any());
+        NotificationOutboxEntity pending = notification("7");
+        pending.setAttempts(2);
+        pending.setPersisted(true);
+        Long id = outboxRepository.save(pending).getId();
+
+        relay.relay();
+
+        NotificationOutboxEntity entry = outboxRepository.findById(id).orElseThrow();
+        assertThat(entry.getStatus()).isEqualTo(NotificationOutboxStatus.FAILED);
+        assertThat(entry.getAttempts()).isEqualTo(3);
+        verify(jdbcNotificationRepository, times(0)).insertForUsers(anyList(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void retriedDeliveryIsMarkedDelivered() {
+        doThrow(new IllegalStateException("broker caído")).when(notificationService).deliverToUser(any(), any());
+        Long id = outboxRepository.save(notification("7")).getId();
+        relay.relay();
+
+        reset(notificationService);
+        makeDue(id);
+        relay.relay();
+
+        NotificationOutboxEntity entry = outboxRepository.findById(id).orElseThrow();
+        assertThat(entry.getStatus()).isEqualTo(NotificationOutboxStatus.DELIVERED);
+        assertThat(entry.getLastError()).isNull();
+        verify(notificationService).deliverToUser(eq(7L), any());
+    }
+
+    private void makeDue(Long id) {
+        NotificationOutboxEntity entry = outboxRepository.findById(id).orElseThrow();
+        entry.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxRepository.save(entry);
+    }
+
+    private static NotificationOutboxEntity notification(String recipientIds) {
+        LocalDateTime now = LocalDateTime.now();
+        return NotificationOutboxEntity.builder()
+                .recipientIds(recipientIds)
+                .type("INVENTORY_ASSIGNED")
+                .title("Inventario Asignado")
+                .message("Se le ha asignado el inventario 'Bodega'")
+                .nextAttemptAt(now.minusSeconds(1))
+                .createdAt(now)
+                .build();
+    }
+
+    private static NotificationOutboxEntity itemCreated(String recipientIds, long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        return NotificationOutboxEntity.builder()
+                .recipientIds(recipientIds)
+                .type("ITEM_CREATED")
+                .title("Nuevo Item Creado")
+                .message("Se ha creado el item 'Silla' en el inventario 'Bodega'")
+                .dataJson(String.format(ITEM_DATA, itemId))
+                .digestKey("ITEM_CREATED:15")
+                .digestTitle("Nuevos Items Creados")
+                .digestMessage("Se han creado {count} items en el inventario 'Bodega'")
+                .nextAttemptAt(now.minusSeconds(1))
+                .createdAt(now)
+                .build();
+    }
+}
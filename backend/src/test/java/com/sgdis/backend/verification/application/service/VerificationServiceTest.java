@@ -0,0 +1,94 @@
+package com.sgdis.backend.verification.application.service;
+
+import com.sgdis.backend.auth.application.service.AuthService;
+import com.sgdis.backend.file.service.FileUploadService;
+import com.sgdis.backend.verification.application.dto.VerificationCursorResponse;
+import com.sgdis.backend.verification.application.dto.VerificationResponse;
+import com.sgdis.backend.verification.infrastructure.entity.VerificationEntity;
+import com.sgdis.backend.verification.infrastructure.repository.SpringDataVerificationRepository;
+import com.sgdis.backend.web.service.DashboardCounterService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(VerificationService.class)
+class VerificationServiceTest {
+
+    @Autowired
+    private VerificationService verificationService;
+
+    @Autowired
+    private SpringDataVerificationRepository verificationRepository;
+
+    @MockitoBean
+    private AuthService authService;
+
+    @MockitoBean
+    private FileUploadService fileUploadService;
+
+    @MockitoBean
+    private DashboardCounterService dashboardCounterService;
+
+    private List<Long> idsNewestFirst;
+
+    @BeforeEach
+    void setUp() {
+        verificationRepository.deleteAll();
+        idsNewestFirst = IntStream.range(0, 5)
+                .mapToObj(i -> verificationRepository.save(VerificationEntity.builder().photoUrl("/uploads/v" + i + ".jpg").build()).getId())
+                .sorted((a, b) -> Long.compare(b, a))
+                .toList();
+    }
+
+    @Test
+    void cursorWalksEveryVerificationNewestFirst() {
+        VerificationCursorResponse first = verificationService.listVerifications(null, 2);
+        assertThat(ids(first)).containsExactlyElementsOf(idsNewestFirst.subList(0, 2));
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(first.getNextId()).isEqualTo(idsNewestFirst.get(1));
+
+        VerificationCursorResponse second = verificationService.listVerifications(first.getNextId(), 2);
+        assertThat(ids(second)).containsExactlyElementsOf(idsNewestFirst.subList(2, 4));
+        assertThat(second.isHasMore()).isTrue();
+
+        VerificationCursorResponse last = verificationService.listVerifications(second.getNextId(), 2);
+        assertThat(ids(last)).containsExactly(idsNewestFirst.get(4));
+        assertThat(last.isHasMore()).isFalse();
+        assertThat(last.getNextId()).isNull();
+    }
+
+    @Test
+    void fullLastPageReportsNoMoreVerifications() {
+        VerificationCursorResponse page = verificationService.listVerifications(idsNewestFirst.get(2), 2);
+
+        assertThat(ids(page)).containsExactlyElementsOf(idsNewestFirst.subList(3, 5));
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextId()).isNull();
+    }
+
+    @Test
+    void pageSizeIsClampedToAtLeastOne() {
+        VerificationCursorResponse page = verificationService.listVerifications(null, 0);
+
+        assertThat(ids(page)).containsExactly(idsNewestFirst.get(0));
+        assertThat(page.isHasMore()).isTrue();
+    }
+
+    private static List<Long> ids(VerificationCursorResponse response) {
+        return response.getVerifications().stream().map(VerificationResponse::id).toList();
+    }
+}
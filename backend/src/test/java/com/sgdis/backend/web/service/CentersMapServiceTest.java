@@ -0,0 +1,35 @@
+package com.sgdis.backend.web.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sgdis.backend.web.repository.SpringDataCentersMapRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CentersMapServiceTest {
+
+    private final SpringDataCentersMapRepository centersMapRepository = mock(SpringDataCentersMapRepository.class);
+
+    private final CentersMapService centersMapService = new CentersMapService(centersMapRepository, new ObjectMapper());
+
+    @Test
+    void regionalsAreRecountedWhenTheMapIsRebuilt() {
+        when(centersMapRepository.findAllCenterMapRows()).thenReturn(List.of());
+        when(centersMapRepository.findCenterMapRows(anyCollection())).thenReturn(List.of());
+        when(centersMapRepository.countRegionals()).thenReturn(3L, 4L);
+
+        CentersMapService.CentersMap first = centersMapService.getCentersMap();
+        centersMapService.markChanged(List.of(1L));
+        CentersMapService.CentersMap second = centersMapService.getCentersMap();
+
+        assertThat(first.payload().totalRegionals()).isEqualTo(3L);
+        assertThat(second.payload().totalRegionals()).isEqualTo(4L);
+        assertThat(second.payload().version()).isGreaterThan(first.payload().version());
+        assertThat(second.etag()).isNotEqualTo(first.etag());
+    }
+}
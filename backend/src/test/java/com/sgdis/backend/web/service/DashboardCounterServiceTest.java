@@ -0,0 +1,141 @@
+package com.sgdis.backend.web.service;
+
+import com.sgdis.backend.web.dto.CounterDelta;
+import com.sgdis.backend.web.entity.DashboardCounterEntity;
+import com.sgdis.backend.web.repository.SpringDataDashboardCounterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(DashboardCounterService.class)
+class DashboardCounterServiceTest {
+
+    private static final String INSTITUTION_KEY = DashboardCounterEntity.institutionKey(5L);
+    private static final String REGIONAL_KEY = DashboardCounterEntity.regionalKey(2L);
+
+    @Autowired
+    private DashboardCounterService dashboardCounterService;
+
+    @Autowired
+    private SpringDataDashboardCounterRepository counterRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private ScopedStatisticsService scopedStatisticsService;
+
+    @MockitoBean
+    private CentersMapService centersMapService;
+
+    @BeforeEach
+    void setUp() {
+        counterRepository.deleteAll();
+        counterRepository.saveAll(List.of(
+                counter(DashboardCounterEntity.GLOBAL_KEY, null, null, 10),
+                counter(INSTITUTION_KEY, null, 5L, 4),
+                counter(REGIONAL_KEY, 2L, null, 6)));
+        dashboardCounterService.takeStaleScopeKeys();
+    }
+
+    @Test
+    void deltasAreAppliedToEveryScopeOnCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            dashboardCounterService.applyToInstitution(5L, 2L, CounterDelta.builder().totalItems(3).build());
+            dashboardCounterService.applyToInstitution(5L, 2L, CounterDelta.builder().totalItems(1).build());
+        });
+
+        assertThat(totalItems(DashboardCounterEntity.GLOBAL_KEY)).isEqualTo(14L);
+        assertThat(totalItems(INSTITUTION_KEY)).isEqualTo(8L);
+        assertThat(totalItems(REGIONAL_KEY)).isEqualTo(10L);
+        verify(centersMapService).markChanged(any());
+    }
+
+    @Test
+    void deltasOfARolledBackTransactionAreDiscarded() {
+        transactionTemplate.executeWithoutResult(status -> {
+            dashboardCounterService.applyToInstitution(5L, 2L, CounterDelta.builder().totalItems(3).build());
+            status.setRollbackOnly();
+        });
+
+        assertThat(totalItems(DashboardCounterEntity.GLOBAL_KEY)).isEqualTo(10L);
+        assertThat(totalItems(INSTITUTION_KEY)).isEqualTo(4L);
+    }
+
+    @Test
+    void refreshMarksScopesStaleOnlyAfterCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            dashboardCounterService.refreshRegional(2L);
+            assertThat(dashboardCounterService.takeStaleScopeKeys()).isEmpty();
+        });
+        assertThat(dashboardCounterService.takeStaleScopeKeys())
+                .containsExactly(DashboardCounterEntity.GLOBAL_KEY, REGIONAL_KEY);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            dashboardCounterService.refreshRegional(2L);
+            status.setRollbackOnly();
+        });
+        assertThat(dashboardCounterService.takeStaleScopeKeys()).isEmpty();
+    }
+
+    @Test
+    void recalculationKeepsDeltasCommittedWhileTheAggregateRuns() {
+        when(scopedStatisticsService.getStatistics(any())).thenAnswer(invocation -> {
+            // Otra transacción confirma un delta mientras corre el motor agregado: no debe bloquearse ni perderse
+            Thread writer = new Thread(() -> transactionTemplate.executeWithoutResult(status ->
+                    dashboardCounterService.applyToInstitution(null, null, CounterDelta.builder().totalItems(5).build())));
+            writer.start();
+            writer.join(10_000);
+            assertThat(writer.isAlive()).isFalse();
+            return counter(DashboardCounterEntity.GLOBAL_KEY, null, null, 12);
+        });
+
+        dashboardCounterService.refresh(DashboardCounterEntity.GLOBAL_KEY, false);
+
+        assertThat(totalItems(DashboardCounterEntity.GLOBAL_KEY)).isEqualTo(17L);
+    }
+
+    @Test
+    void recalculationCreatesMissingRowsOnlyWhenAsked() {
+        when(scopedStatisticsService.getStatistics(any()))
+                .thenReturn(counter(DashboardCounterEntity.institutionKey(9L), null, 9L, 7));
+
+        dashboardCounterService.refresh(DashboardCounterEntity.institutionKey(9L), false);
+        assertThat(counterRepository.findById(DashboardCounterEntity.institutionKey(9L))).isEmpty();
+
+        dashboardCounterService.refresh(DashboardCounterEntity.institutionKey(9L), true);
+        assertThat(totalItems(DashboardCounterEntity.institutionKey(9L))).isEqualTo(7L);
+        assertThat(counterRepository.findById(DashboardCounterEntity.institutionKey(9L)))
+                .hasValueSatisfying(counter -> assertThat(counter.getInstitutionId()).isEqualTo(9L));
+    }
+
+    private Long totalItems(String scopeKey) {
+        return counterRepository.findById(scopeKey).orElseThrow().getTotalItems();
+    }
+
+    private static DashboardCounterEntity counter(String scopeKey, Long regionalId, Long institutionId, long totalItems) {
+        return DashboardCounterEntity.builder()
+                .scopeKey(scopeKey)
+                .regionalId(regionalId)
+                .institutionId(institutionId)
+                .totalItems(totalItems)
+                .build();
+    }
+}